@@ -0,0 +1,181 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.gorm
+
+import org.codehaus.groovy.grails.orm.hibernate.AbstractGrailsHibernateTests
+
+/**
+ * Sets up the Hibernate plugin of the GORM tests against the in-memory HSQLDB database for the GORM benchmarks
+ * and populates it. The operations are written in Groovy so that they go through the same dynamic dispatch
+ * as application code does.
+ *
+ * Saves run in a transaction that is rolled back, so that the table doesn't grow between iterations, and the
+ * session is cleared after each read, so that entities are loaded from the database rather than the session.
+ *
+ * @since 1.2
+ */
+class GormFixture extends AbstractGrailsHibernateTests {
+
+    static final LAST_NAMES = ["Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Johnson", "Davies",
+                               "Robinson", "Wright", "Thompson", "Evans", "Walker", "White", "Roberts", "Green",
+                               "Hall", "Wood", "Jackson", "Clarke"]
+
+    List ids = []
+    private int counter
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class BenchmarkPerson {
+    Long id
+    Long version
+    String firstName
+    String lastName
+    Integer age
+    String email
+    Date dateCreated
+    Date lastUpdated
+
+    def benchmarkService
+
+    def beforeInsert = {
+        email = email?.toLowerCase()
+    }
+
+    def afterLoad = {
+        benchmarkService?.loaded()
+    }
+
+    static constraints = {
+        firstName blank: false
+        lastName blank: false
+        age min: 0, max: 150
+        email email: true, unique: true
+    }
+}
+
+class BenchmarkService {
+    boolean transactional = false
+    int loadCount
+    void loaded() { loadCount++ }
+}
+''')
+    }
+
+    void start(int people) {
+        setUp()
+        def personClass = getPersonClass()
+        people.times { i ->
+            def person = personClass.newInstance(firstName: "First$i", lastName: LAST_NAMES[i % LAST_NAMES.size()],
+                                                 age: 18 + (i % 60), email: "person$i@example.org")
+            person.save(flush: (i % 100 == 99))
+            ids << person.id
+        }
+        session.flush()
+        session.clear()
+    }
+
+    void stop() {
+        tearDown()
+    }
+
+    Class getPersonClass() {
+        ga.getDomainClass("BenchmarkPerson").clazz
+    }
+
+    private clearing(Closure callable) {
+        try {
+            callable.call()
+        }
+        finally {
+            session.clear()
+        }
+    }
+
+    private rollingBack(Closure callable) {
+        def tx = session.beginTransaction()
+        try {
+            callable.call()
+        }
+        finally {
+            tx.rollback()
+            session.clear()
+        }
+    }
+
+    private newPerson() {
+        counter++
+        getPersonClass().newInstance(firstName: "New", lastName: "Person", age: 42,
+                                     email: "New.Person$counter@Example.org")
+    }
+
+    def findByLastNameAndAge() {
+        clearing { personClass.findByLastNameAndAge("Taylor", 20) }
+    }
+
+    def findAllByLastName() {
+        clearing { personClass.findAllByLastName("Smith", [max: 20, sort: "firstName"]) }
+    }
+
+    def countByAgeBetween() {
+        clearing { personClass.countByAgeBetween(30, 40) }
+    }
+
+    def criteria() {
+        clearing {
+            personClass.createCriteria().list {
+                eq("lastName", "Jones")
+                between("age", 20, 50)
+                order("firstName", "asc")
+                maxResults(20)
+            }
+        }
+    }
+
+    def criteriaProjection() {
+        clearing {
+            personClass.createCriteria().get {
+                projections {
+                    avg("age")
+                }
+                like("lastName", "W%")
+            }
+        }
+    }
+
+    def save() {
+        rollingBack { newPerson().save(flush: true) }
+    }
+
+    def validate() {
+        newPerson().validate()
+    }
+
+    def validateDuplicate() {
+        getPersonClass().newInstance(firstName: "Duplicate", lastName: "Person", age: 42,
+                                     email: "person1@example.org").validate()
+    }
+
+    def getAll(List ids) {
+        clearing { personClass.getAll(ids) }
+    }
+
+    def get(Long id) {
+        clearing { personClass.get(id) }
+    }
+
+    def list(int max) {
+        clearing { personClass.list(max: max) }
+    }
+}
@@ -0,0 +1,65 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.gorm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading entities, each of which is autowired and has its afterLoad event triggered in
+ * onPostLoad of ClosureEventTriggeringInterceptor
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GormLoadingBenchmark {
+
+    private GormFixture fixture;
+    private List ids;
+    private Long id;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        fixture = new GormFixture();
+        fixture.start(1000);
+        ids = fixture.getIds().subList(100, 150);
+        id = (Long) fixture.getIds().get(500);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public Object get() {
+        return fixture.get(id);
+    }
+
+    @Benchmark
+    public Object getAll() {
+        return fixture.getAll(ids);
+    }
+
+    @Benchmark
+    public Object list() {
+        return fixture.list(50);
+    }
+}
@@ -0,0 +1,59 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.gorm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks save() with validation, the events triggered by ClosureEventTriggeringInterceptor and automatic
+ * timestamping, as well as validation on its own, which includes the query of the UniqueConstraint
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GormPersistenceBenchmark {
+
+    private GormFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new GormFixture();
+        fixture.start(1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public Object save() {
+        return fixture.save();
+    }
+
+    @Benchmark
+    public Object validateUnique() {
+        return fixture.validate();
+    }
+
+    @Benchmark
+    public Object validateDuplicate() {
+        return fixture.validateDuplicate();
+    }
+}
@@ -0,0 +1,69 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.gorm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dynamic finders, which are dispatched through the static methodMissing of HibernatePluginSupport,
+ * and queries built with HibernateCriteriaBuilder
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GormQueryBenchmark {
+
+    private GormFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new GormFixture();
+        fixture.start(1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public Object dynamicFinder() {
+        return fixture.findByLastNameAndAge();
+    }
+
+    @Benchmark
+    public Object dynamicFinderFindAll() {
+        return fixture.findAllByLastName();
+    }
+
+    @Benchmark
+    public Object dynamicFinderCount() {
+        return fixture.countByAgeBetween();
+    }
+
+    @Benchmark
+    public Object criteria() {
+        return fixture.criteria();
+    }
+
+    @Benchmark
+    public Object criteriaProjection() {
+        return fixture.criteriaProjection();
+    }
+}
@@ -0,0 +1,69 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web;
+
+import grails.converters.JSON;
+import grails.converters.XML;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering a graph of domain instances with the JSON and XML converters
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConverterBenchmark {
+
+    private ConverterFixture fixture;
+    private List graph;
+
+    @Setup
+    public void setUp() {
+        fixture = new ConverterFixture();
+        fixture.start();
+        graph = fixture.createGraph(20, 10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public String renderJSON() {
+        return new JSON(graph).toString();
+    }
+
+    @Benchmark
+    public String renderDeepJSON() {
+        JSON.use("deep");
+        try {
+            return new JSON(graph).toString();
+        }
+        finally {
+            JSON.use("default");
+        }
+    }
+
+    @Benchmark
+    public String renderXML() {
+        return new XML(graph).toString();
+    }
+}
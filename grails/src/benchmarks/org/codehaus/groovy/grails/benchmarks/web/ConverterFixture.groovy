@@ -0,0 +1,71 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web
+
+import org.codehaus.groovy.grails.web.servlet.mvc.AbstractGrailsControllerTests
+
+/**
+ * Sets up the domain classes and the Converters plugin of the controller tests for the converter benchmarks
+ * and builds an object graph of authors and their books to render.
+ *
+ * @since 1.2
+ */
+class ConverterFixture extends AbstractGrailsControllerTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class BenchmarkAuthor {
+    Long id
+    Long version
+    String name
+    Date dateCreated
+    Set books
+    static hasMany = [books: BenchmarkBook]
+}
+class BenchmarkBook {
+    Long id
+    Long version
+    String title
+    Integer pages
+    BigDecimal price
+    BenchmarkAuthor author
+    static belongsTo = [author: BenchmarkAuthor]
+}
+''')
+    }
+
+    void start() {
+        setUp()
+    }
+
+    void stop() {
+        tearDown()
+    }
+
+    List createGraph(int authors, int booksPerAuthor) {
+        def authorClass = ga.getDomainClass("BenchmarkAuthor").clazz
+        def bookClass = ga.getDomainClass("BenchmarkBook").clazz
+        long bookId = 0
+        (1..authors).collect { long a ->
+            def author = authorClass.newInstance(id: a, version: 0L, name: "Author $a", dateCreated: new Date(), books: [] as Set)
+            booksPerAuthor.times {
+                bookId++
+                author.books << bookClass.newInstance(id: bookId, version: 0L, title: "Book $bookId", pages: 100 + it,
+                                                      price: 9.99G, author: author)
+            }
+            author
+        }
+    }
+}
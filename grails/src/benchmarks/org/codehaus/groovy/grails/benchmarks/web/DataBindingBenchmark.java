@@ -0,0 +1,83 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web;
+
+import org.codehaus.groovy.grails.web.binding.GrailsDataBinder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.MutablePropertyValues;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks binding submitted values to an object with a nested association, as bindData and
+ * properties = params do
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataBindingBenchmark {
+
+    private MutablePropertyValues values;
+
+    @Setup
+    public void setUp() {
+        values = new MutablePropertyValues();
+        values.addPropertyValue("title", "The Stand");
+        values.addPropertyValue("pages", "1152");
+        values.addPropertyValue("price", "9.99");
+        values.addPropertyValue("published", "true");
+        values.addPropertyValue("author.name", "Stephen King");
+        values.addPropertyValue("author.email", "stephen@example.org");
+    }
+
+    @Benchmark
+    public BenchmarkBook bind() {
+        BenchmarkBook book = new BenchmarkBook();
+        GrailsDataBinder.createBinder(book, "book").bind(values);
+        return book;
+    }
+
+    public static class BenchmarkBook {
+        private String title;
+        private int pages;
+        private BigDecimal price;
+        private boolean published;
+        private BenchmarkAuthor author = new BenchmarkAuthor();
+
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+        public int getPages() { return pages; }
+        public void setPages(int pages) { this.pages = pages; }
+        public BigDecimal getPrice() { return price; }
+        public void setPrice(BigDecimal price) { this.price = price; }
+        public boolean isPublished() { return published; }
+        public void setPublished(boolean published) { this.published = published; }
+        public BenchmarkAuthor getAuthor() { return author; }
+        public void setAuthor(BenchmarkAuthor author) { this.author = author; }
+    }
+
+    public static class BenchmarkAuthor {
+        private String name;
+        private String email;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+    }
+}
@@ -0,0 +1,69 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web;
+
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsParameterMap;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating the params object of a request with flat and nested parameters, as submitted by a form
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GrailsParameterMapBenchmark {
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("POST", "/book/save");
+        request.addParameter("id", "42");
+        request.addParameter("max", "10");
+        request.addParameter("offset", "20");
+        request.addParameter("sort", "title");
+        request.addParameter("order", "asc");
+        request.addParameter("book.title", "The Stand");
+        request.addParameter("book.pages", "1152");
+        request.addParameter("book.price", "9.99");
+        request.addParameter("book.published", "true");
+        request.addParameter("book.author.name", "Stephen King");
+        request.addParameter("book.author.email", "stephen@example.org");
+        request.addParameter("book.publisher.name", "Doubleday");
+        request.addParameter("book.releaseDate", "struct");
+        request.addParameter("book.releaseDate_day", "1");
+        request.addParameter("book.releaseDate_month", "9");
+        request.addParameter("book.releaseDate_year", "1978");
+        request.addParameter("tags", new String[] {"horror", "fantasy", "post-apocalyptic"});
+        request.addParameter("_action_update", "Update");
+        request.addParameter("_book.published", "");
+    }
+
+    @Benchmark
+    public GrailsParameterMap create() {
+        return new GrailsParameterMap(request);
+    }
+
+    @Benchmark
+    public Object createAndReadNested() {
+        GrailsParameterMap params = new GrailsParameterMap(request);
+        return ((java.util.Map) ((java.util.Map) params.get("book")).get("author")).get("name");
+    }
+}
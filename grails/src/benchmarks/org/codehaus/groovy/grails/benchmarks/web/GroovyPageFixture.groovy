@@ -0,0 +1,57 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web
+
+import com.opensymphony.module.sitemesh.RequestConstants
+import com.opensymphony.module.sitemesh.parser.HTMLPageParser
+import groovy.text.Template
+import org.codehaus.groovy.grails.web.taglib.AbstractGrailsTagTests
+
+/**
+ * Sets up the tag library and GSP environment of the tag tests for the GSP benchmarks. Templates are compiled
+ * once so that the benchmarks measure rendering only.
+ *
+ * @since 1.2
+ */
+class GroovyPageFixture extends AbstractGrailsTagTests {
+
+    void start() {
+        setUp()
+    }
+
+    void stop() {
+        tearDown()
+    }
+
+    Template compile(String gsp, String name) {
+        appCtx.groovyPagesTemplateEngine.createTemplate(gsp, name)
+    }
+
+    /**
+     * Makes the given HTML the page being decorated, as GrailsPageFilter does before it renders the layout
+     */
+    void decorate(String html) {
+        request[RequestConstants.PAGE] = new HTMLPageParser().parse(html.toCharArray())
+    }
+
+    String render(Template template, Map model) {
+        def sw = new StringWriter()
+        def out = new PrintWriter(sw)
+        webRequest.out = out
+        template.make(model).writeTo(out)
+        out.flush()
+        sw.toString()
+    }
+}
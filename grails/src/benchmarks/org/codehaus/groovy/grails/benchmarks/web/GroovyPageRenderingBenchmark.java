@@ -0,0 +1,111 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web;
+
+import groovy.text.Template;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering a compiled GSP that makes heavy use of tags, as a typical list or edit page does
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GroovyPageRenderingBenchmark {
+
+    static final String LIST_PAGE =
+            "<table>\n" +
+            "<g:each in=\"${books}\" status=\"i\" var=\"book\">\n" +
+            "  <tr class=\"${(i % 2) == 0 ? 'odd' : 'even'}\">\n" +
+            "    <td><g:link controller=\"book\" action=\"show\" id=\"${book.id}\">${book.title.encodeAsHTML()}</g:link></td>\n" +
+            "    <td><g:formatNumber number=\"${book.price}\" format=\"#,##0.00\" /></td>\n" +
+            "    <td><g:if test=\"${book.available}\">In stock</g:if><g:else>Sold out</g:else></td>\n" +
+            "  </tr>\n" +
+            "</g:each>\n" +
+            "</table>\n";
+
+    static final String EDIT_PAGE =
+            "<g:form controller=\"book\" action=\"update\" id=\"${book.id}\">\n" +
+            "  <g:textField name=\"title\" value=\"${book.title}\" />\n" +
+            "  <g:textField name=\"price\" value=\"${book.price}\" />\n" +
+            "  <g:select name=\"category\" from=\"${categories}\" value=\"${book.category}\" />\n" +
+            "  <g:checkBox name=\"available\" value=\"${book.available}\" />\n" +
+            "  <g:hiddenField name=\"version\" value=\"${book.version}\" />\n" +
+            "  <g:actionSubmit value=\"Update\" action=\"update\" />\n" +
+            "</g:form>\n";
+
+    private GroovyPageFixture fixture;
+    private Template listPage;
+    private Template editPage;
+    private Map<String, Object> listModel;
+    private Map<String, Object> editModel;
+
+    @Setup
+    public void setUp() {
+        fixture = new GroovyPageFixture();
+        fixture.start();
+        listPage = fixture.compile(LIST_PAGE, "benchmark_list");
+        editPage = fixture.compile(EDIT_PAGE, "benchmark_edit");
+
+        List<Map<String, Object>> books = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 50; i++) {
+            books.add(book(i));
+        }
+        listModel = new HashMap<String, Object>();
+        listModel.put("books", books);
+
+        editModel = new HashMap<String, Object>();
+        editModel.put("book", book(1));
+        List<String> categories = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            categories.add("Category " + i);
+        }
+        editModel.put("categories", categories);
+    }
+
+    private Map<String, Object> book(int i) {
+        Map<String, Object> book = new HashMap<String, Object>();
+        book.put("id", (long) i);
+        book.put("version", 0L);
+        book.put("title", "Book <" + i + "> & friends");
+        book.put("price", 9.99 + i);
+        book.put("available", i % 3 != 0);
+        book.put("category", "Category " + (i % 20));
+        return book;
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public String renderListPage() {
+        return fixture.render(listPage, listModel);
+    }
+
+    @Benchmark
+    public String renderEditPage() {
+        return fixture.render(editPage, editModel);
+    }
+}
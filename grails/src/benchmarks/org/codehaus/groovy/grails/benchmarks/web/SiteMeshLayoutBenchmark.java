@@ -0,0 +1,84 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web;
+
+import groovy.text.Template;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering a SiteMesh layout around an already parsed page, which is the work GrailsPageFilter
+ * adds to every decorated request
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SiteMeshLayoutBenchmark {
+
+    static final String LAYOUT =
+            "<html>\n" +
+            "  <head>\n" +
+            "    <title><g:layoutTitle default=\"Grails\" /></title>\n" +
+            "    <link rel=\"stylesheet\" href=\"${resource(dir: 'css', file: 'main.css')}\" />\n" +
+            "    <g:layoutHead />\n" +
+            "  </head>\n" +
+            "  <body class=\"${pageProperty(name: 'body.class')}\">\n" +
+            "    <div id=\"nav\"><g:pageProperty name=\"page.nav\" /></div>\n" +
+            "    <div id=\"content\"><g:layoutBody /></div>\n" +
+            "  </body>\n" +
+            "</html>\n";
+
+    static final String PAGE;
+
+    static {
+        StringBuilder page = new StringBuilder();
+        page.append("<html><head><title>Book List</title>")
+            .append("<meta name=\"layout\" content=\"main\" />")
+            .append("<script type=\"text/javascript\">var page = 'list';</script></head>")
+            .append("<body class=\"list\"><content tag=\"nav\"><a href=\"/book/create\">New Book</a></content>");
+        for (int i = 0; i < 50; i++) {
+            page.append("<p>Book ").append(i).append(" - a paragraph of content for the page body.</p>");
+        }
+        page.append("</body></html>");
+        PAGE = page.toString();
+    }
+
+    private GroovyPageFixture fixture;
+    private Template layout;
+    private Map<String, Object> model = Collections.emptyMap();
+
+    @Setup
+    public void setUp() {
+        fixture = new GroovyPageFixture();
+        fixture.start();
+        fixture.decorate(PAGE);
+        layout = fixture.compile(LAYOUT, "benchmark_layout");
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public String renderLayout() {
+        return fixture.render(layout, model);
+    }
+}
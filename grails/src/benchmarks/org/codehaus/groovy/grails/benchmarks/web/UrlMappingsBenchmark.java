@@ -0,0 +1,129 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.benchmarks.web;
+
+import grails.util.GrailsWebUtil;
+import org.codehaus.groovy.grails.web.mapping.DefaultUrlMappingEvaluator;
+import org.codehaus.groovy.grails.web.mapping.DefaultUrlMappingsHolder;
+import org.codehaus.groovy.grails.web.mapping.UrlMappingInfo;
+import org.codehaus.groovy.grails.web.mapping.UrlMappingsHolder;
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks URL matching and reverse mapping against a mapping set like that of a typical application
+ *
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UrlMappingsBenchmark {
+
+    static final String MAPPINGS =
+            "mappings {\n" +
+            "    \"/$controller/$action?/$id?\" {\n" +
+            "        constraints {\n" +
+            "        }\n" +
+            "    }\n" +
+            "    \"/\"(view: \"/index\")\n" +
+            "    \"500\"(view: \"/error\")\n" +
+            "    \"/blog/$year/$month?/$day?/$slug?\"(controller: \"blog\", action: \"show\") {\n" +
+            "        constraints {\n" +
+            "            year(matches: /\\d{4}/)\n" +
+            "            month(matches: /\\d{2}/)\n" +
+            "            day(matches: /\\d{2}/)\n" +
+            "        }\n" +
+            "    }\n" +
+            "    \"/products/$category/$id\"(controller: \"product\", action: \"show\")\n" +
+            "    \"/api/books/$id?\"(controller: \"book\") {\n" +
+            "        action = [GET: \"show\", PUT: \"update\", DELETE: \"delete\", POST: \"save\"]\n" +
+            "    }\n" +
+            "    name authorBooks: \"/authors/$authorId/books\" {\n" +
+            "        controller = \"book\"\n" +
+            "        action = \"byAuthor\"\n" +
+            "    }\n" +
+            "    \"/admin/$controller/$action?/$id?\" {\n" +
+            "        constraints {\n" +
+            "            id(matches: /\\d+/)\n" +
+            "        }\n" +
+            "    }\n" +
+            "    \"/files/**\"(controller: \"file\", action: \"download\")\n" +
+            "}\n";
+
+    private UrlMappingsHolder holder;
+    private Map<String, Object> showParams;
+    private Map<String, Object> blogParams;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        GrailsWebRequest webRequest = GrailsWebUtil.bindMockWebRequest();
+        List mappings = new DefaultUrlMappingEvaluator(webRequest.getServletContext()).evaluateMappings(new ByteArrayResource(MAPPINGS.getBytes()));
+        holder = new DefaultUrlMappingsHolder(mappings);
+
+        showParams = new HashMap<String, Object>();
+        showParams.put("id", 42);
+
+        blogParams = new HashMap<String, Object>();
+        blogParams.put("year", "2009");
+        blogParams.put("month", "05");
+        blogParams.put("slug", "grails-1-2");
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.setRequestAttributes(null);
+    }
+
+    @Benchmark
+    public UrlMappingInfo matchControllerActionId() {
+        return holder.match("/book/show/42");
+    }
+
+    @Benchmark
+    public UrlMappingInfo matchConstrainedMapping() {
+        return holder.match("/blog/2009/05/12/grails-1-2");
+    }
+
+    @Benchmark
+    public UrlMappingInfo matchDoubleWildcard() {
+        return holder.match("/files/images/2009/logo.png");
+    }
+
+    @Benchmark
+    public UrlMappingInfo matchNothing() {
+        return holder.match("/this/uri/has/far/too/many/tokens");
+    }
+
+    @Benchmark
+    public String reverseMapControllerAction() {
+        return holder.getReverseMapping("book", "show", showParams)
+                .createRelativeURL("book", "show", showParams, "utf-8");
+    }
+
+    @Benchmark
+    public String reverseMapConstrainedMapping() {
+        return holder.getReverseMapping("blog", "show", blogParams)
+                .createRelativeURL("blog", "show", blogParams, "utf-8");
+    }
+}
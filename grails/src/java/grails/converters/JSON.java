@@ -22,8 +22,10 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.web.converters.AbstractConverter;
+import org.codehaus.groovy.grails.web.converters.AssociationPrefetcher;
 import org.codehaus.groovy.grails.web.converters.Converter;
 import org.codehaus.groovy.grails.web.converters.ConverterUtil;
+import org.codehaus.groovy.grails.web.converters.ReferenceStack;
 import org.codehaus.groovy.grails.web.converters.configuration.ConverterConfiguration;
 import org.codehaus.groovy.grails.web.converters.configuration.ConvertersConfigurationHolder;
 import org.codehaus.groovy.grails.web.converters.configuration.DefaultConverterConfiguration;
@@ -102,7 +104,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements Converter<JSO
         this.writer = this.prettyPrint ?
                 new PrettyPrintJSONWriter(out) :
                 new JSONWriter(out);
-        referenceStack = new Stack<Object>();
+        referenceStack = new ReferenceStack();
     }
 
     private void finalizeRender(Writer out) {
@@ -125,6 +127,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements Converter<JSO
     public void render(Writer out) throws ConverterException {
         prepareRender(out);
         try {
+            AssociationPrefetcher.prefetch(this.target, config);
             value(this.target);
         }
         finally {
@@ -140,12 +143,18 @@ public class JSON extends AbstractConverter<JSONWriter> implements Converter<JSO
      */
     public void render(HttpServletResponse response) throws ConverterException {
         response.setContentType(GrailsWebUtil.getContentType("application/json", this.encoding));
+        if(renderWithETag(target, response)) return;
+        Writer out = null;
         try {
-            render(response.getWriter());
+            out = getResponseWriter(response, this.encoding);
+            render(out);
         }
         catch (IOException e) {
             throw new ConverterException(e);
         }
+        finally {
+            releaseResponseWriter(out);
+        }
     }
 
     public JSONWriter getWriter() throws ConverterException {
@@ -16,6 +16,7 @@ package grails.converters;
 
 
 import grails.util.GrailsNameUtils;
+import grails.util.GrailsWebUtil;
 import groovy.lang.Closure;
 import groovy.lang.GString;
 import groovy.util.BuilderSupport;
@@ -23,8 +24,10 @@ import groovy.util.XmlSlurper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.web.converters.AbstractConverter;
+import org.codehaus.groovy.grails.web.converters.AssociationPrefetcher;
 import org.codehaus.groovy.grails.web.converters.Converter;
 import org.codehaus.groovy.grails.web.converters.ConverterUtil;
+import org.codehaus.groovy.grails.web.converters.ReferenceStack;
 import org.codehaus.groovy.grails.web.converters.configuration.ConverterConfiguration;
 import org.codehaus.groovy.grails.web.converters.configuration.ConvertersConfigurationHolder;
 import org.codehaus.groovy.grails.web.converters.configuration.DefaultConverterConfiguration;
@@ -33,6 +36,7 @@ import org.codehaus.groovy.grails.web.converters.marshaller.ClosureOjectMarshall
 import org.codehaus.groovy.grails.web.converters.marshaller.NameAwareMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.pages.FastStringWriter;
+import org.codehaus.groovy.grails.web.util.UTF8StreamWriter;
 import org.codehaus.groovy.grails.web.xml.PrettyPrintXMLStreamWriter;
 import org.codehaus.groovy.grails.web.xml.StreamingMarkupWriter;
 import org.codehaus.groovy.grails.web.xml.XMLStreamWriter;
@@ -41,7 +45,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
 import java.util.Map;
-import java.util.Stack;
 
 /**
  * A converter that converts domain classes to XML
@@ -67,7 +70,7 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements Converter
 
     private XMLStreamWriter writer;
 
-    private Stack<Object> referenceStack = new Stack<Object>();
+    private ReferenceStack referenceStack = new ReferenceStack();
 
     private boolean isRendering = false;
 
@@ -108,6 +111,7 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements Converter
 
         try {
             isRendering = true;
+            AssociationPrefetcher.prefetch(target, config);
             this.writer.startDocument(encoding, "1.0");
             this.writer.startNode(getElementName(target));
             convertAnother(target);
@@ -240,12 +244,22 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements Converter
 
     public void render(HttpServletResponse response) throws ConverterException {
         response.setContentType("text/xml");
+        if(renderWithETag(target, response)) return;
+        Writer out = null;
         try {
-            render(response.getWriter());
+            out = getResponseWriter(response, encoding);
+            if(out instanceof UTF8StreamWriter) {
+                // the bytes are UTF-8 whatever the container's default is
+                response.setContentType(GrailsWebUtil.getContentType("text/xml", encoding));
+            }
+            render(out);
         }
         catch (IOException e) {
             throw new ConverterException(e);
         }
+        finally {
+            releaseResponseWriter(out);
+        }
     }
 
     public XMLStreamWriter getWriter() throws ConverterException {
@@ -18,9 +18,12 @@ package grails.orm;
 import groovy.lang.*;
 import org.codehaus.groovy.grails.commons.GrailsClassUtils;
 import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.support.KeysetCursor;
+import org.codehaus.groovy.grails.orm.hibernate.support.ScrolledIteration;
 import org.hibernate.*;
 import org.hibernate.criterion.*;
 import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.impl.CriteriaImpl;
 import org.hibernate.metadata.ClassMetadata;
 import org.hibernate.transform.ResultTransformer;
 import org.hibernate.type.AssociationType;
@@ -61,6 +64,27 @@ import java.util.*;
  * 	 }
  * </pre>
  * 
+ * <p>The total count of a paginated list is worked out the first time getTotalCount() is called, by calling the
+ * criteria closure again. The closure must therefore be re-runnable: free of side effects and not relying on
+ * state that is gone once the list call has returned. Use totalCount:'none' when the count isn't needed:
+ * 
+ * <pre>
+ * 		def page = Account.createCriteria().list(max:10, offset:20, totalCount:'exact') {
+ * 			eq("branch", "London")
+ * 		}
+ * 		def pages = page.totalCount / 10
+ * </pre>
+ * 
+ * <p>Large results can be processed one at a time without holding them all in memory:
+ * 
+ * <pre>
+ * 		Account.createCriteria().eachScrolled(fetchSize:1000, readOnly:true, {
+ * 			eq("branch", "London")
+ * 		}) { account ->
+ * 			...
+ * 		}
+ * </pre>
+ * 
  * @author Graeme Rocher
  * @since Oct 10, 2005
  */
@@ -101,10 +125,26 @@ public class HibernateCriteriaBuilder extends GroovyObjectSupport {
     private static final String ROOT_DO_CALL = "doCall";
     private static final String ROOT_CALL = "call";
     private static final String LIST_CALL = "list";
+    private static final String ARGUMENT_TOTAL_COUNT = "totalCount";
+    private static final String ARGUMENT_TOTAL_COUNT_TTL = "totalCountTtl";
+    private static final String ARGUMENT_COUNT_STRATEGY = "countStrategy";
+    private static final String TOTAL_COUNT_EXACT = "exact";
+    private static final String TOTAL_COUNT_NONE = "none";
+    private static final String TOTAL_COUNT_CACHED = "cached";
+    private static final String TOTAL_COUNT_ESTIMATED = "estimated";
+    private static final List<String> TOTAL_COUNT_OPTIONS = Arrays.asList(TOTAL_COUNT_EXACT, TOTAL_COUNT_NONE, TOTAL_COUNT_CACHED, TOTAL_COUNT_ESTIMATED);
+
+    private static final TotalCountStrategy ROW_COUNT = new TotalCountStrategy() {
+        public int getTotalCount(Class targetClass, Criteria criteria) {
+            criteria.setProjection(Projections.rowCount());
+            return ((Number)criteria.uniqueResult()).intValue();
+        }
+    };
     private static final String LIST_DISTINCT_CALL = "listDistinct";
     private static final String COUNT_CALL = "count";
     private static final String GET_CALL = "get";
     private static final String SCROLL_CALL = "scroll";
+    private static final String EACH_SCROLLED_CALL = "eachScrolled";
 
 
     private static final String PROJECTIONS = "projections";
@@ -129,6 +169,7 @@ public class HibernateCriteriaBuilder extends GroovyObjectSupport {
     private static final String ALIAS = "_alias";
     private ResultTransformer resultTransformer;
     private int aliasCount;
+    private KeysetCursor keysetCursor;
 
 
     public HibernateCriteriaBuilder(Class targetClass, SessionFactory sessionFactory) {
@@ -717,6 +758,43 @@ public class HibernateCriteriaBuilder extends GroovyObjectSupport {
 
         return o;
     }
+    /**
+     * Pages through the results with a keyset cursor instead of an offset. Orders by the specified property and the
+     * id and restricts the results to the rows following the cursor. The list returned is a PagedResultList holding
+     * the cursor of the next page, with an unknown total count. Ignored when counting.
+     *
+     * @param propertyName The property name to order by
+     * @param direction Either "asc" for ascending or "desc" for descending
+     * @param after The cursor of the previous page or the values [lastValue, lastId] of its last row, null for the first page
+     *
+     * @return A KeysetCursor instance
+     * @see KeysetCursor
+     */
+    public Object keyset(String propertyName, String direction, Object after) {
+        if(this.criteria == null)
+                throwRuntimeException( new IllegalArgumentException("Call to [keyset] with propertyName ["+propertyName+"]not allowed here."));
+        if(this.count) return null;
+        propertyName = calculatePropertyName(propertyName);
+        try {
+            this.keysetCursor = new KeysetCursor(targetClass, new String[] { propertyName }, ORDER_DESCENDING.equals(direction), after);
+        }
+        catch (IllegalArgumentException e) {
+            throwRuntimeException(e);
+        }
+        this.keysetCursor.applyTo(this.criteria);
+
+        return this.keysetCursor;
+    }
+
+    /**
+     * Pages through the results with a keyset cursor in ascending order of the specified property and the id
+     *
+     * @see #keyset(String, String, Object)
+     */
+    public Object keyset(String propertyName, Object after) {
+        return keyset(propertyName, ORDER_ASCENDING, after);
+    }
+
     /**
      * Creates a Criterion that contrains a collection property by size
      *
@@ -859,6 +937,13 @@ public class HibernateCriteriaBuilder extends GroovyObjectSupport {
     public Object invokeMethod(String name, Object obj) {
         Object[] args = obj.getClass().isArray() ? (Object[])obj : new Object[]{obj};
 
+        if(isEachScrolledCall(name, args)) {
+            if(this.criteria != null) {
+                throwRuntimeException( new IllegalArgumentException("call to [" + name + "] not supported here"));
+            }
+            Map argMap = args.length == 3 ? (Map)args[0] : Collections.EMPTY_MAP;
+            return eachScrolled(argMap, (Closure)args[args.length - 2], (Closure)args[args.length - 1]);
+        }
         
         if(isCriteriaConstructionMethod(name, args)) {
 
@@ -905,26 +990,25 @@ public class HibernateCriteriaBuilder extends GroovyObjectSupport {
                     this.criteria.setProjection(Projections.rowCount());
                     result = this.criteria.uniqueResult();
                 } else if(paginationEnabledList) {
-                    // Calculate how many results there are in total. This has been
-                    // moved to before the 'list()' invocation to avoid any "ORDER
-                    // BY" clause added by 'populateArgumentsForCriteria()', otherwise
-                    // an exception is thrown for non-string sort fields (GRAILS-2690).
-                    this.criteria.setFirstResult(0);
-                    this.criteria.setMaxResults(Integer.MAX_VALUE);
-                    this.criteria.setProjection(Projections.rowCount());
-                    int totalCount = ((Integer)this.criteria.uniqueResult()).intValue();
+                    // The total count is worked out with a separate criteria built from the same closure, without
+                    // any "ORDER BY" clause added by 'populateArgumentsForCriteria()', otherwise an exception is
+                    // thrown for non-string sort fields (GRAILS-2690). Keyset paginated lists have no total count.
+                    Map argMap = (Map)args[0];
+                    KeysetCursor keyset = this.keysetCursor != null ? this.keysetCursor : KeysetCursor.fromArguments(targetClass, argMap);
+                    PagedResultList.TotalCountSource totalCountSource = keyset == null ? createTotalCountSource(argMap, (Closure)args[1]) : null;
 
-                    // Drop the projection, add settings for the pagination parameters,
-                    // and then execute the query.
                     this.criteria.setProjection(null);
                     this.criteria.setResultTransformer(CriteriaSpecification.ROOT_ENTITY);
-                    GrailsHibernateUtil.populateArgumentsForCriteria(targetClass, this.criteria, (Map)args[0]);
-                    PagedResultList pagedRes = new PagedResultList(this.criteria.list());
-
-                    // Updated the paged results with the total number of records
-                    // calculated previously.
-                    pagedRes.setTotalCount(totalCount);
-                    result = pagedRes;
+                    GrailsHibernateUtil.populateArgumentsForCriteria(targetClass, this.criteria, argMap);
+                    List list = this.criteria.list();
+                    if(keyset != null) {
+                        result = keyset.createResultList(list, getMaxResults());
+                    }
+                    else {
+                        result = new PagedResultList(list, totalCountSource);
+                    }
+                } else if(this.keysetCursor != null) {
+                    result = this.keysetCursor.createResultList(this.criteria.list(), getMaxResults());
                 } else {
                     result = this.criteria.list();
                 }
@@ -1105,6 +1189,130 @@ public class HibernateCriteriaBuilder extends GroovyObjectSupport {
                 name.equals(SCROLL_CALL) && args.length == 1 && args[0] instanceof Closure);
     }
 
+    private boolean isEachScrolledCall(String name, Object[] args) {
+        return name.equals(EACH_SCROLLED_CALL) && (args.length == 2 || args.length == 3 && args[0] instanceof Map)
+                && args[args.length - 2] instanceof Closure && args[args.length - 1] instanceof Closure;
+    }
+
+    /**
+     * Builds the criteria of the given closure and calls the callable with each of its results, read with forward-only
+     * ScrollableResults as described by ScrolledIteration
+     */
+    private int eachScrolled(Map argMap, Closure criteriaClosure, Closure callable) {
+        ScrolledIteration iteration = new ScrolledIteration(argMap);
+        createCriteriaInstance();
+        StatelessSession statelessSession = null;
+        try {
+            if(iteration.isStateless()) {
+                statelessSession = iteration.openStatelessSession(this.hibernateSession);
+                this.criteria = statelessSession.createCriteria(targetClass);
+            }
+            invokeClosureNode(criteriaClosure);
+            GrailsHibernateUtil.populateArgumentsForCriteria(targetClass, this.criteria, argMap);
+            return iteration.iterate(this.criteria, statelessSession != null ? null : this.hibernateSession, callable);
+        }
+        finally {
+            if(statelessSession != null) {
+                statelessSession.close();
+            }
+            if(!this.participate) {
+                this.hibernateSession.close();
+            }
+        }
+    }
+
+    /**
+     * Creates the source of the total count of a paginated list according to its totalCount argument, which is one
+     * of 'exact' (the default), 'none', 'cached' or 'estimated'. Except for 'none', the total count is only worked
+     * out when it is asked for, by calling the closure again on a new builder. That call may happen after the list
+     * call returned and its session was closed, so the closure must be free of side effects and only depend on
+     * values that are still valid then, not on lazy associations of instances loaded by the closed session
+     */
+    private PagedResultList.TotalCountSource createTotalCountSource(Map argMap, final Closure callable) {
+        Object option = argMap.get(ARGUMENT_TOTAL_COUNT);
+        String mode = option != null ? option.toString() : TOTAL_COUNT_EXACT;
+
+        final Class targetClass = this.targetClass;
+        final SessionFactory sessionFactory = this.sessionFactory;
+        if(mode.equals(TOTAL_COUNT_NONE)) {
+            return new PagedResultList.TotalCountSource() {
+                public int getTotalCount() {
+                    return PagedResultList.UNKNOWN_TOTAL_COUNT;
+                }
+            };
+        }
+        else if(mode.equals(TOTAL_COUNT_EXACT)) {
+            return new PagedResultList.TotalCountSource() {
+                public int getTotalCount() {
+                    return new HibernateCriteriaBuilder(targetClass, sessionFactory).computeTotalCount(callable, ROW_COUNT);
+                }
+            };
+        }
+        else if(mode.equals(TOTAL_COUNT_CACHED)) {
+            final String signature = this.criteria.toString();
+            Object ttl = argMap.get(ARGUMENT_TOTAL_COUNT_TTL);
+            final long timeToLive = ttl != null ? Long.parseLong(ttl.toString()) * 1000 : GrailsHibernateUtil.getTotalCountTimeToLive();
+            return new PagedResultList.TotalCountSource() {
+                public int getTotalCount() {
+                    int totalCount = TotalCountCache.get(signature);
+                    if(totalCount < 0) {
+                        totalCount = new HibernateCriteriaBuilder(targetClass, sessionFactory).computeTotalCount(callable, ROW_COUNT);
+                        TotalCountCache.put(signature, totalCount, timeToLive);
+                    }
+                    return totalCount;
+                }
+            };
+        }
+        else if(mode.equals(TOTAL_COUNT_ESTIMATED)) {
+            final TotalCountStrategy strategy = toTotalCountStrategy(argMap.get(ARGUMENT_COUNT_STRATEGY));
+            return new PagedResultList.TotalCountSource() {
+                public int getTotalCount() {
+                    return new HibernateCriteriaBuilder(targetClass, sessionFactory).computeTotalCount(callable, strategy);
+                }
+            };
+        }
+        throwRuntimeException(new IllegalArgumentException("Argument [" + ARGUMENT_TOTAL_COUNT + "] of [list] must be one of " + TOTAL_COUNT_OPTIONS + " but was [" + mode + "]"));
+        return null;
+    }
+
+    private TotalCountStrategy toTotalCountStrategy(final Object strategy) {
+        if(strategy instanceof TotalCountStrategy) {
+            return (TotalCountStrategy) strategy;
+        }
+        if(strategy instanceof Closure) {
+            return new TotalCountStrategy() {
+                public int getTotalCount(Class targetClass, Criteria criteria) {
+                    return ((Number)((Closure)strategy).call(new Object[]{targetClass, criteria})).intValue();
+                }
+            };
+        }
+        throwRuntimeException(new IllegalArgumentException("Argument [" + ARGUMENT_COUNT_STRATEGY + "] of [list] must be a TotalCountStrategy or a Closure when the total count is estimated"));
+        return null;
+    }
+
+    /**
+     * Builds the criteria of the given closure without pagination and works out the total count with it
+     */
+    private int computeTotalCount(Closure callable, TotalCountStrategy strategy) {
+        this.count = true;
+        createCriteriaInstance();
+        try {
+            invokeClosureNode(callable);
+            this.criteria.setFirstResult(0);
+            this.criteria.setMaxResults(Integer.MAX_VALUE);
+            return strategy.getTotalCount(targetClass, this.criteria);
+        }
+        finally {
+            if(!this.participate) {
+                this.hibernateSession.close();
+            }
+        }
+    }
+
+    private Integer getMaxResults() {
+        return this.criteria instanceof CriteriaImpl ? ((CriteriaImpl) this.criteria).getMaxResults() : null;
+    }
+
     private void createCriteriaInstance() {
         if(TransactionSynchronizationManager.hasResource(sessionFactory)) {
             this.participate = true;
@@ -19,24 +19,41 @@ import java.util.List;
 import java.util.Iterator;
 import java.util.Collection;
 import java.util.ListIterator;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
-* A result list for Criteria list calls, which is aware of the totalCount for the paged result
+* A result list for Criteria list calls, which is aware of the totalCount for the paged result. The total count can
+* be worked out lazily by a TotalCountSource the first time it is asked for.
 *
 * @author Siegfried Puchbauer
 * @since 1.0
 */
 public class PagedResultList implements List, Serializable {
 
+    /**
+     * The total count of lists created with totalCount:'none' and of keyset paginated lists
+     */
+    public static final int UNKNOWN_TOTAL_COUNT = -1;
+
     protected List list;
 
     protected int totalCount;
 
+    private transient TotalCountSource totalCountSource;
+
+    private String nextCursor;
+
     public PagedResultList(List list) {
         this.list = list;
     }
 
+    public PagedResultList(List list, TotalCountSource totalCountSource) {
+        this.list = list;
+        this.totalCountSource = totalCountSource;
+    }
+
     public PagedResultList(List list, int totalCount) {
         this.list = list;
         this.totalCount = totalCount;
@@ -143,11 +160,41 @@ public class PagedResultList implements List, Serializable {
     }
 
     public int getTotalCount() {
+        if(totalCountSource != null) {
+            totalCount = totalCountSource.getTotalCount();
+            totalCountSource = null;
+        }
         return totalCount;
     }
 
     public void setTotalCount(int totalCount) {
         this.totalCount = totalCount;
+        this.totalCountSource = null;
+    }
+
+    /**
+     * @return The cursor token of the next page of a keyset paginated list, or null if it is the last page
+     * @see org.codehaus.groovy.grails.orm.hibernate.support.KeysetCursor
+     */
+    public String getNextCursor() {
+        return nextCursor;
     }
-    
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getTotalCount();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Works out the total count of a PagedResultList when it is first asked for, which may be after the session
+     * that loaded the list has been closed
+     */
+    public interface TotalCountSource {
+        int getTotalCount();
+    }
+
 }
@@ -0,0 +1,64 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.orm;
+
+import org.springframework.validation.Errors;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The result of a saveAll call: how many instances were saved and the validation errors of the instances that
+ * weren't, by their position in the saved collection. The saved instances themselves aren't held on to, so that
+ * saving a large collection doesn't keep all of it in memory twice.
+ *
+ * @since 1.2
+ */
+public class SaveAllResult {
+
+    private int savedCount;
+    private final Map<Integer, Errors> errors = new TreeMap<Integer, Errors>();
+
+    public void addSaved() {
+        savedCount++;
+    }
+
+    public void addErrors(int index, Errors errors) {
+        this.errors.put(index, errors);
+    }
+
+    /**
+     * @return The number of instances saved
+     */
+    public int getSavedCount() {
+        return savedCount;
+    }
+
+    /**
+     * @return The validation errors of the instances that weren't saved, keyed by their index in the collection
+     */
+    public Map<Integer, Errors> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    public String toString() {
+        return "SaveAllResult[saved=" + savedCount + ", failed=" + errors.size() + "]";
+    }
+}
@@ -0,0 +1,75 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.orm;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the total counts of paginated criteria queries listed with totalCount:'cached', keyed by the signature of
+ * their criteria, until they expire
+ *
+ * @since 1.2
+ */
+final class TotalCountCache {
+    private static final int MAX_SIZE = 1000;
+    private static final Map<String, CachedCount> COUNTS = new ConcurrentHashMap<String, CachedCount>();
+
+    private TotalCountCache() {
+    }
+
+    /**
+     * @return The cached count or -1 if there is none or it has expired
+     */
+    static int get(String signature) {
+        CachedCount cached = COUNTS.get(signature);
+        if(cached == null) return -1;
+        if(cached.expires < System.currentTimeMillis()) {
+            COUNTS.remove(signature);
+            return -1;
+        }
+        return cached.count;
+    }
+
+    static void put(String signature, int count, long timeToLive) {
+        if(COUNTS.size() >= MAX_SIZE) {
+            removeExpired();
+            if(COUNTS.size() >= MAX_SIZE) COUNTS.clear();
+        }
+        COUNTS.put(signature, new CachedCount(count, System.currentTimeMillis() + timeToLive));
+    }
+
+    static void clear() {
+        COUNTS.clear();
+    }
+
+    private static void removeExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<CachedCount> i = COUNTS.values().iterator(); i.hasNext();) {
+            if(i.next().expires < now) i.remove();
+        }
+    }
+
+    private static final class CachedCount {
+        private final int count;
+        private final long expires;
+
+        private CachedCount(int count, long expires) {
+            this.count = count;
+            this.expires = expires;
+        }
+    }
+}
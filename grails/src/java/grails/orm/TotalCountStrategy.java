@@ -0,0 +1,39 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.orm;
+
+import org.hibernate.Criteria;
+
+/**
+ * Works out the total count of a paginated criteria query, for example from database statistics instead of a
+ * count query. It is passed to list() with the totalCount:'estimated' and countStrategy arguments:
+ *
+ * <pre>
+ *     def results = Account.createCriteria().list(max:10, totalCount:'estimated', countStrategy:strategy) {
+ *         like("holderFirstName", "Fred%")
+ *     }
+ * </pre>
+ *
+ * @since 1.2
+ */
+public interface TotalCountStrategy {
+
+    /**
+     * @param targetClass The class being queried
+     * @param criteria The criteria of the query, without pagination or ordering
+     * @return The (estimated) number of results of the query without pagination
+     */
+    int getTotalCount(Class targetClass, Criteria criteria);
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2003-2007 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.cfg
+
+/**
+ * <p>Defines how the dynamic finders of a class, or a single dynamic finder, are executed: as a Criteria or as an
+ * HQL query, and whether the results go into the query cache.
+ *
+ * <code>
+ *     finders query:'hql', cache:true
+ *     finders findByIsbn:[cache:true, cacheRegion:'books.isbn']
+ * </code>
+ *
+ * @since 1.2
+ */
+class FinderConfig {
+    static final QUERY_OPTIONS = ['criteria', 'hql']
+
+    /**
+     * One of QUERY_OPTIONS, or null to use the default
+     */
+    String query
+
+    /**
+     * Whether the results are cached, or null to use the default
+     */
+    Boolean cache
+
+    /**
+     * The query cache region to use
+     */
+    String cacheRegion
+
+    /**
+     * The configuration of individual finders by method name
+     */
+    Map methods = [:]
+
+    /**
+     * Obtains the configuration of the given finder, falling back to the settings for all finders
+     */
+    FinderConfig getMethodConfig(String methodName) {
+        FinderConfig method = methods[methodName]
+        if(!method) return this
+        new FinderConfig(query: method.query ?: query,
+                         cache: method.cache != null ? method.cache : cache,
+                         cacheRegion: method.cacheRegion ?: cacheRegion)
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.commons.*;
 import org.codehaus.groovy.grails.orm.hibernate.GrailsHibernateDomainClass;
 import org.codehaus.groovy.grails.orm.hibernate.proxy.GroovyAwareJavassistProxyFactory;
+import org.codehaus.groovy.grails.orm.hibernate.support.KeysetCursor;
 import org.hibernate.*;
 import org.hibernate.criterion.Order;
 import org.hibernate.engine.EntityEntry;
@@ -71,7 +72,12 @@ public class GrailsHibernateUtil {
     public static final String ARGUMENT_IGNORE_CASE = "ignoreCase";
     public static final String ARGUMENT_CACHE = "cache";
     public static final String ARGUMENT_LOCK = "lock";
+    public static final String ARGUMENT_AFTER = "after";
     public static final String CONFIG_PROPERTY_CACHE_QUERIES="grails.hibernate.cache.queries";
+    public static final String CONFIG_PROPERTY_HQL_FINDERS="grails.hibernate.finders.hql";
+    public static final String CONFIG_PROPERTY_AUTOWIRE="grails.hibernate.autowire";
+    public static final String CONFIG_PROPERTY_TOTAL_COUNT_TTL="grails.hibernate.totalCount.ttl";
+    private static final long DEFAULT_TOTAL_COUNT_TTL = 60;
 
 
     public static void configureHibernateDomainClasses(SessionFactory sessionFactory, GrailsApplication application) {
@@ -161,7 +167,11 @@ public class GrailsHibernateUtil {
                 cacheCriteriaByMapping(targetClass, c);
             }
         }
-        if(sort != null) {
+        KeysetCursor keyset = KeysetCursor.fromArguments(targetClass, argMap);
+        if(keyset != null) {
+            keyset.applyTo(c);
+        }
+        else if(sort != null) {
             boolean ignoreCase = true;
             Object caseArg = argMap.get(ARGUMENT_IGNORE_CASE);
             if(caseArg instanceof Boolean) {
@@ -366,6 +376,32 @@ public class GrailsHibernateUtil {
         return (o != null && o instanceof Boolean)?((Boolean)o).booleanValue():false;
     }
 
+    /**
+     * @return The time in milliseconds total counts of paginated lists are cached for with totalCount:'cached',
+     * configured in seconds
+     */
+    public static long getTotalCountTimeToLive() {
+        Object o = ConfigurationHolder.getFlatConfig().get(CONFIG_PROPERTY_TOTAL_COUNT_TTL);
+        long seconds = o instanceof Number ? ((Number) o).longValue() : DEFAULT_TOTAL_COUNT_TTL;
+        return seconds * 1000;
+    }
+
+    /**
+     * @return False if loaded domain instances shouldn't be autowired
+     */
+    public static boolean isAutowireEntities() {
+        Object o = ConfigurationHolder.getFlatConfig().get(CONFIG_PROPERTY_AUTOWIRE);
+        return !(o instanceof Boolean) || ((Boolean) o).booleanValue();
+    }
+
+    /**
+     * @return True if dynamic finders should be executed as HQL queries unless their mapping says otherwise
+     */
+    public static boolean isHqlFindersByDefault() {
+        Object o = ConfigurationHolder.getFlatConfig().get(CONFIG_PROPERTY_HQL_FINDERS);
+        return (o != null && o instanceof Boolean)?((Boolean)o).booleanValue():false;
+    }
+
     public static GroovyAwareJavassistProxyFactory buildProxyFactory(PersistentClass persistentClass) {
         GroovyAwareJavassistProxyFactory proxyFactory = new GroovyAwareJavassistProxyFactory();
 
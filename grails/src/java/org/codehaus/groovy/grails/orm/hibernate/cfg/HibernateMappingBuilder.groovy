@@ -258,6 +258,45 @@ class HibernateMappingBuilder {
         cache(args)        
     }
 
+    /**
+    * <p>Configures how dynamic finders are executed, for all finders of the class and for individual finders
+    * <code> { finders query:'hql', cache:true, findByIsbn:[cacheRegion:'books.isbn'] }
+    *
+    * @param args The "query", "cache" and "cacheRegion" settings and the settings of individual finders by name
+    */
+    void finders(Map args) {
+        if(!mapping.finders) mapping.finders = new FinderConfig()
+        args.each { name, value ->
+            if(value instanceof Map) {
+                def method = new FinderConfig()
+                configureFinder(method, value, name)
+                mapping.finders.methods[name] = method
+            }
+            else {
+                configureFinder(mapping.finders, [(name): value], "finders")
+            }
+        }
+    }
+
+    private configureFinder(FinderConfig config, Map args, String name) {
+        args.each { setting, value ->
+            switch(setting) {
+                case 'query':
+                    if(FinderConfig.QUERY_OPTIONS.contains(value)) config.query = value
+                    else LOG.warn("ORM Mapping Invalid: Specified [query] with value [$value] of [$name] in class [$className] is not valid")
+                    break
+                case 'cache':
+                    config.cache = value as Boolean
+                    break
+                case 'cacheRegion':
+                    config.cacheRegion = value?.toString()
+                    break
+                default:
+                    LOG.warn("ORM Mapping Invalid: Specified [$setting] of [$name] in class [$className] is not valid")
+            }
+        }
+    }
+
     /**
      * If true the class and its sub classes will be mapped with table per hierarchy mapping
      */
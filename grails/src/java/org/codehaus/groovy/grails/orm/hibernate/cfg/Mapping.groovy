@@ -71,6 +71,11 @@ class Mapping {
      */
     CacheConfig cache
 
+    /**
+     * How dynamic finders are executed
+     */
+    FinderConfig finders
+
     /**
      * The name of the default property to sort by
      */
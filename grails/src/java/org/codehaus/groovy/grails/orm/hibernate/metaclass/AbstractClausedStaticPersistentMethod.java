@@ -20,6 +20,7 @@ import groovy.lang.MissingMethodException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.commons.*;
+import org.hibernate.Criteria;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.Restrictions;
@@ -29,12 +30,26 @@ import org.springframework.beans.TypeMismatchException;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
+ * Base class for dynamic finders whose method names consist of clauses, such as findByTitleAndAuthor.
+ *
+ * The method name is parsed into a FinderPlan the first time it is invoked. The plan holds the expressions with
+ * their property types resolved and is cached per method name, so subsequent invocations only bind and convert
+ * the arguments.
+ *
+ * If the "finders" mapping of the class or the grails.hibernate.finders.hql setting asks for it, the plan is
+ * executed as an HQL query, which Hibernate can take from its query plan cache, rather than as a Criteria.
+ * The HQL is created once for each combination of null arguments. Finders that HQL can't express, such as
+ * those using Rlike, an empty InList or the "fetch" argument, are still executed as a Criteria.
+ *
  * @author Graeme Rocher
  * @since 31-Aug-2005
  *
@@ -48,7 +63,7 @@ public abstract class AbstractClausedStaticPersistentMethod extends
 	 * @author Graeme Rocher
 	 *
 	 */
-	protected abstract static class GrailsMethodExpression {
+	protected abstract static class GrailsMethodExpression implements Cloneable {
 		private static final String LESS_THAN = "LessThan";
 		private static final String LESS_THAN_OR_EQUAL = "LessThanEquals";
 		private static final String GREATER_THAN = "GreaterThan";
@@ -72,7 +87,8 @@ public abstract class AbstractClausedStaticPersistentMethod extends
 		protected String type;
 		protected Class targetClass;
 		private GrailsApplication application;
-		private TypeConverter converter = new SimpleTypeConverter();
+		private Class propertyType;
+		private TypeConverter converter;
 
 
 		GrailsMethodExpression(GrailsApplication application,Class targetClass,String propertyName, String type,int argumentsRequired,boolean negation) {
@@ -99,44 +115,84 @@ public abstract class AbstractClausedStaticPersistentMethod extends
 			return buf.toString();
 		}
 
+		/**
+		 * Looks up the type of the property the expression refers to, which only needs to happen once per plan
+		 *
+		 * @throws IllegalArgumentException If the property doesn't exist
+		 */
+		void resolvePropertyType() throws IllegalArgumentException {
+            GrailsDomainClass dc = (GrailsDomainClass) application.getArtefact(DomainClassArtefactHandler.TYPE, targetClass.getName());
+			GrailsDomainClassProperty prop = dc != null ? dc.getPropertyByName(propertyName) : null;
+
+			if(prop == null)
+				throw new IllegalArgumentException("Property "+propertyName+" doesn't exist for method expression '"+this.type+"'");
+
+			this.propertyType = prop.getType();
+		}
+
+		/**
+		 * Creates a copy of this expression with the given arguments, leaving this expression untouched so that it
+		 * can be shared between invocations
+		 *
+		 * @param args The arguments of the expression
+		 * @return The bound copy
+		 * @throws IllegalArgumentException If the arguments don't match the expression
+		 */
+		GrailsMethodExpression bind(Object[] args) throws IllegalArgumentException {
+			GrailsMethodExpression bound;
+			try {
+				bound = (GrailsMethodExpression) clone();
+			}
+			catch (CloneNotSupportedException e) {
+				throw new IllegalStateException(e.getMessage());
+			}
+			bound.converter = null;
+			bound.setArguments(args);
+			return bound;
+		}
+
+		private TypeConverter getConverter() {
+			if(converter == null) {
+				converter = new SimpleTypeConverter();
+			}
+			return converter;
+		}
+
 		void setArguments(Object[] args)
 			throws IllegalArgumentException {
 			if(args.length != argumentsRequired)
 				throw new IllegalArgumentException("Method expression '"+this.type+"' requires " + argumentsRequired + " arguments");
 
-
-            GrailsDomainClass dc = (GrailsDomainClass) application.getArtefact(DomainClassArtefactHandler.TYPE, targetClass.getName());
-			GrailsDomainClassProperty prop = dc.getPropertyByName(propertyName);
-
-			if(prop == null)
-				throw new IllegalArgumentException("Property "+propertyName+" doesn't exist for method expression '"+this.type+"'");
+			if(propertyType == null) {
+				resolvePropertyType();
+			}
 
 			for (int i = 0; i < args.length; i++) {
                 if(args[i] == null) continue;
                 // convert GStrings to strings
-				if(prop.getType() == String.class && (args[i] instanceof GString)) {
+				if(propertyType == String.class && (args[i] instanceof GString)) {
 					args[i] = args[i].toString();
 				}
-				else if(!prop.getType().isAssignableFrom( args[i].getClass() ) && !(GrailsClassUtils.isMatchBetweenPrimativeAndWrapperTypes(prop.getType(), args[i].getClass()))) {
+				else if(!propertyType.isAssignableFrom( args[i].getClass() ) && !(GrailsClassUtils.isMatchBetweenPrimativeAndWrapperTypes(propertyType, args[i].getClass()))) {
 					try {
                         if(type.equals(IN_LIST)) {
-                            args[i] = converter.convertIfNecessary( args[i], Collection.class);
+                            args[i] = getConverter().convertIfNecessary( args[i], Collection.class);
                         }
                         else {
-                            args[i] = converter.convertIfNecessary( args[i], prop.getType());
+                            args[i] = getConverter().convertIfNecessary( args[i], propertyType);
                         }
 					} catch ( TypeMismatchException tme ) {
 						// if we cannot perform direct conversion and argument is subclass of Number
 						// we can try to convert it through it's String representation
 						if(Number.class.isAssignableFrom(args[i].getClass())) {
 							try {
-								args[i] = converter.convertIfNecessary( args[i].toString(), prop.getType());
+								args[i] = getConverter().convertIfNecessary( args[i].toString(), propertyType);
 							} catch( TypeMismatchException tme1 ) {
 
-                                throw new IllegalArgumentException("Cannot convert value " + args[i] + " of property '"+propertyName+"' to required type " + prop.getType() + ": " + tme1.getMessage());
+                                throw new IllegalArgumentException("Cannot convert value " + args[i] + " of property '"+propertyName+"' to required type " + propertyType + ": " + tme1.getMessage());
 							}
 						} else {
-							throw new IllegalArgumentException("Cannot convert value " + args[i] + " of property '"+propertyName+"' to required type " + prop.getType());
+							throw new IllegalArgumentException("Cannot convert value " + args[i] + " of property '"+propertyName+"' to required type " + propertyType);
 						}
 					}
 				}
@@ -145,6 +201,90 @@ public abstract class AbstractClausedStaticPersistentMethod extends
 			this.arguments = args;
 		}
 
+		boolean hasNullArgument() {
+			return arguments.length > 0 && arguments[0] == null;
+		}
+
+		/**
+		 * @return True if the expression with its current arguments can be written in HQL
+		 */
+		boolean supportsHql() {
+			if(RLIKE.equals(type)) return false;
+			if(IN_LIST.equals(type)) {
+				return arguments[0] instanceof Collection && !((Collection) arguments[0]).isEmpty();
+			}
+			return true;
+		}
+
+		/**
+		 * Writes the HQL condition equivalent to the Criterion of this expression. The values to bind are added to
+		 * the parameters list, in the order of their placeholders.
+		 *
+		 * @param hql The HQL to append to, or null to only collect the parameters
+		 * @param parameters The parameter values
+		 */
+		void appendHql(StringBuilder hql, List parameters) {
+			Object value = arguments.length > 0 ? arguments[0] : null;
+			if(hql != null) {
+				if(negation) hql.append("not (");
+				if(ILIKE.equals(type) && value != null) {
+					hql.append("lower(").append(HqlFinderSupport.ALIAS).append('.').append(propertyName).append(')');
+				}
+				else {
+					hql.append(HqlFinderSupport.ALIAS).append('.').append(propertyName);
+				}
+			}
+
+			if(IS_NULL.equals(type)) {
+				appendText(hql, " is null");
+			}
+			else if(IS_NOT_NULL.equals(type)) {
+				appendText(hql, " is not null");
+			}
+			else if(BETWEEN.equals(type)) {
+				appendText(hql, " between ");
+				appendParameter(hql, parameters, value);
+				appendText(hql, " and ");
+				appendParameter(hql, parameters, arguments[1]);
+			}
+			else if(IN_LIST.equals(type)) {
+				appendText(hql, " in (");
+				appendParameter(hql, parameters, value);
+				appendText(hql, ")");
+			}
+			else if(LESS_THAN_OR_EQUAL.equals(type)) {
+				appendText(hql, " <= ");
+				appendParameter(hql, parameters, value);
+			}
+			else if(value == null) {
+				appendText(hql, NOT_EQUAL.equals(type) ? " is not null" : " is null");
+			}
+			else {
+				appendText(hql, getHqlOperator());
+				appendParameter(hql, parameters, ILIKE.equals(type) ? value.toString().toLowerCase() : value);
+			}
+
+			if(negation) appendText(hql, ")");
+		}
+
+		private String getHqlOperator() {
+			if(NOT_EQUAL.equals(type)) return " <> ";
+			if(LESS_THAN.equals(type)) return " < ";
+			if(GREATER_THAN.equals(type)) return " > ";
+			if(GREATER_THAN_OR_EQUAL.equals(type)) return " >= ";
+			if(LIKE.equals(type) || ILIKE.equals(type)) return " like ";
+			return " = ";
+		}
+
+		private static void appendText(StringBuilder hql, String text) {
+			if(hql != null) hql.append(text);
+		}
+
+		private static void appendParameter(StringBuilder hql, List parameters, Object value) {
+			if(hql != null) hql.append(':').append(HqlFinderSupport.parameterName(parameters.size()));
+			parameters.add(value);
+		}
+
 		abstract Criterion createCriterion();
 		protected Criterion getCriterion() {
 			if(arguments == null)
@@ -381,6 +521,7 @@ public abstract class AbstractClausedStaticPersistentMethod extends
 	private final String[] operators;
 	private final Pattern[] operatorPatterns;
 	protected final GrailsApplication application;
+	private final Map<String, FinderPlan> plans = new ConcurrentHashMap<String, FinderPlan>();
 
 	public AbstractClausedStaticPersistentMethod(GrailsApplication application, SessionFactory sessionFactory, ClassLoader classLoader, Pattern pattern, String[] operators) {
 		super(sessionFactory, classLoader, pattern);
@@ -392,101 +533,217 @@ public abstract class AbstractClausedStaticPersistentMethod extends
 		}
 	}
 
-	/* (non-Javadoc)
-	 * @see org.codehaus.groovy.grails.orm.hibernate.metaclass.AbstractStaticPersistentMethod#doInvokeInternal(java.lang.Class, java.lang.String, java.lang.Object[])
+	/**
+	 * The parsed form of a dynamic finder method name: the expressions, which are bound to the arguments of each
+	 * invocation, the operator that combines them and the number of arguments they require. Plans are immutable.
 	 */
-	protected Object doInvokeInternal(final Class clazz, String methodName,
-			Object[] arguments) {
-		List expressions = new ArrayList();
-        if(arguments == null) arguments = new Object[0];
+	protected static final class FinderPlan {
+		private static final String OPERATOR_OR = "Or";
+
+		private final Class targetClass;
+		private final GrailsMethodExpression[] expressions;
+		private final String operatorInUse;
+		private final int totalRequiredArguments;
+		private final FinderSettings settings;
+		private final String fromClause;
+		private final String[] hqlByNullArguments;
+
+		FinderPlan(Class targetClass, String methodName, GrailsMethodExpression[] expressions, String operatorInUse) {
+			this.targetClass = targetClass;
+			this.expressions = expressions;
+			this.operatorInUse = operatorInUse;
+			int total = 0;
+			for (GrailsMethodExpression expression : expressions) {
+				total += expression.argumentsRequired;
+			}
+			this.totalRequiredArguments = total;
+			this.settings = FinderSettings.forMethod(targetClass, methodName);
+			this.fromClause = HqlFinderSupport.fromClause(targetClass);
+			this.hqlByNullArguments = new String[1 << expressions.length];
+		}
+
+		FinderSettings getSettings() {
+			return settings;
+		}
+
+		/**
+		 * @return True if the bound expressions should and can be executed as HQL
+		 */
+		boolean isHql(List boundExpressions) {
+			if(!settings.isHql()) return false;
+			for (Object expression : boundExpressions) {
+				if(!((GrailsMethodExpression) expression).supportsHql()) return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the HQL for the bound expressions, which is created once for each combination of null arguments.
+		 * A plan belongs to a single finder method, so the select clause must be the same for every call.
+		 *
+		 * @param selectClause The select clause that precedes the from clause, or null
+		 * @param boundExpressions The expressions returned by bind
+		 */
+		String getHql(String selectClause, List boundExpressions) {
+			int nulls = 0;
+			for (int i = 0; i < boundExpressions.size(); i++) {
+				if(((GrailsMethodExpression) boundExpressions.get(i)).hasNullArgument()) {
+					nulls |= 1 << i;
+				}
+			}
+			String hql = hqlByNullArguments[nulls];
+			if(hql == null) {
+				StringBuilder buf = new StringBuilder();
+				if(selectClause != null) buf.append(selectClause).append(' ');
+				buf.append(fromClause).append(" where ");
+				List parameters = new ArrayList();
+				for (int i = 0; i < boundExpressions.size(); i++) {
+					if(i > 0) buf.append(OPERATOR_OR.equals(operatorInUse) ? " or " : " and ");
+					buf.append('(');
+					((GrailsMethodExpression) boundExpressions.get(i)).appendHql(buf, parameters);
+					buf.append(')');
+				}
+				hql = buf.toString();
+				hqlByNullArguments[nulls] = hql;
+			}
+			return hql;
+		}
+
+		/**
+		 * @return The values to bind to the HQL returned by getHql
+		 */
+		List getHqlParameters(List boundExpressions) {
+			List parameters = new ArrayList();
+			for (Object expression : boundExpressions) {
+				((GrailsMethodExpression) expression).appendHql(null, parameters);
+			}
+			return parameters;
+		}
+
+		public String getOperatorInUse() {
+			return operatorInUse;
+		}
+
+		public int getTotalRequiredArguments() {
+			return totalRequiredArguments;
+		}
+
+		/**
+		 * Binds the leading arguments to copies of the expressions
+		 *
+		 * @throws IllegalArgumentException If there are too few arguments or they can't be converted
+		 */
+		List bind(Object[] arguments) throws IllegalArgumentException {
+			if(totalRequiredArguments > arguments.length)
+				throw new IllegalArgumentException("Method requires " + totalRequiredArguments + " arguments");
+
+			List bound = new ArrayList(expressions.length);
+			int argumentCursor = 0;
+			for (GrailsMethodExpression expression : expressions) {
+				Object[] currentArguments = new Object[expression.argumentsRequired];
+				System.arraycopy(arguments, argumentCursor, currentArguments, 0, currentArguments.length);
+				argumentCursor += currentArguments.length;
+				bound.add(expression.bind(currentArguments));
+			}
+			return bound;
+		}
+	}
+
+	/**
+	 * Returns the plan for the given method name, parsing the name if it hasn't been invoked before
+	 *
+	 * @throws IllegalArgumentException If the name refers to properties that don't exist
+	 */
+	protected FinderPlan getFinderPlan(Class clazz, String methodName) throws IllegalArgumentException {
+		FinderPlan plan = plans.get(methodName);
+		if(plan == null || plan.targetClass != clazz) {
+			plan = createFinderPlan(clazz, methodName);
+			plans.put(methodName, plan);
+		}
+		return plan;
+	}
+
+	private FinderPlan createFinderPlan(Class clazz, String methodName) {
         Matcher match = super.getPattern().matcher( methodName );
 		// find match
 		match.find();
 
-		String[] queryParameters;
-		int totalRequiredArguments = 0;
 		// get the sequence clauses
 		String querySequence = match.group(2);
-		// if it contains operator and split
-		boolean containsOperator = false;
+		String[] queryParameters = null;
         String operatorInUse = null;
 
+		// if it contains operator and split
         for (int i = 0; i < operators.length; i++) {
 			Matcher currentMatcher = operatorPatterns[i].matcher( querySequence );
 			if(currentMatcher.find()) {
-				containsOperator = true;
 				operatorInUse = this.operators[i];
-
-				queryParameters = new String[2];
-				queryParameters[0] = currentMatcher.group(1);
-				queryParameters[1] = currentMatcher.group(3) + currentMatcher.group(4);
-
-				// loop through query parameters and create expressions
-				// calculating the numBer of arguments required for the expression
-				int argumentCursor = 0;
-                for (String queryParameter : queryParameters) {
-                    GrailsMethodExpression currentExpression = GrailsMethodExpression.create(this.application, clazz, queryParameter);
-                    totalRequiredArguments += currentExpression.argumentsRequired;
-                    // populate the arguments into the GrailsExpression from the argument list
-                    Object[] currentArguments = new Object[currentExpression.argumentsRequired];
-                    if ((argumentCursor + currentExpression.argumentsRequired) > arguments.length)
-                        throw new MissingMethodException(methodName, clazz, arguments);
-
-                    for (int k = 0; k < currentExpression.argumentsRequired; k++, argumentCursor++) {
-                        currentArguments[k] = arguments[argumentCursor];
-                    }
-                    try {
-                        currentExpression.setArguments(currentArguments);
-                    }
-                    catch (IllegalArgumentException iae) {
-                        LOG.debug(iae.getMessage(), iae);
-                        throw new MissingMethodException(methodName, clazz, arguments);
-                    }
-                    // add to list of expressions
-                    expressions.add(currentExpression);
-                }
+				queryParameters = new String[] { currentMatcher.group(1), currentMatcher.group(3) + currentMatcher.group(4) };
 				break;
 			}
 		}
-
 		// otherwise there is only one expression
-		if(!containsOperator) {
-			GrailsMethodExpression solo = GrailsMethodExpression.create(this.application, clazz,querySequence );
+		if(queryParameters == null) {
+			queryParameters = new String[] { querySequence };
+		}
 
-			if(solo.argumentsRequired > arguments.length)
-				throw new MissingMethodException(methodName,clazz,arguments);
+		GrailsMethodExpression[] expressions = new GrailsMethodExpression[queryParameters.length];
+		for (int i = 0; i < queryParameters.length; i++) {
+			expressions[i] = GrailsMethodExpression.create(this.application, clazz, queryParameters[i]);
+			expressions[i].resolvePropertyType();
+		}
+		return new FinderPlan(clazz, methodName, expressions, operatorInUse);
+	}
 
-			totalRequiredArguments += solo.argumentsRequired;
-			Object[] soloArgs = new Object[solo.argumentsRequired];
+	/* (non-Javadoc)
+	 * @see org.codehaus.groovy.grails.orm.hibernate.metaclass.AbstractStaticPersistentMethod#doInvokeInternal(java.lang.Class, java.lang.String, java.lang.Object[])
+	 */
+	protected Object doInvokeInternal(final Class clazz, String methodName,
+			Object[] arguments) {
+        if(arguments == null) arguments = new Object[0];
 
-            System.arraycopy(arguments, 0, soloArgs, 0, solo.argumentsRequired);
-			try {
-				solo.setArguments(soloArgs);
-			}
-			catch(IllegalArgumentException iae) {
-				LOG.debug(iae.getMessage(),iae);
-				throw new MissingMethodException(methodName,clazz,arguments);
-			}
-			expressions.add(solo);
+		FinderPlan plan;
+		List expressions;
+		try {
+			plan = getFinderPlan(clazz, methodName);
+			expressions = plan.bind(arguments);
+		}
+		catch (IllegalArgumentException iae) {
+			LOG.debug(iae.getMessage(), iae);
+			throw new MissingMethodException(methodName, clazz, arguments);
 		}
 
-		// if the total of all the arguments necessary does not equal the number of arguments
-		// throw exception
-		if(totalRequiredArguments > arguments.length)
-			throw new MissingMethodException(methodName,clazz,arguments);
-		
 		// calculate the remaining arguments
+		int totalRequiredArguments = plan.getTotalRequiredArguments();
 		Object[] remainingArguments = new Object[arguments.length - totalRequiredArguments];
-		if(remainingArguments.length > 0) {		
-			for (int i = 0, j = totalRequiredArguments; i < remainingArguments.length; i++,j++) {
-				remainingArguments[i] = arguments[j];
-			}
+		if(remainingArguments.length > 0) {
+			System.arraycopy(arguments, totalRequiredArguments, remainingArguments, 0, remainingArguments.length);
 		}
-		
+
 		if(LOG.isTraceEnabled())
 			LOG.trace("Calculated expressions: " + expressions);
-		
-		return doInvokeInternalWithExpressions(clazz, methodName, remainingArguments, expressions, operatorInUse);
+
+		if(plan.isHql(expressions)) {
+			Map argMap = remainingArguments.length > 0 && remainingArguments[0] instanceof Map ? (Map) remainingArguments[0] : Collections.EMPTY_MAP;
+			if(HqlFinderSupport.supportsArguments(getHibernateTemplate().getSessionFactory(), clazz, argMap)) {
+				return doInvokeInternalWithHql(clazz, methodName, remainingArguments, expressions, plan);
+			}
+		}
+		return doInvokeInternalWithExpressions(clazz, methodName, remainingArguments, expressions, plan.getOperatorInUse());
+	}
+
+	/**
+	 * Executes the finder as an HQL query created by the plan. Finders that don't support HQL execute the Criteria.
+	 */
+	protected Object doInvokeInternalWithHql(Class clazz, String methodName, Object[] arguments, List expressions, FinderPlan plan) {
+		return doInvokeInternalWithExpressions(clazz, methodName, arguments, expressions, plan.getOperatorInUse());
+	}
+
+	/**
+	 * Applies the caching settings of the "finders" mapping to the Criteria of a finder
+	 */
+	protected void applyFinderSettings(Class clazz, String methodName, Criteria criteria, Map argMap) {
+		getFinderPlan(clazz, methodName).getSettings().apply(criteria, argMap);
 	}
 	
 	protected abstract Object doInvokeInternalWithExpressions(Class clazz, String methodName, Object[] arguments, List expressions, String operatorInUse);
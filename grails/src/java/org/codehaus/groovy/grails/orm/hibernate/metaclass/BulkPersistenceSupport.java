@@ -0,0 +1,278 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.metaclass;
+
+import org.codehaus.groovy.grails.commons.GrailsClassUtils;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.support.EntityEventDescriptor;
+import org.hibernate.Criteria;
+import org.hibernate.EntityMode;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.CascadeStyle;
+import org.hibernate.engine.CascadingAction;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.orm.hibernate3.HibernateCallback;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+import org.springframework.orm.hibernate3.SessionHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for the bulk persistence methods saveAll, deleteAll and updateAll. They work through their instances in
+ * batches, flushing and clearing the session after each batch so that it doesn't grow with the number of instances,
+ * and use bulk HQL statements for deletes and updates when that doesn't bypass any event handler or cascade.
+ *
+ * @since 1.2
+ */
+final class BulkPersistenceSupport {
+    static final String ARGUMENT_BATCH_SIZE = "batchSize";
+    static final String ARGUMENT_ALL = "all";
+    static final int DEFAULT_BATCH_SIZE = 500;
+
+    private BulkPersistenceSupport() {
+    }
+
+    /**
+     * @return The "batchSize" argument or the default, rounded up to a multiple of hibernate.jdbc.batch_size so
+     * that each flush sends full JDBC batches
+     */
+    static int getBatchSize(SessionFactory sessionFactory, Map argMap) {
+        Object batchSizeArg = argMap.get(ARGUMENT_BATCH_SIZE);
+        int batchSize = batchSizeArg != null ? (Integer) GrailsHibernateUtil.converter.convertIfNecessary(batchSizeArg, Integer.class) : DEFAULT_BATCH_SIZE;
+        if(batchSize < 1) throw new IllegalArgumentException("Argument [" + ARGUMENT_BATCH_SIZE + "] must be greater than zero");
+
+        if(sessionFactory instanceof SessionFactoryImplementor) {
+            int jdbcBatchSize = ((SessionFactoryImplementor) sessionFactory).getSettings().getJdbcBatchSize();
+            if(jdbcBatchSize > 1 && batchSize % jdbcBatchSize != 0) {
+                batchSize += jdbcBatchSize - batchSize % jdbcBatchSize;
+            }
+        }
+        return batchSize;
+    }
+
+    /**
+     * Executes the callback with a session bound to the thread, so that the persistent methods called back use
+     * the same session
+     */
+    static Object execute(final SessionFactory sessionFactory, HibernateTemplate template, final HibernateCallback callback) {
+        return template.execute(new HibernateCallback() {
+            public Object doInHibernate(Session session) throws HibernateException, SQLException {
+                if(TransactionSynchronizationManager.hasResource(sessionFactory)) {
+                    return callback.doInHibernate(session);
+                }
+                TransactionSynchronizationManager.bindResource(sessionFactory, new SessionHolder(session));
+                try {
+                    return callback.doInHibernate(session);
+                }
+                finally {
+                    TransactionSynchronizationManager.unbindResource(sessionFactory);
+                }
+            }
+        });
+    }
+
+    /**
+     * Orders the indexes of the instances so that instances of the same class are next to each other, which lets
+     * Hibernate batch their inserts. The order of the instances of a class is kept.
+     */
+    static Integer[] groupByClass(final List instances) {
+        Integer[] order = new Integer[instances.size()];
+        Class firstClass = null;
+        boolean mixed = false;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            Object instance = instances.get(i);
+            Class c = instance != null ? instance.getClass() : null;
+            if(i == 0) firstClass = c;
+            else if(c != firstClass) mixed = true;
+        }
+        if(mixed) {
+            Arrays.sort(order, new Comparator<Integer>() {
+                public int compare(Integer a, Integer b) {
+                    return className(instances.get(a)).compareTo(className(instances.get(b)));
+                }
+            });
+        }
+        return order;
+    }
+
+    private static String className(Object instance) {
+        return instance != null ? instance.getClass().getName() : "";
+    }
+
+    static EntityPersister getPersister(Session session, Class clazz) {
+        return ((SessionFactoryImplementor) session.getSessionFactory()).getEntityPersister(clazz.getName());
+    }
+
+    /**
+     * @return True if the instances of the class, which has no subclasses and is mapped to a single table, can be
+     * changed with a bulk HQL statement without bypassing an event handler or, for deletes, a cascade or collection
+     */
+    static boolean canExecuteBulk(EntityPersister persister, Class clazz, String[] events, boolean delete) {
+        // subclasses could have event handlers of their own
+        if(!(persister instanceof SingleTableEntityPersister) || persister.getEntityMetamodel().hasSubclasses()) return false;
+
+        EntityEventDescriptor descriptor = EntityEventDescriptor.create(BeanUtils.instantiateClass(clazz), events);
+        for (String event : events) {
+            if(descriptor.hasHandler(event)) return false;
+        }
+
+        if(delete) {
+            Type[] types = persister.getPropertyTypes();
+            CascadeStyle[] cascadeStyles = persister.getPropertyCascadeStyles();
+            for (int i = 0; i < types.length; i++) {
+                if(types[i].isCollectionType()) return false;
+                if(cascadeStyles != null && cascadeStyles[i].doCascade(CascadingAction.DELETE)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the properties named by a where or values map and converts their values to the property types
+     */
+    static Object convertValue(EntityPersister persister, String methodName, String propertyName, Object value) {
+        Type type;
+        if(propertyName.equals(persister.getIdentifierPropertyName())) {
+            type = persister.getIdentifierType();
+        }
+        else if(Arrays.asList(persister.getPropertyNames()).contains(propertyName)) {
+            type = persister.getPropertyType(propertyName);
+        }
+        else {
+            throw new IllegalArgumentException("Property [" + propertyName + "] of class [" + persister.getEntityName()
+                    + "] can't be used with [" + methodName + "]");
+        }
+        if(value == null || value instanceof Collection || type.isEntityType() || type.isCollectionType()) return value;
+        return GrailsHibernateUtil.converter.convertIfNecessary(value, type.getReturnedClass());
+    }
+
+    /**
+     * Rejects an empty where map, which would match every instance of the class, unless the "all" argument is true
+     */
+    static void checkWhere(Class clazz, String methodName, Map where, Map argMap) {
+        if(where.isEmpty() && !GrailsClassUtils.getBooleanFromMap(ARGUMENT_ALL, argMap)) {
+            throw new IllegalArgumentException("Method [" + methodName + "] of class [" + clazz.getName()
+                    + "] requires a non-empty where map, use the argument [" + ARGUMENT_ALL + ":true] to match every instance");
+        }
+    }
+
+    /**
+     * Appends an HQL condition per entry of the where map and adds the name and value of their parameters to the
+     * given list
+     */
+    static void appendWhereClause(StringBuilder hql, EntityPersister persister, String methodName, Map where, List<Object[]> parameters) {
+        boolean first = true;
+        for (Iterator i = where.entrySet().iterator(); i.hasNext();) {
+            Map.Entry entry = (Map.Entry) i.next();
+            String propertyName = entry.getKey().toString();
+            Object value = convertValue(persister, methodName, propertyName, entry.getValue());
+
+            hql.append(first ? " where " : " and ").append(propertyName);
+            first = false;
+            if(value == null) {
+                hql.append(" is null");
+            }
+            else {
+                String name = "w" + parameters.size();
+                hql.append(value instanceof Collection ? " in (:" + name + ")" : " = :" + name);
+                parameters.add(new Object[] { name, value });
+            }
+        }
+    }
+
+    static void bindParameters(Query query, List<Object[]> parameters) {
+        for (Object[] parameter : parameters) {
+            if(parameter[1] instanceof Collection) {
+                query.setParameterList((String) parameter[0], (Collection) parameter[1]);
+            }
+            else {
+                query.setParameter((String) parameter[0], parameter[1]);
+            }
+        }
+    }
+
+    /**
+     * @return The ids of the instances that match the where map
+     */
+    static List findIds(Session session, Class clazz, EntityPersister persister, String methodName, Map where) {
+        Criteria criteria = session.createCriteria(clazz);
+        for (Iterator i = where.entrySet().iterator(); i.hasNext();) {
+            Map.Entry entry = (Map.Entry) i.next();
+            String propertyName = entry.getKey().toString();
+            Object value = convertValue(persister, methodName, propertyName, entry.getValue());
+            if(value == null) {
+                criteria.add(Restrictions.isNull(propertyName));
+            }
+            else if(value instanceof Collection) {
+                criteria.add(Restrictions.in(propertyName, (Collection) value));
+            }
+            else {
+                criteria.add(Restrictions.eq(propertyName, value));
+            }
+        }
+        criteria.setProjection(Projections.id());
+        return criteria.list();
+    }
+
+    /**
+     * Loads the instances with the given ids
+     */
+    static List loadAll(Session session, Class clazz, EntityPersister persister, List ids) {
+        return session.createCriteria(clazz)
+                .add(Restrictions.in(persister.getIdentifierPropertyName(), ids))
+                .list();
+    }
+
+    /**
+     * @return The id of an instance or null if it is transient
+     */
+    static Serializable getIdentifier(EntityPersister persister, Object instance) {
+        if(instance instanceof HibernateProxy) {
+            return ((HibernateProxy) instance).getHibernateLazyInitializer().getIdentifier();
+        }
+        return persister.getIdentifier(instance, EntityMode.POJO);
+    }
+
+    /**
+     * Splits a list into chunks of the given size
+     */
+    static List<List> chunk(List list, int size) {
+        List<List> chunks = new ArrayList<List>();
+        for (int i = 0; i < list.size(); i += size) {
+            chunks.add(list.subList(i, Math.min(i + size, list.size())));
+        }
+        return chunks;
+    }
+}
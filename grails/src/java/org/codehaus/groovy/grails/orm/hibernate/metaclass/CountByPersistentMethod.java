@@ -17,6 +17,7 @@ package org.codehaus.groovy.grails.orm.hibernate.metaclass;
 import org.codehaus.groovy.grails.commons.GrailsApplication;
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
+import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Projections;
@@ -25,6 +26,7 @@ import org.hibernate.criterion.Restrictions;
 import org.springframework.orm.hibernate3.HibernateCallback;
 
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -52,7 +54,7 @@ public class CountByPersistentMethod extends
 	}
 
 	protected Object doInvokeInternalWithExpressions(final Class clazz,
-                                                     String methodName, Object[] arguments, final List expressions, String operatorInUse) {
+                                                     final String methodName, Object[] arguments, final List expressions, String operatorInUse) {
         final String operator = OPERATOR_OR.equals(operatorInUse) ? OPERATOR_OR : OPERATOR_AND;
         return super.getHibernateTemplate().execute( new HibernateCallback() {
 
@@ -60,12 +62,29 @@ public class CountByPersistentMethod extends
 				Criteria crit = session.createCriteria(clazz);
 				crit.setProjection(Projections.rowCount());
                 populateCriteriaWithExpressions(crit, operator, expressions);
+                applyFinderSettings(clazz, methodName, crit, Collections.EMPTY_MAP);
 
                 return crit.uniqueResult();
 			}
 		});
 	}
 
+	protected Object doInvokeInternalWithHql(Class clazz, String methodName, Object[] arguments, List expressions, final FinderPlan plan) {
+		final String hql = plan.getHql("select count(*)", expressions);
+		final List parameters = plan.getHqlParameters(expressions);
+
+		return super.getHibernateTemplate().execute( new HibernateCallback() {
+
+			public Object doInHibernate(Session session) throws HibernateException, SQLException {
+				Query q = session.createQuery(hql);
+				HqlFinderSupport.bindParameters(q, parameters);
+				plan.getSettings().apply(q, Collections.EMPTY_MAP);
+				// HQL counts are Longs whereas the row count projection is an Integer
+				Number count = (Number) q.uniqueResult();
+				return count != null ? count.intValue() : 0;
+			}
+		});
+	}
     
     protected void populateCriteriaWithExpressions(Criteria crit, String operator, List expressions) {
         if(operator.equals(OPERATOR_OR)) {
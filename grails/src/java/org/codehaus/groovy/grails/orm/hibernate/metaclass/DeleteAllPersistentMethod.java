@@ -0,0 +1,154 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.metaclass;
+
+import groovy.lang.MissingMethodException;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.orm.hibernate3.HibernateCallback;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The "deleteAll" static persistent method. Deletes the given instances, or the instances whose properties equal
+ * the values of a where map, and returns the number of instances deleted.
+ *
+ * eg.
+ * Book.deleteAll(books)
+ * Book.deleteAll(publisher:"Manning")
+ * Book.deleteAll([all:true], [:])
+ *
+ * An empty where map is rejected unless the "all" argument is true, so that every instance isn't deleted by mistake.
+ * When the class has no delete event handlers, collections or cascading deletes, the instances are deleted with
+ * bulk HQL statements. Otherwise they are deleted one by one, flushing and clearing the session after every
+ * "batchSize" instances (defaults to 500). Bulk deletes don't check the version of the instances.
+ *
+ * @since 1.2
+ */
+public class DeleteAllPersistentMethod extends AbstractStaticPersistentMethod {
+
+    public static final String METHOD_SIGNATURE = "deleteAll";
+    private static final Pattern METHOD_PATTERN = Pattern.compile('^' + METHOD_SIGNATURE + '$');
+    private static final String[] EVENTS = new String[] { "beforeDelete", "afterDelete" };
+
+    public DeleteAllPersistentMethod(SessionFactory sessionFactory, ClassLoader classLoader) {
+        super(sessionFactory, classLoader, METHOD_PATTERN);
+    }
+
+    protected Object doInvokeInternal(final Class clazz, final String methodName, Object[] arguments) {
+        final Map argMap;
+        final Object target;
+        if(arguments.length == 1 && (arguments[0] instanceof Collection || arguments[0] instanceof Map)) {
+            argMap = Collections.EMPTY_MAP;
+            target = arguments[0];
+        }
+        else if(arguments.length == 2 && arguments[0] instanceof Map && (arguments[1] instanceof Collection || arguments[1] instanceof Map)) {
+            argMap = (Map) arguments[0];
+            target = arguments[1];
+        }
+        else {
+            throw new MissingMethodException(methodName, clazz, arguments);
+        }
+        if(target instanceof Map) {
+            BulkPersistenceSupport.checkWhere(clazz, methodName, (Map) target, argMap);
+        }
+        final SessionFactory sessionFactory = getHibernateTemplate().getSessionFactory();
+        final int batchSize = BulkPersistenceSupport.getBatchSize(sessionFactory, argMap);
+
+        return BulkPersistenceSupport.execute(sessionFactory, getHibernateTemplate(), new HibernateCallback() {
+            public Object doInHibernate(Session session) throws HibernateException, SQLException {
+                EntityPersister persister = BulkPersistenceSupport.getPersister(session, clazz);
+                boolean bulk = BulkPersistenceSupport.canExecuteBulk(persister, clazz, EVENTS, true);
+                int deleted;
+                if(target instanceof Map) {
+                    deleted = bulk ?
+                            deleteWhere(session, persister, methodName, (Map) target) :
+                            deleteAll(session, BulkPersistenceSupport.findIds(session, clazz, persister, methodName, (Map) target), clazz, persister, batchSize);
+                }
+                else {
+                    deleted = bulk ?
+                            deleteInstances(session, persister, (Collection) target, batchSize) :
+                            deleteInstances(session, (Collection) target, batchSize);
+                }
+                return deleted;
+            }
+        });
+    }
+
+    private int deleteWhere(Session session, EntityPersister persister, String methodName, Map where) {
+        StringBuilder hql = new StringBuilder("delete from ").append(persister.getEntityName());
+        List<Object[]> parameters = new ArrayList<Object[]>();
+        BulkPersistenceSupport.appendWhereClause(hql, persister, methodName, where, parameters);
+        Query query = session.createQuery(hql.toString());
+        BulkPersistenceSupport.bindParameters(query, parameters);
+        return query.executeUpdate();
+    }
+
+    private int deleteInstances(Session session, EntityPersister persister, Collection instances, int batchSize) {
+        List<Serializable> ids = new ArrayList<Serializable>(instances.size());
+        for (Iterator i = instances.iterator(); i.hasNext();) {
+            Object instance = i.next();
+            Serializable id = BulkPersistenceSupport.getIdentifier(persister, instance);
+            if(id != null) ids.add(id);
+            if(session.contains(instance)) session.evict(instance);
+        }
+
+        String hql = "delete from " + persister.getEntityName() + " where " + persister.getIdentifierPropertyName() + " in (:ids)";
+        int deleted = 0;
+        for (List chunk : BulkPersistenceSupport.chunk(ids, batchSize)) {
+            deleted += session.createQuery(hql).setParameterList("ids", chunk).executeUpdate();
+        }
+        return deleted;
+    }
+
+    private int deleteAll(Session session, List ids, Class clazz, EntityPersister persister, int batchSize) {
+        int deleted = 0;
+        for (List chunk : BulkPersistenceSupport.chunk(ids, batchSize)) {
+            List instances = BulkPersistenceSupport.loadAll(session, clazz, persister, chunk);
+            for (Iterator i = instances.iterator(); i.hasNext();) {
+                session.delete(i.next());
+                deleted++;
+            }
+            session.flush();
+            session.clear();
+        }
+        return deleted;
+    }
+
+    private int deleteInstances(Session session, Collection instances, int batchSize) {
+        int deleted = 0;
+        for (Iterator i = instances.iterator(); i.hasNext();) {
+            session.delete(i.next());
+            if(++deleted % batchSize == 0) {
+                session.flush();
+                session.clear();
+            }
+        }
+        session.flush();
+        session.clear();
+        return deleted;
+    }
+}
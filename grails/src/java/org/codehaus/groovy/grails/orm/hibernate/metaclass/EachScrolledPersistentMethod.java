@@ -0,0 +1,85 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.metaclass;
+
+import groovy.lang.Closure;
+import groovy.lang.MissingMethodException;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.support.ScrolledIteration;
+import org.hibernate.Criteria;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.orm.hibernate3.HibernateCallback;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The "eachScrolled" static persistent method. Calls a closure with each persistent instance, reading them with
+ * forward-only ScrollableResults and evicting them from the session as they are processed, so that the memory used
+ * doesn't grow with the number of instances. Returns the number of instances processed.
+ *
+ * eg.
+ * Book.eachScrolled { book -> ... }
+ * Book.eachScrolled(fetchSize:1000, readOnly:true, sort:"title") { book -> ... }
+ *
+ * The arguments of list() apply, plus those of ScrolledIteration (fetchSize, readOnly, clearEvery, stateless and
+ * autowire).
+ *
+ * @since 1.2
+ */
+public class EachScrolledPersistentMethod extends AbstractStaticPersistentMethod {
+
+    public static final String METHOD_SIGNATURE = "eachScrolled";
+    private static final Pattern METHOD_PATTERN = Pattern.compile('^' + METHOD_SIGNATURE + '$');
+
+    public EachScrolledPersistentMethod(SessionFactory sessionFactory, ClassLoader classLoader) {
+        super(sessionFactory, classLoader, METHOD_PATTERN);
+    }
+
+    protected Object doInvokeInternal(final Class clazz, String methodName, Object[] arguments) {
+        if(arguments.length == 0 || arguments.length > 2 || !(arguments[arguments.length - 1] instanceof Closure)
+                || (arguments.length == 2 && !(arguments[0] instanceof Map))) {
+            throw new MissingMethodException(methodName, clazz, arguments);
+        }
+        final Map argMap = arguments.length == 2 ? (Map) arguments[0] : Collections.EMPTY_MAP;
+        final Closure callable = (Closure) arguments[arguments.length - 1];
+        final ScrolledIteration iteration = new ScrolledIteration(argMap);
+
+        return getHibernateTemplate().execute(new HibernateCallback() {
+            public Object doInHibernate(Session session) throws HibernateException, SQLException {
+                if(!iteration.isStateless()) {
+                    Criteria c = session.createCriteria(clazz);
+                    GrailsHibernateUtil.populateArgumentsForCriteria(clazz, c, argMap);
+                    return iteration.iterate(c, session, callable);
+                }
+
+                StatelessSession statelessSession = iteration.openStatelessSession(session);
+                try {
+                    Criteria c = statelessSession.createCriteria(clazz);
+                    GrailsHibernateUtil.populateArgumentsForCriteria(clazz, c, argMap);
+                    return iteration.iterate(c, null, callable);
+                }
+                finally {
+                    statelessSession.close();
+                }
+            }
+        });
+    }
+}
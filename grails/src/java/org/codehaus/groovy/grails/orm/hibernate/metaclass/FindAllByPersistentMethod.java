@@ -2,8 +2,10 @@ package org.codehaus.groovy.grails.orm.hibernate.metaclass;
 
 import org.codehaus.groovy.grails.commons.GrailsApplication;
 import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.support.KeysetCursor;
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
+import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Disjunction;
@@ -42,7 +44,7 @@ public class FindAllByPersistentMethod extends
 	}
 
 	protected Object doInvokeInternalWithExpressions(final Class clazz,
-                                                     String methodName, final Object[] arguments, final List expressions, String operatorInUse) {
+                                                     final String methodName, final Object[] arguments, final List expressions, String operatorInUse) {
 
         final String operator = OPERATOR_OR.equals(operatorInUse) ? OPERATOR_OR : OPERATOR_AND;
         
@@ -54,6 +56,7 @@ public class FindAllByPersistentMethod extends
 
                 Map argsMap = (arguments.length > 0 && (arguments[0] instanceof Map)) ? (Map) arguments[0] : Collections.EMPTY_MAP;
                 GrailsHibernateUtil.populateArgumentsForCriteria(clazz, c,argsMap);
+                applyFinderSettings(clazz, methodName, c, argsMap);
 								
                 if(operator.equals(OPERATOR_OR)) {
                     Disjunction dis = Restrictions.disjunction();
@@ -72,7 +75,26 @@ public class FindAllByPersistentMethod extends
                 }
 
                 c.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY);
-				return c.list();
+				return KeysetCursor.createResultList(clazz, argsMap, c.list());
+			}
+		});
+	}
+
+	protected Object doInvokeInternalWithHql(final Class clazz, String methodName, final Object[] arguments, List expressions, final FinderPlan plan) {
+		final String hql = plan.getHql(null, expressions);
+		final List parameters = plan.getHqlParameters(expressions);
+		final Map argsMap = (arguments.length > 0 && (arguments[0] instanceof Map)) ? (Map) arguments[0] : Collections.EMPTY_MAP;
+
+		return super.getHibernateTemplate().executeFind( new HibernateCallback() {
+
+			public Object doInHibernate(Session session) throws HibernateException, SQLException {
+				String orderBy = HqlFinderSupport.orderBy(session.getSessionFactory(), clazz, argsMap);
+				Query q = session.createQuery(orderBy.length() == 0 ? hql : hql + orderBy);
+				HqlFinderSupport.bindParameters(q, parameters);
+				HqlFinderSupport.populateQuery(q, clazz, argsMap);
+				plan.getSettings().apply(q, argsMap);
+				q.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY);
+				return q.list();
 			}
 		});
 	}
@@ -18,6 +18,7 @@ import org.codehaus.groovy.grails.commons.GrailsApplication;
 import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
+import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Restrictions;
@@ -25,6 +26,7 @@ import org.hibernate.criterion.Disjunction;
 import org.springframework.orm.hibernate3.HibernateCallback;
 
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -54,7 +56,7 @@ public class FindByPersistentMethod extends AbstractClausedStaticPersistentMetho
  		super(application,sessionFactory, classLoader, Pattern.compile( METHOD_PATTERN ),OPERATORS);
 	}
 
-	protected Object doInvokeInternalWithExpressions(final Class clazz, String methodName, final Object[] arguments, final List expressions, String operatorInUse) {
+	protected Object doInvokeInternalWithExpressions(final Class clazz, final String methodName, final Object[] arguments, final List expressions, String operatorInUse) {
 
         final String operator = OPERATOR_OR.equals(operatorInUse) ? OPERATOR_OR : OPERATOR_AND;
         return super.getHibernateTemplate().execute( new HibernateCallback() {
@@ -63,12 +65,14 @@ public class FindByPersistentMethod extends AbstractClausedStaticPersistentMetho
 
 				
 				Criteria crit = session.createCriteria(clazz);
+				Map argMap = Collections.EMPTY_MAP;
 				if(arguments.length > 0) {
 					if(arguments[0] instanceof Map) {
-						Map argMap = (Map)arguments[0];
+						argMap = (Map)arguments[0];
 						GrailsHibernateUtil.populateArgumentsForCriteria(clazz, crit,argMap);
 					}
 				}
+				applyFinderSettings(clazz, methodName, crit, argMap);
                 if(operator.equals(OPERATOR_OR)) {
                     Disjunction dis = Restrictions.disjunction();
                     for (Iterator i = expressions.iterator(); i.hasNext();) {
@@ -93,5 +97,28 @@ public class FindByPersistentMethod extends AbstractClausedStaticPersistentMetho
             }
 		});
 	}
+
+	protected Object doInvokeInternalWithHql(final Class clazz, String methodName, final Object[] arguments, List expressions, final FinderPlan plan) {
+		final String hql = plan.getHql(null, expressions);
+		final List parameters = plan.getHqlParameters(expressions);
+		final Map argMap = arguments.length > 0 && arguments[0] instanceof Map ? (Map) arguments[0] : null;
+
+		return super.getHibernateTemplate().execute( new HibernateCallback() {
+
+			public Object doInHibernate(Session session) throws HibernateException, SQLException {
+				String orderBy = argMap != null ? HqlFinderSupport.orderBy(session.getSessionFactory(), clazz, argMap) : "";
+				Query q = session.createQuery(orderBy.length() == 0 ? hql : hql + orderBy);
+				HqlFinderSupport.bindParameters(q, parameters);
+				if(argMap != null) {
+					HqlFinderSupport.populateQuery(q, clazz, argMap);
+				}
+				plan.getSettings().apply(q, argMap != null ? argMap : Collections.EMPTY_MAP);
+				// the first result, like uniqueResult() with a fallback to the first of several results
+				q.setMaxResults(1);
+				List results = q.list();
+				return results.isEmpty() ? null : results.get(0);
+			}
+		});
+	}
 	
 }
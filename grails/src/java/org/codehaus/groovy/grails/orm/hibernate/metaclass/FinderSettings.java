@@ -0,0 +1,83 @@
+/* Copyright 2004-2005 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */ 
+package org.codehaus.groovy.grails.orm.hibernate.metaclass;
+
+import org.codehaus.groovy.grails.orm.hibernate.cfg.FinderConfig;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsDomainBinder;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.Mapping;
+import org.hibernate.Criteria;
+import org.hibernate.Query;
+
+import java.util.Map;
+
+/**
+ * The settings of a dynamic finder from the "finders" block of the domain class mapping, resolved once per finder.
+ * An explicit "cache" argument passed to the finder takes precedence over them.
+ *
+ * @since 1.2
+ */
+final class FinderSettings {
+    private static final String QUERY_HQL = "hql";
+
+    private final boolean hql;
+    private final Boolean cache;
+    private final String cacheRegion;
+
+    private FinderSettings(boolean hql, Boolean cache, String cacheRegion) {
+        this.hql = hql;
+        this.cache = cache;
+        this.cacheRegion = cacheRegion;
+    }
+
+    static FinderSettings forMethod(Class clazz, String methodName) {
+        boolean hql = GrailsHibernateUtil.isHqlFindersByDefault();
+        Mapping m = GrailsDomainBinder.getMapping(clazz);
+        FinderConfig config = m != null ? m.getFinders() : null;
+        if(config == null) {
+            return new FinderSettings(hql, null, null);
+        }
+        config = config.getMethodConfig(methodName);
+        if(config.getQuery() != null) {
+            hql = QUERY_HQL.equals(config.getQuery());
+        }
+        return new FinderSettings(hql, config.getCache(), config.getCacheRegion());
+    }
+
+    /**
+     * @return True if the finder should be executed as an HQL query
+     */
+    boolean isHql() {
+        return hql;
+    }
+
+    void apply(Criteria criteria, Map argMap) {
+        if(cache != null && !argMap.containsKey(GrailsHibernateUtil.ARGUMENT_CACHE)) {
+            criteria.setCacheable(cache);
+        }
+        if(cacheRegion != null) {
+            criteria.setCacheRegion(cacheRegion);
+        }
+    }
+
+    void apply(Query query, Map argMap) {
+        if(cache != null && !argMap.containsKey(GrailsHibernateUtil.ARGUMENT_CACHE)) {
+            query.setCacheable(cache);
+        }
+        if(cacheRegion != null) {
+            query.setCacheRegion(cacheRegion);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/* Copyright 2004-2005 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */ 
+package org.codehaus.groovy.grails.orm.hibernate.metaclass;
+
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.groovy.grails.commons.GrailsClassUtils;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsDomainBinder;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.Mapping;
+import org.hibernate.HibernateException;
+import org.hibernate.LockMode;
+import org.hibernate.Query;
+import org.hibernate.SessionFactory;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.type.Type;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for executing dynamic finders as HQL queries. The arguments "max", "offset", "sort", "order",
+ * "ignoreCase", "cache" and "lock" are applied the same way GrailsHibernateUtil.populateArgumentsForCriteria
+ * applies them to a Criteria. Finders with a "fetch" or "after" argument or a nested sort property are executed
+ * as a Criteria instead.
+ *
+ * @since 1.2
+ */
+final class HqlFinderSupport {
+    /**
+     * The alias of the queried entity
+     */
+    static final String ALIAS = "e";
+
+    private static final String[] PARAMETER_NAMES = new String[16];
+    static {
+        for (int i = 0; i < PARAMETER_NAMES.length; i++) {
+            PARAMETER_NAMES[i] = "p" + i;
+        }
+    }
+
+    private HqlFinderSupport() {
+    }
+
+    static String fromClause(Class clazz) {
+        return "from " + clazz.getName() + " " + ALIAS;
+    }
+
+    static String parameterName(int index) {
+        return index < PARAMETER_NAMES.length ? PARAMETER_NAMES[index] : "p" + index;
+    }
+
+    /**
+     * @return True if the finder arguments can be applied to an HQL query
+     */
+    static boolean supportsArguments(SessionFactory sessionFactory, Class clazz, Map argMap) {
+        if(argMap.get(GrailsHibernateUtil.ARGUMENT_FETCH) != null) return false;
+        if(argMap.containsKey(GrailsHibernateUtil.ARGUMENT_AFTER)) return false;
+        Object sort = argMap.get(GrailsHibernateUtil.ARGUMENT_SORT);
+        return sort == null || (sort instanceof String && getPropertyType(sessionFactory, clazz, (String) sort) != null);
+    }
+
+    /**
+     * @return The order by clause for the "sort", "order" and "ignoreCase" arguments or the default sort of the
+     * mapping, or an empty string
+     */
+    static String orderBy(SessionFactory sessionFactory, Class clazz, Map argMap) {
+        String sort = (String) argMap.get(GrailsHibernateUtil.ARGUMENT_SORT);
+        if(sort != null) {
+            String order = (String) argMap.get(GrailsHibernateUtil.ARGUMENT_ORDER);
+            boolean ignoreCase = true;
+            Object caseArg = argMap.get(GrailsHibernateUtil.ARGUMENT_IGNORE_CASE);
+            if(caseArg instanceof Boolean) {
+                ignoreCase = (Boolean) caseArg;
+            }
+            return orderBy(sessionFactory, clazz, sort, GrailsHibernateUtil.ORDER_DESC.equalsIgnoreCase(order), ignoreCase);
+        }
+        Mapping m = GrailsDomainBinder.getMapping(clazz);
+        if(m != null && !StringUtils.isBlank(m.getSort())) {
+            return orderBy(sessionFactory, clazz, m.getSort(), GrailsHibernateUtil.ORDER_DESC.equalsIgnoreCase(m.getOrder()), false);
+        }
+        return "";
+    }
+
+    /**
+     * Creates an order by clause. Like Order.ignoreCase(), ignoring case only applies to VARCHAR properties.
+     */
+    static String orderBy(SessionFactory sessionFactory, Class clazz, String property, boolean descending, boolean ignoreCase) {
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        if(ignoreCase && isVarchar(sessionFactory, clazz, property)) {
+            orderBy.append("lower(").append(ALIAS).append('.').append(property).append(')');
+        }
+        else {
+            orderBy.append(ALIAS).append('.').append(property);
+        }
+        return orderBy.append(descending ? " desc" : " asc").toString();
+    }
+
+    /**
+     * Applies the "max", "offset", "cache" and "lock" arguments and caching configured by the class mapping
+     */
+    static void populateQuery(Query query, Class clazz, Map argMap) {
+        if(argMap.containsKey(GrailsHibernateUtil.ARGUMENT_MAX)) {
+            Integer max = (Integer) GrailsHibernateUtil.converter.convertIfNecessary(argMap.get(GrailsHibernateUtil.ARGUMENT_MAX), Integer.class);
+            if(max != null && max > -1) query.setMaxResults(max);
+        }
+        if(argMap.containsKey(GrailsHibernateUtil.ARGUMENT_OFFSET)) {
+            Integer offset = (Integer) GrailsHibernateUtil.converter.convertIfNecessary(argMap.get(GrailsHibernateUtil.ARGUMENT_OFFSET), Integer.class);
+            if(offset != null && offset > -1) query.setFirstResult(offset);
+        }
+        if(GrailsClassUtils.getBooleanFromMap(GrailsHibernateUtil.ARGUMENT_CACHE, argMap)) {
+            query.setCacheable(true);
+        }
+        if(GrailsClassUtils.getBooleanFromMap(GrailsHibernateUtil.ARGUMENT_LOCK, argMap)) {
+            query.setLockMode(ALIAS, LockMode.UPGRADE);
+        }
+        else if(argMap.get(GrailsHibernateUtil.ARGUMENT_CACHE) == null) {
+            Mapping m = GrailsDomainBinder.getMapping(clazz);
+            if(m != null && m.getCache() != null && m.getCache().getEnabled()) {
+                query.setCacheable(true);
+            }
+        }
+    }
+
+    /**
+     * Binds the values to the parameters named by parameterName(int) in order
+     */
+    static void bindParameters(Query query, List values) {
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if(value instanceof Collection) {
+                query.setParameterList(parameterName(i), (Collection) value);
+            }
+            else {
+                query.setParameter(parameterName(i), value);
+            }
+        }
+    }
+
+    private static Type getPropertyType(SessionFactory sessionFactory, Class clazz, String property) {
+        if(property.indexOf('.') > -1) return null;
+        ClassMetadata metadata = sessionFactory.getClassMetadata(clazz);
+        if(metadata == null) return null;
+        try {
+            return metadata.getPropertyType(property);
+        }
+        catch (HibernateException e) {
+            return null;
+        }
+    }
+
+    private static boolean isVarchar(SessionFactory sessionFactory, Class clazz, String property) {
+        Type type = getPropertyType(sessionFactory, clazz, property);
+        if(type == null || !(sessionFactory instanceof org.hibernate.engine.Mapping)) return false;
+        int[] sqlTypes = type.sqlTypes((org.hibernate.engine.Mapping) sessionFactory);
+        return sqlTypes.length == 1 && sqlTypes[0] == Types.VARCHAR;
+    }
+}
@@ -6,14 +6,17 @@ package org.codehaus.groovy.grails.orm.hibernate.metaclass;
 import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
+import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Order;
 import org.springframework.orm.hibernate3.HibernateCallback;
 
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,6 +35,8 @@ public class ListOrderByPersistentMethod extends AbstractStaticPersistentMethod
 
 	private static final String METHOD_PATTERN = "(listOrderBy)(\\w+)";
 
+	private final Map<String, FinderSettings> finderSettings = new ConcurrentHashMap<String, FinderSettings>();
+
 	public ListOrderByPersistentMethod(SessionFactory sessionFactory, ClassLoader classLoader) {
 		super(sessionFactory, classLoader, Pattern.compile( METHOD_PATTERN ));
 	}
@@ -49,26 +54,45 @@ public class ListOrderByPersistentMethod extends AbstractStaticPersistentMethod
 		String nameInSignature = match.group(2);
 		final String propertyName = nameInSignature.substring(0,1).toLowerCase(Locale.ENGLISH) +
 										nameInSignature.substring(1);
-				
+
+		final FinderSettings settings = getFinderSettings(clazz, methodName);
+		final Map argMap = arguments != null && arguments.length > 0 && arguments[0] instanceof Map ? (Map) arguments[0] : null;
+		if(argMap != null) {
+			argMap.put(GrailsHibernateUtil.ARGUMENT_SORT,propertyName);
+		}
+
+		if(settings.isHql() && HqlFinderSupport.supportsArguments(getHibernateTemplate().getSessionFactory(), clazz,
+				argMap != null ? argMap : Collections.EMPTY_MAP)) {
+			return super.getHibernateTemplate().executeFind( new HibernateCallback() {
+
+				public Object doInHibernate(Session session) throws HibernateException, SQLException {
+					String orderBy = argMap != null ?
+							HqlFinderSupport.orderBy(session.getSessionFactory(), clazz, argMap) :
+							HqlFinderSupport.orderBy(session.getSessionFactory(), clazz, propertyName, false, false);
+					Query q = session.createQuery(HqlFinderSupport.fromClause(clazz) + orderBy);
+					if(argMap != null) {
+						HqlFinderSupport.populateQuery(q, clazz, argMap);
+					}
+					settings.apply(q, argMap != null ? argMap : Collections.EMPTY_MAP);
+					q.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY);
+					return q.list();
+				}
+			});
+		}
+
 		return super.getHibernateTemplate().executeFind( new HibernateCallback() {
 
 			public Object doInHibernate(Session session) throws HibernateException, SQLException {
 				
 				Criteria crit = session.createCriteria(clazz);
 				
-				if(arguments != null && arguments.length > 0) {
-					if(arguments[0] instanceof Map) {
-						Map argMap = (Map)arguments[0];
-						argMap.put(GrailsHibernateUtil.ARGUMENT_SORT,propertyName);
-						GrailsHibernateUtil.populateArgumentsForCriteria(clazz, crit,argMap);
-					}
-					else {
-						crit.addOrder( Order.asc( propertyName ) );												
-					}
+				if(argMap != null) {
+					GrailsHibernateUtil.populateArgumentsForCriteria(clazz, crit,argMap);
 				}
 				else {
 					crit.addOrder( Order.asc( propertyName ) );
 				}
+				settings.apply(crit, argMap != null ? argMap : Collections.EMPTY_MAP);
                 crit.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY);
 				return crit.list();
 			}
@@ -76,4 +100,13 @@ public class ListOrderByPersistentMethod extends AbstractStaticPersistentMethod
 		});
 	}
 
+	private FinderSettings getFinderSettings(Class clazz, String methodName) {
+		FinderSettings settings = finderSettings.get(methodName);
+		if(settings == null) {
+			settings = FinderSettings.forMethod(clazz, methodName);
+			finderSettings.put(methodName, settings);
+		}
+		return settings;
+	}
+
 }
@@ -15,6 +15,7 @@
 package org.codehaus.groovy.grails.orm.hibernate.metaclass;
 
 import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.support.KeysetCursor;
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
@@ -33,6 +34,7 @@ import java.util.regex.Pattern;
  * eg.
  * Account.list(); // list all
  * Account.list(max:10,offset:50,sort:"holder",order:"desc"); // list up to 10, offset by 50, sorted by holder and in descending order 
+ * Account.list(max:10,sort:"holder",after:params.after); // list up to 10 following the cursor of the previous page
  * 
  * @author Graeme Rocher
  *
@@ -55,15 +57,10 @@ public class ListPersistentMethod extends AbstractStaticPersistentMethod {
                     Criteria c =  session
                         .createCriteria(clazz);
 
-                    if(arguments.length > 0 && arguments[0] instanceof Map) {
-                        Map argMap = (Map)arguments[0];
-                        GrailsHibernateUtil.populateArgumentsForCriteria(clazz, c,argMap);
-                    }
-                    else {
-                        GrailsHibernateUtil.populateArgumentsForCriteria(clazz, c, Collections.EMPTY_MAP);                        
-                    }
+                    Map argMap = arguments.length > 0 && arguments[0] instanceof Map ? (Map)arguments[0] : Collections.EMPTY_MAP;
+                    GrailsHibernateUtil.populateArgumentsForCriteria(clazz, c, argMap);
                     c.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY);
-                    return c.list();
+                    return KeysetCursor.createResultList(clazz, argMap, c.list());
                 }
 
             }
@@ -0,0 +1,123 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.metaclass;
+
+import grails.orm.SaveAllResult;
+import groovy.lang.MissingMethodException;
+import org.codehaus.groovy.grails.commons.DomainClassArtefactHandler;
+import org.codehaus.groovy.grails.commons.GrailsApplication;
+import org.codehaus.groovy.grails.commons.GrailsClassUtils;
+import org.codehaus.groovy.grails.commons.GrailsDomainClass;
+import org.codehaus.groovy.grails.orm.hibernate.validation.UniqueConstraint;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.orm.hibernate3.HibernateCallback;
+import org.springframework.validation.Errors;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The "saveAll" static persistent method. Saves a collection of instances in batches: the unique constraints of
+ * each batch are checked in bulk, the instances are saved as with save() and the session is flushed and cleared
+ * after each batch, so that it doesn't grow with the number of instances. Instances of the same class are saved
+ * next to each other so that their inserts can be batched by JDBC when hibernate.jdbc.batch_size is set.
+ *
+ * The arguments of save() apply to each instance, except "flush", plus "batchSize" (defaults to 500). Invalid
+ * instances aren't saved and their errors are returned by position, unless failOnError is set in which case the
+ * first invalid instance throws a ValidationException.
+ *
+ * eg.
+ * def result = Book.saveAll(books, batchSize:500)
+ * if(result.hasErrors()) ...
+ *
+ * Note that clearing the session detaches any instance loaded before the call.
+ *
+ * @since 1.2
+ */
+public class SaveAllPersistentMethod extends AbstractStaticPersistentMethod {
+
+    public static final String METHOD_SIGNATURE = "saveAll";
+    private static final Pattern METHOD_PATTERN = Pattern.compile('^' + METHOD_SIGNATURE + '$');
+    private static final String ARGUMENT_VALIDATE = "validate";
+    private static final String ARGUMENT_FLUSH = "flush";
+
+    private final GrailsApplication application;
+    private final SavePersistentMethod saveMethod;
+
+    public SaveAllPersistentMethod(SessionFactory sessionFactory, ClassLoader classLoader, GrailsApplication application) {
+        super(sessionFactory, classLoader, METHOD_PATTERN);
+        this.application = application;
+        this.saveMethod = new SavePersistentMethod(sessionFactory, classLoader, application);
+    }
+
+    protected Object doInvokeInternal(final Class clazz, String methodName, Object[] arguments) {
+        if(arguments.length == 0 || !(arguments[arguments.length - 1] instanceof Collection)) {
+            throw new MissingMethodException(methodName, clazz, arguments);
+        }
+        final Map argMap = arguments.length > 1 && arguments[0] instanceof Map ? (Map) arguments[0] : Collections.EMPTY_MAP;
+        final List instances = new ArrayList((Collection) arguments[arguments.length - 1]);
+        final Integer[] order = BulkPersistenceSupport.groupByClass(instances);
+        final SessionFactory sessionFactory = getHibernateTemplate().getSessionFactory();
+        final int batchSize = BulkPersistenceSupport.getBatchSize(sessionFactory, argMap);
+
+        final Map saveArgs = new HashMap(argMap);
+        saveArgs.remove(BulkPersistenceSupport.ARGUMENT_BATCH_SIZE);
+        saveArgs.put(ARGUMENT_FLUSH, Boolean.FALSE);
+        final GrailsDomainClass domainClass = (GrailsDomainClass) application.getArtefact(DomainClassArtefactHandler.TYPE, clazz.getName());
+        final boolean validate = domainClass != null && (!argMap.containsKey(ARGUMENT_VALIDATE) || GrailsClassUtils.getBooleanFromMap(ARGUMENT_VALIDATE, argMap));
+
+        return BulkPersistenceSupport.execute(sessionFactory, getHibernateTemplate(), new HibernateCallback() {
+            public Object doInHibernate(Session session) throws HibernateException, SQLException {
+                SaveAllResult result = new SaveAllResult();
+                for (int start = 0; start < order.length; start += batchSize) {
+                    int end = Math.min(start + batchSize, order.length);
+                    List batch = new ArrayList(end - start);
+                    for (int i = start; i < end; i++) {
+                        batch.add(instances.get(order[i]));
+                    }
+
+                    if(validate) UniqueConstraint.checkAll(domainClass.getConstrainedProperties(), batch);
+                    try {
+                        for (int i = start; i < end; i++) {
+                            Object instance = instances.get(order[i]);
+                            if(saveMethod.invoke(instance, SavePersistentMethod.METHOD_SIGNATURE, new Object[] { saveArgs }) != null) {
+                                result.addSaved();
+                            }
+                            else {
+                                result.addErrors(order[i], (Errors) InvokerHelper.getProperty(instance, AbstractDynamicPersistentMethod.ERRORS_PROPERTY));
+                            }
+                        }
+                    }
+                    finally {
+                        if(validate) UniqueConstraint.releaseCheckedResults(batch);
+                    }
+
+                    session.flush();
+                    session.clear();
+                }
+                return result;
+            }
+        });
+    }
+}
@@ -0,0 +1,166 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.metaclass;
+
+import groovy.lang.MissingMethodException;
+import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsDomainBinder;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.Mapping;
+import org.codehaus.groovy.grails.orm.hibernate.support.ClosureEventTriggeringInterceptor;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.orm.hibernate3.HibernateCallback;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The "updateAll" static persistent method. Sets the given property values on the instances whose properties equal
+ * the values of a where map, and returns the number of instances updated.
+ *
+ * eg.
+ * Book.updateAll([publisher:"Manning"], [inPrint:false])
+ * Book.updateAll([:], [inPrint:true], [all:true])
+ *
+ * An empty where map is rejected unless the "all" argument is true, so that every instance isn't updated by mistake.
+ *
+ * When the class has no update event handlers, the instances are updated with a bulk HQL statement that also
+ * increments the version and sets lastUpdated. Such a statement doesn't validate the new values against the
+ * constraints of the class, and instances already loaded in the session aren't refreshed by it. Otherwise the
+ * instances are loaded, changed and flushed in batches of "batchSize" instances (defaults to 500), clearing the
+ * session after each batch. These instances are validated when flushed and those whose update is vetoed, because
+ * they are invalid or their beforeUpdate event returned false, aren't saved nor counted.
+ *
+ * @since 1.2
+ */
+public class UpdateAllPersistentMethod extends AbstractStaticPersistentMethod {
+
+    public static final String METHOD_SIGNATURE = "updateAll";
+    private static final Pattern METHOD_PATTERN = Pattern.compile('^' + METHOD_SIGNATURE + '$');
+    private static final String[] EVENTS = new String[] { "beforeUpdate", "afterUpdate" };
+
+    public UpdateAllPersistentMethod(SessionFactory sessionFactory, ClassLoader classLoader) {
+        super(sessionFactory, classLoader, METHOD_PATTERN);
+    }
+
+    protected Object doInvokeInternal(final Class clazz, final String methodName, Object[] arguments) {
+        if(arguments.length < 2 || arguments.length > 3 || !(arguments[0] instanceof Map) || !(arguments[1] instanceof Map)
+                || (arguments.length == 3 && !(arguments[2] instanceof Map))) {
+            throw new MissingMethodException(methodName, clazz, arguments);
+        }
+        final Map where = (Map) arguments[0];
+        final Map values = (Map) arguments[1];
+        final Map argMap = arguments.length == 3 ? (Map) arguments[2] : Collections.EMPTY_MAP;
+        BulkPersistenceSupport.checkWhere(clazz, methodName, where, argMap);
+        if(values.isEmpty()) return 0;
+
+        final SessionFactory sessionFactory = getHibernateTemplate().getSessionFactory();
+        final int batchSize = BulkPersistenceSupport.getBatchSize(sessionFactory, argMap);
+
+        return BulkPersistenceSupport.execute(sessionFactory, getHibernateTemplate(), new HibernateCallback() {
+            public Object doInHibernate(Session session) throws HibernateException, SQLException {
+                EntityPersister persister = BulkPersistenceSupport.getPersister(session, clazz);
+                Map converted = new LinkedHashMap();
+                for (Iterator i = values.entrySet().iterator(); i.hasNext();) {
+                    Map.Entry entry = (Map.Entry) i.next();
+                    String propertyName = entry.getKey().toString();
+                    if(propertyName.equals(persister.getIdentifierPropertyName()) || isCollection(persister, propertyName)) {
+                        throw new IllegalArgumentException("Property [" + propertyName + "] of class [" + clazz.getName()
+                                + "] can't be changed with [" + methodName + "]");
+                    }
+                    converted.put(propertyName, BulkPersistenceSupport.convertValue(persister, methodName, propertyName, entry.getValue()));
+                }
+
+                if(BulkPersistenceSupport.canExecuteBulk(persister, clazz, EVENTS, false)) {
+                    return updateWhere(session, persister, clazz, methodName, where, converted);
+                }
+
+                List ids = BulkPersistenceSupport.findIds(session, clazz, persister, methodName, where);
+                int updated = 0;
+                Map vetoed = new IdentityHashMap();
+                Map previousVetoed = ClosureEventTriggeringInterceptor.recordVetoedUpdates(vetoed);
+                try {
+                    for (List chunk : BulkPersistenceSupport.chunk(ids, batchSize)) {
+                        List instances = BulkPersistenceSupport.loadAll(session, clazz, persister, chunk);
+                        for (Iterator i = instances.iterator(); i.hasNext();) {
+                            BeanWrapper bean = new BeanWrapperImpl(i.next());
+                            bean.setPropertyValues(converted);
+                        }
+                        session.flush();
+                        for (Iterator i = instances.iterator(); i.hasNext();) {
+                            if(!vetoed.containsKey(i.next())) updated++;
+                        }
+                        vetoed.clear();
+                        session.clear();
+                    }
+                }
+                finally {
+                    ClosureEventTriggeringInterceptor.recordVetoedUpdates(previousVetoed);
+                }
+                return updated;
+            }
+        });
+    }
+
+    private boolean isCollection(EntityPersister persister, String propertyName) {
+        return Arrays.asList(persister.getPropertyNames()).contains(propertyName) && persister.getPropertyType(propertyName).isCollectionType();
+    }
+
+    private int updateWhere(Session session, EntityPersister persister, Class clazz, String methodName, Map where, Map values) {
+        Map assignments = new LinkedHashMap(values);
+        Mapping m = GrailsDomainBinder.getMapping(clazz);
+        if((m == null || m.getAutoTimestamp()) && !assignments.containsKey(GrailsDomainClassProperty.LAST_UPDATED)
+                && Arrays.asList(persister.getPropertyNames()).contains(GrailsDomainClassProperty.LAST_UPDATED)) {
+            assignments.put(GrailsDomainClassProperty.LAST_UPDATED, new Timestamp(System.currentTimeMillis()));
+        }
+
+        StringBuilder hql = new StringBuilder("update ");
+        if(persister.isVersioned()) hql.append("versioned ");
+        hql.append(persister.getEntityName()).append(" set ");
+        List<Object[]> parameters = new ArrayList<Object[]>();
+        for (Iterator i = assignments.entrySet().iterator(); i.hasNext();) {
+            Map.Entry entry = (Map.Entry) i.next();
+            hql.append(entry.getKey());
+            if(entry.getValue() == null) {
+                hql.append(" = null");
+            }
+            else {
+                String name = "v" + parameters.size();
+                hql.append(" = :").append(name);
+                parameters.add(new Object[] { name, entry.getValue() });
+            }
+            if(i.hasNext()) hql.append(", ");
+        }
+        BulkPersistenceSupport.appendWhereClause(hql, persister, methodName, where, parameters);
+
+        Query query = session.createQuery(hql.toString());
+        BulkPersistenceSupport.bindParameters(query, parameters);
+        return query.executeUpdate();
+    }
+}
@@ -15,12 +15,16 @@
  */
 package org.codehaus.groovy.grails.orm.hibernate.support
 
-import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty
-import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsDomainBinder
-import org.codehaus.groovy.grails.orm.hibernate.cfg.Mapping
-import org.springframework.beans.factory.config.AutowireCapableBeanFactory
+import org.codehaus.groovy.grails.commons.DomainClassArtefactHandler
+import org.codehaus.groovy.grails.commons.GrailsApplication
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil
+import org.codehaus.groovy.grails.orm.hibernate.validation.HibernateDomainClassValidator
+import org.codehaus.groovy.grails.orm.hibernate.validation.ValidatedEntityStates
 import org.springframework.context.ApplicationContext
 import org.springframework.context.ApplicationContextAware
+import org.springframework.validation.BeanPropertyBindingResult
+import org.springframework.validation.Errors
+import org.springframework.validation.FieldError
 import org.hibernate.event.SaveOrUpdateEvent
 import org.hibernate.event.PreUpdateEventListener
 import org.hibernate.event.PostUpdateEventListener
@@ -39,18 +43,18 @@ import org.hibernate.event.PostLoadEvent
 import org.hibernate.event.PreInsertEvent
 import org.hibernate.event.PreInsertEventListener
 import org.codehaus.groovy.grails.orm.hibernate.events.SaveOrUpdateEventListener
-import org.apache.commons.lang.ArrayUtils
-import org.hibernate.event.AbstractEvent
 import org.hibernate.persister.entity.EntityPersister
 import org.hibernate.EntityMode
 import org.hibernate.engine.EntityEntry
-import org.codehaus.groovy.grails.commons.DomainClassArtefactHandler
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * <p>An interceptor that invokes closure events on domain entities such as beforeInsert, beforeUpdate and beforeDelete
  *
  * <p>This class also deals with auto time stamping of domain classes that have properties named 'lastUpdated' and/or 'dateCreated'
  *
+ * <p>Loaded entities are autowired by name unless grails.hibernate.autowire is set to false
+ *
  * @author Graeme Rocher
  * @since 1.0
  */
@@ -66,36 +70,18 @@ class ClosureEventTriggeringInterceptor extends SaveOrUpdateEventListener implem
     public void onSaveOrUpdate(SaveOrUpdateEvent event) {
 
         def entity = event.getObject()
-        if(shouldTrigger(entity)) {
+        EntityEventDescriptor descriptor = getDescriptor(entity)
+        if(descriptor.domainClass) {
             boolean newEntity = !event.session.contains(entity)
             if(newEntity) {
-                triggerEvent(BEFORE_INSERT_EVENT, entity, null)
-
-                def metaClass = entity.metaClass
-                Mapping m = GrailsDomainBinder.getMapping(entity.getClass())
-                boolean shouldTimestamp = m && !m.autoTimestamp ? false : true
-
-                MetaProperty property = metaClass.hasProperty(entity, GrailsDomainClassProperty.DATE_CREATED)
-                def time = System.currentTimeMillis()
-                if(property && shouldTimestamp && newEntity) {
-                    def now = property.getType().newInstance([time] as Object[] )
-                    entity."$property.name" = now
-                }
-                property = metaClass.hasProperty(entity,GrailsDomainClassProperty.LAST_UPDATED)
-                if(property && shouldTimestamp) {
-                    def now = property.getType().newInstance([time] as Object[] )
-                    entity."$property.name" = now
-                }
+                triggerEvent(BEFORE_INSERT_EVENT, entity, null, descriptor)
+                descriptor.timestampNew(entity)
             }
         }
 
         super.onSaveOrUpdate event
     }
 
-    private boolean shouldTrigger(entity) {
-        return entity && DomainClassArtefactHandler.isDomainClass(entity.class)
-    }
-
     static final String ONLOAD_EVENT = 'onLoad'
     static final String ONLOAD_SAVE = 'onSave'
     static final String BEFORE_LOAD_EVENT = "beforeLoad"
@@ -107,142 +93,176 @@ class ClosureEventTriggeringInterceptor extends SaveOrUpdateEventListener implem
     static final String AFTER_DELETE_EVENT = 'afterDelete'
     static final String AFTER_LOAD_EVENT = "afterLoad"
 
+    private static final String[] EVENTS = [ONLOAD_EVENT, BEFORE_LOAD_EVENT, AFTER_LOAD_EVENT,
+                                            BEFORE_INSERT_EVENT, AFTER_INSERT_EVENT,
+                                            BEFORE_UPDATE_EVENT, AFTER_UPDATE_EVENT,
+                                            BEFORE_DELETE_EVENT, AFTER_DELETE_EVENT] as String[]
+
     public void onPreLoad(PreLoadEvent event) {
         def entity = event.getEntity()
+        EntityEventDescriptor descriptor = getDescriptor(entity)
 
-        if(shouldTrigger(entity)) {
-            if(entity.metaClass.hasProperty(entity, ONLOAD_EVENT))
-                triggerEvent(ONLOAD_EVENT, event.entity, event)
-            else if(entity.metaClass.hasProperty(entity, BEFORE_LOAD_EVENT))
-                triggerEvent(BEFORE_LOAD_EVENT, event.entity, event)
+        if(descriptor.domainClass) {
+            if(descriptor.hasHandler(ONLOAD_EVENT))
+                triggerEvent(ONLOAD_EVENT, entity, event, descriptor)
+            else
+                triggerEvent(BEFORE_LOAD_EVENT, entity, event, descriptor)
         }
     }
 
     public void onPostLoad(PostLoadEvent event) {
         def entity = event.getEntity()
+        EntityEventDescriptor descriptor = getDescriptor(entity)
 
-        if(shouldTrigger(entity)) {
-            applicationContext?.autowireCapableBeanFactory?.autowireBeanProperties(entity,AutowireCapableBeanFactory.AUTOWIRE_BY_NAME, false)
-            triggerEvent(AFTER_LOAD_EVENT, entity, event)
+        if(descriptor.domainClass) {
+            getEntityAutowirer()?.autowire(entity)
+            triggerEvent(AFTER_LOAD_EVENT, entity, event, descriptor)
         }
     }
 
     public void onPostInsert(PostInsertEvent event) {
-        if(shouldTrigger(event.entity)) {
-            triggerEvent(AFTER_INSERT_EVENT, event.entity, event)
-        }
+        triggerEvent(AFTER_INSERT_EVENT, event.entity, event, getDescriptor(event.entity))
     }
 
     public boolean onPreUpdate(PreUpdateEvent event) {
         def entity = event.getEntity()
+        EntityEventDescriptor descriptor = getDescriptor(entity)
         def evict = false
-        if(shouldTrigger(entity)) {
-            evict = triggerEvent(BEFORE_UPDATE_EVENT, event.entity, event)
-
-            Mapping m = GrailsDomainBinder.getMapping(entity.getClass())
-            boolean shouldTimestamp = m && !m.autoTimestamp ? false : true
-            MetaProperty property = entity.metaClass.hasProperty(entity, GrailsDomainClassProperty.LAST_UPDATED)
-            if(property && shouldTimestamp) {
-
-                def now = property.getType().newInstance([System.currentTimeMillis()] as Object[] )
-                event.getState()[ArrayUtils.indexOf(event.persister.propertyNames, GrailsDomainClassProperty.LAST_UPDATED)] = now;
-                entity."$property.name" = now
-            }
-
+        if(descriptor.domainClass) {
+            evict = triggerEvent(BEFORE_UPDATE_EVENT, entity, event, descriptor)
+            descriptor.timestampUpdate(entity, event.persister, event.state)
         }
 
-        if(!entity.validate(deepValidate:false)) {
+        if(!validateOnFlush(entity, event)) {
             evict = true
         }
+        if(evict) {
+            VETOED_UPDATES.get()?.put(entity, entity)
+        }
         return evict
     }
 
+    private static final ThreadLocal<Map> VETOED_UPDATES = new ThreadLocal<Map>()
+
+    /**
+     * Records the entities whose update is vetoed on the current thread, by a beforeUpdate event returning false or
+     * by failed validation, in the given map until it is replaced
+     *
+     * @param vetoed An identity map the vetoed entities are put into as keys, or null to stop recording
+     * @return The map that was used before
+     */
+    static Map recordVetoedUpdates(Map vetoed) {
+        Map previous = VETOED_UPDATES.get()
+        if(vetoed != null) {
+            VETOED_UPDATES.set(vetoed)
+        }
+        else {
+            VETOED_UPDATES.remove()
+        }
+        previous
+    }
+
+    /**
+     * Validates an entity that is about to be updated. Entities that haven't changed since they were last validated
+     * aren't validated again and of the others only the changed properties are, unless the changes aren't known
+     */
+    private boolean validateOnFlush(entity, PreUpdateEvent event) {
+        def domainClass = grailsApplication?.getArtefact(DomainClassArtefactHandler.TYPE, entity.getClass().name)
+        def validator = domainClass?.validator
+        if(validator instanceof HibernateDomainClassValidator) {
+            Set propertyNames = ValidatedEntityStates.getPropertiesToValidate(event)
+            if(propertyNames != null) {
+                if(propertyNames.isEmpty()) return true
+
+                Errors errors = new BeanPropertyBindingResult(entity, entity.getClass().name)
+                for(FieldError fe in entity.errors.fieldErrors) {
+                    if(fe.bindingFailure) errors.rejectValue(fe.field, fe.code, fe.arguments, fe.defaultMessage)
+                }
+                validator.validateProperties(entity, errors, propertyNames)
+                return !errors.hasErrors()
+            }
+        }
+        return entity.validate(deepValidate:false)
+    }
+
     public void onPostUpdate(PostUpdateEvent event) {
-        if(shouldTrigger(event.entity))
-            triggerEvent(AFTER_UPDATE_EVENT, event.entity, event)
+        triggerEvent(AFTER_UPDATE_EVENT, event.entity, event, getDescriptor(event.entity))
     }
 
     public void onPostDelete(PostDeleteEvent event) {
-        if(shouldTrigger(event.entity))
-            triggerEvent(AFTER_DELETE_EVENT, event.entity, event)
+        triggerEvent(AFTER_DELETE_EVENT, event.entity, event, getDescriptor(event.entity))
     }
 
     public boolean onPreDelete(PreDeleteEvent event) {
-        if(shouldTrigger(event.entity))
-            return triggerEvent(BEFORE_DELETE_EVENT,event.entity, event)
+        return triggerEvent(BEFORE_DELETE_EVENT, event.entity, event, getDescriptor(event.entity))
+    }
+
+    private transient Map<Class, EntityEventDescriptor> descriptors = new ConcurrentHashMap<Class, EntityEventDescriptor>()
+
+    /**
+     * Descriptors are held per class, a reloaded domain class is a new class and gets a new descriptor
+     */
+    private EntityEventDescriptor getDescriptor(entity) {
+        if(entity == null) return EntityEventDescriptor.NONE
+        Class clazz = entity.getClass()
+        EntityEventDescriptor descriptor = descriptors.get(clazz)
+        if(descriptor == null) {
+            descriptor = EntityEventDescriptor.create(entity, EVENTS)
+            descriptors.put(clazz, descriptor)
+        }
+        descriptor
     }
 
     private transient ApplicationContext applicationContext
+    private transient GrailsApplication grailsApplication
+    private transient EntityAutowirer entityAutowirer
+    private transient boolean autowireEntities = true
 
     public void setApplicationContext(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext
+        this.entityAutowirer = null
+        this.descriptors.clear()
+        this.autowireEntities = GrailsHibernateUtil.isAutowireEntities()
+        this.grailsApplication = applicationContext.containsBean(GrailsApplication.APPLICATION_ID) ?
+                                    applicationContext.getBean(GrailsApplication.APPLICATION_ID) : null
     }
 
-
-    private boolean triggerEvent(String event, entity, Object eventObject) {
-        def result = false
-        boolean eventTriggered = false
-        if(entity.respondsTo(event, [] as Object[])) {
-            eventTriggered = true
-            result = entity."$event"()
-            if(result instanceof Boolean) result = !result
-            else {
-                result = false
-            }            
+    private EntityAutowirer getEntityAutowirer() {
+        if(entityAutowirer == null && autowireEntities) {
+            def beanFactory = applicationContext?.autowireCapableBeanFactory
+            if(beanFactory) entityAutowirer = new EntityAutowirer(beanFactory)
         }
-        else if(entity.hasProperty(event)) {
-             eventTriggered = true
-             def callable = entity."$event"
-             if(callable instanceof Closure) {
-                 callable.resolveStrategy = Closure.DELEGATE_FIRST
-                 callable.delegate = entity
-                 result = callable.call()
-                 if(result instanceof Boolean) result = !result
-                 else {
-                     result = false
-                 }
-             }
+        entityAutowirer
+    }
+
+
+    private boolean triggerEvent(String event, entity, Object eventObject, EntityEventDescriptor descriptor) {
+        if(!descriptor.hasHandler(event)) return false
+
+        def result = descriptor.invokeHandler(event, entity)
+        result = result instanceof Boolean ? !result : false
+
+        if(eventObject instanceof PreUpdateEvent) {
+            PreUpdateEvent updateEvent = eventObject
+            synchronizeState(entity, updateEvent.persister, updateEvent.state, descriptor)
         }
+        else if(eventObject instanceof SaveOrUpdateEvent) {
+            SaveOrUpdateEvent updateEvent = eventObject
 
-        if(eventTriggered) {
-            if(eventObject instanceof PreUpdateEvent) {
-                PreUpdateEvent updateEvent = eventObject
-                EntityPersister persister = updateEvent.persister
-                def propertyNames = persister.propertyNames.toList()
-                def state = updateEvent.state
-                for(p in propertyNames) {
-                    if(['version','id'].contains(p)) continue
-                   def i = propertyNames.indexOf(p)
-                   def value = entity."$p"
-                   state[i] = value
-                   persister.setPropertyValue(entity,i,value,EntityMode.POJO)
-                }
-            }
-            else if(eventObject instanceof SaveOrUpdateEvent) {
-                SaveOrUpdateEvent updateEvent = eventObject
-
-                if(updateEvent.session.contains(entity)) {
-                    EntityEntry entry = updateEvent.getEntry()
-                    if(entry) {
-                        def propertyNames = entry.persister.propertyNames.toList()
-                        def state = entry.loadedState
-                        for(p in propertyNames) {
-                           if(['version','id'].contains(p)) continue
-                           def i = propertyNames.indexOf(p)
-                           def value = entity."$p"
-                           state[i] = value
-                           entry.persister.setPropertyValue(entity,i,value,EntityMode.POJO)
-                        }
-
-                    }
+            if(updateEvent.session.contains(entity)) {
+                EntityEntry entry = updateEvent.getEntry()
+                if(entry) {
+                    synchronizeState(entity, entry.persister, entry.loadedState, descriptor)
                 }
             }
         }
 
         return result
-
     }
 
-
-
-}
\ No newline at end of file
+    private void synchronizeState(entity, EntityPersister persister, Object[] state, EntityEventDescriptor descriptor) {
+        for(int i in descriptor.getSynchronizedIndexes(persister)) {
+            state[i] = persister.getPropertyValue(entity, i, EntityMode.POJO)
+        }
+    }
+}
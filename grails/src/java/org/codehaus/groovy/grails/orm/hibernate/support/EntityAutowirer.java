@@ -0,0 +1,156 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.support;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Autowires loaded domain instances by name, with the same result as calling autowireBeanProperties with
+ * AUTOWIRE_BY_NAME but without introspecting each instance. For every class the writable properties that match
+ * a bean name are found once, and the setters are then invoked directly with the beans looked up by name, so that
+ * reloaded beans are picked up. Classes without such properties aren't touched at all.
+ *
+ * Classes that use annotation driven injection, or have a property whose type doesn't fit the bean of the same
+ * name, are still handed to the bean factory.
+ *
+ * @since 1.2
+ */
+public class EntityAutowirer {
+    private static final String[] INJECTION_ANNOTATION_PACKAGES = {
+            "org.springframework.beans.factory.annotation.", "javax.annotation.Resource", "javax.inject." };
+
+    private static final ThreadLocal<Boolean> SUSPENDED = new ThreadLocal<Boolean>();
+
+    private final AutowireCapableBeanFactory beanFactory;
+    private final Map<Class, InjectionPlan> plans = new ConcurrentHashMap<Class, InjectionPlan>();
+
+    public EntityAutowirer(AutowireCapableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * Suspends or resumes the autowiring of the instances loaded by the current thread, for code that loads a large
+     * number of instances without using their beans
+     *
+     * @param suspended Whether autowiring is suspended
+     */
+    public static void setSuspended(boolean suspended) {
+        if(suspended) {
+            SUSPENDED.set(Boolean.TRUE);
+        }
+        else {
+            SUSPENDED.remove();
+        }
+    }
+
+    public static boolean isSuspended() {
+        return SUSPENDED.get() != null;
+    }
+
+    /**
+     * Injects the beans whose names match properties of the given instance, unless autowiring is suspended
+     *
+     * @param entity The domain instance
+     */
+    public void autowire(Object entity) {
+        if(isSuspended()) return;
+        Class clazz = entity.getClass();
+        InjectionPlan plan = plans.get(clazz);
+        if(plan == null) {
+            plan = createPlan(clazz);
+            plans.put(clazz, plan);
+        }
+        plan.inject(entity);
+    }
+
+    private InjectionPlan createPlan(Class clazz) {
+        if(usesInjectionAnnotations(clazz)) {
+            return new InjectionPlan(null, null);
+        }
+
+        List<Method> setters = new ArrayList<Method>();
+        List<String> names = new ArrayList<String>();
+        for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(clazz)) {
+            Method setter = pd.getWriteMethod();
+            String name = pd.getName();
+            if(setter == null || BeanUtils.isSimpleProperty(pd.getPropertyType()) || !beanFactory.containsBean(name)) {
+                continue;
+            }
+            if(!beanFactory.isTypeMatch(name, pd.getPropertyType())) {
+                // leave type conversion and its errors to the bean factory
+                return new InjectionPlan(null, null);
+            }
+            ReflectionUtils.makeAccessible(setter);
+            setters.add(setter);
+            names.add(name);
+        }
+        return new InjectionPlan(setters.toArray(new Method[setters.size()]), names.toArray(new String[names.size()]));
+    }
+
+    private static boolean usesInjectionAnnotations(Class clazz) {
+        for (Class c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            if(hasInjectionAnnotation(c.getDeclaredFields()) || hasInjectionAnnotation(c.getDeclaredMethods())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasInjectionAnnotation(AccessibleObject[] members) {
+        for (AccessibleObject member : members) {
+            for (Annotation annotation : member.getAnnotations()) {
+                String name = annotation.annotationType().getName();
+                for (String prefix : INJECTION_ANNOTATION_PACKAGES) {
+                    if(name.startsWith(prefix)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The setters to invoke for a class. Null setters mean that the bean factory autowires the instances.
+     */
+    private final class InjectionPlan {
+        private final Method[] setters;
+        private final String[] names;
+
+        InjectionPlan(Method[] setters, String[] names) {
+            this.setters = setters;
+            this.names = names;
+        }
+
+        void inject(Object entity) {
+            if(setters == null) {
+                beanFactory.autowireBeanProperties(entity, AutowireCapableBeanFactory.AUTOWIRE_BY_NAME, false);
+                return;
+            }
+            for (int i = 0; i < setters.length; i++) {
+                ReflectionUtils.invokeMethod(setters[i], entity, new Object[] { beanFactory.getBean(names[i]) });
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.support;
+
+import groovy.lang.Closure;
+import groovy.lang.MetaClass;
+import groovy.lang.MetaMethod;
+import groovy.lang.MetaProperty;
+import org.codehaus.groovy.grails.commons.DomainClassArtefactHandler;
+import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsDomainBinder;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.Mapping;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes what ClosureEventTriggeringInterceptor has to do for the instances of a domain class: which event
+ * handlers it has, the timestamp properties to set and where the synchronized properties sit in the persister
+ * state. It is created once per class so dispatching an event to a class without handlers costs a map lookup.
+ *
+ * @since 1.2
+ */
+public final class EntityEventDescriptor {
+    /**
+     * Describes classes that aren't domain classes, no events are triggered for them
+     */
+    public static final EntityEventDescriptor NONE = new EntityEventDescriptor();
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final boolean domainClass;
+    private final Map<String, Object> handlers = new HashMap<String, Object>();
+    private final Timestamp dateCreated;
+    private final Timestamp lastUpdated;
+
+    private volatile PersisterIndexes persisterIndexes;
+
+    private EntityEventDescriptor() {
+        this.domainClass = false;
+        this.dateCreated = null;
+        this.lastUpdated = null;
+    }
+
+    private EntityEventDescriptor(Object entity, String[] events) {
+        this.domainClass = true;
+        MetaClass metaClass = InvokerHelper.getMetaClass(entity);
+        for (String event : events) {
+            List methods = metaClass.respondsTo(entity, event, NO_ARGS);
+            if(!methods.isEmpty()) {
+                handlers.put(event, methods.get(0));
+            }
+            else {
+                MetaProperty property = metaClass.hasProperty(entity, event);
+                if(property != null) handlers.put(event, property);
+            }
+        }
+
+        Mapping m = GrailsDomainBinder.getMapping(entity.getClass());
+        boolean shouldTimestamp = m == null || m.getAutoTimestamp();
+        this.dateCreated = shouldTimestamp ? Timestamp.create(metaClass.hasProperty(entity, GrailsDomainClassProperty.DATE_CREATED)) : null;
+        this.lastUpdated = shouldTimestamp ? Timestamp.create(metaClass.hasProperty(entity, GrailsDomainClassProperty.LAST_UPDATED)) : null;
+    }
+
+    /**
+     * Creates the descriptor for the class of the given instance
+     *
+     * @param entity An instance of the class
+     * @param events The names of the events to look up handlers for
+     * @return The descriptor or NONE if it isn't a domain class
+     */
+    public static EntityEventDescriptor create(Object entity, String[] events) {
+        if(!DomainClassArtefactHandler.isDomainClass(entity.getClass())) return NONE;
+        return new EntityEventDescriptor(entity, events);
+    }
+
+    public boolean isDomainClass() {
+        return domainClass;
+    }
+
+    public boolean hasHandler(String event) {
+        return handlers.containsKey(event);
+    }
+
+    /**
+     * Invokes the handler of the given event
+     *
+     * @return The result of the handler or null if the handler property doesn't hold a closure
+     */
+    public Object invokeHandler(String event, Object entity) {
+        Object handler = handlers.get(event);
+        if(handler instanceof MetaMethod) {
+            return ((MetaMethod) handler).invoke(entity, NO_ARGS);
+        }
+        if(handler instanceof MetaProperty) {
+            Object callable = ((MetaProperty) handler).getProperty(entity);
+            if(callable instanceof Closure) {
+                Closure closure = (Closure) callable;
+                closure.setResolveStrategy(Closure.DELEGATE_FIRST);
+                closure.setDelegate(entity);
+                return closure.call();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the dateCreated and lastUpdated properties of a new instance if it is auto time stamped
+     */
+    public void timestampNew(Object entity) {
+        if(dateCreated == null && lastUpdated == null) return;
+        long time = System.currentTimeMillis();
+        if(dateCreated != null) dateCreated.set(entity, time);
+        if(lastUpdated != null) lastUpdated.set(entity, time);
+    }
+
+    /**
+     * Sets the lastUpdated property of an updated instance, and its persister state, if it is auto time stamped
+     */
+    public void timestampUpdate(Object entity, EntityPersister persister, Object[] state) {
+        if(lastUpdated == null) return;
+        Object now = lastUpdated.set(entity, System.currentTimeMillis());
+        int i = getPersisterIndexes(persister).lastUpdated;
+        if(i > -1) state[i] = now;
+    }
+
+    /**
+     * @return The state indexes of the properties to copy back into the persister state after an event, which are
+     * all but the id and version
+     */
+    public int[] getSynchronizedIndexes(EntityPersister persister) {
+        return getPersisterIndexes(persister).synchronizedIndexes;
+    }
+
+    private PersisterIndexes getPersisterIndexes(EntityPersister persister) {
+        PersisterIndexes indexes = persisterIndexes;
+        if(indexes == null || indexes.persister != persister) {
+            indexes = new PersisterIndexes(persister);
+            persisterIndexes = indexes;
+        }
+        return indexes;
+    }
+
+    private static final class PersisterIndexes {
+        private final EntityPersister persister;
+        private final int[] synchronizedIndexes;
+        private final int lastUpdated;
+
+        private PersisterIndexes(EntityPersister persister) {
+            this.persister = persister;
+            String[] names = persister.getPropertyNames();
+            List<Integer> indexes = new ArrayList<Integer>(names.length);
+            int lastUpdatedIndex = -1;
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                if(GrailsDomainClassProperty.LAST_UPDATED.equals(name)) lastUpdatedIndex = i;
+                if(GrailsDomainClassProperty.VERSION.equals(name) || GrailsDomainClassProperty.IDENTITY.equals(name)) continue;
+                indexes.add(i);
+            }
+            this.synchronizedIndexes = new int[indexes.size()];
+            for (int i = 0; i < synchronizedIndexes.length; i++) {
+                synchronizedIndexes[i] = indexes.get(i);
+            }
+            this.lastUpdated = lastUpdatedIndex;
+        }
+    }
+
+    /**
+     * A timestamp property together with the constructor that creates its values from the current time
+     */
+    private static final class Timestamp {
+        private final MetaProperty property;
+        private final Constructor constructor;
+
+        private Timestamp(MetaProperty property, Constructor constructor) {
+            this.property = property;
+            this.constructor = constructor;
+        }
+
+        static Timestamp create(MetaProperty property) {
+            if(property == null) return null;
+            Constructor constructor;
+            try {
+                constructor = property.getType().getConstructor(long.class);
+            }
+            catch (NoSuchMethodException e) {
+                constructor = null;
+            }
+            return new Timestamp(property, constructor);
+        }
+
+        Object set(Object entity, long time) {
+            Object now;
+            if(constructor != null) {
+                try {
+                    now = constructor.newInstance(time);
+                }
+                catch (Exception e) {
+                    now = InvokerHelper.invokeConstructorOf(property.getType(), time);
+                }
+            }
+            else {
+                now = InvokerHelper.invokeConstructorOf(property.getType(), time);
+            }
+            property.setProperty(entity, now);
+            return now;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.support;
+
+import grails.orm.PagedResultList;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsDomainBinder;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.Mapping;
+import org.hibernate.Criteria;
+import org.hibernate.criterion.Conjunction;
+import org.hibernate.criterion.Disjunction;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Constructor;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (or seek) pagination. Instead of skipping the rows of the previous pages with an offset, the next page is
+ * selected with a predicate on the sort keys of the last row read, plus its id to break ties:
+ *
+ * Book.list(sort:'dateCreated', order:'desc', max:50, after:params.after)
+ *
+ * The "after" argument holds the cursor token of the previous page, or the key values of its last row as a list
+ * [lastValue, lastId], and is null for the first page. The list returned is a PagedResultList whose nextCursor is
+ * the token of the following page, or null if there are no more rows.
+ *
+ * Rows are ordered by the raw values of the sort keys, so "ignoreCase" doesn't apply, and the sort keys mustn't
+ * be null.
+ *
+ * @since 1.2
+ */
+public final class KeysetCursor {
+    private static final String ENCODING = "UTF-8";
+    private static final char NULL_VALUE = 'n';
+    private static final char DATE_VALUE = 't';
+    private static final char OTHER_VALUE = 'v';
+
+    private final String[] properties;
+    private final Class[] types;
+    private final boolean descending;
+    private final Object[] values;
+
+    /**
+     * Creates a cursor over the given sort keys, which are followed by the id
+     *
+     * @param targetClass The class being queried
+     * @param sortProperties The sort properties
+     * @param descending Whether the rows are sorted in descending order
+     * @param after The token or key values of the last row of the previous page, or null for the first page
+     */
+    public KeysetCursor(Class targetClass, String[] sortProperties, boolean descending, Object after) {
+        if(targetClass == null) throw new IllegalArgumentException("Keyset pagination requires the class being queried");
+        this.properties = new String[sortProperties.length + 1];
+        System.arraycopy(sortProperties, 0, properties, 0, sortProperties.length);
+        properties[sortProperties.length] = GrailsDomainClassProperty.IDENTITY;
+
+        this.types = new Class[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            types[i] = getPropertyType(targetClass, properties[i]);
+        }
+        this.descending = descending;
+        this.values = after != null ? convert(toValues(after)) : null;
+    }
+
+    /**
+     * Creates the cursor for the "after", "sort" and "order" arguments of a query. The default sort of the mapping
+     * is used when there's no "sort" argument.
+     *
+     * @return The cursor or null if there's no "after" argument
+     */
+    public static KeysetCursor fromArguments(Class targetClass, Map argMap) {
+        if(!argMap.containsKey(GrailsHibernateUtil.ARGUMENT_AFTER)) return null;
+
+        String sort = (String)argMap.get(GrailsHibernateUtil.ARGUMENT_SORT);
+        String order = (String)argMap.get(GrailsHibernateUtil.ARGUMENT_ORDER);
+        if(sort == null && targetClass != null) {
+            Mapping m = GrailsDomainBinder.getMapping(targetClass);
+            if(m != null && !StringUtils.isBlank(m.getSort())) {
+                sort = m.getSort();
+                order = m.getOrder();
+            }
+        }
+        String[] sortProperties = sort == null || GrailsDomainClassProperty.IDENTITY.equals(sort) ? new String[0] : new String[] { sort };
+        return new KeysetCursor(targetClass, sortProperties, GrailsHibernateUtil.ORDER_DESC.equalsIgnoreCase(order),
+                argMap.get(GrailsHibernateUtil.ARGUMENT_AFTER));
+    }
+
+    /**
+     * Wraps the results of a query in a PagedResultList holding the cursor of the next page if the query was keyset
+     * paginated
+     *
+     * @return The PagedResultList or the results if there's no "after" argument
+     */
+    public static List createResultList(Class targetClass, Map argMap, List results) {
+        KeysetCursor cursor = fromArguments(targetClass, argMap);
+        if(cursor == null) return results;
+
+        Object max = argMap.get(GrailsHibernateUtil.ARGUMENT_MAX);
+        return cursor.createResultList(results, max != null ? (Integer) GrailsHibernateUtil.converter.convertIfNecessary(max, Integer.class) : null);
+    }
+
+    /**
+     * Restricts the criteria to the rows following the cursor and orders it by the sort keys and the id
+     */
+    public void applyTo(Criteria criteria) {
+        if(values != null) {
+            Disjunction following = Restrictions.disjunction();
+            for (int i = 0; i < properties.length; i++) {
+                Conjunction tuple = Restrictions.conjunction();
+                for (int j = 0; j < i; j++) {
+                    tuple.add(Restrictions.eq(properties[j], values[j]));
+                }
+                tuple.add(descending ? Restrictions.lt(properties[i], values[i]) : Restrictions.gt(properties[i], values[i]));
+                following.add(tuple);
+            }
+            criteria.add(following);
+        }
+        for (String property : properties) {
+            criteria.addOrder(descending ? Order.desc(property) : Order.asc(property));
+        }
+    }
+
+    /**
+     * Wraps a page of results in a PagedResultList holding the cursor of the next page
+     *
+     * @param results The results
+     * @param max The maximum number of results of the page, or null
+     * @return The PagedResultList
+     */
+    public PagedResultList createResultList(List results, Integer max) {
+        PagedResultList list = new PagedResultList(results, PagedResultList.UNKNOWN_TOTAL_COUNT);
+        list.setNextCursor(getNextCursor(results, max));
+        return list;
+    }
+
+    /**
+     * @return The token of the page following the given results, or null if there are no more rows
+     */
+    public String getNextCursor(List results, Integer max) {
+        if(results.isEmpty() || (max != null && max > 0 && results.size() < max)) return null;
+
+        BeanWrapperImpl last = new BeanWrapperImpl(results.get(results.size() - 1));
+        Object[] lastValues = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            lastValues[i] = last.getPropertyValue(properties[i]);
+        }
+        return encode(lastValues);
+    }
+
+    /**
+     * Encodes key values as an URL safe token
+     */
+    public static String encode(Object[] values) {
+        StringBuilder buf = new StringBuilder();
+        for (Object value : values) {
+            String part;
+            if(value == null) {
+                part = String.valueOf(NULL_VALUE);
+            }
+            else if(value instanceof Date) {
+                part = DATE_VALUE + String.valueOf(((Date) value).getTime());
+                if(value instanceof Timestamp && ((Timestamp) value).getNanos() % 1000000 != 0) {
+                    part += "." + ((Timestamp) value).getNanos();
+                }
+            }
+            else {
+                part = OTHER_VALUE + (value instanceof Enum ? ((Enum) value).name() : value.toString());
+            }
+            buf.append(part.length()).append(':').append(part);
+        }
+        try {
+            String token = new String(Base64.encodeBase64(buf.toString().getBytes(ENCODING)), ENCODING);
+            return StringUtils.stripEnd(token, "=").replace('+', '-').replace('/', '_');
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes a token created by encode(Object[]). Values other than nulls and dates are returned as strings.
+     */
+    public static Object[] decode(String token) {
+        try {
+            String base64 = token.replace('-', '+').replace('_', '/');
+            while(base64.length() % 4 != 0) base64 += "=";
+            String text = new String(Base64.decodeBase64(base64.getBytes(ENCODING)), ENCODING);
+
+            List<Object> values = new ArrayList<Object>();
+            int i = 0;
+            while(i < text.length()) {
+                int colon = text.indexOf(':', i);
+                int length = Integer.parseInt(text.substring(i, colon));
+                String part = text.substring(colon + 1, colon + 1 + length);
+                i = colon + 1 + length;
+                switch (part.charAt(0)) {
+                    case NULL_VALUE: values.add(null); break;
+                    case DATE_VALUE: values.add(decodeDate(part.substring(1))); break;
+                    case OTHER_VALUE: values.add(part.substring(1)); break;
+                    default: throw new IllegalArgumentException(part);
+                }
+            }
+            return values.toArray();
+        }
+        catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid keyset pagination cursor [" + token + "]");
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static Timestamp decodeDate(String text) {
+        int dot = text.indexOf('.');
+        Timestamp date = new Timestamp(Long.parseLong(dot > -1 ? text.substring(0, dot) : text));
+        if(dot > -1) date.setNanos(Integer.parseInt(text.substring(dot + 1)));
+        return date;
+    }
+
+    private Object[] toValues(Object after) {
+        if(after instanceof String) return decode((String) after);
+        if(after instanceof Object[]) return (Object[]) after;
+        if(after instanceof Collection) return ((Collection) after).toArray();
+        return new Object[] { after };
+    }
+
+    private Object[] convert(Object[] after) {
+        if(after.length != properties.length) {
+            throw new IllegalArgumentException("Keyset pagination cursor must hold the values of " + StringUtils.join(properties, ", ")
+                    + " but has " + after.length + " values");
+        }
+        Object[] converted = new Object[after.length];
+        for (int i = 0; i < after.length; i++) {
+            Object value = after[i];
+            if(value == null) {
+                throw new IllegalArgumentException("Keyset pagination can't continue after a null value of [" + properties[i] + "]");
+            }
+            Class type = types[i];
+            if(type == null || type.isInstance(value)) {
+                converted[i] = value;
+            }
+            else if(Date.class.isAssignableFrom(type) && value instanceof Date) {
+                Date date = (Date) value;
+                converted[i] = Timestamp.class.isAssignableFrom(type) || type == Date.class ? date : BeanUtils.instantiateClass(getLongConstructor(type), new Object[] { date.getTime() });
+            }
+            else {
+                converted[i] = GrailsHibernateUtil.converter.convertIfNecessary(value, type);
+            }
+        }
+        return converted;
+    }
+
+    private static Constructor getLongConstructor(Class type) {
+        try {
+            return type.getConstructor(long.class);
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Keyset pagination isn't supported for properties of type [" + type.getName() + "]");
+        }
+    }
+
+    private static Class getPropertyType(Class targetClass, String propertyPath) {
+        Class type = targetClass;
+        for (String name : propertyPath.split("\\.")) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, name);
+            if(descriptor == null) return null;
+            type = descriptor.getPropertyType();
+        }
+        return type;
+    }
+}
@@ -0,0 +1,181 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.support;
+
+import groovy.lang.Closure;
+import org.codehaus.groovy.grails.commons.GrailsClassUtils;
+import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.hibernate.Criteria;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.EntityKey;
+import org.hibernate.engine.PersistenceContext;
+import org.hibernate.engine.SessionImplementor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calls a closure with each result of a criteria query read through forward-only ScrollableResults, so that the
+ * memory used doesn't grow with the number of results. The iteration is configured with these arguments:
+ *
+ * <ul>
+ * <li>fetchSize - the JDBC fetch size, defaults to 1000. Some drivers, like MySQL's, only stream the results with
+ * a fetch size of Integer.MIN_VALUE</li>
+ * <li>readOnly - the results are marked read-only and evicted from the session once processed, so changes made to
+ * them aren't saved</li>
+ * <li>clearEvery - the session is flushed (unless readOnly) and cleared every N results. By default the session is
+ * flushed every "fetchSize" results instead and everything loaded since the iteration started, including the
+ * associations the closure navigated, is evicted. If the session was empty when the iteration started it is simply
+ * cleared</li>
+ * <li>stateless - the results are read with a StatelessSession, which has no first-level cache, triggers no
+ * events and doesn't lazy load associations</li>
+ * <li>autowire - false skips the autowiring of the loaded instances</li>
+ * </ul>
+ *
+ * Note that with clearEvery the session is cleared, which also detaches any instance loaded before the iteration.
+ *
+ * @since 1.2
+ */
+public final class ScrolledIteration {
+    public static final String ARGUMENT_FETCH_SIZE = "fetchSize";
+    public static final String ARGUMENT_READ_ONLY = "readOnly";
+    public static final String ARGUMENT_CLEAR_EVERY = "clearEvery";
+    public static final String ARGUMENT_STATELESS = "stateless";
+    public static final String ARGUMENT_AUTOWIRE = "autowire";
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final int fetchSize;
+    private final boolean readOnly;
+    private final int clearEvery;
+    private final boolean stateless;
+    private final boolean autowire;
+
+    public ScrolledIteration(Map argMap) {
+        this.fetchSize = getInteger(argMap, ARGUMENT_FETCH_SIZE, DEFAULT_FETCH_SIZE);
+        this.readOnly = GrailsClassUtils.getBooleanFromMap(ARGUMENT_READ_ONLY, argMap);
+        this.clearEvery = getInteger(argMap, ARGUMENT_CLEAR_EVERY, 0);
+        this.stateless = GrailsClassUtils.getBooleanFromMap(ARGUMENT_STATELESS, argMap);
+        this.autowire = !argMap.containsKey(ARGUMENT_AUTOWIRE) || GrailsClassUtils.getBooleanFromMap(ARGUMENT_AUTOWIRE, argMap);
+        if(clearEvery < 0) throw new IllegalArgumentException("Argument [" + ARGUMENT_CLEAR_EVERY + "] must not be negative");
+    }
+
+    private static int getInteger(Map argMap, String name, int defaultValue) {
+        Object value = argMap.get(name);
+        return value != null ? (Integer) GrailsHibernateUtil.converter.convertIfNecessary(value, Integer.class) : defaultValue;
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * Opens a StatelessSession that uses the connection of the given session, and so takes part in its transaction
+     */
+    @SuppressWarnings("deprecation")
+    public StatelessSession openStatelessSession(Session session) {
+        // Session.connection() is deprecated in favour of doWork(), which only lends the connection for the duration
+        // of a callback. The StatelessSession has to outlive such a callback and is closed by the caller before the
+        // session is, so the connection is taken directly
+        return session.getSessionFactory().openStatelessSession(session.connection());
+    }
+
+    /**
+     * Scrolls through the results of the criteria and calls the closure with each of them
+     *
+     * @param criteria The criteria to execute
+     * @param session The session the criteria was created with, or null if it was created with a StatelessSession
+     * @param callable The closure to call with each result
+     * @return The number of results processed
+     */
+    public int iterate(Criteria criteria, Session session, Closure callable) {
+        int evictInterval = fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE;
+        boolean suspended = EntityAutowirer.isSuspended();
+        if(!autowire) EntityAutowirer.setSuspended(true);
+        try {
+            criteria.setFetchSize(fetchSize);
+            Set<EntityKey> existing = session != null ? getEntityKeys(session) : null;
+            ScrollableResults results = criteria.scroll(ScrollMode.FORWARD_ONLY);
+            int count = 0;
+            try {
+                while(results.next()) {
+                    Object[] row = results.get();
+                    Object result = row.length == 1 ? row[0] : row;
+                    boolean managed = session != null && result != null && session.contains(result);
+                    if(managed && readOnly) session.setReadOnly(result, true);
+
+                    callable.call(new Object[] { result });
+                    count++;
+
+                    if(session == null) continue;
+                    if(clearEvery > 0) {
+                        if(count % clearEvery == 0) {
+                            if(!readOnly) session.flush();
+                            session.clear();
+                        }
+                        continue;
+                    }
+                    if(managed && readOnly) session.evict(result);
+                    if(count % evictInterval == 0) flushAndEvict(session, existing);
+                }
+                if(session != null && clearEvery == 0 && count % evictInterval != 0) flushAndEvict(session, existing);
+            }
+            finally {
+                results.close();
+            }
+            return count;
+        }
+        finally {
+            EntityAutowirer.setSuspended(suspended);
+        }
+    }
+
+    private static Set<EntityKey> getEntityKeys(Session session) {
+        PersistenceContext context = ((SessionImplementor) session).getPersistenceContext();
+        Set<EntityKey> keys = new HashSet<EntityKey>();
+        for (Object key : context.getEntitiesByKey().keySet()) {
+            keys.add((EntityKey) key);
+        }
+        return keys;
+    }
+
+    /**
+     * Saves the changes made so far and evicts the instances loaded since the iteration started, leaving the
+     * instances that were already in the session alone
+     */
+    private void flushAndEvict(Session session, Set<EntityKey> existing) {
+        session.flush();
+        if(existing.isEmpty()) {
+            session.clear();
+            return;
+        }
+
+        Map entities = ((SessionImplementor) session).getPersistenceContext().getEntitiesByKey();
+        List<Object> loaded = new ArrayList<Object>();
+        for (Object o : entities.entrySet()) {
+            Map.Entry entry = (Map.Entry) o;
+            if(!existing.contains(entry.getKey())) loaded.add(entry.getValue());
+        }
+        for (Object instance : loaded) {
+            // evicting an instance also evicts its collections and may cascade to other loaded instances
+            if(session.contains(instance)) session.evict(instance);
+        }
+    }
+}
@@ -14,8 +14,11 @@
  */
 package org.codehaus.groovy.grails.orm.hibernate.validation;
 
+import org.codehaus.groovy.grails.commons.GrailsDomainClass;
 import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
 import org.codehaus.groovy.grails.orm.hibernate.cfg.GrailsHibernateUtil;
+import org.codehaus.groovy.grails.validation.ConstrainedProperty;
+import org.codehaus.groovy.grails.validation.Constraint;
 import org.codehaus.groovy.grails.validation.GrailsDomainClassValidator;
 import org.hibernate.SessionFactory;
 import org.hibernate.collection.PersistentCollection;
@@ -26,6 +29,7 @@ import org.springframework.context.ApplicationContextAware;
 import org.springframework.validation.Errors;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Iterator;
 
@@ -67,16 +71,43 @@ public class HibernateDomainClassValidator extends GrailsDomainClassValidator im
             if(collection instanceof PersistentCollection) {
                 PersistentCollection persistentCollection = (PersistentCollection)collection;
                 if(persistentCollection.wasInitialized()) {
-                    super.cascadeValidationToMany(errors, bean, persistentProperty, propertyName);
+                    cascadeValidationToCollection(errors, bean, persistentProperty, propertyName, collection);
                 }
             }
             else {
-                super.cascadeValidationToMany(errors, bean, persistentProperty, propertyName);
+                cascadeValidationToCollection(errors, bean, persistentProperty, propertyName, collection);
             }
 
         }
     }
 
+    /**
+     * Checks the unique constraints of the owned instances of a collection in bulk before they are validated one by one
+     */
+    private void cascadeValidationToCollection(Errors errors, BeanWrapper bean, GrailsDomainClassProperty persistentProperty, String propertyName, Object collection) {
+        GrailsDomainClass referencedDomainClass = persistentProperty.getReferencedDomainClass();
+        if(!(collection instanceof Collection) || referencedDomainClass == null || !isOwnedBy(referencedDomainClass, bean.getWrappedClass())) {
+            super.cascadeValidationToMany(errors, bean, persistentProperty, propertyName);
+            return;
+        }
+
+        Collection instances = (Collection) collection;
+        UniqueConstraint.checkAll(referencedDomainClass.getConstrainedProperties(), instances);
+        try {
+            super.cascadeValidationToMany(errors, bean, persistentProperty, propertyName);
+        }
+        finally {
+            UniqueConstraint.releaseCheckedResults(instances);
+        }
+    }
+
+    private boolean isOwnedBy(GrailsDomainClass domainClass, Class ownerClass) {
+        for(Class c = ownerClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            if(domainClass.isOwningClass(c)) return true;
+        }
+        return false;
+    }
+
     protected void cascadeValidationToOne(Errors errors, BeanWrapper bean, Object associatedObject, GrailsDomainClassProperty persistentProperty, String propertyName) {
         List validatedInstancesList = (List)validatedInstances.get();
         validatedInstancesList.add(associatedObject);
@@ -97,6 +128,7 @@ public class HibernateDomainClassValidator extends GrailsDomainClassValidator im
                 }
                 else {
                     GrailsHibernateUtil.setObjectToReadWrite(obj, sessionFactory);
+                    ValidatedEntityStates.recordValidatedState(obj, sessionFactory);
                 }
             }
         } finally {
@@ -107,6 +139,21 @@ public class HibernateDomainClassValidator extends GrailsDomainClassValidator im
         }
     }
 
+    /**
+     * Also validates unique constraints that are scoped by one of the changed properties
+     */
+    protected boolean needsValidation(ConstrainedProperty constrainedProperty, Collection propertyNames) {
+        if(super.needsValidation(constrainedProperty, propertyNames)) return true;
+
+        Constraint unique = constrainedProperty.getAppliedConstraint(UniqueConstraint.UNIQUE_CONSTRAINT);
+        if(unique instanceof UniqueConstraint) {
+            for (Iterator i = ((UniqueConstraint) unique).getUniquenessGroup().iterator(); i.hasNext();) {
+                if(propertyNames.contains(i.next())) return true;
+            }
+        }
+        return false;
+    }
+
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
     }
@@ -18,20 +18,31 @@ import groovy.lang.GString;
 import org.codehaus.groovy.grails.commons.DomainClassArtefactHandler;
 import org.codehaus.groovy.grails.commons.GrailsClassUtils;
 import org.codehaus.groovy.grails.exceptions.GrailsRuntimeException;
+import org.codehaus.groovy.grails.validation.ConstrainedProperty;
+import org.codehaus.groovy.grails.validation.Constraint;
 import org.codehaus.groovy.runtime.InvokerHelper;
 import org.hibernate.Criteria;
 import org.hibernate.FlushMode;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
+import org.hibernate.criterion.ProjectionList;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.springframework.orm.hibernate3.HibernateCallback;
 import org.springframework.orm.hibernate3.HibernateTemplate;
 import org.springframework.validation.Errors;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A constraint that validates the uniqueness of a property (will query the 
@@ -47,6 +58,13 @@ import java.util.List;
 public class UniqueConstraint extends AbstractPersistentConstraint {
 
     private static final String DEFAULT_NOT_UNIQUE_MESSAGE_CODE = "default.not.unique.message";
+    private static final int MAX_IN_VALUES = 500;
+
+    private static final ThreadLocal CHECKED_RESULTS = new ThreadLocal() {
+        protected Object initialValue() {
+            return new IdentityHashMap();
+        }
+    };
 
 
     public static final String UNIQUE_CONSTRAINT = "unique";
@@ -123,55 +141,223 @@ public class UniqueConstraint extends AbstractPersistentConstraint {
             catch (Exception e) {
                 throw new GrailsRuntimeException("Target of [unique] constraints ["+ target +"] is not a domain instance. Unique constraint can only be applied to to domain classes and not custom user types or embedded instances");
             }
-            HibernateTemplate hibernateTemplate = getHibernateTemplate();
-            if(hibernateTemplate == null) throw new IllegalStateException("Unable use [unique] constraint, no Hibernate SessionFactory found!");
-            List results = hibernateTemplate.executeFind( new HibernateCallback() {
-                public Object doInHibernate(Session session) throws HibernateException {
-                    session.setFlushMode(FlushMode.MANUAL);
-
-                    try {
-                        boolean shouldValidate = true;
-                        if(propertyValue != null && DomainClassArtefactHandler.isDomainClass(propertyValue.getClass())) {
-                            shouldValidate = session.contains(propertyValue);
-                        }
-                        if(shouldValidate) {
-                            Criteria criteria = session.createCriteria( constraintOwningClass )
-                                    .add( Restrictions.eq( constraintPropertyName, propertyValue ) );
-                            if( uniquenessGroup != null ) {
-                                for( Iterator it = uniquenessGroup.iterator(); it.hasNext(); ) {
-                                    String propertyName = (String) it.next();
-                                    criteria.add(Restrictions.eq( propertyName,
-                                            GrailsClassUtils.getPropertyOrStaticPropertyOrFieldValue(target, propertyName)));
+
+            boolean reject;
+            Boolean checkedUnique = getCheckedResult(target, propertyValue);
+            if(checkedUnique != null) {
+                reject = !checkedUnique.booleanValue();
+            }
+            else {
+                HibernateTemplate hibernateTemplate = getHibernateTemplate();
+                if(hibernateTemplate == null) throw new IllegalStateException("Unable use [unique] constraint, no Hibernate SessionFactory found!");
+                List results = hibernateTemplate.executeFind( new HibernateCallback() {
+                    public Object doInHibernate(Session session) throws HibernateException {
+                        session.setFlushMode(FlushMode.MANUAL);
+
+                        try {
+                            boolean shouldValidate = true;
+                            if(propertyValue != null && DomainClassArtefactHandler.isDomainClass(propertyValue.getClass())) {
+                                shouldValidate = session.contains(propertyValue);
+                            }
+                            if(shouldValidate) {
+                                // two ids are enough to tell whether another instance has the same value
+                                Criteria criteria = session.createCriteria( constraintOwningClass )
+                                        .add( Restrictions.eq( constraintPropertyName, propertyValue ) )
+                                        .setProjection( Projections.id() )
+                                        .setMaxResults( 2 );
+                                if( uniquenessGroup != null ) {
+                                    for( Iterator it = uniquenessGroup.iterator(); it.hasNext(); ) {
+                                        String propertyName = (String) it.next();
+                                        criteria.add(Restrictions.eq( propertyName,
+                                                GrailsClassUtils.getPropertyOrStaticPropertyOrFieldValue(target, propertyName)));
+                                    }
                                 }
+                                return criteria.list();
                             }
-                            return criteria.list();
-                        }
-                        else {
-                            return Collections.EMPTY_LIST;
+                            else {
+                                return Collections.EMPTY_LIST;
+                            }
+                        } finally {
+                            session.setFlushMode(FlushMode.AUTO);
                         }
-                    } finally {
-                        session.setFlushMode(FlushMode.AUTO);
                     }
-                }
-            });
-
-            if(results.size() > 0) {
-                boolean reject = false;
-                if(id != null) {
-                    Object existing = results.get(0);
-                    Object existingId = InvokerHelper.invokeMethod(existing, "ident", null);
-                    if(!id.equals(existingId)) {
-                        reject = true;
+                });
+                reject = isTaken(results, id);
+            }
+
+            if(reject) {
+                Object[] args = new Object[] { constraintPropertyName, constraintOwningClass, propertyValue };
+                super.rejectValue(target, errors, UNIQUE_CONSTRAINT, args, getDefaultMessage(DEFAULT_NOT_UNIQUE_MESSAGE_CODE));
+            }
+        }
+    }
+
+    /**
+     * @return True if any of the given ids belongs to another instance than the one with the given id
+     */
+    private static boolean isTaken(Collection existingIds, Object id) {
+        for (Iterator i = existingIds.iterator(); i.hasNext();) {
+            Object existingId = i.next();
+            if(id == null || !id.equals(existingId)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks the unique constraints of the given instances in bulk, with one query per constraint instead of one per
+     * instance. The results are used by the validation of these instances on the current thread until
+     * releaseCheckedResults is called for them.
+     *
+     * @param constrainedProperties The constrained properties of the domain class
+     * @param targets The instances that are about to be validated
+     */
+    public static void checkAll(Map constrainedProperties, Collection targets) {
+        if(targets.size() < 2) return;
+        for (Iterator i = constrainedProperties.values().iterator(); i.hasNext();) {
+            ConstrainedProperty constrainedProperty = (ConstrainedProperty) i.next();
+            Constraint constraint = constrainedProperty.getAppliedConstraint(UNIQUE_CONSTRAINT);
+            if(constraint instanceof UniqueConstraint) {
+                ((UniqueConstraint) constraint).checkAll(targets);
+            }
+        }
+    }
+
+    /**
+     * Discards the results of checkAll for the given instances
+     *
+     * @param targets The instances
+     */
+    public static void releaseCheckedResults(Collection targets) {
+        Map results = (Map) CHECKED_RESULTS.get();
+        if(results.isEmpty()) return;
+        for (Iterator i = targets.iterator(); i.hasNext();) {
+            results.remove(i.next());
+        }
+    }
+
+    /**
+     * Checks the uniqueness of the property of all the given instances with one IN query per chunk of values.
+     * Instances of the batch that share a value with an instance before them are rejected without querying. If the
+     * values can't be compared in memory, because they are associations or the database matches values that aren't
+     * equal, nothing is recorded and the instances are checked one by one as usual.
+     *
+     * @param targets The instances that are about to be validated
+     */
+    public void checkAll(final Collection targets) {
+        if(!unique) return;
+
+        final List batch = new ArrayList();
+        final List keys = new ArrayList();
+        final Set values = new HashSet();
+        for (Iterator i = targets.iterator(); i.hasNext();) {
+            Object target = i.next();
+            if(!constraintOwningClass.isInstance(target)) continue;
+
+            List key = getKey(target, GrailsClassUtils.getPropertyOrStaticPropertyOrFieldValue(target, constraintPropertyName));
+            for (Iterator j = key.iterator(); j.hasNext();) {
+                Object value = j.next();
+                if(value != null && DomainClassArtefactHandler.isDomainClass(value.getClass())) return;
+            }
+            batch.add(target);
+            keys.add(key);
+            if(!key.contains(null)) values.add(key.get(0));
+        }
+        if(batch.isEmpty()) return;
+
+        HibernateTemplate hibernateTemplate = getHibernateTemplate();
+        if(hibernateTemplate == null) throw new IllegalStateException("Unable use [unique] constraint, no Hibernate SessionFactory found!");
+        final Map existingIds = new HashMap();
+        Boolean comparable = (Boolean) hibernateTemplate.execute(new HibernateCallback() {
+            public Object doInHibernate(Session session) throws HibernateException {
+                session.setFlushMode(FlushMode.MANUAL);
+                try {
+                    List remaining = new ArrayList(values);
+                    while(!remaining.isEmpty()) {
+                        List chunk = remaining.subList(0, Math.min(MAX_IN_VALUES, remaining.size()));
+                        ProjectionList projections = Projections.projectionList().add(Projections.property(constraintPropertyName));
+                        for (Iterator i = uniquenessGroup.iterator(); i.hasNext();) {
+                            projections.add(Projections.property((String) i.next()));
+                        }
+                        projections.add(Projections.id());
+                        List rows = session.createCriteria(constraintOwningClass)
+                                .add(Restrictions.in(constraintPropertyName, chunk))
+                                .setProjection(projections)
+                                .list();
+                        for (Iterator i = rows.iterator(); i.hasNext();) {
+                            Object[] row = (Object[]) i.next();
+                            if(!values.contains(row[0])) return Boolean.FALSE;
+
+                            List key = new ArrayList(Arrays.asList(row).subList(0, row.length - 1));
+                            List ids = (List) existingIds.get(key);
+                            if(ids == null) {
+                                ids = new ArrayList();
+                                existingIds.put(key, ids);
+                            }
+                            ids.add(row[row.length - 1]);
+                        }
+                        chunk.clear();
                     }
+                    return Boolean.TRUE;
+                } finally {
+                    session.setFlushMode(FlushMode.AUTO);
                 }
-                else {
-                    reject = true;
-                }
-                if(reject) {
-                    Object[] args = new Object[] { constraintPropertyName, constraintOwningClass, propertyValue };
-                    super.rejectValue(target, errors, UNIQUE_CONSTRAINT, args, getDefaultMessage(DEFAULT_NOT_UNIQUE_MESSAGE_CODE));
-                }
             }
+        });
+        if(!comparable.booleanValue()) return;
+
+        Map results = (Map) CHECKED_RESULTS.get();
+        Set batchKeys = new HashSet();
+        for (int i = 0; i < batch.size(); i++) {
+            Object target = batch.get(i);
+            List key = (List) keys.get(i);
+            boolean isUnique = true;
+            if(!key.contains(null)) {
+                List ids = (List) existingIds.get(key);
+                isUnique = (ids == null || !isTaken(ids, InvokerHelper.invokeMethod(target, "ident", null))) && batchKeys.add(key);
+            }
+
+            Map targetResults = (Map) results.get(target);
+            if(targetResults == null) {
+                targetResults = new HashMap();
+                results.put(target, targetResults);
+            }
+            targetResults.put(this, new CheckedResult(key, isUnique));
+        }
+    }
+
+    /**
+     * @return The given value of the constrained property followed by the values of the uniqueness group
+     */
+    private List getKey(Object target, Object propertyValue) {
+        List key = new ArrayList(uniquenessGroup.size() + 1);
+        key.add(propertyValue);
+        for (Iterator i = uniquenessGroup.iterator(); i.hasNext();) {
+            key.add(GrailsClassUtils.getPropertyOrStaticPropertyOrFieldValue(target, (String) i.next()));
+        }
+        return key;
+    }
+
+    private Boolean getCheckedResult(Object target, Object propertyValue) {
+        Map results = (Map) CHECKED_RESULTS.get();
+        if(results.isEmpty()) return null;
+        Map targetResults = (Map) results.get(target);
+        if(targetResults == null) return null;
+        CheckedResult result = (CheckedResult) targetResults.get(this);
+        if(result == null || !result.key.equals(getKey(target, propertyValue))) return null;
+        return Boolean.valueOf(result.unique);
+    }
+
+    /**
+     * The outcome of checkAll for an instance, which only applies as long as neither the value nor the values of the
+     * uniqueness group have changed
+     */
+    private static final class CheckedResult {
+        private final List key;
+        private final boolean unique;
+
+        private CheckedResult(List key, boolean unique) {
+            this.key = key;
+            this.unique = unique;
         }
     }
 
@@ -0,0 +1,139 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.orm.hibernate.validation;
+
+import org.hibernate.EntityMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.collection.PersistentCollection;
+import org.hibernate.engine.EntityEntry;
+import org.hibernate.engine.SessionImplementor;
+import org.hibernate.engine.Status;
+import org.hibernate.event.PreUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.hibernate.type.TypeFactory;
+import org.springframework.orm.hibernate3.SessionHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers the state persistent instances had when they were last validated successfully, so that validation at
+ * flush time can be skipped for instances that haven't changed since and limited to the changed properties of the
+ * others.
+ *
+ * The states are held per Session against the EntityEntry of the instance, so they go away together with the
+ * instance when it is evicted or its session is cleared or closed. As a Session is only ever used by one thread at a
+ * time they are kept in a thread local and need no locking; a flush on another thread simply validates the changes
+ * since the instance was loaded.
+ *
+ * @since 1.2
+ */
+public final class ValidatedEntityStates {
+
+    private static final ThreadLocal<Map<Session, Map<EntityEntry, Object[]>>> STATES = new ThreadLocal<Map<Session, Map<EntityEntry, Object[]>>>() {
+        protected Map<Session, Map<EntityEntry, Object[]>> initialValue() {
+            return new WeakHashMap<Session, Map<EntityEntry, Object[]>>();
+        }
+    };
+
+    private ValidatedEntityStates() {
+    }
+
+    /**
+     * Records the current state of a persistent instance as valid. Nothing is recorded when no Session is bound
+     * to the current thread, as the instance can't be flushed then anyway.
+     *
+     * @param target The instance that passed validation
+     * @param sessionFactory The SessionFactory instance
+     */
+    public static void recordValidatedState(Object target, SessionFactory sessionFactory) {
+        SessionHolder holder = (SessionHolder) TransactionSynchronizationManager.getResource(sessionFactory);
+        if(holder == null || holder.isEmpty()) return;
+
+        Session session = holder.getSession();
+        if(session.contains(target) && Hibernate.isInitialized(target)) {
+            SessionImplementor sessionImpl = (SessionImplementor) session;
+            EntityEntry entry = sessionImpl.getPersistenceContext().getEntry(target);
+            if(entry != null && entry.getStatus() == Status.MANAGED) {
+                EntityPersister persister = entry.getPersister();
+                Object[] values = persister.getPropertyValues(target, EntityMode.POJO);
+                Type[] types = persister.getPropertyTypes();
+                boolean[] copy = new boolean[types.length];
+                Arrays.fill(copy, true);
+                Object[] state = new Object[values.length];
+                TypeFactory.deepCopy(values, types, copy, state, sessionImpl);
+
+                Map<Session, Map<EntityEntry, Object[]>> sessions = STATES.get();
+                Map<EntityEntry, Object[]> states = sessions.get(session);
+                if(states == null) {
+                    states = new WeakHashMap<EntityEntry, Object[]>();
+                    sessions.put(session, states);
+                }
+                states.put(entry, state);
+            }
+        }
+    }
+
+    /**
+     * Works out which properties of an instance that is about to be updated have to be validated. These are the
+     * properties changed since the instance was last validated or, if it wasn't validated in this session, since
+     * it was loaded. Collections count as changed when they are dirty or have been replaced.
+     *
+     * @param event The PreUpdateEvent
+     * @return The names of the properties, an empty set if the instance is still valid or null if the changes are
+     * unknown and the whole instance has to be validated
+     */
+    public static Set<String> getPropertiesToValidate(PreUpdateEvent event) {
+        Object entity = event.getEntity();
+        EntityPersister persister = event.getPersister();
+        SessionImplementor session = event.getSource();
+        Object[] state = event.getState();
+
+        EntityEntry entry = session.getPersistenceContext().getEntry(entity);
+        Map<EntityEntry, Object[]> states = STATES.get().get(session);
+        Object[] previousState = entry != null && states != null ? states.remove(entry) : null;
+        if(previousState == null) {
+            previousState = event.getOldState();
+            if(previousState == null) return null;
+        }
+
+        Set<String> names = new HashSet<String>();
+        String[] propertyNames = persister.getPropertyNames();
+        int[] dirty = persister.findDirty(state, previousState, entity, session);
+        if(dirty != null) {
+            for (int i : dirty) {
+                names.add(propertyNames[i]);
+            }
+        }
+
+        Type[] types = persister.getPropertyTypes();
+        for (int i = 0; i < types.length; i++) {
+            if(types[i].isCollectionType()) {
+                Object value = state[i];
+                if(value != previousState[i] || (value instanceof PersistentCollection && ((PersistentCollection) value).isDirty())) {
+                    names.add(propertyNames[i]);
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -19,6 +19,7 @@ import grails.util.GrailsUtil
 import org.codehaus.groovy.grails.plugins.codecs.*
 import org.codehaus.groovy.grails.commons.*
 import grails.util.Environment
+import java.util.concurrent.atomic.AtomicReference
 
 /**
  * A plug-in that configures pluggable codecs 
@@ -106,7 +107,29 @@ class CodecsGrailsPlugin {
                 }
             }
 
+            // encodes straight into a Writer when the codec provides a static encode(Object, Writer) method,
+            // the method is looked up once per codec class and again only if the codec is reloaded
+            def resolvedStreamingMethod = new AtomicReference()
+            def streamingEncoder = { Writer out ->
+                def clazz = codecClass.clazz
+                def resolved = resolvedStreamingMethod.get()
+                if(resolved == null || !clazz.is(resolved[0])) {
+                    resolved = [clazz, clazz.metaClass.getMetaMethod("encode", [Object, Writer] as Object[])]
+                    resolvedStreamingMethod.set(resolved)
+                }
+                def streamingMethod = resolved[1]
+                if(streamingMethod) {
+                    streamingMethod.invoke(clazz, [delegate, out] as Object[])
+                }
+                else {
+                    def encoded = delegate."${encodeMethodName}"()
+                    if(encoded != null) out.write(encoded.toString())
+                }
+                return out
+            }
+
             Object.metaClass."${encodeMethodName}" << encoder
+            Object.metaClass."${encodeMethodName}" << streamingEncoder
             Object.metaClass."${decodeMethodName}" << decoder
         }
 	}
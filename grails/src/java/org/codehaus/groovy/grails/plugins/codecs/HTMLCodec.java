@@ -18,6 +18,9 @@ import org.springframework.web.util.HtmlUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.RequestAttributes;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * A codecs that encodes and decodes strings to and from HTML
  * 
@@ -26,13 +29,94 @@ import org.springframework.web.context.request.RequestAttributes;
  */
 public class HTMLCodec {
 
+    // the HTML 4 character entity references all lie below this character
+    private static final int ESCAPE_TABLE_SIZE = 10000;
+    private static final String[] ESCAPES = new String[ESCAPE_TABLE_SIZE];
+
+    static {
+        // build the table from HtmlUtils so that the encoding stays the same as HtmlUtils.htmlEscape
+        for (int i = 0; i < ESCAPE_TABLE_SIZE; i++) {
+            String c = String.valueOf((char) i);
+            String escaped = HtmlUtils.htmlEscape(c);
+            if(!c.equals(escaped)) {
+                ESCAPES[i] = escaped;
+            }
+        }
+    }
+
+    /**
+     * Encodes the target's String value. The String is returned as is when there is nothing to escape
+     *
+     * @param target The target to encode
+     * @return The encoded String or null if the target is null
+     */
     public static String encode(Object target) {
         if(target != null) {
-            return HtmlUtils.htmlEscape(target.toString());
+            String str = target.toString();
+            int first = indexOfEscapedChar(str, 0);
+            if(first == -1) {
+                return str;
+            }
+            StringBuilder sb = new StringBuilder(str.length() + 16);
+            sb.append(str, 0, first);
+            for (int i = first; i < str.length(); i++) {
+                String escaped = escape(str.charAt(i));
+                if(escaped != null) {
+                    sb.append(escaped);
+                }
+                else {
+                    sb.append(str.charAt(i));
+                }
+            }
+            return sb.toString();
         }
         return null;
     }
 
+    /**
+     * Encodes the target's String value straight into the given Writer, writing the unescaped runs of characters
+     * directly instead of building an encoded String first. Nothing is written if the target is null
+     *
+     * @param target The target to encode
+     * @param out The Writer, for example a GrailsPrintWriter or the writer of a StreamCharBuffer
+     * @throws IOException When the Writer fails
+     */
+    public static void encode(Object target, Writer out) throws IOException {
+        if(target == null) return;
+
+        String str = target.toString();
+        int start = 0;
+        int next = indexOfEscapedChar(str, 0);
+        while(next != -1) {
+            if(next > start) {
+                out.write(str, start, next - start);
+            }
+            out.write(escape(str.charAt(next)));
+            start = next + 1;
+            next = indexOfEscapedChar(str, start);
+        }
+        if(start == 0) {
+            out.write(str);
+        }
+        else if(start < str.length()) {
+            out.write(str, start, str.length() - start);
+        }
+    }
+
+    private static int indexOfEscapedChar(String str, int fromIndex) {
+        for (int i = fromIndex; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if(c < ESCAPE_TABLE_SIZE && ESCAPES[c] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String escape(char c) {
+        return c < ESCAPE_TABLE_SIZE ? ESCAPES[c] : null;
+    }
+
     
     public static boolean shouldEncode() {
         final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
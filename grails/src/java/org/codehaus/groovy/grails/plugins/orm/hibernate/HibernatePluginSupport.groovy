@@ -534,6 +534,9 @@ Try using Grails' default cache provider: 'org.hibernate.cache.OSCacheProvider'"
         def listMethod = new ListPersistentMethod(sessionFactory, classLoader)
         metaClass.static.list = {-> listMethod.invoke(domainClassType, "list", [] as Object[])}
         metaClass.static.list = {Map args -> listMethod.invoke(domainClassType, "list", [args] as Object[])}
+        def eachScrolledMethod = new EachScrolledPersistentMethod(sessionFactory, classLoader)
+        metaClass.static.eachScrolled = {Closure callable -> eachScrolledMethod.invoke(domainClassType, "eachScrolled", [callable] as Object[])}
+        metaClass.static.eachScrolled = {Map args, Closure callable -> eachScrolledMethod.invoke(domainClassType, "eachScrolled", [args, callable] as Object[])}
         metaClass.static.findWhere = {Map query ->
             template.execute({Session session ->
                 def criteria = session.createCriteria(domainClassType)
@@ -718,6 +721,33 @@ Try using Grails' default cache provider: 'org.hibernate.cache.OSCacheProvider'"
             if(args?.flush)
                 template.flush()
         }
+        def saveAllMethod = new SaveAllPersistentMethod(sessionFactory, classLoader, application)
+        metaClass.static.saveAll = {Collection instances ->
+            saveAllMethod.invoke(dc.clazz, "saveAll", [instances] as Object[])
+        }
+        metaClass.static.saveAll = {Map args, Collection instances ->
+            saveAllMethod.invoke(dc.clazz, "saveAll", [args, instances] as Object[])
+        }
+
+        def deleteAllMethod = new DeleteAllPersistentMethod(sessionFactory, classLoader)
+        metaClass.static.deleteAll = {Collection instances ->
+            deleteAllMethod.invoke(dc.clazz, "deleteAll", [instances] as Object[])
+        }
+        metaClass.static.deleteAll = {Map args, Collection instances ->
+            deleteAllMethod.invoke(dc.clazz, "deleteAll", [args, instances] as Object[])
+        }
+        metaClass.static.deleteAll = {Map where ->
+            deleteAllMethod.invoke(dc.clazz, "deleteAll", [where] as Object[])
+        }
+
+        def updateAllMethod = new UpdateAllPersistentMethod(sessionFactory, classLoader)
+        metaClass.static.updateAll = {Map where, Map values ->
+            updateAllMethod.invoke(dc.clazz, "updateAll", [where, values] as Object[])
+        }
+        metaClass.static.updateAll = {Map where, Map values, Map args ->
+            updateAllMethod.invoke(dc.clazz, "updateAll", [where, values, args] as Object[])
+        }
+
         metaClass.refresh = {-> template.refresh(delegate); delegate }
         metaClass.discard = {->template.evict(delegate); delegate }
         metaClass.attach = {->template.lock(delegate, LockMode.NONE); delegate }
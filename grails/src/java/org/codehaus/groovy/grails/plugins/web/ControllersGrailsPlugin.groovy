@@ -47,6 +47,7 @@ import org.springframework.validation.Errors
 import org.springframework.web.servlet.ModelAndView
 import org.springframework.web.servlet.mvc.SimpleControllerHandlerAdapter
 import org.codehaus.groovy.grails.web.metaclass.WithFormMethod
+import org.codehaus.groovy.grails.web.metaclass.WithCacheHeadersMethod
 import org.codehaus.groovy.grails.web.metaclass.ForwardMethod
 import org.springframework.beans.BeanUtils
 import org.codehaus.groovy.grails.plugins.DomainClassPluginSupport
@@ -404,6 +405,12 @@ class ControllersGrailsPlugin {
            withFormMethod.withForm(delegate.request, callable)
         }
 
+        // the withCacheHeaders method
+        def withCacheHeadersMethod = new WithCacheHeadersMethod()
+        mc.withCacheHeaders = { Map validators, Closure callable ->
+            withCacheHeadersMethod.withCacheHeaders(RCH.currentRequestAttributes(), validators, callable)
+        }
+
         def forwardMethod = new ForwardMethod(ctx.getBean("grailsUrlMappingsHolder"))
         mc.forward = { Map params ->
             forwardMethod.forward(delegate.request,delegate.response, params)
@@ -23,6 +23,7 @@ import org.codehaus.groovy.grails.commons.GrailsClassUtils as GCU
 import org.codehaus.groovy.grails.plugins.web.taglib.*
 import org.springframework.context.ApplicationContext
 import org.codehaus.groovy.grails.web.pages.GroovyPagesTemplateEngine
+import org.codehaus.groovy.grails.web.pages.DefaultGroovyPageFragmentCache
 import org.codehaus.groovy.grails.web.pages.ext.jsp.TagLibraryResolver
 import org.codehaus.groovy.grails.web.pages.TagLibraryLookup
 import org.springframework.core.io.FileSystemResource
@@ -136,12 +137,22 @@ public class GroovyPagesGrailsPlugin {
             }
             tagLibraryLookup = gspTagLibraryLookup
             jspTagLibraryResolver = jspTagLibraryResolver
+            if (application.config.grails.gsp.templateCache.maxSize instanceof Integer) {
+                templateCacheMaxSize = application.config.grails.gsp.templateCache.maxSize
+            }
 			precompiledGspMap = { PropertiesFactoryBean pfb -> 
 				ignoreResourceNotFound = true
 				location = "classpath:gsp/views.properties"
 			}
         }
         
+        // A bean used to cache fragments rendered by the <g:cache> tag
+        groovyPageFragmentCache(DefaultGroovyPageFragmentCache) {
+            if (application.config.grails.gsp.fragmentCache.maxChars instanceof Integer) {
+                maxChars = application.config.grails.gsp.fragmentCache.maxChars
+            }
+        }
+
         // Configure a Spring MVC view resolver
         jspViewResolver(GrailsViewResolver) {
             viewClass = org.springframework.web.servlet.view.JstlView.class
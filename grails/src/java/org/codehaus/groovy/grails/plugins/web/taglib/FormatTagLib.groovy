@@ -152,6 +152,6 @@ class FormatTagLib {
         if (!attrs.codec)
             throwTagError("Tag [encodeAs] requires a codec name in the [codec] attribute")
 
-        out << body()."encodeAs${attrs.codec}"()
+        body()."encodeAs${attrs.codec}"(out)
     }
 }
@@ -36,8 +36,12 @@ import org.codehaus.groovy.grails.plugins.GrailsPluginManager
 import grails.util.GrailsNameUtils
 import org.codehaus.groovy.grails.web.mapping.ForwardUrlMappingInfo
 import org.codehaus.groovy.grails.web.util.WebUtils
-import java.util.concurrent.ConcurrentHashMap
 import groovy.text.Template
+import org.codehaus.groovy.grails.web.pages.GroovyPageTemplate
+import org.codehaus.groovy.grails.web.pages.GroovyPageFragmentCache
+import org.codehaus.groovy.grails.web.pages.DefaultGroovyPageFragmentCache
+import org.springframework.web.util.WebUtils as SpringWebUtils
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer
 
 class RenderTagLib implements com.opensymphony.module.sitemesh.RequestConstants {
 	def out // to facilitate testing
@@ -45,6 +49,7 @@ class RenderTagLib implements com.opensymphony.module.sitemesh.RequestConstants
     ServletConfig servletConfig
     GroovyPagesTemplateEngine groovyPagesTemplateEngine
     GrailsPluginManager pluginManager
+    GroovyPageFragmentCache groovyPageFragmentCache
 
 
     protected getPage() {
@@ -233,15 +238,49 @@ class RenderTagLib implements com.opensymphony.module.sitemesh.RequestConstants
 	 * Creates next/previous links to support pagination for the current controller
 	 *
 	 * <g:paginate total="${Account.count()}" />
+	 *
+	 * Lists paginated with a keyset cursor are paged with links to the first page and to the page after the cursor:
+	 *
+	 * <g:paginate cursor="${accountList.nextCursor}" />
 	 */
 	def paginate = { attrs ->
 		def writer = out
-        if(attrs.total == null)
+        if(attrs.total == null && !attrs.containsKey('cursor'))
             throwTagError("Tag [paginate] is missing required attribute [total]")
 
 		def messageSource = grailsAttributes.getApplicationContext().getBean("messageSource")
 		def locale = RCU.getLocale(request)
 
+		if(attrs.containsKey('cursor')) {
+			def cursorParams = [:]
+			def cursorMax = params.max ?: attrs.max
+			if(cursorMax) cursorParams.max = cursorMax
+			if(params.sort) cursorParams.sort = params.sort
+			if(params.order) cursorParams.order = params.order
+			if(attrs.params) cursorParams.putAll(attrs.params)
+
+			def cursorLinkAttrs = [action:(attrs.action ? attrs.action : (params.action ? params.action : "list")), params:cursorParams]
+			if(attrs.controller) cursorLinkAttrs.controller = attrs.controller
+			if(attrs.id != null) cursorLinkAttrs.id = attrs.id
+
+			// display first link when not on the first page
+			if(params.after) {
+				cursorLinkAttrs.class = 'firstLink'
+				writer << link(cursorLinkAttrs.clone()) {
+					(attrs.first ? attrs.first : messageSource.getMessage('paginate.first', null, messageSource.getMessage('default.paginate.first', null, 'First', locale), locale))
+				}
+			}
+			// display next link when there is a next page
+			if(attrs.cursor) {
+				cursorLinkAttrs.class = 'nextLink'
+				cursorLinkAttrs.params = cursorParams + [after:attrs.cursor]
+				writer << link(cursorLinkAttrs.clone()) {
+					(attrs.next ? attrs.next : messageSource.getMessage('paginate.next', null, messageSource.getMessage('default.paginate.next', null, 'Next', locale), locale))
+				}
+			}
+			return
+		}
+
 		def total = attrs.total.toInteger()
 		def action = (attrs.action ? attrs.action : (params.action ? params.action : "list"))
 		def offset = params.offset?.toInteger()
@@ -425,7 +464,6 @@ class RenderTagLib implements com.opensymphony.module.sitemesh.RequestConstants
      *  <g:render template="atemplate" model="[user:user,company:company]" />
      *  <g:render template="atemplate" bean="${user}" />
      */
-    static Map TEMPLATE_CACHE = new ConcurrentHashMap()
     def render = { attrs, body ->
         if(!groovyPagesTemplateEngine) throw new IllegalStateException("Property [groovyPagesTemplateEngine] must be set!")
         if(!attrs.template)
@@ -441,14 +479,8 @@ class RenderTagLib implements com.opensymphony.module.sitemesh.RequestConstants
             if(plugin && !plugin.isBasePlugin()) contextPath = plugin.getPluginPath()
         }
 
-        Template t
-        if(TEMPLATE_CACHE.containsKey(uri) && !engine.isReloadEnabled()) {
-           t = TEMPLATE_CACHE[uri]
-        }
-        else {
-          t = engine.createTemplateForUri(["${contextPath}${uri}", "${contextPath}/grails-app/views/${uri}"] as String[])
-          TEMPLATE_CACHE[uri] = t
-        }
+        Template t = engine.createCachedTemplateForUri("${contextPath}${uri}",
+                ["${contextPath}${uri}", "${contextPath}/grails-app/views/${uri}"] as String[])
 
         if(attrs.containsKey('bean')) {
         	def b = [body: body]
@@ -470,19 +502,32 @@ class RenderTagLib implements com.opensymphony.module.sitemesh.RequestConstants
                 def first = collection.iterator().next()
                 key = first ? GrailsNameUtils.getPropertyName(first.getClass()) : 'it'
             }
-            collection.each {
-            	def b = [body:body]
+            if(t instanceof GroovyPageTemplate) {
+                // render all of the elements with a single page instance, re-binding the element each time
+                def b = [body:body]
                 if (attrs.model instanceof Map) {
                     b += attrs.model
                 }
-            	if (var) {
-            		b.put(var, it)
-            	}
-            	else {
-                    b.put('it', it)
-            		b.put(key, it)
-            	}
-            	t.make(b).writeTo(out)
+                def variableNames = var ? [var] : ['it', key]
+                if(collection != null) {
+                    t.make(b, collection.iterator(), variableNames as String[]).writeTo(out)
+                }
+            }
+            else {
+                collection.each {
+                    def b = [body:body]
+                    if (attrs.model instanceof Map) {
+                        b += attrs.model
+                    }
+                    if (var) {
+                        b.put(var, it)
+                    }
+                    else {
+                        b.put('it', it)
+                        b.put(key, it)
+                    }
+                    t.make(b).writeTo(out)
+                }
             }
         }
         else if(attrs.model instanceof Map) {
@@ -493,4 +538,59 @@ class RenderTagLib implements com.opensymphony.module.sitemesh.RequestConstants
 		}
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Caches the rendered body so that subsequent requests replay it instead of evaluating it again. Examples:
+     *
+     * <g:cache key="menu" ttl="300"><g:render template="menu" /></g:cache>
+     * <g:cache key="cart" scope="session">...</g:cache>
+     *
+     * Session scoped fragments are held in the user's HTTP session and discarded with it. If the request has
+     * no session the body is rendered without caching, a session is never created by this tag.
+     *
+     * @param key The cache key, application fragments can be invalidated by key prefix through the groovyPageFragmentCache bean
+     * @param ttl The time to live in seconds, fragments never expire if not specified
+     * @param scope Either "app" (the default) to share the fragment between all users or "session"
+     */
+    def cache = { attrs, body ->
+        if(!attrs.key)
+            throwTagError("Tag [cache] is missing required attribute [key]")
+        def scope = attrs.scope ?: 'app'
+        if(scope != 'app' && scope != 'session')
+            throwTagError("Tag [cache] attribute [scope] must be either 'app' or 'session'")
+
+        def fragmentCache
+        if(scope == 'session') {
+            def httpSession = request.getSession(false)
+            fragmentCache = httpSession ? getSessionFragmentCache(httpSession) : null
+        }
+        else {
+            fragmentCache = groovyPageFragmentCache
+        }
+        if(!fragmentCache) {
+            out << body()
+            return
+        }
+
+        def key = attrs.key.toString()
+        StreamCharBuffer fragment = fragmentCache.get(key)
+        if(fragment == null) {
+            fragment = new StreamCharBuffer()
+            fragment.writer << body()
+            long ttl = attrs.ttl ? attrs.ttl.toLong() * 1000L : 0L
+            fragmentCache.put(key, fragment, ttl)
+        }
+        fragment.replayTo(out)
+    }
+
+    private GroovyPageFragmentCache getSessionFragmentCache(httpSession) {
+        synchronized(SpringWebUtils.getSessionMutex(httpSession)) {
+            def fragmentCache = httpSession.getAttribute(GroovyPageFragmentCache.SESSION_ATTRIBUTE)
+            if(fragmentCache == null) {
+                fragmentCache = new DefaultGroovyPageFragmentCache(maxChars:DefaultGroovyPageFragmentCache.DEFAULT_SESSION_MAX_CHARS)
+                httpSession.setAttribute(GroovyPageFragmentCache.SESSION_ATTRIBUTE, fragmentCache)
+            }
+            return fragmentCache
+        }
+    }
+}
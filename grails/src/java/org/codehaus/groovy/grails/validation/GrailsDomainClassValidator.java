@@ -128,6 +128,55 @@ public class GrailsDomainClassValidator implements Validator, CascadingValidator
         postValidate(obj,errors);
     }
 
+    /**
+     * Validates the constraints of the given properties only, without cascading. This is used to re-validate an
+     * instance whose other properties are known to be valid, for example the dirty properties of a flushed instance
+     *
+     * @param obj The object to validate
+     * @param errors The Errors object
+     * @param propertyNames The names of the properties that have changed
+     *
+     * @see #needsValidation(ConstrainedProperty, java.util.Collection)
+     */
+    public void validateProperties(Object obj, Errors errors, Collection propertyNames) {
+        if(!domainClass.getClazz().isInstance(obj))
+            throw new IllegalArgumentException("Argument ["+obj+"] is not an instance of ["+domainClass.getClazz()+"] which this validator is configured for");
+
+        BeanWrapper bean = new BeanWrapperImpl(obj);
+        Map constrainedProperties = domainClass.getConstrainedProperties();
+        for (Iterator i = constrainedProperties.values().iterator(); i.hasNext();) {
+            ConstrainedProperty c = (ConstrainedProperty) i.next();
+            if(needsValidation(c, propertyNames)) {
+                validatePropertyWithConstraint(c.getPropertyName(), obj, errors, bean, constrainedProperties);
+            }
+        }
+
+        if(obj instanceof GroovyObject) {
+            ((GroovyObject)obj).setProperty(ERRORS_PROPERTY, errors);
+        }
+        else {
+            InvokerHelper.setProperty(obj,ERRORS_PROPERTY,errors);
+        }
+
+        postValidate(obj,errors);
+    }
+
+    /**
+     * Whether the constraints of a property have to be validated when the given properties have changed. Besides
+     * the changed properties themselves this is true for properties with a custom validator, which may read any
+     * property, and for properties that aren't persistent
+     *
+     * @param constrainedProperty The ConstrainedProperty
+     * @param propertyNames The names of the properties that have changed
+     * @return True if the constraints have to be validated
+     */
+    protected boolean needsValidation(ConstrainedProperty constrainedProperty, Collection propertyNames) {
+        String propertyName = constrainedProperty.getPropertyName();
+        return propertyNames.contains(propertyName) ||
+               constrainedProperty.hasAppliedConstraint(ConstrainedProperty.VALIDATOR_CONSTRAINT) ||
+               !domainClass.hasPersistentProperty(propertyName);
+    }
+
     /**
      * Subclasses can overrite to provide custom handling of the errors object post validation
      *
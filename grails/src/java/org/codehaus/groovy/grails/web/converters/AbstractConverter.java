@@ -14,10 +14,25 @@
  */
 package org.codehaus.groovy.grails.web.converters;
 
+import grails.util.GrailsConfig;
 import org.apache.commons.lang.UnhandledException;
+import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
 import org.codehaus.groovy.grails.web.pages.FastStringWriter;
+import org.codehaus.groovy.grails.web.util.ETagUtils;
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
+import org.codehaus.groovy.grails.web.util.UTF8StreamWriter;
+import org.hibernate.ScrollableResults;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
 
 /**
  * Abstract base implementation of the Converter interface that provides a default toString()
@@ -27,6 +42,17 @@ import org.springframework.beans.BeanWrapperImpl;
  */
 public abstract class AbstractConverter<W> implements Converter<W> {
 
+    /**
+     * Configuration key that enables strong ETags and conditional GET handling when rendering to a response
+     */
+    public static final String ETAG_ENABLED = "grails.converters.etag";
+
+    /**
+     * Configuration key that makes converters encode UTF-8 output themselves and write the bytes straight to the
+     * ServletOutputStream
+     */
+    public static final String DIRECT_BYTES = "grails.converters.directBytes";
+
     public abstract void setTarget(Object target);
 
     /**
@@ -45,6 +71,69 @@ public abstract class AbstractConverter<W> implements Converter<W> {
     }
 
 
+    /**
+     * If ETags are enabled renders the target into a buffer while computing its digest, then either answers a
+     * matching If-None-Match header with 304 (Not Modified) or writes the buffer to the response. Streamed
+     * targets (Iterators and ScrollableResults) are never buffered.
+     *
+     * @param target The object being converted
+     * @param response The HttpServletResponse
+     * @return False if ETags don't apply and the caller should render to the response as usual
+     */
+    protected boolean renderWithETag(Object target, HttpServletResponse response) throws ConverterException {
+        if(!GrailsConfig.get(ETAG_ENABLED, false)) return false;
+        if(target instanceof Iterator || target instanceof ScrollableResults) return false;
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if(!(attributes instanceof ServletRequestAttributes)) return false;
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        if(!ETagUtils.isConditionalMethod(request)) return false;
+
+        StreamCharBuffer buffer = new StreamCharBuffer();
+        ETagUtils.DigestWriter digestWriter = new ETagUtils.DigestWriter(buffer.getWriter());
+        render(digestWriter);
+        if(!ETagUtils.checkNotModified(request, response, digestWriter.getETag())) {
+            try {
+                buffer.writeTo(response.getWriter());
+            }
+            catch (IOException e) {
+                throw new ConverterException(e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the Writer to render to the response with. If direct bytes are enabled and the encoding is UTF-8
+     * this is a UTF8StreamWriter over the ServletOutputStream, unless the response's Writer is already in use.
+     *
+     * @param response The HttpServletResponse
+     * @param encoding The encoding of the output
+     * @return The Writer
+     */
+    protected Writer getResponseWriter(HttpServletResponse response, String encoding) throws IOException {
+        if(UTF8StreamWriter.isUTF8(encoding) && GrailsConfig.get(DIRECT_BYTES, false)) {
+            try {
+                return new UTF8StreamWriter(response.getOutputStream());
+            }
+            catch (IllegalStateException e) {
+                // getWriter() has already been called
+            }
+        }
+        return response.getWriter();
+    }
+
+    /**
+     * Releases a Writer returned by getResponseWriter(), which rendering normally closes, in case rendering failed
+     *
+     * @param out The Writer or null
+     */
+    protected void releaseResponseWriter(Writer out) {
+        if(out instanceof UTF8StreamWriter) {
+            ((UTF8StreamWriter) out).release();
+        }
+    }
+
     protected BeanWrapper createBeanWrapper(Object o) {
         return new BeanWrapperImpl(o);
     }
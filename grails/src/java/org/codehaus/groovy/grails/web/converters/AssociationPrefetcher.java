@@ -0,0 +1,307 @@
+/*
+ * Copyright 2004-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.converters;
+
+import org.codehaus.groovy.grails.commons.GrailsDomainClass;
+import org.codehaus.groovy.grails.web.converters.configuration.ConverterConfiguration;
+import org.codehaus.groovy.grails.web.converters.marshaller.DomainClassMarshallingPlan;
+import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
+import org.codehaus.groovy.grails.web.converters.marshaller.PrefetchingMarshaller;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.collection.PersistentCollection;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Initializes the associations of the domain objects about to be rendered by a deep converter level by level, so
+ * that each association of a level is loaded with one batched query instead of one query per object.
+ *
+ * Uninitialized proxies are loaded into the session with a single criteria query per entity and chunk of
+ * identifiers, uninitialized collections with a single fetch join query per owning class, collection and chunk of
+ * owners. The depth limits how many levels of associations are prefetched.
+ *
+ * @since 1.2
+ */
+public class AssociationPrefetcher {
+
+    public static final int DEFAULT_DEPTH = 3;
+    public static final int DEFAULT_BATCH_SIZE = 250;
+
+    private SessionFactory sessionFactory;
+    private int depth = DEFAULT_DEPTH;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @param depth The number of association levels to prefetch, 0 disables prefetching
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize The maximum number of identifiers in a single query
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Prefetches the associations of the target of a Converter if the configuration renders its domain objects
+     * with a marshaller that has an AssociationPrefetcher
+     *
+     * @param target The target of the Converter, a domain object or a Collection or array of domain objects
+     * @param config The configuration of the Converter
+     */
+    public static void prefetch(Object target, ConverterConfiguration<?> config) {
+        Collection<?> roots = getRoots(target);
+        if(roots == null) return;
+
+        Object first = getFirst(roots);
+        if(first instanceof HibernateProxy) {
+            first = ((HibernateProxy) first).getHibernateLazyInitializer().getImplementation();
+        }
+        if(first == null) return;
+
+        ObjectMarshaller<?> marshaller = config.getMarshaller(first);
+        if(marshaller instanceof PrefetchingMarshaller) {
+            AssociationPrefetcher prefetcher = ((PrefetchingMarshaller) marshaller).getAssociationPrefetcher();
+            if(prefetcher != null) {
+                prefetcher.prefetch(roots);
+            }
+        }
+    }
+
+    /**
+     * Prefetches the associations of the given domain objects
+     *
+     * @param roots The domain objects
+     * @throws HibernateException if a query fails, the rendering session is then in an undefined state
+     */
+    public void prefetch(Collection<?> roots) {
+        if(depth < 1 || roots.isEmpty()) return;
+        Session session = getCurrentSession();
+        if(session == null) return;
+
+        Map<Object, Object> visited = new IdentityHashMap<Object, Object>();
+        List<Object> level = new ArrayList<Object>();
+        addDomainObjects(roots, level, visited);
+
+        // errors are not swallowed, a session that failed to execute a query must not be used for rendering
+        for (int i = 0; i < depth && !level.isEmpty(); i++) {
+            level = prefetchLevel(session, level, visited);
+        }
+    }
+
+    private List<Object> prefetchLevel(Session session, List<Object> level, Map<Object, Object> visited) {
+        List<Object> next = new ArrayList<Object>();
+        // entity name -> proxies to initialize
+        Map<String, List<HibernateProxy>> proxies = new LinkedHashMap<String, List<HibernateProxy>>();
+        // owner class + property -> owners with an uninitialized collection
+        Map<CollectionRole, List<Object>> collections = new LinkedHashMap<CollectionRole, List<Object>>();
+
+        for (Object owner : level) {
+            DomainClassMarshallingPlan plan = DomainClassMarshallingPlan.getPlan(owner.getClass());
+            for (DomainClassMarshallingPlan.PropertyAccessor property : plan.getPersistentProperties()) {
+                if(!property.isAssociation() || property.getReferencedDomainClass() == null) continue;
+
+                Object value = property.getValue(owner);
+                if(value == null) continue;
+
+                if(value instanceof HibernateProxy) {
+                    LazyInitializer initializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+                    if(initializer.isUninitialized()) {
+                        add(proxies, initializer.getEntityName(), (HibernateProxy) value);
+                    }
+                    else {
+                        addDomainObject(initializer.getImplementation(), next, visited);
+                    }
+                }
+                else if(value instanceof PersistentCollection && !((PersistentCollection) value).wasInitialized()) {
+                    add(collections, new CollectionRole(plan.getDomainClass(), property.getName()), owner);
+                }
+                else {
+                    addDomainObjects(value, next, visited);
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<HibernateProxy>> entry : proxies.entrySet()) {
+            initializeProxies(session, entry.getKey(), entry.getValue(), next, visited);
+        }
+        for (Map.Entry<CollectionRole, List<Object>> entry : collections.entrySet()) {
+            initializeCollections(session, entry.getKey(), entry.getValue(), next, visited);
+        }
+        return next;
+    }
+
+    private void initializeProxies(Session session, String entityName, List<HibernateProxy> proxies, List<Object> next, Map<Object, Object> visited) {
+        ClassMetadata metadata = sessionFactory.getClassMetadata(entityName);
+        if(metadata == null) return;
+
+        List<Serializable> ids = new ArrayList<Serializable>();
+        for (HibernateProxy proxy : proxies) {
+            ids.add(proxy.getHibernateLazyInitializer().getIdentifier());
+        }
+        for (List<Serializable> batch : split(ids)) {
+            // loads the entities into the session, so initializing the proxies below doesn't hit the database
+            session.createCriteria(entityName)
+                    .add(Restrictions.in(metadata.getIdentifierPropertyName(), batch))
+                    .list();
+        }
+        for (HibernateProxy proxy : proxies) {
+            addDomainObject(proxy.getHibernateLazyInitializer().getImplementation(), next, visited);
+        }
+    }
+
+    private void initializeCollections(Session session, CollectionRole role, List<Object> owners, List<Object> next, Map<Object, Object> visited) {
+        DomainClassMarshallingPlan.PropertyAccessor identifier = DomainClassMarshallingPlan.getPlan(owners.get(0).getClass()).getIdentifier();
+        List<Object> ids = new ArrayList<Object>();
+        for (Object owner : owners) {
+            ids.add(identifier.getValue(owner));
+        }
+
+        String hql = "select distinct o from " + role.domainClass.getFullName() + " o left join fetch o." + role.propertyName +
+                " where o." + identifier.getName() + " in (:ids)";
+        for (List<Object> batch : split(ids)) {
+            // the fetch join initializes the collections of the owners already in the session
+            session.createQuery(hql).setParameterList("ids", batch).list();
+        }
+
+        for (Object owner : owners) {
+            addDomainObjects(DomainClassMarshallingPlan.getPropertyValue(owner, role.propertyName), next, visited);
+        }
+    }
+
+    /**
+     * @return The target itself if it is a Collection, a view of it if it is an array, or null if it can't
+     * contain domain objects
+     */
+    private static Collection<?> getRoots(Object target) {
+        if(target instanceof Collection) {
+            return (Collection<?>) target;
+        }
+        else if(target instanceof Object[]) {
+            return Arrays.asList((Object[]) target);
+        }
+        else if(target != null && ConverterUtil.isDomainClass(target.getClass())) {
+            return Collections.singletonList(target);
+        }
+        return null;
+    }
+
+    private static Object getFirst(Collection<?> roots) {
+        for (Object o : roots) {
+            if(o != null) return o;
+        }
+        return null;
+    }
+
+    private void addDomainObjects(Object value, List<Object> level, Map<Object, Object> visited) {
+        if(value instanceof Collection) {
+            for (Object o : (Collection) value) {
+                addDomainObject(o, level, visited);
+            }
+        }
+        else if(value instanceof Map) {
+            for (Object o : ((Map) value).values()) {
+                addDomainObject(o, level, visited);
+            }
+        }
+        else {
+            addDomainObject(value, level, visited);
+        }
+    }
+
+    private void addDomainObject(Object o, List<Object> level, Map<Object, Object> visited) {
+        if(o instanceof HibernateProxy) {
+            LazyInitializer initializer = ((HibernateProxy) o).getHibernateLazyInitializer();
+            if(initializer.isUninitialized()) return;
+            o = initializer.getImplementation();
+        }
+        if(o != null && !visited.containsKey(o) && ConverterUtil.isDomainClass(o.getClass())) {
+            visited.put(o, o);
+            level.add(o);
+        }
+    }
+
+    private <K, V> void add(Map<K, List<V>> map, K key, V value) {
+        List<V> values = map.get(key);
+        if(values == null) {
+            values = new ArrayList<V>();
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+
+    private <T> List<List<T>> split(List<T> values) {
+        List<List<T>> batches = new ArrayList<List<T>>();
+        int size = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        for (int i = 0; i < values.size(); i += size) {
+            batches.add(values.subList(i, Math.min(values.size(), i + size)));
+        }
+        return batches;
+    }
+
+    private Session getCurrentSession() {
+        if(sessionFactory == null) return null;
+        try {
+            return sessionFactory.getCurrentSession();
+        }
+        catch (HibernateException e) {
+            // no session bound to the current thread
+            return null;
+        }
+    }
+
+    private static class CollectionRole {
+        final GrailsDomainClass domainClass;
+        final String propertyName;
+
+        CollectionRole(GrailsDomainClass domainClass, String propertyName) {
+            this.domainClass = domainClass;
+            this.propertyName = propertyName;
+        }
+
+        public boolean equals(Object o) {
+            if(!(o instanceof CollectionRole)) return false;
+            CollectionRole other = (CollectionRole) o;
+            return domainClass == other.domainClass && propertyName.equals(other.propertyName);
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(domainClass) * 31 + propertyName.hashCode();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.codehaus.groovy.grails.commons.GrailsApplication;
 import org.codehaus.groovy.grails.commons.GrailsDomainClass;
 import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.DomainClassMarshallingPlan;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
@@ -183,6 +184,7 @@ public class ConverterUtil {
 
     public static void setGrailsApplication(GrailsApplication grailsApp) {
         getInstance().grailsApplication = grailsApp;
+        DomainClassMarshallingPlan.clearPlans();
     }
 
     private GrailsApplication grailsApplication;
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2004-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.converters;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Stack;
+
+/**
+ * The stack of objects currently being converted, used by the Converters to detect circular references.
+ * Objects are compared by identity so that lookups are constant time and never call equals() or hashCode(),
+ * which could initialize Hibernate proxies or run user code.
+ *
+ * It remains a java.util.Stack for subclasses of the Converters that use their referenceStack field, the lookup
+ * index is only maintained by push(), pop() and clear()
+ *
+ * @since 1.2
+ */
+public class ReferenceStack extends Stack<Object> {
+
+    private final Map<Object, Integer> positions = new IdentityHashMap<Object, Integer>();
+
+    public synchronized Object push(Object o) {
+        if(!positions.containsKey(o)) {
+            positions.put(o, size());
+        }
+        return super.push(o);
+    }
+
+    public synchronized Object pop() {
+        Object o = super.pop();
+        Integer position = positions.get(o);
+        if(position != null && position == size()) {
+            positions.remove(o);
+        }
+        return o;
+    }
+
+    public synchronized void clear() {
+        super.clear();
+        positions.clear();
+    }
+
+    public synchronized boolean contains(Object o) {
+        return positions.containsKey(o);
+    }
+
+    /**
+     * @param o The object
+     * @return The position of the object from the bottom of the stack or -1 if it is not on the stack
+     */
+    public synchronized int indexOf(Object o) {
+        Integer position = positions.get(o);
+        return position != null ? position : -1;
+    }
+}
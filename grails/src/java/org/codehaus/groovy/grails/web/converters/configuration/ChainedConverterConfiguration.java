@@ -41,6 +41,8 @@ public class ChainedConverterConfiguration<C extends Converter> implements Conve
 
     private final boolean prettyPrint;
 
+    private final ObjectMarshallerResolver<C> resolver = new ObjectMarshallerResolver<C>(this);
+
     public ChainedConverterConfiguration(ConverterConfiguration<C> cfg) {
         this.marshallerList = cfg.getOrderedObjectMarshallers();
 
@@ -58,7 +60,7 @@ public class ChainedConverterConfiguration<C extends Converter> implements Conve
     }
 
     public ObjectMarshaller<C> getMarshaller(Object o) {
-        return root.findMarhallerFor(o);
+        return resolver.getMarshaller(o);
     }
 
     public String getEncoding() {
@@ -48,11 +48,13 @@ public class ConvertersConfigurationHolder {
     }
 
     public static <C extends Converter> void setDefaultConfiguration(Class<C> c, ConverterConfiguration<C> cfg) {
-        getInstance().defaultConfiguration.put(c, cfg);    
+        getInstance().defaultConfiguration.put(c, cfg);
+        ObjectMarshallerResolver.invalidateAll();
     }
 
     public static <C extends Converter> void setDefaultConfiguration(Class<C> c, List<ObjectMarshaller<C>> om) {
         getInstance().defaultConfiguration.put(c, new DefaultConverterConfiguration<C>(om));
+        ObjectMarshallerResolver.invalidateAll();
     }
 
     private static ConvertersConfigurationHolder getInstance() throws ConverterException{
@@ -94,6 +96,7 @@ public class ConvertersConfigurationHolder {
 
     public static <C extends Converter> void setNamedConverterConfiguration(Class<C> converterClass, String name, ConverterConfiguration<C> cfg) throws ConverterException {
         getNamedConfigMapForConverter(converterClass, true).put(name, cfg);
+        ObjectMarshallerResolver.invalidateAll();
     }
 
     private static <C extends Converter> Map<String, ConverterConfiguration> getNamedConfigMapForConverter(Class<C> clazz, boolean create) {
@@ -107,6 +110,7 @@ public class ConvertersConfigurationHolder {
 
     public static <C extends Converter> void setNamedConverterConfiguration(Class<C> converterClass, String name, List<ObjectMarshaller<C>> om) throws ConverterException {
         getNamedConfigMapForConverter(converterClass, true).put(name, new DefaultConverterConfiguration<C>(om));
+        ObjectMarshallerResolver.invalidateAll();
     }
 
 }
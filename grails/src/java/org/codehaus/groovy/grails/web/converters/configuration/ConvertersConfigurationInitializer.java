@@ -20,9 +20,12 @@ import grails.converters.XML;
 import grails.util.GrailsConfig;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.codehaus.groovy.grails.web.converters.AssociationPrefetcher;
 import org.codehaus.groovy.grails.web.converters.Converter;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ProxyUnwrappingMarshaller;
+import org.codehaus.groovy.grails.web.converters.marshaller.json.IteratorMarshaller;
+import org.hibernate.SessionFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
@@ -38,6 +41,8 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
 
     private ApplicationContext applicationContext;
 
+    private AssociationPrefetcher associationPrefetcher;
+
     public ApplicationContext getApplicationContext() {
         return applicationContext;
     }
@@ -50,6 +55,7 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
 
     public void initialize() {
         LOG.debug("Initializing Converters Default Configurations...");
+        initAssociationPrefetcher();
         initJSONConfiguration();
         initXMLConfiguration();
         initDeepJSONConfiguration();
@@ -63,6 +69,7 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.ArrayMarshaller());
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.ByteArrayMarshaller());
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.CollectionMarshaller());
+        marshallers.add(createIteratorMarshaller());
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.MapMarshaller());
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.EnumMarshaller());
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.ProxyUnwrappingMarshaller<JSON>());
@@ -78,7 +85,7 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.ToStringBeanMarshaller());
         if (GrailsConfig.get("grails.converters.json.default.deep", false)) {
             LOG.debug("Using DeepDomainClassMarshaller as default.");
-            marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.DeepDomainClassMarshaller());
+            marshallers.add(createJSONDeepDomainClassMarshaller());
         } else {
             marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.json.DomainClassMarshaller());
         }                            
@@ -101,9 +108,45 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
         ConvertersConfigurationHolder.setDefaultConfiguration(JSON.class, new ChainedConverterConfiguration<JSON>(cfg));
     }
 
+    private IteratorMarshaller createIteratorMarshaller() {
+        IteratorMarshaller marshaller = new IteratorMarshaller();
+        marshaller.setChunkSize(GrailsConfig.get("grails.converters.json.streaming.chunkSize", IteratorMarshaller.DEFAULT_CHUNK_SIZE));
+        marshaller.setSessionFactory(getSessionFactory());
+        return marshaller;
+    }
+
+    private void initAssociationPrefetcher() {
+        associationPrefetcher = new AssociationPrefetcher();
+        associationPrefetcher.setSessionFactory(getSessionFactory());
+        associationPrefetcher.setDepth(GrailsConfig.get("grails.converters.deep.prefetch.depth", AssociationPrefetcher.DEFAULT_DEPTH));
+        associationPrefetcher.setBatchSize(GrailsConfig.get("grails.converters.deep.prefetch.batchSize", AssociationPrefetcher.DEFAULT_BATCH_SIZE));
+    }
+
+    private org.codehaus.groovy.grails.web.converters.marshaller.json.DeepDomainClassMarshaller createJSONDeepDomainClassMarshaller() {
+        org.codehaus.groovy.grails.web.converters.marshaller.json.DeepDomainClassMarshaller marshaller = new org.codehaus.groovy.grails.web.converters.marshaller.json.DeepDomainClassMarshaller();
+        marshaller.setAssociationPrefetcher(associationPrefetcher);
+        return marshaller;
+    }
+
+    private org.codehaus.groovy.grails.web.converters.marshaller.xml.DeepDomainClassMarshaller createXMLDeepDomainClassMarshaller() {
+        org.codehaus.groovy.grails.web.converters.marshaller.xml.DeepDomainClassMarshaller marshaller = new org.codehaus.groovy.grails.web.converters.marshaller.xml.DeepDomainClassMarshaller();
+        marshaller.setAssociationPrefetcher(associationPrefetcher);
+        return marshaller;
+    }
+
+    private SessionFactory getSessionFactory() {
+        if (applicationContext != null && applicationContext.containsBean("sessionFactory")) {
+            Object sessionFactory = applicationContext.getBean("sessionFactory");
+            if (sessionFactory instanceof SessionFactory) {
+                return (SessionFactory) sessionFactory;
+            }
+        }
+        return null;
+    }
+
     private void initDeepJSONConfiguration() {
         DefaultConverterConfiguration<JSON> deepConfig = new DefaultConverterConfiguration<JSON>(ConvertersConfigurationHolder.getConverterConfiguration(JSON.class));
-        deepConfig.registerObjectMarshaller(new org.codehaus.groovy.grails.web.converters.marshaller.json.DeepDomainClassMarshaller());
+        deepConfig.registerObjectMarshaller(createJSONDeepDomainClassMarshaller());
         ConvertersConfigurationHolder.setNamedConverterConfiguration(JSON.class, "deep", deepConfig);
     }
 
@@ -119,7 +162,7 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
         marshallers.add(new ProxyUnwrappingMarshaller<XML>());
         marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.xml.ToStringBeanMarshaller());
         if (GrailsConfig.get("grails.converters.xml.default.deep", false)) {
-            marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.xml.DeepDomainClassMarshaller());
+            marshallers.add(createXMLDeepDomainClassMarshaller());
         } else {
             marshallers.add(new org.codehaus.groovy.grails.web.converters.marshaller.xml.DomainClassMarshaller());
         }
@@ -142,7 +185,7 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
 
     private void initDeepXMLConfiguration() {
         DefaultConverterConfiguration<XML> deepConfig = new DefaultConverterConfiguration<XML>(ConvertersConfigurationHolder.getConverterConfiguration(XML.class));
-        deepConfig.registerObjectMarshaller(new org.codehaus.groovy.grails.web.converters.marshaller.xml.DeepDomainClassMarshaller());
+        deepConfig.registerObjectMarshaller(createXMLDeepDomainClassMarshaller());
         ConvertersConfigurationHolder.setNamedConverterConfiguration(XML.class, "deep", deepConfig);
     }
 
@@ -46,6 +46,17 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
 
     private Converter.CircularReferenceBehaviour circularReferenceBehaviour;
 
+    private final ObjectMarshallerResolver<C> resolver = new ObjectMarshallerResolver<C>(this) {
+        List<ObjectMarshaller<C>> getOrderedObjectMarshallers() {
+            // the delegate is asked separately, it may not resolve from its ordered marshallers
+            List<ObjectMarshaller<C>> list = new ArrayList<ObjectMarshaller<C>>();
+            for(Entry entry : objectMarshallers) {
+                list.add(entry.marshaller);
+            }
+            return list;
+        }
+    };
+
     public String getEncoding() {
         return encoding != null ? encoding : (delegate != null ? delegate.getEncoding() : null);
     }
@@ -106,6 +117,7 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
 
     public void registerObjectMarshaller(ObjectMarshaller<C> marshaller, int priority) {
         objectMarshallers.add(new Entry(marshaller, priority));
+        ObjectMarshallerResolver.invalidateAll();
     }
 
     public void registerObjectMarshaller(Class c, int priority, Closure callable) {
@@ -117,12 +129,11 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
     }
 
     public ObjectMarshaller<C> getMarshaller(Object o) {
-        for(Entry entry : objectMarshallers) {
-            if(entry.marshaller.supports(o)) {
-                return entry.marshaller;
-            }
+        ObjectMarshaller<C> marshaller = resolver.getMarshaller(o);
+        if(marshaller == null && delegate != null) {
+            return delegate.getMarshaller(o);
         }
-        return delegate != null ? delegate.getMarshaller(o) : null;
+        return marshaller;
     }
 
     public class Entry {
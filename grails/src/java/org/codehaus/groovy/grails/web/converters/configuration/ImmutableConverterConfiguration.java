@@ -37,6 +37,8 @@ public class ImmutableConverterConfiguration<C extends Converter> implements Con
 
     private final boolean prettyPrint;
 
+    private final ObjectMarshallerResolver<C> resolver = new ObjectMarshallerResolver<C>(this);
+
     public ImmutableConverterConfiguration(ConverterConfiguration<C> cfg) {
         marshallers = Collections.unmodifiableList(cfg.getOrderedObjectMarshallers());
         encoding = cfg.getEncoding();
@@ -48,12 +50,7 @@ public class ImmutableConverterConfiguration<C extends Converter> implements Con
      * @see ConverterConfiguration#getMarshaller(Object) 
      */
     public ObjectMarshaller<C> getMarshaller(Object o) {
-        for(ObjectMarshaller<C> om : marshallers) {
-            if(om.supports(o)) {
-                return om;
-            }
-        }
-        return null;
+        return resolver.getMarshaller(o);
     }
 
     /**
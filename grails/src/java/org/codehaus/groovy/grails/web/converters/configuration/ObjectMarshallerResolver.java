@@ -0,0 +1,127 @@
+/*
+ * Copyright 2004-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.converters.configuration;
+
+import org.codehaus.groovy.grails.web.converters.Converter;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
+import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the result of asking the priority ordered ObjectMarshallers of a ConverterConfiguration for each class,
+ * so that they don't all have to be asked for every object being converted.
+ *
+ * Only marshallers implementing ClassBasedMarshaller are resolved once per class, any other marshaller that comes
+ * before the resolved one is still asked for each object. The cached resolutions of all configurations are
+ * discarded when a marshaller is registered or a configuration changes
+ *
+ * @since 1.2
+ */
+class ObjectMarshallerResolver<C extends Converter> {
+
+    private static volatile int generation;
+
+    private final ConverterConfiguration<C> configuration;
+
+    private final ConcurrentHashMap<Class, Resolution<C>> resolutions = new ConcurrentHashMap<Class, Resolution<C>>();
+
+    private volatile int resolvedGeneration;
+
+    ObjectMarshallerResolver(ConverterConfiguration<C> configuration) {
+        this.configuration = configuration;
+        this.resolvedGeneration = generation;
+    }
+
+    /**
+     * Discards the cached resolutions of all configurations
+     */
+    static synchronized void invalidateAll() {
+        generation++;
+    }
+
+    /**
+     * @return The marshallers to resolve from in priority order, by default those of the configuration
+     */
+    List<ObjectMarshaller<C>> getOrderedObjectMarshallers() {
+        return configuration.getOrderedObjectMarshallers();
+    }
+
+    ObjectMarshaller<C> getMarshaller(Object o) {
+        if(o == null) {
+            return findMarshaller(getOrderedObjectMarshallers(), o);
+        }
+        int currentGeneration = generation;
+        if(resolvedGeneration != currentGeneration) {
+            // drop the resolutions of all classes rather than replacing them one by one as they are looked up
+            resolutions.clear();
+            resolvedGeneration = currentGeneration;
+        }
+        Resolution<C> resolution = resolutions.get(o.getClass());
+        if(resolution == null || resolution.generation != currentGeneration) {
+            resolution = resolve(o, currentGeneration);
+            resolutions.put(o.getClass(), resolution);
+        }
+        return resolution.getMarshaller(o);
+    }
+
+    private ObjectMarshaller<C> findMarshaller(List<ObjectMarshaller<C>> marshallers, Object o) {
+        for(ObjectMarshaller<C> om : marshallers) {
+            if(om.supports(o)) {
+                return om;
+            }
+        }
+        return null;
+    }
+
+    private Resolution<C> resolve(Object o, int currentGeneration) {
+        List<ObjectMarshaller<C>> candidates = new ArrayList<ObjectMarshaller<C>>();
+        ObjectMarshaller<C> resolved = null;
+        for(ObjectMarshaller<C> om : getOrderedObjectMarshallers()) {
+            if(!(om instanceof ClassBasedMarshaller)) {
+                candidates.add(om);
+            }
+            else if(om.supports(o)) {
+                resolved = om;
+                break;
+            }
+        }
+        return new Resolution<C>(currentGeneration, candidates, resolved);
+    }
+    private static class Resolution<C extends Converter> {
+        final int generation;
+        final ObjectMarshaller<C>[] candidates;
+        final ObjectMarshaller<C> resolved;
+
+        @SuppressWarnings("unchecked")
+        Resolution(int generation, List<ObjectMarshaller<C>> candidates, ObjectMarshaller<C> resolved) {
+            this.generation = generation;
+            this.candidates = candidates.toArray(new ObjectMarshaller[candidates.size()]);
+            this.resolved = resolved;
+        }
+
+        ObjectMarshaller<C> getMarshaller(Object o) {
+            for(ObjectMarshaller<C> om : candidates) {
+                if(om.supports(o)) {
+                    return om;
+                }
+            }
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2004-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.converters.marshaller;
+
+/**
+ * Marker interface for ObjectMarshallers whose supports() method only depends on the class of the object. Converter
+ * configurations cache the result of such marshallers per class, all other marshallers are asked for every object.
+ *
+ * Don't subclass a marshaller implementing this interface to decide by the state of the object.
+ *
+ * @since 1.2
+ */
+public interface ClassBasedMarshaller {
+}
@@ -25,7 +25,7 @@ import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ClosureOjectMarshaller<T extends Converter> implements ObjectMarshaller<T> {
+public class ClosureOjectMarshaller<T extends Converter> implements ObjectMarshaller<T>, ClassBasedMarshaller {
 
     private Class clazz;
 
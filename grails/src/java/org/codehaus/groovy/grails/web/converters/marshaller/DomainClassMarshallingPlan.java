@@ -0,0 +1,215 @@
+/*
+ * Copyright 2004-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.converters.marshaller;
+
+import org.codehaus.groovy.grails.commons.GrailsClassUtils;
+import org.codehaus.groovy.grails.commons.GrailsDomainClass;
+import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
+import org.codehaus.groovy.grails.web.converters.ConverterUtil;
+import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Describes how instances of a domain class are marshalled: the identifier, version and persistent properties in
+ * order, each with its getter and the kind of association it is. Plans are built once per class (proxy classes get
+ * their own plan) and shared by the JSON and XML DomainClassMarshallers
+ *
+ * @since 1.2
+ */
+public class DomainClassMarshallingPlan {
+
+    private static final Map<Class, DomainClassMarshallingPlan> PLANS = new ConcurrentHashMap<Class, DomainClassMarshallingPlan>();
+    private static final AtomicLong CREATION_COUNT = new AtomicLong();
+
+    private final GrailsDomainClass domainClass;
+    private final PropertyAccessor identifier;
+    private final PropertyAccessor version;
+    private final PropertyAccessor[] persistentProperties;
+    private final Map<String, PropertyAccessor> accessorsByName = new HashMap<String, PropertyAccessor>();
+
+    private DomainClassMarshallingPlan(Class clazz, GrailsDomainClass domainClass) {
+        this.domainClass = domainClass;
+        this.identifier = createAccessor(clazz, domainClass.getIdentifier());
+        this.version = createAccessor(clazz, domainClass.getVersion());
+
+        GrailsDomainClassProperty[] properties = domainClass.getPersistentProperties();
+        this.persistentProperties = new PropertyAccessor[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            persistentProperties[i] = createAccessor(clazz, properties[i]);
+        }
+    }
+
+    /**
+     * Returns the plan for the given class
+     *
+     * @param clazz The class of the domain instance, which may be a proxy class
+     * @return The plan or null if the class isn't a domain class
+     */
+    public static DomainClassMarshallingPlan getPlan(Class clazz) {
+        DomainClassMarshallingPlan plan = PLANS.get(clazz);
+        if(plan == null) {
+            GrailsDomainClass domainClass = ConverterUtil.getDomainClass(clazz.getName());
+            if(domainClass == null) return null;
+            plan = new DomainClassMarshallingPlan(clazz, domainClass);
+            PLANS.put(clazz, plan);
+            CREATION_COUNT.incrementAndGet();
+        }
+        return plan;
+    }
+
+    /**
+     * @return The number of plans that have been built, a count that keeps growing points to plans not being reused
+     */
+    public static long getCreationCount() {
+        return CREATION_COUNT.get();
+    }
+
+    /**
+     * Discards all plans, for example when the domain classes have been reloaded
+     */
+    public static void clearPlans() {
+        PLANS.clear();
+    }
+
+    /**
+     * Reads a property of a domain instance using the cached getter if there is one
+     *
+     * @param instance The domain instance
+     * @param propertyName The name of the property
+     * @return The value of the property
+     */
+    public static Object getPropertyValue(Object instance, String propertyName) throws ConverterException {
+        DomainClassMarshallingPlan plan = getPlan(instance.getClass());
+        PropertyAccessor accessor = plan != null ? plan.accessorsByName.get(propertyName) : null;
+        if(accessor != null) {
+            return accessor.getValue(instance);
+        }
+        return new BeanWrapperImpl(instance).getPropertyValue(propertyName);
+    }
+
+    public GrailsDomainClass getDomainClass() {
+        return domainClass;
+    }
+
+    public PropertyAccessor getIdentifier() {
+        return identifier;
+    }
+
+    public PropertyAccessor getVersion() {
+        return version;
+    }
+
+    public PropertyAccessor[] getPersistentProperties() {
+        return persistentProperties;
+    }
+
+    private PropertyAccessor createAccessor(Class clazz, GrailsDomainClassProperty property) {
+        if(property == null) return null;
+        PropertyAccessor accessor = new PropertyAccessor(clazz, property);
+        accessorsByName.put(property.getName(), accessor);
+        return accessor;
+    }
+
+    /**
+     * Reads a single property of a domain class
+     */
+    public static class PropertyAccessor {
+        private final GrailsDomainClassProperty property;
+        private final String name;
+        private final Method getter;
+        private final boolean association;
+        private final boolean singleEnded;
+        private final boolean enumType;
+        private final GrailsDomainClass referencedDomainClass;
+        private final GrailsDomainClassProperty referencedIdentifier;
+
+        PropertyAccessor(Class clazz, GrailsDomainClassProperty property) {
+            this.property = property;
+            this.name = property.getName();
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(clazz, name);
+            Method readMethod = descriptor != null ? descriptor.getReadMethod() : null;
+            if(readMethod != null && !readMethod.isAccessible()) {
+                try {
+                    readMethod.setAccessible(true);
+                }
+                catch (SecurityException e) {
+                    readMethod = null;
+                }
+            }
+            this.getter = readMethod;
+            this.association = property.isAssociation();
+            this.singleEnded = property.isOneToOne() || property.isManyToOne() || property.isEmbedded();
+            this.enumType = GrailsClassUtils.isJdk5Enum(property.getType());
+            this.referencedDomainClass = association ? property.getReferencedDomainClass() : null;
+            this.referencedIdentifier = referencedDomainClass != null ? referencedDomainClass.getIdentifier() : null;
+        }
+
+        public Object getValue(Object instance) throws ConverterException {
+            if(getter == null) {
+                return new BeanWrapperImpl(instance).getPropertyValue(name);
+            }
+            try {
+                return getter.invoke(instance);
+            }
+            catch (InvocationTargetException e) {
+                throw new ConverterException("Error reading property [" + name + "] of class " + instance.getClass().getName(), e.getTargetException());
+            }
+            catch (IllegalAccessException e) {
+                throw new ConverterException("Error reading property [" + name + "] of class " + instance.getClass().getName(), e);
+            }
+        }
+
+        public GrailsDomainClassProperty getProperty() {
+            return property;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAssociation() {
+            return association;
+        }
+
+        /**
+         * @return true for one-to-one, many-to-one and embedded properties, which reference a single object
+         */
+        public boolean isSingleEnded() {
+            return singleEnded;
+        }
+
+        public boolean isEnum() {
+            return enumType;
+        }
+
+        public GrailsDomainClass getReferencedDomainClass() {
+            return referencedDomainClass;
+        }
+
+        public GrailsDomainClassProperty getReferencedIdentifier() {
+            return referencedIdentifier;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2004-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.converters.marshaller;
+
+import org.codehaus.groovy.grails.web.converters.AssociationPrefetcher;
+
+/**
+ * Implemented by ObjectMarshallers that render the associations of domain objects and want them to be
+ * prefetched in batches before rendering starts
+ *
+ * @since 1.2
+ */
+public interface PrefetchingMarshaller {
+
+    /**
+     * @return The AssociationPrefetcher to use or null if associations shouldn't be prefetched
+     */
+    public AssociationPrefetcher getAssociationPrefetcher();
+
+}
@@ -16,6 +16,7 @@
 package org.codehaus.groovy.grails.web.converters.marshaller.json;
 
 import grails.converters.JSON;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
 
@@ -23,7 +24,7 @@ import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ByteArrayMarshaller implements ObjectMarshaller<JSON> {
+public class ByteArrayMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
     public boolean supports(Object object) {
         return object instanceof byte[];
     }
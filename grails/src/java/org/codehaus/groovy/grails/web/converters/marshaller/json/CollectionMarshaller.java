@@ -16,6 +16,7 @@
 package org.codehaus.groovy.grails.web.converters.marshaller.json;
 
 import grails.converters.JSON;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
 import org.codehaus.groovy.grails.web.json.JSONWriter;
@@ -26,7 +27,7 @@ import java.util.Collection;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class CollectionMarshaller implements ObjectMarshaller<JSON> {
+public class CollectionMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
        return object instanceof Collection;
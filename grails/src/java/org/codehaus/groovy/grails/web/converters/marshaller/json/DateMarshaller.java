@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.json;
 import grails.converters.JSON;
 import org.apache.commons.lang.time.FastDateFormat;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.json.JSONException;
 
@@ -32,7 +33,7 @@ import java.util.TimeZone;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class DateMarshaller implements ObjectMarshaller<JSON> {
+public class DateMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
 
     // TODO Tests resulted in java.text.SimpleDateFormat beeing a bit faster - but it's not thread-safe - need to discuss
     private final Format JSON_DATE_FORMAT = FastDateFormat.getInstance("yyyy-MM-dd'T'HH:mm:ss'Z'", TimeZone.getTimeZone("GMT"), Locale.US);
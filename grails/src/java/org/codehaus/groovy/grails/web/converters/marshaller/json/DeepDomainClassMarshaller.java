@@ -15,11 +15,24 @@
  */
 package org.codehaus.groovy.grails.web.converters.marshaller.json;
 
+import org.codehaus.groovy.grails.web.converters.AssociationPrefetcher;
+import org.codehaus.groovy.grails.web.converters.marshaller.PrefetchingMarshaller;
+
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class DeepDomainClassMarshaller extends DomainClassMarshaller {
+public class DeepDomainClassMarshaller extends DomainClassMarshaller implements PrefetchingMarshaller {
+
+    private AssociationPrefetcher associationPrefetcher;
+
+    public AssociationPrefetcher getAssociationPrefetcher() {
+        return associationPrefetcher;
+    }
+
+    public void setAssociationPrefetcher(AssociationPrefetcher associationPrefetcher) {
+        this.associationPrefetcher = associationPrefetcher;
+    }
 
     protected boolean isRenderDomainClassRelations() {
         return true;
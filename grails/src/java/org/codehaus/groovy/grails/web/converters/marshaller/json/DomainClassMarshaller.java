@@ -20,23 +20,23 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.commons.GrailsDomainClass;
 import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
-import org.codehaus.groovy.grails.commons.GrailsClassUtils;
 import org.codehaus.groovy.grails.web.converters.ConverterUtil;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.DomainClassMarshallingPlan;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.json.JSONWriter;
 import org.hibernate.collection.AbstractPersistentCollection;
 import org.hibernate.Hibernate;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 
-import java.util.*;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class DomainClassMarshaller implements ObjectMarshaller<JSON> {
+public class DomainClassMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
 
     private final Log log = LogFactory.getLog(getClass());
 
@@ -57,53 +57,36 @@ public class DomainClassMarshaller implements ObjectMarshaller<JSON> {
     public void marshalObject(Object value, JSON json) throws ConverterException {
         JSONWriter writer = json.getWriter();
 
-        Class clazz = value.getClass();
-        GrailsDomainClass domainClass = ConverterUtil.getDomainClass(clazz.getName());
-        BeanWrapper beanWrapper = new BeanWrapperImpl(value);
+        DomainClassMarshallingPlan plan = DomainClassMarshallingPlan.getPlan(value.getClass());
+        GrailsDomainClass domainClass = plan.getDomainClass();
 
         writer.object();
         writer.key("class").value(domainClass.getName());
 
-        GrailsDomainClassProperty id = domainClass.getIdentifier();
-        Object idValue = extractValue(value, id);
+        Object idValue = extractValue(value, plan.getIdentifier().getProperty());
 
         json.property("id", idValue);
 
-        if(isIncludeVersion()) {
-            GrailsDomainClassProperty versionProperty = domainClass.getVersion();
-            Object version = extractValue(value, versionProperty);
+        if(isIncludeVersion() && plan.getVersion() != null) {
+            Object version = extractValue(value, plan.getVersion().getProperty());
             json.property("version", version);
         }
 
-        GrailsDomainClassProperty[] properties = domainClass.getPersistentProperties();
-
-        for (GrailsDomainClassProperty property : properties) {
+        for (DomainClassMarshallingPlan.PropertyAccessor property : plan.getPersistentProperties()) {
             writer.key(property.getName());
             if (!property.isAssociation()) {
                 // Write non-relation property
-                Object val = beanWrapper.getPropertyValue(property.getName());
+                Object val = property.getValue(value);
                 json.convertAnother(val);
             } else {
-                Object referenceObject = beanWrapper.getPropertyValue(property.getName());
+                Object referenceObject = property.getValue(value);
                 if (isRenderDomainClassRelations()) {
                     if (referenceObject == null) {
                         writer.value(null);
                     } else {
                         if (referenceObject instanceof AbstractPersistentCollection) {
-                            // Force initialisation and get a non-persistent Collection Type
-                            AbstractPersistentCollection acol = (AbstractPersistentCollection) referenceObject;
-                            acol.forceInitialization();
-                            if (referenceObject instanceof SortedMap) {
-                                referenceObject = new TreeMap((SortedMap) referenceObject);
-                            } else if (referenceObject instanceof SortedSet) {
-                                referenceObject = new TreeSet((SortedSet) referenceObject);
-                            } else if (referenceObject instanceof Set) {
-                                referenceObject = new HashSet((Set) referenceObject);
-                            } else if (referenceObject instanceof Map) {
-                                referenceObject = new HashMap((Map) referenceObject);
-                            } else {
-                                referenceObject = new ArrayList((Collection) referenceObject);
-                            }
+                            // Force initialisation, the collection is then rendered in place
+                            ((AbstractPersistentCollection) referenceObject).forceInitialization();
                         } else if(!Hibernate.isInitialized(referenceObject)) {
                             Hibernate.initialize(referenceObject);
                         }
@@ -115,16 +98,15 @@ public class DomainClassMarshaller implements ObjectMarshaller<JSON> {
                     } else {
                         GrailsDomainClass referencedDomainClass = property.getReferencedDomainClass();
 
-                        if (property.isOneToOne() || property.isManyToOne() || property.isEmbedded()) {
+                        if (property.isSingleEnded()) {
                             // Property contains 1 foreign Domain Object
-                            if(GrailsClassUtils.isJdk5Enum(property.getType())) {
+                            if(property.isEnum()) {
                                 json.convertAnother(referenceObject);
                             } else {
-                                asShortObject(referenceObject, json, referencedDomainClass.getIdentifier(), referencedDomainClass);
+                                asShortObject(referenceObject, json, property.getReferencedIdentifier(), referencedDomainClass);
                             }
                         } else {
-                            GrailsDomainClassProperty referencedIdProperty = referencedDomainClass.getIdentifier();
-                            String refPropertyName = referencedDomainClass.getPropertyName();
+                            GrailsDomainClassProperty referencedIdProperty = property.getReferencedIdentifier();
                             if (referenceObject instanceof Collection) {
                                 Collection o = (Collection) referenceObject;
                                 writer.array();
@@ -162,8 +144,7 @@ public class DomainClassMarshaller implements ObjectMarshaller<JSON> {
     }
 
     protected Object extractValue(Object domainObject, GrailsDomainClassProperty property) {
-        BeanWrapper beanWrapper = new BeanWrapperImpl(domainObject);
-        return beanWrapper.getPropertyValue(property.getName());
+        return DomainClassMarshallingPlan.getPropertyValue(domainObject, property.getName());
     }
 
     protected boolean isRenderDomainClassRelations() {
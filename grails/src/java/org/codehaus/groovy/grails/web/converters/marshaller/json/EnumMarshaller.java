@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.json;
 import grails.converters.JSON;
 import org.codehaus.groovy.grails.commons.GrailsClassUtils;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.json.JSONWriter;
 import org.springframework.beans.BeanUtils;
@@ -28,7 +29,7 @@ import java.lang.reflect.Method;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class EnumMarshaller implements ObjectMarshaller<JSON> {
+public class EnumMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return GrailsClassUtils.isJdk5Enum(object.getClass());
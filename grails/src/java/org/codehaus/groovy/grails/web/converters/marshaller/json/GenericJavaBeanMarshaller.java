@@ -17,6 +17,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.json;
 
 import grails.converters.JSON;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.json.JSONWriter;
 
@@ -31,7 +32,7 @@ import java.lang.reflect.Modifier;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GenericJavaBeanMarshaller implements ObjectMarshaller<JSON> {
+public class GenericJavaBeanMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return true;
@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.json;
 import grails.converters.JSON;
 import groovy.lang.GroovyObject;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.json.JSONWriter;
 
@@ -32,7 +33,7 @@ import java.lang.reflect.Modifier;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GroovyBeanMarshaller implements ObjectMarshaller<JSON> {
+public class GroovyBeanMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof GroovyObject;
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2004-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.converters.marshaller.json;
+
+import grails.converters.JSON;
+import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
+import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
+import org.codehaus.groovy.grails.web.json.JSONWriter;
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.collection.PersistentCollection;
+import org.hibernate.engine.EntityEntry;
+import org.hibernate.engine.SessionImplementor;
+import org.hibernate.engine.Status;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Renders an Iterator or a Hibernate ScrollableResults as a JSON array while the elements are being fetched,
+ * so that large results never have to be held in memory. Every chunkSize elements the output is flushed.
+ *
+ * The rows of a ScrollableResults are also evicted from the current Hibernate session once rendered, unless
+ * they have unflushed changes. Entities reached through their associations are only evicted if the association
+ * cascades evictions. The elements of other Iterators are never evicted. A ScrollableResults is closed once it
+ * has been rendered.
+ *
+ * @since 1.2
+ */
+public class IteratorMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
+
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private SessionFactory sessionFactory;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public boolean supports(Object object) {
+        return object instanceof Iterator || object instanceof ScrollableResults;
+    }
+
+    public void marshalObject(Object o, JSON converter) throws ConverterException {
+        JSONWriter writer = converter.getWriter();
+        writer.array();
+        if (o instanceof ScrollableResults) {
+            ScrollableResults results = (ScrollableResults) o;
+            List<Object> rendered = new ArrayList<Object>(chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE);
+            try {
+                while (results.next()) {
+                    Object[] row = results.get();
+                    Object element = row.length == 1 ? row[0] : row;
+                    converter.convertAnother(element);
+                    rendered.add(element);
+                    if (endOfChunk(rendered.size(), converter)) {
+                        evict(rendered);
+                    }
+                }
+            }
+            finally {
+                results.close();
+            }
+            writer.endArray();
+            evict(rendered);
+        }
+        else {
+            Iterator i = (Iterator) o;
+            int count = 0;
+            while (i.hasNext()) {
+                converter.convertAnother(i.next());
+                endOfChunk(++count, converter);
+            }
+            writer.endArray();
+        }
+    }
+
+    private boolean endOfChunk(int count, JSON converter) throws ConverterException {
+        if (chunkSize > 0 && count % chunkSize == 0) {
+            converter.getWriter().flush();
+            return true;
+        }
+        return false;
+    }
+
+    private void evict(List<Object> rendered) {
+        Session session = getCurrentSession();
+        if (session != null) {
+            for (Object element : rendered) {
+                if (element instanceof Object[]) {
+                    for (Object column : (Object[]) element) {
+                        evict(session, column);
+                    }
+                }
+                else {
+                    evict(session, element);
+                }
+            }
+        }
+        rendered.clear();
+    }
+
+    private void evict(Session session, Object element) {
+        if (element != null && session.contains(element) && !isDirty(session, element)) {
+            session.evict(element);
+        }
+    }
+
+    /**
+     * Checks an entity for unflushed changes, which evicting it would discard
+     */
+    private boolean isDirty(Session session, Object entity) {
+        if (!(session instanceof SessionImplementor)) return true;
+        SessionImplementor sessionImplementor = (SessionImplementor) session;
+        EntityEntry entry = sessionImplementor.getPersistenceContext().getEntry(entity);
+        if (entry == null) return false;
+        if (entry.getStatus() == Status.READ_ONLY) return false;
+        if (entry.getStatus() != Status.MANAGED || entry.getLoadedState() == null) return true;
+
+        EntityPersister persister = entry.getPersister();
+        Object[] values = persister.getPropertyValues(entity, sessionImplementor.getEntityMode());
+        if (persister.findDirty(values, entry.getLoadedState(), entity, sessionImplementor) != null) return true;
+        for (Object value : values) {
+            if (value instanceof PersistentCollection && ((PersistentCollection) value).isDirty()) return true;
+        }
+        return false;
+    }
+
+    private Session getCurrentSession() {
+        if (sessionFactory == null) return null;
+        try {
+            return sessionFactory.getCurrentSession();
+        }
+        catch (HibernateException e) {
+            // no session bound to the current thread
+            return null;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.codehaus.groovy.grails.web.converters.marshaller.json;
 
 import grails.converters.JSON;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
 import org.codehaus.groovy.grails.web.json.JSONException;
@@ -27,7 +28,7 @@ import java.util.Date;
  *
  * @since 1.1
  */
-public class JavascriptDateMarshaller implements ObjectMarshaller<JSON> {
+public class JavascriptDateMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof Date;
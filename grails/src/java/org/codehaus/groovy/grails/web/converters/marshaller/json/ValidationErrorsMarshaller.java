@@ -17,6 +17,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.json;
 
 import grails.converters.JSON;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.grails.web.json.JSONWriter;
 import org.springframework.context.ApplicationContext;
@@ -32,7 +33,7 @@ import java.util.Locale;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ValidationErrorsMarshaller implements ObjectMarshaller<JSON>, ApplicationContextAware {
+public class ValidationErrorsMarshaller implements ObjectMarshaller<JSON>, ApplicationContextAware, ClassBasedMarshaller {
 
     private ApplicationContext applicationContext;
 
@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 import grails.converters.XML;
 import groovy.lang.Writable;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 
@@ -27,7 +28,7 @@ import java.io.IOException;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class Base64ByteArrayMarshaller implements ObjectMarshaller<XML> {
+public class Base64ByteArrayMarshaller implements ObjectMarshaller<XML>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof byte[] || object instanceof Byte[];
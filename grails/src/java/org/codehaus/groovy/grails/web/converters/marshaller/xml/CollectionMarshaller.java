@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 import grails.converters.XML;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
 import org.codehaus.groovy.grails.web.converters.marshaller.NameAwareMarshaller;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 
 import java.util.Collection;
@@ -27,7 +28,7 @@ import java.util.Set;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class CollectionMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller {
+public class CollectionMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller, ClassBasedMarshaller {
 
 
     public boolean supports(Object object) {
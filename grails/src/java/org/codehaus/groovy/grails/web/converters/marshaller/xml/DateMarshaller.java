@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 import grails.converters.XML;
 import org.codehaus.groovy.grails.web.converters.ConverterUtil;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.apache.commons.lang.time.FastDateFormat;
 
@@ -28,7 +29,7 @@ import java.util.Date;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class DateMarshaller implements ObjectMarshaller<XML> {
+public class DateMarshaller implements ObjectMarshaller<XML>, ClassBasedMarshaller {
 
     private final Format XML_DATE_FORMAT;
 
@@ -18,24 +18,24 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 import grails.converters.XML;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.codehaus.groovy.grails.commons.GrailsClassUtils;
 import org.codehaus.groovy.grails.commons.GrailsDomainClass;
 import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
 import org.codehaus.groovy.grails.web.converters.ConverterUtil;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.DomainClassMarshallingPlan;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.hibernate.Hibernate;
 import org.hibernate.collection.AbstractPersistentCollection;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 
-import java.util.*;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class DomainClassMarshaller implements ObjectMarshaller<XML> {
+public class DomainClassMarshaller implements ObjectMarshaller<XML>, ClassBasedMarshaller {
 
     private final Log log = LogFactory.getLog(getClass());
 
@@ -44,43 +44,26 @@ public class DomainClassMarshaller implements ObjectMarshaller<XML> {
     }
 
     public void marshalObject(Object value, XML xml) throws ConverterException {
-        Class clazz = value.getClass();
-        GrailsDomainClass domainClass = ConverterUtil.getDomainClass(clazz.getName());
-        BeanWrapper beanWrapper = new BeanWrapperImpl(value);
+        DomainClassMarshallingPlan plan = DomainClassMarshallingPlan.getPlan(value.getClass());
 
-        GrailsDomainClassProperty id = domainClass.getIdentifier();
-        Object idValue = extractIdValue(value, id);
+        Object idValue = extractIdValue(value, plan.getIdentifier().getProperty());
 
         if (idValue != null) xml.attribute("id", String.valueOf(idValue));
 
-        GrailsDomainClassProperty[] properties = domainClass.getPersistentProperties();
-
-        for (GrailsDomainClassProperty property : properties) {
+        for (DomainClassMarshallingPlan.PropertyAccessor property : plan.getPersistentProperties()) {
             xml.startNode(property.getName());
             if (!property.isAssociation()) {
                 // Write non-relation property
-                Object val = beanWrapper.getPropertyValue(property.getName());
+                Object val = property.getValue(value);
                 xml.convertAnother(val);
             } else {
-                Object referenceObject = beanWrapper.getPropertyValue(property.getName());
+                Object referenceObject = property.getValue(value);
                 if (isRenderDomainClassRelations()) {
                     if (referenceObject == null) {
                     } else {
                         if (referenceObject instanceof AbstractPersistentCollection) {
-                            // Force initialisation and get a non-persistent Collection Type
-                            AbstractPersistentCollection acol = (AbstractPersistentCollection) referenceObject;
-                            acol.forceInitialization();
-                            if (referenceObject instanceof SortedMap) {
-                                referenceObject = new TreeMap((SortedMap) referenceObject);
-                            } else if (referenceObject instanceof SortedSet) {
-                                referenceObject = new TreeSet((SortedSet) referenceObject);
-                            } else if (referenceObject instanceof Set) {
-                                referenceObject = new HashSet((Set) referenceObject);
-                            } else if (referenceObject instanceof Map) {
-                                referenceObject = new HashMap((Map) referenceObject);
-                            } else {
-                                referenceObject = new ArrayList((Collection) referenceObject);
-                            }
+                            // Force initialisation, the collection is then rendered in place
+                            ((AbstractPersistentCollection) referenceObject).forceInitialization();
                         } else if(!Hibernate.isInitialized(referenceObject)) {
                             Hibernate.initialize(referenceObject);
                         }
@@ -90,16 +73,15 @@ public class DomainClassMarshaller implements ObjectMarshaller<XML> {
                     if (referenceObject != null) {
                         GrailsDomainClass referencedDomainClass = property.getReferencedDomainClass();
 
-                        if (property.isOneToOne() || property.isManyToOne() || property.isEmbedded()) {
+                        if (property.isSingleEnded()) {
                             // Property contains 1 foreign Domain Object
-                            if(GrailsClassUtils.isJdk5Enum(property.getType())) {
+                            if(property.isEnum()) {
                                 xml.convertAnother(referenceObject);
                             } else {
-                                asShortObject(referenceObject, xml, referencedDomainClass.getIdentifier(), referencedDomainClass);
+                                asShortObject(referenceObject, xml, property.getReferencedIdentifier(), referencedDomainClass);
                             }
                         } else {
-                            GrailsDomainClassProperty referencedIdProperty = referencedDomainClass.getIdentifier();
-                            String refPropertyName = referencedDomainClass.getPropertyName();
+                            GrailsDomainClassProperty referencedIdProperty = property.getReferencedIdentifier();
                             if (referenceObject instanceof Collection) {
                                 Collection o = (Collection) referenceObject;
                                 for (Object el : o) {
@@ -132,8 +114,7 @@ public class DomainClassMarshaller implements ObjectMarshaller<XML> {
     }
 
     protected Object extractIdValue(Object domainObject, GrailsDomainClassProperty idProperty) {
-        BeanWrapper beanWrapper = new BeanWrapperImpl(domainObject);
-        return beanWrapper.getPropertyValue(idProperty.getName());
+        return DomainClassMarshallingPlan.getPropertyValue(domainObject, idProperty.getName());
     }
 
 
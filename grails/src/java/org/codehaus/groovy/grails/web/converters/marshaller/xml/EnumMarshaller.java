@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 import grails.converters.XML;
 import org.codehaus.groovy.grails.commons.GrailsClassUtils;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.springframework.beans.BeanUtils;
 
@@ -27,7 +28,7 @@ import java.lang.reflect.Method;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class EnumMarshaller implements ObjectMarshaller<XML> {
+public class EnumMarshaller implements ObjectMarshaller<XML>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return GrailsClassUtils.isJdk5Enum(object.getClass());
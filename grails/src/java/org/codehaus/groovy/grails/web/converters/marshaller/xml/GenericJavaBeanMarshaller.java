@@ -17,6 +17,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 
 import grails.converters.XML;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 
 import java.beans.BeanInfo;
@@ -30,7 +31,7 @@ import java.lang.reflect.Modifier;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GenericJavaBeanMarshaller implements ObjectMarshaller<XML>{
+public class GenericJavaBeanMarshaller implements ObjectMarshaller<XML>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return true;
@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 import grails.converters.XML;
 import groovy.lang.GroovyObject;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 
 import java.beans.BeanInfo;
@@ -31,7 +32,7 @@ import java.lang.reflect.Modifier;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GroovyBeanMarshaller implements ObjectMarshaller<XML> {
+public class GroovyBeanMarshaller implements ObjectMarshaller<XML>, ClassBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof GroovyObject;
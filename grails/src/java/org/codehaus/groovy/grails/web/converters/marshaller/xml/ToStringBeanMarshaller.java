@@ -17,6 +17,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 
 import grails.converters.XML;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 
 import java.net.URL;
@@ -26,7 +27,7 @@ import java.util.*;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ToStringBeanMarshaller implements ObjectMarshaller<XML> {
+public class ToStringBeanMarshaller implements ObjectMarshaller<XML>, ClassBasedMarshaller {
 
     private final Set<Class> classes;
 
@@ -18,6 +18,7 @@ package org.codehaus.groovy.grails.web.converters.marshaller.xml;
 import grails.converters.XML;
 import org.codehaus.groovy.grails.web.converters.exceptions.ConverterException;
 import org.codehaus.groovy.grails.web.converters.marshaller.NameAwareMarshaller;
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller;
 import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
@@ -32,7 +33,7 @@ import java.util.Locale;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ValidationErrorsMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller,ApplicationContextAware {
+public class ValidationErrorsMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller,ApplicationContextAware, ClassBasedMarshaller {
 
     private ApplicationContext applicationContext;
 
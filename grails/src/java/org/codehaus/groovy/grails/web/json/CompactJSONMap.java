@@ -0,0 +1,171 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The contents of a parsed JSONObject: a shared JSONKeyTable plus an array of values, some of which may still
+ * be undecoded strings. Values can be replaced in place. JSONObject copies the map into a HashMap before adding
+ * or removing keys itself, keys added or removed through the map or its views switch it over to a HashMap of
+ * its own so that the views already handed out keep working.
+ *
+ * @since 1.2
+ */
+final class CompactJSONMap extends AbstractMap {
+    private final JSONKeyTable table;
+    private final Object[] values;
+    private Set entrySet;
+    private Map mutableMap;
+
+    CompactJSONMap(JSONKeyTable table, Object[] values) {
+        this.table = table;
+        this.values = values;
+    }
+
+    private Object value(int i) {
+        Object v = values[i];
+        if(v instanceof LazyJSONString) {
+            v = ((LazyJSONString) v).decode();
+            values[i] = v;
+        }
+        return v;
+    }
+
+    /**
+     * Copies the keys and values into a HashMap, which holds them from then on
+     */
+    private Map mutableMap() {
+        if(mutableMap == null) {
+            Map map = new HashMap(values.length);
+            for (int i = 0; i < values.length; i++) {
+                map.put(table.keys[i], value(i));
+            }
+            mutableMap = map;
+        }
+        return mutableMap;
+    }
+
+    public int size() {
+        return mutableMap != null ? mutableMap.size() : values.length;
+    }
+
+    public boolean containsKey(Object key) {
+        return mutableMap != null ? mutableMap.containsKey(key) : table.indexOf(key) > -1;
+    }
+
+    public Object get(Object key) {
+        if(mutableMap != null) return mutableMap.get(key);
+        int i = table.indexOf(key);
+        return i > -1 ? value(i) : null;
+    }
+
+    public Object put(Object key, Object value) {
+        return mutableMap().put(key, value);
+    }
+
+    public Object remove(Object key) {
+        return mutableMap().remove(key);
+    }
+
+    public void clear() {
+        mutableMap().clear();
+    }
+
+    public Set entrySet() {
+        if(entrySet == null) {
+            entrySet = new AbstractSet() {
+                public Iterator iterator() {
+                    return mutableMap != null ? mutableMap.entrySet().iterator() : new EntryIterator();
+                }
+
+                public int size() {
+                    return CompactJSONMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private class EntryIterator implements Iterator {
+        private int next;
+        private int last = -1;
+
+        public boolean hasNext() {
+            // skips the keys removed since the map was switched over
+            while(mutableMap != null && next < values.length && !mutableMap.containsKey(table.keys[next])) {
+                next++;
+            }
+            return next < values.length;
+        }
+
+        public Object next() {
+            if(!hasNext()) throw new NoSuchElementException();
+            last = next++;
+            return new Entry(last);
+        }
+
+        public void remove() {
+            if(last < 0) throw new IllegalStateException();
+            mutableMap().remove(table.keys[last]);
+            last = -1;
+        }
+    }
+
+    private class Entry implements Map.Entry {
+        private final int i;
+
+        Entry(int i) {
+            this.i = i;
+        }
+
+        public Object getKey() {
+            return table.keys[i];
+        }
+
+        public Object getValue() {
+            return mutableMap != null ? mutableMap.get(getKey()) : value(i);
+        }
+
+        public Object setValue(Object value) {
+            if(mutableMap != null) return mutableMap.put(getKey(), value);
+            Object old = value(i);
+            values[i] = value;
+            return old;
+        }
+
+        public boolean equals(Object o) {
+            if(!(o instanceof Map.Entry)) return false;
+            Map.Entry e = (Map.Entry) o;
+            Object v = getValue();
+            return getKey().equals(e.getKey()) && (v == null ? e.getValue() == null : v.equals(e.getValue()));
+        }
+
+        public int hashCode() {
+            Object v = getValue();
+            return getKey().hashCode() ^ (v == null ? 0 : v.hashCode());
+        }
+
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -84,9 +84,10 @@ public class JSONArray implements JSONElement, List {
 
 
     /**
-     * The arrayList where the JSONArray's properties are kept.
+     * The list where the JSONArray's properties are kept. Parsed arrays of numbers are backed by a primitive
+     * array which is replaced by an ArrayList when elements are added or replaced.
      */
-    private ArrayList myArrayList;
+    private List myArrayList;
 
 
     /**
@@ -104,6 +105,11 @@ public class JSONArray implements JSONElement, List {
      */
     public JSONArray(JSONTokener x) throws JSONException {
         this();
+        parse(x, this.myArrayList);
+        this.myArrayList = NumericJSONList.compact(this.myArrayList);
+    }
+
+    private static void parse(JSONTokener x, List elements) throws JSONException {
         if (x.nextClean() != '[') {
             throw x.syntaxError("A JSONArray text must start with '['");
         }
@@ -114,10 +120,10 @@ public class JSONArray implements JSONElement, List {
         for (; ;) {
             if (x.nextClean() == ',') {
                 x.back();
-                this.myArrayList.add(null);
+                elements.add(null);
             } else {
                 x.back();
-                this.myArrayList.add(x.nextValue());
+                elements.add(x.nextValue());
             }
             switch (x.nextClean()) {
                 case ';':
@@ -175,15 +181,15 @@ public class JSONArray implements JSONElement, List {
     }
 
     public Object set(int i, Object o) {
-        return myArrayList.set(i, o);
+        return mutableList().set(i, o);
     }
 
     public boolean add(Object o) {
-        return myArrayList.add(o);
+        return mutableList().add(o);
     }
 
     public void add(int i, Object o) {
-        myArrayList.add(i, o);
+        mutableList().add(i, o);
     }
 
     public Object remove(int i) {
@@ -195,15 +201,15 @@ public class JSONArray implements JSONElement, List {
     }
 
     public void clear() {
-        myArrayList.clear();
+        myArrayList = new ArrayList();
     }
 
     public boolean addAll(Collection collection) {
-        return myArrayList.addAll(collection);
+        return mutableList().addAll(collection);
     }
 
     public boolean addAll(int i, Collection collection) {
-        return myArrayList.addAll(i, collection);
+        return mutableList().addAll(i, collection);
     }
 
     public Iterator iterator() {
@@ -211,15 +217,15 @@ public class JSONArray implements JSONElement, List {
     }
 
     public ListIterator listIterator() {
-        return myArrayList.listIterator();
+        return mutableList().listIterator();
     }
 
     public ListIterator listIterator(int i) {
-        return myArrayList.listIterator(i);
+        return mutableList().listIterator(i);
     }
 
     public List subList(int i, int i1) {
-        return myArrayList.subList(i, i1);
+        return mutableList().subList(i, i1);
     }
 
     public boolean containsAll(Collection collection) {
@@ -653,7 +659,7 @@ public class JSONArray implements JSONElement, List {
      * @return this.
      */
     public JSONArray put(Object value) {
-        this.myArrayList.add(value);
+        mutableList().add(value);
         return this;
     }
 
@@ -740,7 +746,7 @@ public class JSONArray implements JSONElement, List {
             throw new JSONException("JSONArray[" + index + "] not found.");
         }
         if (index < length()) {
-            this.myArrayList.set(index, value);
+            mutableList().set(index, value);
         } else {
             while (index != length()) {
                 put(null);
@@ -892,11 +898,20 @@ public class JSONArray implements JSONElement, List {
     }
 
     public void trimToSize() {
-        myArrayList.trimToSize();
+        if (myArrayList instanceof ArrayList) {
+            ((ArrayList) myArrayList).trimToSize();
+        }
     }
 
     public void ensureCapacity(int i) {
-        myArrayList.ensureCapacity(i);
+        mutableList().ensureCapacity(i);
+    }
+
+    private ArrayList mutableList() {
+        if (!(myArrayList instanceof ArrayList)) {
+            myArrayList = new ArrayList(myArrayList);
+        }
+        return (ArrayList) myArrayList;
     }
 
     public int size() {
@@ -920,7 +935,7 @@ public class JSONArray implements JSONElement, List {
     }
 
     public Object clone() {
-        return myArrayList.clone();
+        return new ArrayList(myArrayList);
     }
 
     public Object[] toArray() {
@@ -0,0 +1,66 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.json;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The keys of a parsed JSON object in source order. Objects with the same keys in the same order, for example
+ * the elements of a large array, share one table and only hold their values.
+ *
+ * @since 1.2
+ */
+final class JSONKeyTable {
+    private static final int MAX_LINEAR_SCAN = 8;
+
+    final String[] keys;
+    private final Map<String, Integer> index;
+
+    JSONKeyTable(String[] keys) {
+        this.keys = keys;
+        if(keys.length > MAX_LINEAR_SCAN) {
+            index = new HashMap<String, Integer>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                index.put(keys[i], i);
+            }
+        }
+        else {
+            index = null;
+        }
+    }
+
+    /**
+     * @return The position of the key or -1 if the table doesn't contain it
+     */
+    int indexOf(Object key) {
+        if(index != null) {
+            Integer i = index.get(key);
+            return i != null ? i : -1;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] == key) return i;
+        }
+        if(key == null) return -1;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    int size() {
+        return keys.length;
+    }
+}
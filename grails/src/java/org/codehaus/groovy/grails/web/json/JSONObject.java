@@ -126,9 +126,10 @@ public class JSONObject implements JSONElement,Map {
 
 
     /**
-     * The hash map where the JSONObject's properties are kept.
+     * The map where the JSONObject's properties are kept. Parsed objects are backed by a compact map which
+     * is replaced by a HashMap when keys are added or removed.
      */
-    private HashMap myHashMap;
+    private Map myHashMap;
 
 
     /**
@@ -172,7 +173,13 @@ public class JSONObject implements JSONElement,Map {
      * @throws JSONException If there is a syntax error in the source string.
      */
     public JSONObject(JSONTokener x) throws JSONException {
-        this();
+        List<String> keys = new ArrayList<String>();
+        List values = new ArrayList();
+        parse(x, keys, values);
+        this.myHashMap = x.createObjectMap(keys, values);
+    }
+
+    private static void parse(JSONTokener x, List<String> keys, List values) throws JSONException {
         char c;
         String key;
 
@@ -188,7 +195,7 @@ public class JSONObject implements JSONElement,Map {
                     return;
                 default:
                     x.back();
-                    key = x.nextValue().toString();
+                    key = x.internKey(x.nextValue().toString());
             }
 
             /*
@@ -203,7 +210,8 @@ public class JSONObject implements JSONElement,Map {
             } else if (c != ':') {
                 throw x.syntaxError("Expected a ':' after a key");
             }
-            this.myHashMap.put(key, x.nextValue());
+            keys.add(key);
+            values.add(x.nextObjectValue());
 
             /*
              * Pairs are separated by ','. We will also tolerate ';'.
@@ -784,7 +792,7 @@ public class JSONObject implements JSONElement,Map {
         }
         if (value != null) {
             testValidity(value);
-            this.myHashMap.put(key, value);
+            mutableMap().put(key, value);
         } else {
             remove(key);
         }
@@ -884,7 +892,7 @@ public class JSONObject implements JSONElement,Map {
      *         or null if there was no value.
      */
     public Object remove(String key) {
-        return this.myHashMap.remove(key);
+        return mutableMap().remove(key);
     }
 
     /**
@@ -1169,19 +1177,26 @@ public class JSONObject implements JSONElement,Map {
     }
 
     public Object put(Object o, Object o1) {
-        return this.myHashMap.put(o, o1);
+        return mutableMap().put(o, o1);
     }
 
     public Object remove(Object o) {
-        return this.myHashMap.remove(o);
+        return mutableMap().remove(o);
     }
 
     public void putAll(Map map) {
-        this.myHashMap.putAll(map);
+        mutableMap().putAll(map);
     }
 
     public void clear() {
-        this.myHashMap.clear();
+        this.myHashMap = new HashMap();
+    }
+
+    private Map mutableMap() {
+        if (!(this.myHashMap instanceof HashMap)) {
+            this.myHashMap = new HashMap(this.myHashMap);
+        }
+        return this.myHashMap;
     }
 
     public Set keySet() {
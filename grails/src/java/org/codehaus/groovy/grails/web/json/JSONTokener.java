@@ -1,6 +1,11 @@
 package org.codehaus.groovy.grails.web.json;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -60,6 +65,19 @@ public class JSONTokener {
         this.mySource = s;
     }
 
+    /**
+     * Strings in objects shorter than this are copied straight away, a LazyJSONString would take about as much memory
+     */
+    private static final int LAZY_STRING_MIN_LENGTH = 16;
+
+    /**
+     * Limits the number of distinct object shapes remembered per source text
+     */
+    private static final int MAX_KEY_TABLES = 1024;
+
+    private Map<String, String> keyPool;
+    private Map<List<String>, JSONKeyTable> keyTables;
+
 
     /**
      * Back up one character. This provides a sort of lookahead capability,
@@ -309,6 +327,88 @@ public class JSONTokener {
     }
 
 
+    /**
+     * Returns the same String instance for equal keys, so that objects parsed from this source share their keys
+     *
+     * @param key The parsed key
+     * @return The pooled key
+     */
+    String internKey(String key) {
+        if(keyPool == null) {
+            keyPool = new HashMap<String, String>();
+        }
+        String pooled = keyPool.get(key);
+        if(pooled == null) {
+            keyPool.put(key, key);
+            pooled = key;
+        }
+        return pooled;
+    }
+
+    /**
+     * Creates the contents of a parsed JSONObject. Objects with the same keys in the same order share a
+     * JSONKeyTable and only hold an array of values.
+     *
+     * @param keys The keys in source order
+     * @param values The values, in the same order
+     * @return The Map to back the JSONObject with
+     */
+    Map createObjectMap(List<String> keys, List values) {
+        JSONKeyTable table = keyTables != null ? keyTables.get(keys) : null;
+        if(table == null) {
+            if(new HashSet<String>(keys).size() < keys.size()) {
+                // duplicate keys, the last value wins
+                Map map = new HashMap();
+                for (int i = 0; i < keys.size(); i++) {
+                    Object v = values.get(i);
+                    map.put(keys.get(i), v instanceof LazyJSONString ? ((LazyJSONString) v).decode() : v);
+                }
+                return map;
+            }
+            table = new JSONKeyTable(keys.toArray(new String[keys.size()]));
+            if(keyTables == null) {
+                keyTables = new HashMap<List<String>, JSONKeyTable>();
+            }
+            if(keyTables.size() < MAX_KEY_TABLES) {
+                keyTables.put(new ArrayList<String>(keys), table);
+            }
+        }
+        return new CompactJSONMap(table, values.toArray());
+    }
+
+    /**
+     * Get the next value of an object. Long strings without escape sequences are returned as a LazyJSONString
+     * which is only copied out of the source when it is read, any other value as by nextValue().
+     *
+     * @return An object.
+     * @throws JSONException If syntax error.
+     */
+    Object nextObjectValue() throws JSONException {
+        char c = nextClean();
+        if (c == '"' || c == '\'') {
+            int start = this.myIndex;
+            int end = this.mySource.indexOf(c, start);
+            if (end - start >= LAZY_STRING_MIN_LENGTH && isPlainString(start, end)) {
+                this.myIndex = end + 1;
+                return new LazyJSONString(this.mySource, start, end);
+            }
+            return nextString(c);
+        }
+        back();
+        return nextValue();
+    }
+
+    private boolean isPlainString(int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = this.mySource.charAt(i);
+            if (c == '\\' || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
     /**
      * Get the next value. The value can be a Boolean, Double, Integer,
      * JSONArray, JSONObject, Long, or String, or the JSONObject.NULL object.
@@ -2,9 +2,14 @@ package org.codehaus.groovy.grails.web.json;
 
 import static org.codehaus.groovy.grails.web.json.JSONWriter.Mode.*;
 
+import org.codehaus.groovy.grails.web.util.UTF8StreamWriter;
+
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 /*
 Copyright (c) 2006 JSON.org
 
@@ -61,6 +66,16 @@ SOFTWARE.
  */
 public class JSONWriter {
 
+    /**
+     * The maximum number of keys whose encoded form is kept
+     */
+    private static final int MAX_ENCODED_KEYS = 2048;
+
+    /**
+     * Keys quoted and followed by ':', encoded as UTF-8 for writing to a UTF8StreamWriter
+     */
+    private static final Map<String, byte[]> ENCODED_KEYS = new ConcurrentHashMap<String, byte[]>();
+
     /**
      * The comma flag determines if a comma should be output before the next
      * value.
@@ -118,6 +133,17 @@ public class JSONWriter {
         throw new JSONException("Value out of sequence.");
     }
 
+    /**
+     * Flushes the Writer receiving the output, for example to send what has been written so far to the client.
+     */
+    public void flush() {
+        try {
+            this.writer.flush();
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+    }
+
     protected void comma() {
         try {
             this.writer.write(',');
@@ -200,8 +226,12 @@ public class JSONWriter {
                 if (this.comma) {
                     this.comma();
                 }
-                this.writer.write(JSONObject.quote(s));
-                this.writer.write(':');
+                if (this.writer instanceof UTF8StreamWriter) {
+                    ((UTF8StreamWriter) this.writer).writeBytes(encodeKey(s));
+                } else {
+                    this.writer.write(JSONObject.quote(s));
+                    this.writer.write(':');
+                }
                 this.comma = false;
                 this.mode = OBJECT;
                 return this;
@@ -213,6 +243,18 @@ public class JSONWriter {
     }
 
 
+    private static byte[] encodeKey(String s) throws UnsupportedEncodingException {
+        byte[] encoded = ENCODED_KEYS.get(s);
+        if (encoded == null) {
+            encoded = (JSONObject.quote(s) + ':').getBytes(UTF8StreamWriter.ENCODING);
+            if (ENCODED_KEYS.size() < MAX_ENCODED_KEYS) {
+                ENCODED_KEYS.put(s, encoded);
+            }
+        }
+        return encoded;
+    }
+
+
     /**
      * Begin appending a new object. All keys and values until the balancing
      * <code>endObject</code> will be appended to this object. The
@@ -0,0 +1,49 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.json;
+
+/**
+ * A string value of a parsed JSON object that hasn't been copied out of the source text yet. Only strings
+ * without escape sequences are deferred this way. It is replaced by a copy of its characters the first time it
+ * is read, so the decoded value doesn't keep the source text alive, and is never exposed outside of
+ * CompactJSONMap.
+ *
+ * @since 1.2
+ */
+final class LazyJSONString {
+    private final String source;
+    private final int start;
+    private final int end;
+
+    /**
+     * @param source The JSON source text
+     * @param start The index of the first character after the opening quote
+     * @param end The index of the closing quote
+     */
+    LazyJSONString(String source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    String decode() {
+        // copies the characters, a bare substring may share the array of the whole source
+        return new String(source.substring(start, end));
+    }
+
+    public String toString() {
+        return decode();
+    }
+}
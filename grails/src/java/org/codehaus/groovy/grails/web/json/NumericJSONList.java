@@ -0,0 +1,106 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.json;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The contents of a parsed JSONArray whose elements are all integral numbers or all decimal numbers, held in a
+ * long[] or double[] instead of boxed values. Integral elements are returned as Integer when they fit, which is
+ * what JSONTokener would have produced, and as Long otherwise. Elements can be removed but not added or replaced,
+ * JSONArray copies the list into an ArrayList before it is modified that way.
+ *
+ * @since 1.2
+ */
+final class NumericJSONList extends AbstractList implements RandomAccess {
+    /**
+     * Arrays shorter than this aren't worth converting
+     */
+    static final int MIN_SIZE = 4;
+
+    private long[] longs;
+    private double[] doubles;
+    private int size;
+
+    private NumericJSONList(long[] longs, double[] doubles, int size) {
+        this.longs = longs;
+        this.doubles = doubles;
+        this.size = size;
+    }
+
+    /**
+     * Creates a NumericJSONList with the elements of the given list if they allow it
+     *
+     * @param elements The parsed elements
+     * @return The NumericJSONList or the given list if it has other elements or is too short
+     */
+    static List compact(List elements) {
+        int n = elements.size();
+        if(n < MIN_SIZE) return elements;
+
+        Object first = elements.get(0);
+        if(first instanceof Integer || first instanceof Long) {
+            long[] longs = new long[n];
+            for (int i = 0; i < n; i++) {
+                Object o = elements.get(i);
+                if(!(o instanceof Integer || o instanceof Long)) return elements;
+                longs[i] = ((Number) o).longValue();
+            }
+            return new NumericJSONList(longs, null, n);
+        }
+        if(first instanceof Double) {
+            double[] doubles = new double[n];
+            for (int i = 0; i < n; i++) {
+                Object o = elements.get(i);
+                if(!(o instanceof Double)) return elements;
+                doubles[i] = (Double) o;
+            }
+            return new NumericJSONList(null, doubles, n);
+        }
+        return elements;
+    }
+
+    public Object get(int index) {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if(doubles != null) {
+            return doubles[index];
+        }
+        long l = longs[index];
+        if(l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+            return (int) l;
+        }
+        return l;
+    }
+
+    public Object remove(int index) {
+        Object old = get(index);
+        int moved = size - index - 1;
+        if(doubles != null) {
+            System.arraycopy(doubles, index + 1, doubles, index, moved);
+        }
+        else {
+            System.arraycopy(longs, index + 1, longs, index, moved);
+        }
+        size--;
+        modCount++;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,99 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.metaclass
+
+import javax.servlet.http.HttpServletResponse
+import org.codehaus.groovy.grails.web.servlet.HttpHeaders
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest
+import org.codehaus.groovy.grails.web.util.ETagUtils
+
+/**
+ * Implements conditional GET for controller actions. The validators of the resource are sent as ETag and
+ * Last-Modified headers and when the client already has the current representation a 304 (Not Modified)
+ * is sent without calling the closure or rendering the view:
+ *
+ * <pre><code>
+ * def show = {
+ *     def book = Book.get(params.id)
+ *     withCacheHeaders(etag: book, lastModified: book.lastUpdated) {
+ *         [book: book]
+ *     }
+ * }
+ * </code></pre>
+ *
+ * <p>The etag validator is used as is if it is a quoted String, any other value (for example domain instances,
+ * which contribute their id and version) is turned into a weak ETag. Validators may also be closures, which are
+ * only called when the action is invoked.
+ *
+ * @since 1.2
+ */
+class WithCacheHeadersMethod {
+
+    /**
+     * Sets the cache headers and either sends a 304 or calls the closure
+     *
+     * @param webRequest The current request
+     * @param validators A map with etag and/or lastModified entries
+     * @param callable The closure that produces the model or renders the response
+     * @return The result of the closure or null if a 304 was sent
+     */
+    def withCacheHeaders(GrailsWebRequest webRequest, Map validators, Closure callable) {
+        def request = webRequest.currentRequest
+        def response = webRequest.currentResponse
+
+        String etag = createETag(evaluate(validators?.etag))
+        Long lastModified = toTime(evaluate(validators?.lastModified))
+
+        if(!response.isCommitted()) {
+            if(etag) response.setHeader(HttpHeaders.ETAG, etag)
+            if(lastModified != null) response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+        }
+
+        if(ETagUtils.isConditionalMethod(request) && isNotModified(request, etag, lastModified)) {
+            response.status = HttpServletResponse.SC_NOT_MODIFIED
+            webRequest.renderView = false
+            return null
+        }
+        return callable?.call()
+    }
+
+    private boolean isNotModified(request, String etag, Long lastModified) {
+        // If-None-Match takes precedence over If-Modified-Since
+        if(request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            return etag && ETagUtils.matchesIfNoneMatch(request, etag)
+        }
+        return lastModified != null && ETagUtils.matchesIfModifiedSince(request, lastModified)
+    }
+
+    private evaluate(value) {
+        value instanceof Closure ? value.call() : value
+    }
+
+    private String createETag(value) {
+        if(value == null) return null
+        if(value instanceof CharSequence) {
+            String tag = value.toString()
+            if(tag.startsWith('"') || tag.startsWith('W/"')) return tag
+        }
+        return ETagUtils.createWeakETag(value)
+    }
+
+    private Long toTime(value) {
+        if(value == null) return null
+        if(value instanceof Date) return value.time
+        if(value instanceof Calendar) return value.timeInMillis
+        return value as Long
+    }
+}
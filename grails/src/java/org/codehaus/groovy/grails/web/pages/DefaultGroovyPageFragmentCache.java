@@ -0,0 +1,146 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.pages;
+
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The default GroovyPageFragmentCache. Memory use is bounded by the total number of characters held, when
+ * that is exceeded the least recently used fragments are evicted. Expired fragments are removed when they are
+ * next looked up.
+ *
+ * @since 1.2
+ */
+public class DefaultGroovyPageFragmentCache implements GroovyPageFragmentCache {
+    public static final int DEFAULT_MAX_CHARS = 1024 * 1024;
+    public static final int DEFAULT_SESSION_MAX_CHARS = 64 * 1024;
+
+    private final Map<String, CachedFragment> fragments = new LinkedHashMap<String, CachedFragment>(16, 0.75f, true);
+    private int maxChars = DEFAULT_MAX_CHARS;
+    private long totalChars;
+    private long hits;
+    private long misses;
+
+    /**
+     * Sets the maximum number of characters held by the cache over all fragments
+     *
+     * @param maxChars The maximum number of characters
+     */
+    public synchronized void setMaxChars(int maxChars) {
+        this.maxChars = maxChars;
+        evict();
+    }
+
+    public synchronized int getMaxChars() {
+        return maxChars;
+    }
+
+    public synchronized StreamCharBuffer get(String key) {
+        CachedFragment cached = fragments.get(key);
+        if(cached != null && cached.isExpired(System.currentTimeMillis())) {
+            remove(key);
+            cached = null;
+        }
+        if(cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.fragment;
+    }
+
+    public synchronized void put(String key, StreamCharBuffer fragment, long timeToLive) {
+        remove(key);
+        int size = fragment.size();
+        if(size > maxChars) return;
+
+        long expires = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : 0;
+        fragments.put(key, new CachedFragment(fragment, size, expires));
+        totalChars += size;
+        evict();
+    }
+
+    public synchronized int invalidate(String keyPrefix) {
+        int removed = 0;
+        for (Iterator<Map.Entry<String, CachedFragment>> i = fragments.entrySet().iterator(); i.hasNext();) {
+            Map.Entry<String, CachedFragment> entry = i.next();
+            if(entry.getKey().startsWith(keyPrefix)) {
+                totalChars -= entry.getValue().size;
+                i.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        fragments.clear();
+        totalChars = 0;
+    }
+
+    public synchronized int size() {
+        return fragments.size();
+    }
+
+    /**
+     * @return The number of characters currently held by the cache
+     */
+    public synchronized long getTotalChars() {
+        return totalChars;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private void remove(String key) {
+        CachedFragment removed = fragments.remove(key);
+        if(removed != null) {
+            totalChars -= removed.size;
+        }
+    }
+
+    private void evict() {
+        Iterator<CachedFragment> i = fragments.values().iterator();
+        while(totalChars > maxChars && i.hasNext()) {
+            totalChars -= i.next().size;
+            i.remove();
+        }
+    }
+
+    private static class CachedFragment {
+        final StreamCharBuffer fragment;
+        final int size;
+        final long expires;
+
+        CachedFragment(StreamCharBuffer fragment, int size, long expires) {
+            this.fragment = fragment;
+            this.size = size;
+            this.expires = expires;
+        }
+
+        boolean isExpired(long now) {
+            return expires > 0 && now >= expires;
+        }
+    }
+}
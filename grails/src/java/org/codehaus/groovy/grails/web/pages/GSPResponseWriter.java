@@ -63,7 +63,8 @@ public class GSPResponseWriter extends GrailsPrintWriter {
 		StreamCharBuffer streamBuffer=null;
 		BoundedCharsAsEncodedBytesCounter bytesCounter=null;
 
-		if(!(response instanceof GrailsContentBufferingResponse)) {
+		GrailsContentBufferingResponse bufferingResponse = GrailsContentBufferingResponse.lookup(response);
+		if(bufferingResponse == null || bufferingResponse.isSiteMeshDisabled()) {
 			streamBuffer=new StreamCharBuffer(max, 0, max);
 			target=streamBuffer.getWriter();
 			if(CONTENT_LENGTH_COUNTING_ENABLED) {
@@ -0,0 +1,72 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.pages;
+
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
+
+/**
+ * A cache of rendered GSP fragments used by the &lt;g:cache&gt; tag. Fragments are held as StreamCharBuffer
+ * instances that are no longer written to, so that they can be replayed to the response with
+ * {@link StreamCharBuffer#replayTo(java.io.Writer)} without copying.
+ *
+ * Implementations must be thread-safe. Plug in a different implementation by overriding the
+ * "groovyPageFragmentCache" bean.
+ *
+ * @since 1.2
+ */
+public interface GroovyPageFragmentCache {
+    String BEAN_ID = "groovyPageFragmentCache";
+
+    /**
+     * The session attribute holding the fragments cached with scope="session"
+     */
+    String SESSION_ATTRIBUTE = "org.codehaus.groovy.grails.web.pages.SESSION_FRAGMENT_CACHE";
+
+    /**
+     * Retrieves a fragment
+     *
+     * @param key The fragment key
+     * @return The rendered fragment or null if it isn't cached or has expired
+     */
+    StreamCharBuffer get(String key);
+
+    /**
+     * Caches a rendered fragment
+     *
+     * @param key The fragment key
+     * @param fragment The rendered fragment
+     * @param timeToLive The number of milliseconds the fragment is valid for, zero or less if it never expires
+     */
+    void put(String key, StreamCharBuffer fragment, long timeToLive);
+
+    /**
+     * Removes all fragments whose key starts with the given prefix
+     *
+     * @param keyPrefix The key prefix
+     * @return The number of fragments removed
+     */
+    int invalidate(String keyPrefix);
+
+    /**
+     * Removes all fragments
+     */
+    void clear();
+
+    int size();
+
+    long getHitCount();
+
+    long getMissCount();
+}
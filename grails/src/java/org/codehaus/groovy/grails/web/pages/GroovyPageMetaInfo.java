@@ -24,6 +24,7 @@ import org.springframework.util.ReflectionUtils;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
 import java.util.Collections;
 import java.util.Map;
 
@@ -48,6 +49,7 @@ class GroovyPageMetaInfo {
     private long lastModified;
     private InputStream groovySource;
     private String contentType;
+    private boolean layoutDirective = true;
     private int[] lineNumbers;
     private String[] htmlParts;
     private Map jspTags = Collections.EMPTY_MAP;
@@ -66,6 +68,11 @@ class GroovyPageMetaInfo {
     	this.contentType = (String)ReflectionUtils.getField(ReflectionUtils.findField(pageClass, GroovyPageParser.CONSTANT_NAME_CONTENT_TYPE), null);
     	this.jspTags = (Map)ReflectionUtils.getField(ReflectionUtils.findField(pageClass, GroovyPageParser.CONSTANT_NAME_JSP_TAGS), null);
     	this.lastModified = (Long)ReflectionUtils.getField(ReflectionUtils.findField(pageClass, GroovyPageParser.CONSTANT_NAME_LAST_MODIFIED), null);
+    	Field layoutDirectiveField = ReflectionUtils.findField(pageClass, GroovyPageParser.CONSTANT_NAME_LAYOUT_DIRECTIVE);
+    	// pages precompiled before the constant existed are assumed to be decorated
+    	if(layoutDirectiveField != null) {
+    		this.layoutDirective = (Boolean)ReflectionUtils.getField(layoutDirectiveField, null);
+    	}
     	try {
 			readHtmlData();
 		} catch (IOException e) {
@@ -181,6 +188,17 @@ class GroovyPageMetaInfo {
         this.contentType = contentType;
     }
 
+    /**
+     * @return True if the page declares a layout with a &lt;meta name="layout"&gt; tag
+     */
+    public boolean isLayoutDirective() {
+        return layoutDirective;
+    }
+
+    public void setLayoutDirective(boolean layoutDirective) {
+        this.layoutDirective = layoutDirective;
+    }
+
     public int[] getLineNumbers() {
     	if(precompiledMode) {
     		return getPrecompiledLineNumbers();
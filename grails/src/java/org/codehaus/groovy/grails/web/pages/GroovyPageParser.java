@@ -28,6 +28,8 @@ import org.codehaus.groovy.grails.web.util.StreamByteBuffer;
 import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
 
 import java.io.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -60,10 +62,15 @@ public class GroovyPageParser implements Tokens {
 			.compile("(\\s*(\\S+)\\s*=\\s*[']([^']*)['][\\s|>]{1}){1}");
 	private static final Pattern PAGE_DIRECTIVE_PATTERN = Pattern
 			.compile("(\\w+)\\s*=\\s*\"([^\"]*)\"");
+	private static final Pattern LAYOUT_META_PATTERN = Pattern.compile(
+			"name\\s*=\\s*[\"']layout[\"']", Pattern.CASE_INSENSITIVE);
+	private static final Pattern HEAD_END_PATTERN = Pattern.compile(
+			"</head\\s*>|<body[\\s>]", Pattern.CASE_INSENSITIVE);
 
 	public static final String CONSTANT_NAME_JSP_TAGS = "JSP_TAGS";
 	public static final String CONSTANT_NAME_CONTENT_TYPE = "CONTENT_TYPE";
 	public static final String CONSTANT_NAME_LAST_MODIFIED = "LAST_MODIFIED";
+	public static final String CONSTANT_NAME_LAYOUT_DIRECTIVE = "LAYOUT_DIRECTIVE";
 
 	private GroovyPageScanner scan;
 	private GSPWriter out;
@@ -109,6 +116,7 @@ public class GroovyPageParser implements Tokens {
 	private static final String CONFIG_PROPERTY_GSP_KEEPGENERATED_DIR = "grails.views.gsp.keepgenerateddir";
 
 	private String codecClassName;
+	private boolean streamingCodec;
 	private String codecName;
 	private static final String IMPORT_DIRECTIVE = "import";
 	private static final String CONTENT_TYPE_DIRECTIVE = "contentType";
@@ -121,11 +129,24 @@ public class GroovyPageParser implements Tokens {
 	private Map jspTags = new HashMap();
 	private long lastModified;
 	private boolean precompileMode;
+	private boolean layoutDirective;
+	private boolean headEnded;
 
 	public String getContentType() {
 		return this.contentType;
 	}
 
+	/**
+	 * Returns true if the page declares a layout via a &lt;meta name="layout"&gt; tag or may do so
+	 * because it has dynamic output, such as expressions or tags, before the end of its head. The
+	 * check is deliberately lenient so that a page is never wrongly considered undecorated.
+	 *
+	 * @return True if the page contains a layout directive
+	 */
+	public boolean isLayoutDirective() {
+		return this.layoutDirective;
+	}
+
 	public int getCurrentOutputLineNumber() {
 		return scan.getLineNumberForToken();
 	}
@@ -186,11 +207,24 @@ public class GroovyPageParser implements Tokens {
 							CodecArtefactHandler.TYPE, codecName.toUpperCase());
 				if (codecClass != null) {
 					this.codecClassName = codecClass.getFullName();
+					this.streamingCodec = hasStreamingEncode(codecClass.getClazz());
 				}
 			}
 		}
 	}
 
+	/**
+	 * Checks whether the codec can encode straight into a Writer with a static encode(Object, Writer) method
+	 */
+	private static boolean hasStreamingEncode(Class codecClazz) {
+		try {
+			Method method = codecClazz.getMethod("encode", new Class[] { Object.class, Writer.class });
+			return Modifier.isStatic(method.getModifiers());
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
 	public int[] getLineNumberMatrix() {
 		return out.getLineNumbers();
 	}
@@ -430,7 +464,11 @@ public class GroovyPageParser implements Tokens {
 		if (environment == Environment.DEVELOPMENT) {
 
 		}
-		if (codecClassName != null) {
+		if (codecClassName != null && streamingCodec) {
+			// encode straight into the response writer
+			out.print("Codec.encode(" + text + ", out)");
+			out.println();
+		} else if (codecClassName != null) {
 			out.printlnToResponse("Codec.encode(" + text + ")");
 		} else {
 			out.printlnToResponse(text);
@@ -504,6 +542,13 @@ public class GroovyPageParser implements Tokens {
 		// tag safety checks
 		previousContentWasNonWhitespace = !contentIsWhitespace;
 
+		if (!layoutDirective && LAYOUT_META_PATTERN.matcher(text).find()) {
+			layoutDirective = true;
+		}
+		if (!headEnded && HEAD_END_PATTERN.matcher(text).find()) {
+			headEnded = true;
+		}
+
 		// de-dupe constants
 		String constantName = (String) constantsToNames.get(text);
 		if (constantName == null) {
@@ -514,6 +559,11 @@ public class GroovyPageParser implements Tokens {
 		bufferedPrintlnToResponse(constantName);
 	} // html()
 
+	private static boolean isDynamicOutput(int state) {
+		return state == JEXPR || state == JSCRIPT || state == GEXPR
+				|| state == GSCRIPT || state == GSTART_TAG;
+	}
+
 	private void makeName(String uri) {
 		String name;
 		int slash = uri.lastIndexOf('/');
@@ -604,6 +654,12 @@ public class GroovyPageParser implements Tokens {
 				previousContentWasNonWhitespace = false; // well, we don't know
 			}
 
+			// output generated before the end of the head, for example by a template or
+			// a tag, could contain a layout directive
+			if (finalPass && !headEnded && isDynamicOutput(state)) {
+				layoutDirective = true;
+			}
+
 			switch (state) {
 			case EOF:
 				break loop;
@@ -681,6 +737,9 @@ public class GroovyPageParser implements Tokens {
 			out.println("public static final long "
 					+ CONSTANT_NAME_LAST_MODIFIED + " = " + lastModified + "L");
 
+			out.println("public static final boolean "
+					+ CONSTANT_NAME_LAYOUT_DIRECTIVE + " = " + layoutDirective);
+
 			out.println("}");
 		} else {
 			for (int i = 0; i < DEFAULT_IMPORTS.length; i++) {
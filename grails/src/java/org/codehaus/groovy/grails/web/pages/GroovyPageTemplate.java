@@ -17,6 +17,7 @@ package org.codehaus.groovy.grails.web.pages;
 import groovy.text.Template;
 import groovy.lang.Writable;
 
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -46,6 +47,31 @@ public class GroovyPageTemplate implements Template {
         return gptw;
     }
 
+    /**
+     * Makes a Writable that renders this template once for each element of the given collection using a single
+     * page instance, which is considerably cheaper than calling make(Map) for every element
+     *
+     * @param binding The model shared by all elements
+     * @param collection An Iterator over the elements
+     * @param collectionVariables The variable names each element is bound to
+     * @return The Writable
+     */
+    public Writable make(Map binding, Iterator collection, String[] collectionVariables) {
+        GroovyPageWritable gptw = new GroovyPageWritable(metaInfo);
+        gptw.setBinding(binding);
+        gptw.setCollection(collection, collectionVariables);
+        return gptw;
+    }
+
+    /**
+     * Returns whether the compiled page declares a layout through a &lt;meta name="layout"&gt; tag
+     *
+     * @return True if the page has a layout directive
+     */
+    public boolean isLayoutDirective() {
+        return metaInfo.isLayoutDirective();
+    }
+
 	public GroovyPageMetaInfo getMetaInfo() {
 		return metaInfo;
 	}
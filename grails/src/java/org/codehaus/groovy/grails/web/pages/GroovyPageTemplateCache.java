@@ -0,0 +1,180 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.pages;
+
+import groovy.text.Template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A size bounded cache of resolved GSP templates. The key identifies the resolved resource, for example the
+ * plugin context path plus the template URI, so that same named templates from different plugins don't collide.
+ *
+ * Lookups never block: templates are held in a ConcurrentHashMap and stamped on each access. When the cache
+ * grows past its maximum size a single thread evicts the least recently used templates in a batch, so the
+ * LRU ordering is approximate under concurrent access.
+ *
+ * @since 1.2
+ */
+public class GroovyPageTemplateCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final Comparator<AccessStamp> OLDEST_FIRST = new Comparator<AccessStamp>() {
+        public int compare(AccessStamp a, AccessStamp b) {
+            return a.lastAccess < b.lastAccess ? -1 : (a.lastAccess == b.lastAccess ? 0 : 1);
+        }
+    };
+
+    private final ConcurrentHashMap<String, CachedTemplate> templates = new ConcurrentHashMap<String, CachedTemplate>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int maxSize;
+
+    public GroovyPageTemplateCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public GroovyPageTemplateCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Retrieves a cached template
+     *
+     * @param key The key of the resolved template resource
+     * @return The Template or null if it isn't cached
+     */
+    public Template get(String key) {
+        CachedTemplate cached = templates.get(key);
+        if(cached != null) {
+            cached.lastAccess = clock.incrementAndGet();
+            hits.incrementAndGet();
+            return cached.template;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches a template, evicting the least recently used templates if the cache is full
+     *
+     * @param key The key of the resolved template resource
+     * @param template The Template, ignored if null
+     */
+    public void put(String key, Template template) {
+        if(template != null) {
+            templates.put(key, new CachedTemplate(template, clock.incrementAndGet()));
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * Removes all templates from the cache
+     */
+    public void clear() {
+        templates.clear();
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if(maxSize < 1) throw new IllegalArgumentException("Argument [maxSize] must be greater than zero");
+        this.maxSize = maxSize;
+        evictIfNecessary();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The ratio of lookups that found a cached template, or 0 if there haven't been any lookups
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        return lookups > 0 ? (double)hitCount / lookups : 0d;
+    }
+
+    /**
+     * Evicts the least recently used templates down to 90% of the maximum size once the cache overflows.
+     * Only one thread evicts at a time, others carry on without waiting.
+     */
+    private void evictIfNecessary() {
+        int max = maxSize;
+        if(templates.size() <= max || !evictionLock.tryLock()) return;
+        try {
+            int excess = templates.size() - (max - max / 10);
+            if(excess <= 0) return;
+
+            List<AccessStamp> stamps = new ArrayList<AccessStamp>(templates.size());
+            for (Map.Entry<String, CachedTemplate> entry : templates.entrySet()) {
+                stamps.add(new AccessStamp(entry.getKey(), entry.getValue()));
+            }
+            Collections.sort(stamps, OLDEST_FIRST);
+            for (int i = 0; i < excess && i < stamps.size(); i++) {
+                AccessStamp stamp = stamps.get(i);
+                templates.remove(stamp.key, stamp.cached);
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class CachedTemplate {
+        final Template template;
+        volatile long lastAccess;
+
+        CachedTemplate(Template template, long lastAccess) {
+            this.template = template;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Snapshot of an entry's access time so that sorting isn't affected by concurrent lookups
+     */
+    private static class AccessStamp {
+        final String key;
+        final CachedTemplate cached;
+        final long lastAccess;
+
+        AccessStamp(String key, CachedTemplate cached) {
+            this.key = key;
+            this.cached = cached;
+            this.lastAccess = cached.lastAccess;
+        }
+    }
+}
@@ -58,6 +58,8 @@ class GroovyPageWritable implements Writable {
 
     private ServletContext context;
     private Map additionalBinding = new HashMap();
+    private Iterator collection;
+    private String[] collectionVariables;
     private static final String GROOVY_SOURCE_CONTENT_TYPE = "text/plain";
 
     public GroovyPageWritable(GroovyPageMetaInfo metaInfo) {
@@ -82,6 +84,18 @@ class GroovyPageWritable implements Writable {
             this.additionalBinding = binding;
     }
 
+    /**
+     * Makes the page render once for each element of the given collection, binding the element to each of
+     * the given variable names. A single page instance and Binding is used for all of the elements.
+     *
+     * @param collection An Iterator over the elements to render
+     * @param collectionVariables The names to bind each element to
+     */
+    public void setCollection(Iterator collection, String[] collectionVariables) {
+        this.collection = collection;
+        this.collectionVariables = collectionVariables;
+    }
+
     /**
      * Set to true if the generated source should be output instead
      * @param showSource True if source output should be output
@@ -115,21 +129,12 @@ class GroovyPageWritable implements Writable {
                 response.setContentType(metaInfo.getContentType()); // must come before response.getWriter()
             }
 
-            // Set up the script context
-            Binding binding = (Binding)request.getAttribute(GrailsApplicationAttributes.PAGE_SCOPE);
-            Binding oldBinding = null;
-
-            if(binding == null) {
-                binding = createBinding();
-                formulateBinding(request, response, binding, out);
-            }
-            else {
-                // if the Binding already exists then we're a template being included/rendered as part of a larger template
-                // in this case we need our own Binding and the old Binding needs to be restored after rendering
-                oldBinding = binding;
-                binding = createBinding();
-                formulateBinding(request, response, binding, out);
-            }
+            // Set up the script context, if a Binding already exists then we're a template being included/rendered
+            // as part of a larger template. In this case we need our own Binding and the old Binding needs to be
+            // restored after rendering
+            Binding oldBinding = (Binding)request.getAttribute(GrailsApplicationAttributes.PAGE_SCOPE);
+            Binding binding = createBinding();
+            formulateBinding(request, response, binding, out);
 
             GroovyPage page = (GroovyPage) InvokerHelper.createScript(metaInfo.getPageClass(), binding);
             page.setJspTags(metaInfo.getJspTags());
@@ -137,12 +142,46 @@ class GroovyPageWritable implements Writable {
             page.setGspTagLibraryLookup(metaInfo.getTagLibraryLookup());
             page.setHtmlParts(metaInfo.getHtmlParts());
 
-            page.run();
+            if(collection != null) {
+                runForEach(page, binding);
+            }
+            else {
+                page.run();
+            }
             request.setAttribute(GrailsApplicationAttributes.PAGE_SCOPE, oldBinding);        
         }
         return out;
     }
 
+    /**
+     * Runs the same page instance once for each element of the collection. Before each run the Binding is
+     * restored to the initial model and the element is bound to the collection variables so that the page
+     * sees exactly the same variables it would if it had been instantiated for each element.
+     */
+    private void runForEach(GroovyPage page, Binding binding) {
+        Map variables = binding.getVariables();
+        Map initialVariables = new HashMap(variables);
+        boolean firstIteration = true;
+        while(collection.hasNext()) {
+            Object element = collection.next();
+            if(!firstIteration) {
+                variables.clear();
+                variables.putAll(initialVariables);
+                request.setAttribute(GrailsApplicationAttributes.PAGE_SCOPE, binding);
+            }
+            for (String name : collectionVariables) {
+                if (!GroovyPage.isReservedName(name)) {
+                    variables.put(name, element);
+                }
+                else {
+                    LOG.debug("Variable [" + name + "] cannot be placed within the GSP model, the name used is a reserved name.");
+                }
+            }
+            page.run();
+            firstIteration = false;
+        }
+    }
+
     protected void copyBinding(Binding binding, Binding oldBinding, Writer out) throws IOException {
     	formulateBindingFromWebRequest(binding, request, response, out, (GroovyObject) request.getAttribute(GrailsApplicationAttributes.CONTROLLER));
         binding.getVariables().putAll(oldBinding.getVariables());
@@ -38,6 +38,7 @@ import org.codehaus.groovy.grails.web.errors.GrailsWrappedRuntimeException;
 import org.codehaus.groovy.grails.web.servlet.DefaultGrailsApplicationAttributes;
 import org.codehaus.groovy.grails.web.servlet.GrailsApplicationAttributes;
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
+import org.codehaus.groovy.grails.web.sitemesh.GrailsPageFilter;
 import org.springframework.web.context.request.RequestContextHolder;
 
 /**
@@ -146,7 +147,10 @@ public class GroovyPagesServlet extends HttpServlet  {
      * @throws ServletException Thrown when an exception occurs in the servlet environment
      */
     protected void renderPageWithEngine(GroovyPagesTemplateEngine engine, HttpServletRequest request, HttpServletResponse response, Template t) throws IOException, ServletException {
-         Writer out = createResponseWriter(response);
+        if(t instanceof GroovyPageTemplate) {
+            GrailsPageFilter.disableSiteMeshIfUndecorated(request, response, ((GroovyPageTemplate)t).isLayoutDirective());
+        }
+        Writer out = createResponseWriter(response);
         try {
             Writable w = t.make();
             w.writeTo(out);
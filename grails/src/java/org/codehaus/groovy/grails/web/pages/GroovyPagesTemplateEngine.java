@@ -82,6 +82,7 @@ public class GroovyPagesTemplateEngine  extends ResourceAwareTemplateEngine impl
     private TagLibraryResolver jspTagLibraryResolver;
     private Map<String, String> precompiledGspMap;
     private Map<String, GroovyPageMetaInfo> precompiledCache = new ConcurrentHashMap<String, GroovyPageMetaInfo>();
+    private GroovyPageTemplateCache templateCache = new GroovyPageTemplateCache();
 
     public GroovyPagesTemplateEngine() {
     }
@@ -267,6 +268,43 @@ public class GroovyPagesTemplateEngine  extends ResourceAwareTemplateEngine impl
     	}
     }
 
+    /**
+     * Creates a Template for the first of the given URIs that exists, caching the result against the given key.
+     * The key should identify the resolved resource (including any plugin context path) and is ignored when
+     * reloading is enabled.
+     *
+     * @param cacheKey The key to cache the Template against
+     * @param uri The candidate URIs
+     * @return The Template or null if none of the URIs exist
+     */
+    public Template createCachedTemplateForUri(String cacheKey, String[] uri) {
+        if(isReloadEnabled()) {
+            return createTemplateForUri(uri);
+        }
+        Template t = templateCache.get(cacheKey);
+        if(t == null) {
+            t = createTemplateForUri(uri);
+            templateCache.put(cacheKey, t);
+        }
+        return t;
+    }
+
+    /**
+     * @return The cache of templates resolved via createCachedTemplateForUri
+     */
+    public GroovyPageTemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    /**
+     * Sets the maximum number of resolved templates to cache
+     *
+     * @param maxSize The maximum size
+     */
+    public void setTemplateCacheMaxSize(int maxSize) {
+        templateCache.setMaxSize(maxSize);
+    }
+
     /**
      * Creates a Template using the given text for the Template and the given name. The name
      * of the template is required
@@ -575,6 +613,7 @@ public class GroovyPagesTemplateEngine  extends ResourceAwareTemplateEngine impl
         pageMeta.setJspTagLibraryResolver(jspTagLibraryResolver);
         pageMeta.setTagLibraryLookup(tagLibraryLookup);
         pageMeta.setContentType(parse.getContentType());
+        pageMeta.setLayoutDirective(parse.isLayoutDirective());
         pageMeta.setLineNumbers(parse.getLineNumberMatrix());
         pageMeta.setLastModified(lastModified);
         pageMeta.setJspTags(parse.getJspTags());
@@ -697,6 +736,7 @@ public class GroovyPagesTemplateEngine  extends ResourceAwareTemplateEngine impl
     public void clearPageCache() {
         pageCache.clear();
         precompiledCache.clear();
+        templateCache.clear();
     }
 
 	public Map<String, String> getPrecompiledGspMap() {
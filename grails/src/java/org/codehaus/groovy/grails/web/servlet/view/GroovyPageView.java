@@ -21,10 +21,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.web.pages.GSPResponseWriter;
 import org.codehaus.groovy.grails.web.pages.GroovyPage;
+import org.codehaus.groovy.grails.web.pages.GroovyPageTemplate;
 import org.codehaus.groovy.grails.web.pages.GroovyPagesTemplateEngine;
 import org.codehaus.groovy.grails.web.pages.exceptions.GroovyPagesException;
 import org.codehaus.groovy.grails.web.servlet.GrailsApplicationAttributes;
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
+import org.codehaus.groovy.grails.web.sitemesh.GrailsPageFilter;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
@@ -100,8 +102,11 @@ public class GroovyPageView extends AbstractUrlBasedView  {
                                             HttpServletResponse response, HttpServletRequest request) throws IOException {
         Writer out = null;
         try {
-            out = createResponseWriter(response);
             Template t = templateEngine.createTemplate(getUrl());
+            if(t instanceof GroovyPageTemplate) {
+                GrailsPageFilter.disableSiteMeshIfUndecorated(request, response, ((GroovyPageTemplate)t).isLayoutDirective());
+            }
+            out = createResponseWriter(response);
             Writable w = t.make(model);
 
             w.writeTo(out);
@@ -8,6 +8,8 @@ import com.opensymphony.sitemesh.webapp.SiteMeshWebAppContext;
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
 import org.codehaus.groovy.grails.web.util.WebUtils;
 
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
@@ -47,6 +49,40 @@ public class GrailsContentBufferingResponse extends HttpServletResponseWrapper {
         return superResponse.isSitemeshActive();
     }
 
+    /**
+     * Stops the response from being buffered for decoration, see {@link GrailsPageResponseWrapper#disableSiteMesh()}
+     *
+     * @return True if output will now be streamed directly to the client
+     */
+    public boolean disableSiteMesh() {
+        return pageResponseWrapper.disableSiteMesh();
+    }
+
+    public boolean isSiteMeshDisabled() {
+        return pageResponseWrapper.isSiteMeshDisabled();
+    }
+
+    /**
+     * Finds the GrailsContentBufferingResponse within the given, possibly wrapped, response
+     *
+     * @param response The response
+     * @return The GrailsContentBufferingResponse or null if the response isn't being buffered by SiteMesh
+     */
+    public static GrailsContentBufferingResponse lookup(ServletResponse response) {
+        while(response != null) {
+            if(response instanceof GrailsContentBufferingResponse) {
+                return (GrailsContentBufferingResponse) response;
+            }
+            else if(response instanceof ServletResponseWrapper) {
+                response = ((ServletResponseWrapper)response).getResponse();
+            }
+            else {
+                response = null;
+            }
+        }
+        return null;
+    }
+
     public Content getContent() throws IOException {
         char[] data = pageResponseWrapper.getContents();
         if (data != null) {
@@ -21,6 +21,7 @@ import com.opensymphony.module.sitemesh.DecoratorMapper;
 import com.opensymphony.module.sitemesh.Page;
 import com.opensymphony.module.sitemesh.mapper.AbstractDecoratorMapper;
 import com.opensymphony.module.sitemesh.mapper.DefaultDecorator;
+import com.opensymphony.module.sitemesh.mapper.NullDecoratorMapper;
 import grails.util.Environment;
 import groovy.lang.GroovyObject;
 import org.apache.commons.lang.StringUtils;
@@ -139,6 +140,35 @@ public class GrailsLayoutDecoratorMapper extends AbstractDecoratorMapper impleme
 		}
 	}
 
+	/**
+	 * Works out whether a page that doesn't declare a layout itself could still be decorated for the
+	 * given request, either by the controller's layout property, a layout named by convention after the
+	 * controller or action, or by a parent decorator mapper.
+	 *
+	 * @param request The HttpServletRequest
+	 * @return True if a decorator may be applied
+	 */
+	public boolean isDecorationPossible(HttpServletRequest request) {
+		GroovyObject controller = (GroovyObject)request.getAttribute(GrailsApplicationAttributes.CONTROLLER);
+		if(controller != null) {
+			Object layoutProperty = GrailsClassUtils.getStaticPropertyValue(controller.getClass(), "layout");
+			if(layoutProperty instanceof String) {
+				return true;
+			}
+
+			String actionUri = (String)controller.getProperty(ControllerDynamicMethods.ACTION_URI_PROPERTY);
+			if(actionUri != null && getNamedDecorator(request, actionUri.substring(1)) != null) {
+				return true;
+			}
+
+			String controllerName = (String)controller.getProperty(ControllerDynamicMethods.CONTROLLER_NAME_PROPERTY);
+			if(getNamedDecorator(request, controllerName) != null) {
+				return true;
+			}
+		}
+		return parent != null && !(parent instanceof NullDecoratorMapper);
+	}
+
 	public Decorator getNamedDecorator(HttpServletRequest request, String name) {
 		if(StringUtils.isBlank(name))return null;
 
@@ -16,6 +16,7 @@
 package org.codehaus.groovy.grails.web.sitemesh;
 
 import com.opensymphony.module.sitemesh.Config;
+import com.opensymphony.module.sitemesh.DecoratorMapper;
 import com.opensymphony.module.sitemesh.Factory;
 import com.opensymphony.module.sitemesh.factory.DefaultFactory;
 import com.opensymphony.sitemesh.*;
@@ -31,6 +32,7 @@ import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.commons.ConfigurationHolder;
 import org.codehaus.groovy.grails.support.NullPersistentContextInterceptor;
 import org.codehaus.groovy.grails.support.PersistenceContextInterceptor;
+import org.codehaus.groovy.grails.web.util.WebUtils;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 import org.springframework.web.util.UrlPathHelper;
@@ -158,6 +160,33 @@ public class GrailsPageFilter extends SiteMeshFilter {
 
     }
 
+    /**
+     * Called before a page is rendered to decide whether the response needs to be buffered for decoration at all.
+     * If the page has no layout directive and neither the controller nor the layout conventions supply a layout then
+     * SiteMesh is disabled for the response so that the page streams straight to the client.
+     *
+     * @param request The HttpServletRequest
+     * @param response The HttpServletResponse
+     * @param layoutDirective Whether the page being rendered declares a layout itself
+     * @return True if the output will be streamed without decoration
+     */
+    public static boolean disableSiteMeshIfUndecorated(HttpServletRequest request, HttpServletResponse response, boolean layoutDirective) {
+        if(layoutDirective || WebUtils.isIncludeRequest(request)) return false;
+
+        GrailsContentBufferingResponse bufferingResponse = GrailsContentBufferingResponse.lookup(response);
+        if(bufferingResponse == null) return false;
+        if(bufferingResponse.isSiteMeshDisabled()) return true;
+
+        DecoratorMapper decoratorMapper = FactoryHolder.getFactory().getDecoratorMapper();
+        if(!(decoratorMapper instanceof GrailsLayoutDecoratorMapper)) return false;
+        if(((GrailsLayoutDecoratorMapper)decoratorMapper).isDecorationPossible(request)) return false;
+
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("No layout applies to request [" + request.getRequestURI() + "], streaming response without decoration");
+        }
+        return bufferingResponse.disableSiteMesh();
+    }
+
     @Override
 
     protected DecoratorSelector initDecoratorSelector(SiteMeshWebAppContext webAppContext) {
@@ -47,6 +47,7 @@ public class GrailsPageResponseWrapper extends HttpServletResponseWrapper{
     private GrailsBuffer buffer;
     private boolean aborted = false;
     private boolean parseablePage = false;
+    private boolean siteMeshDisabled = false;
 
     public GrailsPageResponseWrapper(final HttpServletResponse response, PageParserSelector parserSelector) {
         super(response);
@@ -97,7 +98,7 @@ public class GrailsPageResponseWrapper extends HttpServletResponseWrapper{
         if (type != null) {
             HttpContentType httpContentType = new HttpContentType(type);
 
-            if (parserSelector.shouldParsePage(httpContentType.getType())) {
+            if (!siteMeshDisabled && parserSelector.shouldParsePage(httpContentType.getType())) {
                 activateSiteMesh(httpContentType.getType(), httpContentType.getEncoding());
             } else {
                 deactivateSiteMesh();
@@ -124,6 +125,28 @@ public class GrailsPageResponseWrapper extends HttpServletResponseWrapper{
         parseablePage = true;
     }
 
+    /**
+     * Permanently disables SiteMesh for this response so that output is streamed straight to
+     * the client. This only succeeds if nothing has been written to the page buffer yet.
+     *
+     * @return True if SiteMesh was disabled
+     */
+    public boolean disableSiteMesh() {
+        if (siteMeshDisabled) {
+            return true;
+        }
+        if (buffer != null && buffer.isWrittenTo()) {
+            return false;
+        }
+        siteMeshDisabled = true;
+        deactivateSiteMesh();
+        return true;
+    }
+
+    public boolean isSiteMeshDisabled() {
+        return siteMeshDisabled;
+    }
+
     private void deactivateSiteMesh() {
         parseablePage = false;
         buffer = null;
@@ -289,5 +312,9 @@ public class GrailsPageResponseWrapper extends HttpServletResponseWrapper{
             return bufferedStream != null;
         }
 
+        public boolean isWrittenTo() {
+            return bufferedWriter != null || bufferedStream != null;
+        }
+
     }
 }
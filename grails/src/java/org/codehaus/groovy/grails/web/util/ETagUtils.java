@@ -0,0 +1,279 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.util;
+
+import org.codehaus.groovy.grails.web.converters.ConverterUtil;
+import org.codehaus.groovy.grails.web.converters.marshaller.DomainClassMarshallingPlan;
+import org.codehaus.groovy.grails.web.servlet.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Utility methods for creating entity tags and answering conditional GET requests.
+ *
+ * Strong ETags are created from a digest of the response body, computed while the body is written through a
+ * DigestWriter. Weak ETags are derived from validators such as a last modified time or domain instances, which
+ * contribute their class, id and version.
+ *
+ * @since 1.2
+ */
+public class ETagUtils {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETagUtils() {
+    }
+
+    /**
+     * Creates a weak ETag from the given validators. Domain instances contribute their class, id and version,
+     * dates and calendars their time, collections, arrays and maps their elements and any other value its
+     * String representation.
+     *
+     * @param validators The validators
+     * @return The weak ETag, including the W/ prefix and quotes
+     */
+    public static String createWeakETag(Object... validators) {
+        DigestWriter digest = new DigestWriter();
+        try {
+            for (Object validator : validators) {
+                appendValidator(digest, validator);
+            }
+        }
+        catch (IOException e) {
+            // not thrown, DigestWriter has no target
+        }
+        return WEAK_PREFIX + digest.getETag();
+    }
+
+    private static void appendValidator(Writer out, Object value) throws IOException {
+        if(value == null) {
+            out.write("null");
+        }
+        else if(value instanceof Date) {
+            out.write(String.valueOf(((Date)value).getTime()));
+        }
+        else if(value instanceof Calendar) {
+            out.write(String.valueOf(((Calendar)value).getTimeInMillis()));
+        }
+        else if(value instanceof Collection) {
+            for (Object o : (Collection) value) {
+                appendValidator(out, o);
+            }
+        }
+        else if(value instanceof Object[]) {
+            for (Object o : (Object[]) value) {
+                appendValidator(out, o);
+            }
+        }
+        else if(value instanceof Map) {
+            for (Object o : ((Map) value).entrySet()) {
+                Map.Entry entry = (Map.Entry) o;
+                out.write(String.valueOf(entry.getKey()));
+                out.write('=');
+                appendValidator(out, entry.getValue());
+            }
+        }
+        else if(ConverterUtil.isDomainClass(value.getClass())) {
+            DomainClassMarshallingPlan plan = DomainClassMarshallingPlan.getPlan(value.getClass());
+            out.write(plan.getDomainClass().getFullName());
+            out.write('#');
+            out.write(String.valueOf(plan.getIdentifier().getValue(value)));
+            if(plan.getVersion() != null) {
+                out.write('@');
+                out.write(String.valueOf(plan.getVersion().getValue(value)));
+            }
+        }
+        else {
+            out.write(value.toString());
+        }
+        out.write(';');
+    }
+
+    /**
+     * Checks whether the If-None-Match header of the request matches the given ETag. The weak comparison
+     * function is used, as required for GET and HEAD requests.
+     *
+     * @param request The HttpServletRequest
+     * @param etag The current ETag of the resource
+     * @return True if one of the tags sent by the client, or *, matches
+     */
+    public static boolean matchesIfNoneMatch(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if(header == null || etag == null) return false;
+
+        String opaqueTag = stripWeakPrefix(etag);
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if("*".equals(candidate) || opaqueTag.equals(stripWeakPrefix(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the If-Modified-Since header of the request is at or after the given last modified time
+     *
+     * @param request The HttpServletRequest
+     * @param lastModified The last modified time of the resource in milliseconds
+     * @return True if the resource hasn't been modified since the time sent by the client
+     */
+    public static boolean matchesIfModifiedSince(HttpServletRequest request, long lastModified) {
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP dates have a resolution of one second
+        return ifModifiedSince > -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Sets the ETag header of the response and, if the request is a GET or HEAD whose If-None-Match header
+     * matches, sets the status to 304 (Not Modified). Nothing is done if the response has already been committed.
+     *
+     * @param request The HttpServletRequest
+     * @param response The HttpServletResponse
+     * @param etag The current ETag of the resource
+     * @return True if a 304 status was set and the body should not be rendered
+     */
+    public static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        if(response.isCommitted()) return false;
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if(isConditionalMethod(request) && matchesIfNoneMatch(request, etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return True if conditional GET semantics apply to the method of the request, that is for GET and HEAD
+     */
+    public static boolean isConditionalMethod(HttpServletRequest request) {
+        String method = request.getMethod();
+        return method == null || "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+
+    /**
+     * A Writer that computes an MD5 digest of everything written to it and optionally passes the characters
+     * on to a target Writer, so that a strong ETag is available as soon as the body has been written.
+     */
+    public static class DigestWriter extends Writer {
+        private final Writer target;
+        private final MessageDigest digest;
+        private final byte[] bytes = new byte[512];
+
+        public DigestWriter() {
+            this(null);
+        }
+
+        public DigestWriter(Writer target) {
+            this.target = target;
+            try {
+                this.digest = MessageDigest.getInstance("MD5");
+            }
+            catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("MD5 digest not available: " + e.getMessage());
+            }
+        }
+
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            update(cbuf, off, len);
+            if(target != null) target.write(cbuf, off, len);
+        }
+
+        public void write(String str, int off, int len) throws IOException {
+            update(str, off, len);
+            if(target != null) target.write(str, off, len);
+        }
+
+        public void write(int c) throws IOException {
+            digest.update((byte) (c >> 8));
+            digest.update((byte) c);
+            if(target != null) target.write(c);
+        }
+
+        private void update(char[] cbuf, int off, int len) {
+            int pos = 0;
+            for (int i = off; i < off + len; i++) {
+                char c = cbuf[i];
+                bytes[pos++] = (byte) (c >> 8);
+                bytes[pos++] = (byte) c;
+                if(pos == bytes.length) {
+                    digest.update(bytes, 0, pos);
+                    pos = 0;
+                }
+            }
+            digest.update(bytes, 0, pos);
+        }
+
+        private void update(String str, int off, int len) {
+            int pos = 0;
+            for (int i = off; i < off + len; i++) {
+                char c = str.charAt(i);
+                bytes[pos++] = (byte) (c >> 8);
+                bytes[pos++] = (byte) c;
+                if(pos == bytes.length) {
+                    digest.update(bytes, 0, pos);
+                    pos = 0;
+                }
+            }
+            digest.update(bytes, 0, pos);
+        }
+
+        /**
+         * Completes the digest, after which no more characters should be written
+         *
+         * @return The quoted strong ETag of the characters written
+         */
+        public String getETag() {
+            byte[] hash = digest.digest();
+            char[] chars = new char[hash.length * 2 + 2];
+            chars[0] = '"';
+            for (int i = 0; i < hash.length; i++) {
+                chars[i * 2 + 1] = HEX[(hash[i] >> 4) & 0xf];
+                chars[i * 2 + 2] = HEX[hash[i] & 0xf];
+            }
+            chars[chars.length - 1] = '"';
+            return new String(chars);
+        }
+
+        public void flush() throws IOException {
+            if(target != null) target.flush();
+        }
+
+        public void close() throws IOException {
+            if(target != null) target.close();
+        }
+    }
+}
@@ -266,6 +266,27 @@ public class StreamCharBuffer {
 		}
 	}
 
+	/**
+	 * Writes the buffer content to a target java.io.Writer without consuming it, so that the same content
+	 * can be written several times. Nothing is copied, the internal char[] buffers and Strings are passed
+	 * to the target as they are.
+	 *
+	 * Since the state of the buffer isn't changed this method may be called by several threads at the same
+	 * time once the buffer is no longer written to. It can't be used after the buffer has been (partially) read.
+	 *
+	 * @param target Writer
+	 * @throws IOException
+	 */
+	public void replayTo(Writer target) throws IOException {
+		if (currentReadChunk != null) {
+			throw new IllegalStateException("replayTo can't be used after the buffer has been read");
+		}
+		for (StreamCharBufferChunk chunk : chunks) {
+			chunk.replayTo(target);
+		}
+		currentWriteChunk.replayTo(target);
+	}
+
 	/**
 	 * reads (and empties) the buffer to a char[]
 	 *
@@ -815,6 +836,23 @@ public class StreamCharBuffer {
 			return writtenCount;
 		}
 
+		public void replayTo(Writer target) throws IOException {
+			int pos = 0;
+			if (StringChunkGroups != null) {
+				for (StringChunkGroup group : StringChunkGroups) {
+					int ownerIndex = group.getOwnerIndex();
+					if (ownerIndex > pos) {
+						target.write(buffer, pos, ownerIndex - pos);
+						pos = ownerIndex;
+					}
+					group.replayTo(target);
+				}
+			}
+			if (used > pos) {
+				target.write(buffer, pos, used - pos);
+			}
+		}
+
 		public int charsUnread() {
 			return used - pointer + unreadCharsInStringChunkGroups + ((readingStringChunkGroup!=null)?readingStringChunkGroup.getUnreadChars():0);
 		}
@@ -901,6 +939,12 @@ public class StreamCharBuffer {
 			return totalChars;
 		}
 
+		public void replayTo(Writer target) throws IOException {
+			for (StringChunk stringChunk : unreadStringChunks) {
+				stringChunk.replayTo(target);
+			}
+		}
+
 		public int writeTo(Writer target) throws IOException {
 			int writtenCount=0;
 			while(prepareReading()) {
@@ -944,6 +988,10 @@ public class StreamCharBuffer {
 			return readCharsLen;
 		}
 
+		public void replayTo(Writer target) throws IOException {
+			target.write(str, readOffset, unreadChars);
+		}
+
 		public int writeTo(Writer target) throws IOException {
 			int len=unreadChars;
 			target.write(str, readOffset, len);
@@ -0,0 +1,223 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A Writer that encodes characters as UTF-8 straight into a byte block which is written to an OutputStream,
+ * for example the ServletOutputStream or the OutputStream of a StreamByteBuffer, whenever it is full. This
+ * avoids the container's own char to byte conversion and its smaller buffers. ASCII characters, which make up
+ * most keys, numbers and markup, are copied without going through the general encoding path and pre-encoded
+ * tokens can be written with writeBytes(byte[]).
+ *
+ * The byte block is pooled per thread and returned when the writer is closed or released, code that doesn't
+ * close the writer when rendering fails should release it in a finally block. Unpaired surrogates are written
+ * as '?', like the JDK encoder does. This is not thread-safe.
+ *
+ * @since 1.2
+ */
+public class UTF8StreamWriter extends Writer {
+    public static final String ENCODING = "UTF-8";
+    public static final int BLOCK_SIZE = 32 * 1024;
+
+    private static final ThreadLocal<byte[]> POOLED_BLOCKS = new ThreadLocal<byte[]>();
+
+    private final OutputStream out;
+    private byte[] block;
+    private int count;
+    private char highSurrogate;
+
+    public UTF8StreamWriter(OutputStream out) {
+        this.out = out;
+        this.block = POOLED_BLOCKS.get();
+        if(block == null) {
+            block = new byte[BLOCK_SIZE];
+        }
+        else {
+            POOLED_BLOCKS.set(null);
+        }
+    }
+
+    public UTF8StreamWriter(StreamByteBuffer buffer) {
+        this(buffer.getOutputStream());
+    }
+
+    /**
+     * @return True if the given encoding is handled by this writer
+     */
+    public static boolean isUTF8(String encoding) {
+        return encoding != null && (ENCODING.equalsIgnoreCase(encoding) || "UTF8".equalsIgnoreCase(encoding));
+    }
+
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        int end = off + len;
+        int i = off;
+        while(i < end) {
+            if(highSurrogate == 0) {
+                int limit = Math.min(end, i + block.length - count);
+                while(i < limit) {
+                    char c = cbuf[i];
+                    if(c >= 0x80) break;
+                    block[count++] = (byte) c;
+                    i++;
+                }
+                if(i == end) break;
+                if(count == block.length) {
+                    drain();
+                    continue;
+                }
+            }
+            encode(cbuf[i++]);
+        }
+    }
+
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        int end = off + len;
+        int i = off;
+        while(i < end) {
+            if(highSurrogate == 0) {
+                int limit = Math.min(end, i + block.length - count);
+                while(i < limit) {
+                    char c = str.charAt(i);
+                    if(c >= 0x80) break;
+                    block[count++] = (byte) c;
+                    i++;
+                }
+                if(i == end) break;
+                if(count == block.length) {
+                    drain();
+                    continue;
+                }
+            }
+            encode(str.charAt(i++));
+        }
+    }
+
+    public void write(String str) throws IOException {
+        write(str, 0, str.length());
+    }
+
+    public void write(int c) throws IOException {
+        ensureOpen();
+        encode((char) c);
+    }
+
+    /**
+     * Writes bytes that are already UTF-8 encoded, for example constant tokens
+     *
+     * @param bytes The encoded bytes
+     */
+    public void writeBytes(byte[] bytes) throws IOException {
+        ensureOpen();
+        if(highSurrogate != 0) {
+            highSurrogate = 0;
+            encode('?');
+        }
+        if(bytes.length > block.length - count) {
+            drain();
+            if(bytes.length > block.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, block, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void encode(char c) throws IOException {
+        if(count + 4 > block.length) {
+            drain();
+        }
+        if(highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if(Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                block[count++] = (byte) (0xf0 | (cp >> 18));
+                block[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                block[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                block[count++] = (byte) (0x80 | (cp & 0x3f));
+                return;
+            }
+            block[count++] = '?';
+        }
+        if(c < 0x80) {
+            block[count++] = (byte) c;
+        }
+        else if(c < 0x800) {
+            block[count++] = (byte) (0xc0 | (c >> 6));
+            block[count++] = (byte) (0x80 | (c & 0x3f));
+        }
+        else if(Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        }
+        else if(Character.isLowSurrogate(c)) {
+            block[count++] = '?';
+        }
+        else {
+            block[count++] = (byte) (0xe0 | (c >> 12));
+            block[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            block[count++] = (byte) (0x80 | (c & 0x3f));
+        }
+    }
+
+    private void drain() throws IOException {
+        if(count > 0) {
+            out.write(block, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if(block == null) throw new IOException("Writer closed");
+    }
+
+    public void flush() throws IOException {
+        ensureOpen();
+        drain();
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        if(block == null) return;
+        try {
+            if(highSurrogate != 0) {
+                highSurrogate = 0;
+                encode('?');
+            }
+            drain();
+            out.close();
+        }
+        finally {
+            release();
+        }
+    }
+
+    /**
+     * Returns the byte block to the pool of the current thread, discarding anything not written yet. The writer
+     * can't be used afterwards. Does nothing if the writer has been closed already
+     */
+    public void release() {
+        if(block != null) {
+            POOLED_BLOCKS.set(block);
+            block = null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+import grails.validation.ValidationException
+
+/**
+ * Tests for the saveAll, deleteAll and updateAll persistent methods
+ *
+ * @since 1.2
+ */
+class BulkPersistenceMethodsTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class BulkBook {
+    Long id
+    Long version
+    String title
+    String isbn
+    String publisher
+    Boolean inPrint = true
+    Date lastUpdated
+
+    static constraints = {
+        isbn unique:true
+        publisher nullable:true
+        lastUpdated nullable:true
+    }
+}
+class BulkEventBook {
+    Long id
+    Long version
+    String title
+    String isbn
+    String publisher
+
+    static deleted = []
+    static updated = []
+
+    static constraints = {
+        isbn nullable:true
+        publisher nullable:true
+    }
+
+    def beforeDelete() {
+        deleted << title
+    }
+    def beforeUpdate() {
+        updated << title
+    }
+}
+''')
+    }
+
+    protected void onTearDown() {
+        sessionFactory.statistics.statisticsEnabled = false
+    }
+
+    private List createBooks(Class bookClass, int count) {
+        (1..count).collect { bookClass.newInstance(title: "Book $it", isbn: "isbn-$it", publisher: it % 2 ? "Manning" : "Apress") }
+    }
+
+    void testSaveAll() {
+        def bookClass = ga.getDomainClass("BulkBook").clazz
+        def books = createBooks(bookClass, 7)
+
+        def result = bookClass.saveAll(books, batchSize: 3)
+        assertFalse result.hasErrors()
+        assertEquals 7, result.savedCount
+        assertEquals 7, bookClass.count()
+        assertFalse "the session should have been cleared", session.contains(books[0])
+        assertTrue books.every { it.id != null }
+    }
+
+    void testSaveAllReturnsErrorsByIndex() {
+        def bookClass = ga.getDomainClass("BulkBook").clazz
+        def books = createBooks(bookClass, 5)
+        books[1].title = null
+        books[4].isbn = books[3].isbn
+
+        def result = bookClass.saveAll(books)
+        assertTrue result.hasErrors()
+        assertEquals 3, result.savedCount
+        assertEquals([1, 4], result.errors.keySet() as List)
+        assertEquals "nullable", result.errors[1].getFieldError("title").code
+        assertEquals "unique", result.errors[4].getFieldError("isbn").code
+        assertEquals 3, bookClass.count()
+
+        def duplicate = bookClass.newInstance(title: "Duplicate", isbn: books[0].isbn)
+        result = bookClass.saveAll([duplicate, bookClass.newInstance(title: "New", isbn: "new")])
+        assertEquals 1, result.savedCount
+        assertEquals([0], result.errors.keySet() as List)
+    }
+
+    void testSaveAllFailOnError() {
+        def bookClass = ga.getDomainClass("BulkBook").clazz
+        def books = createBooks(bookClass, 3)
+        books[2].title = null
+
+        shouldFail(ValidationException) {
+            bookClass.saveAll(books, failOnError: true)
+        }
+    }
+
+    void testSaveAllWithoutValidation() {
+        def bookClass = ga.getDomainClass("BulkEventBook").clazz
+        def books = [bookClass.newInstance(title: "Book 1"), bookClass.newInstance(title: "Book 2")]
+
+        assertEquals 2, bookClass.saveAll(books, validate: false).savedCount
+        assertEquals 2, bookClass.count()
+    }
+
+    void testDeleteAllUsesBulkStatements() {
+        def bookClass = ga.getDomainClass("BulkBook").clazz
+        bookClass.saveAll(createBooks(bookClass, 6))
+        sessionFactory.statistics.statisticsEnabled = true
+        sessionFactory.statistics.clear()
+
+        def manning = bookClass.findAllByPublisher("Manning")
+        assertEquals 3, bookClass.deleteAll(manning)
+        assertFalse session.contains(manning[0])
+        assertEquals 3, bookClass.count()
+
+        assertEquals 2, bookClass.deleteAll(publisher: "Apress", isbn: ["isbn-2", "isbn-4"])
+        assertEquals 1, bookClass.count()
+        assertEquals 0, sessionFactory.statistics.entityDeleteCount
+    }
+
+    void testDeleteAllTriggersEvents() {
+        def bookClass = ga.getDomainClass("BulkEventBook").clazz
+        bookClass.deleted.clear()
+        bookClass.saveAll(createBooks(bookClass, 5))
+        sessionFactory.statistics.statisticsEnabled = true
+        sessionFactory.statistics.clear()
+
+        assertEquals 3, bookClass.deleteAll(publisher: "Manning")
+        assertEquals(["Book 1", "Book 3", "Book 5"], bookClass.deleted.sort())
+        assertEquals 3, sessionFactory.statistics.entityDeleteCount
+
+        assertEquals 2, bookClass.deleteAll([batchSize: 1], bookClass.list())
+        assertEquals 0, bookClass.count()
+    }
+
+    void testUpdateAllUsesBulkStatement() {
+        def bookClass = ga.getDomainClass("BulkBook").clazz
+        bookClass.saveAll(createBooks(bookClass, 4))
+
+        assertEquals 2, bookClass.updateAll([publisher: "Manning"], [inPrint: false, publisher: null])
+        session.clear()
+
+        def updated = bookClass.findAllByInPrint(false)
+        assertEquals 2, updated.size()
+        assertTrue updated.every { it.publisher == null && it.version == 1 && it.lastUpdated != null }
+        assertEquals 2, bookClass.countByPublisher("Apress")
+
+        shouldFail(IllegalArgumentException) {
+            bookClass.updateAll([author: "Dierk"], [inPrint: true])
+        }
+    }
+
+    void testUpdateAllTriggersEvents() {
+        def bookClass = ga.getDomainClass("BulkEventBook").clazz
+        bookClass.updated.clear()
+        bookClass.saveAll(createBooks(bookClass, 4))
+
+        assertEquals 2, bookClass.updateAll([publisher: "Apress"], [publisher: "Manning"], [batchSize: 1])
+        assertEquals(["Book 2", "Book 4"], bookClass.updated.sort())
+        assertEquals 4, bookClass.countByPublisher("Manning")
+    }
+
+    void testUpdateAllDoesNotCountVetoedUpdates() {
+        def bookClass = ga.getDomainClass("BulkEventBook").clazz
+        bookClass.saveAll(createBooks(bookClass, 4))
+
+        assertEquals 0, bookClass.updateAll([publisher: "Apress"], [title: null])
+        session.clear()
+        assertEquals 0, bookClass.countByTitleIsNull()
+        assertEquals 2, bookClass.countByPublisher("Apress")
+    }
+
+    void testEmptyWhereMapRequiresAllArgument() {
+        def bookClass = ga.getDomainClass("BulkBook").clazz
+        bookClass.saveAll(createBooks(bookClass, 3))
+
+        shouldFail(IllegalArgumentException) {
+            bookClass.deleteAll([:])
+        }
+        shouldFail(IllegalArgumentException) {
+            bookClass.updateAll([:], [inPrint: false])
+        }
+        assertEquals 3, bookClass.countByInPrint(true)
+
+        assertEquals 3, bookClass.updateAll([:], [inPrint: false], [all: true])
+        assertEquals 3, bookClass.deleteAll([all: true], [:])
+        assertEquals 0, bookClass.count()
+    }
+}
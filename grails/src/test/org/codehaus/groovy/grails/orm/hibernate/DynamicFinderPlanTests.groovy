@@ -0,0 +1,59 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+/**
+ * Tests that dynamic finders parsed once still bind the arguments of each invocation
+ *
+ * @since 1.2
+ */
+class DynamicFinderPlanTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class DynamicFinderPlanBook {
+    Long id
+    Long version
+    String title
+    String publisher
+    Long pages
+}
+''')
+    }
+
+    void testRepeatedInvocationsUseTheirOwnArguments() {
+        def bookClass = ga.getDomainClass("DynamicFinderPlanBook").clazz
+        assert bookClass.newInstance(title: "Groovy in Action", publisher: "Manning", pages: 600L).save(flush: true)
+        assert bookClass.newInstance(title: "The Stand", publisher: "Doubleday", pages: 1152L).save(flush: true)
+
+        assertEquals "Groovy in Action", bookClass.findByTitleAndPublisher("Groovy in Action", "Manning").title
+        assertEquals "The Stand", bookClass.findByTitleAndPublisher("The Stand", "Doubleday").title
+        assertNull bookClass.findByTitleAndPublisher("The Stand", "Manning")
+
+        assertEquals 1, bookClass.findAllByPagesGreaterThan(1000L).size()
+        assertEquals 2, bookClass.findAllByPagesGreaterThan(100L).size()
+        assertEquals 1, bookClass.countByTitleOrPublisher("Groovy in Action", "Nobody")
+        assertEquals 2, bookClass.countByTitleOrPublisher("Groovy in Action", "Doubleday")
+    }
+
+    void testArgumentsAreConvertedOnEachInvocation() {
+        def bookClass = ga.getDomainClass("DynamicFinderPlanBook").clazz
+        assert bookClass.newInstance(title: "Groovy in Action", publisher: "Manning", pages: 600L).save(flush: true)
+
+        assertEquals "Groovy in Action", bookClass.findByPages(600).title
+        assertEquals "Groovy in Action", bookClass.findByPages("600").title
+        assertEquals "Groovy in Action", bookClass.findByTitle("Groovy in ${'Action'}").title
+    }
+
+    void testInvalidInvocationsStillFail() {
+        def bookClass = ga.getDomainClass("DynamicFinderPlanBook").clazz
+
+        2.times {
+            shouldFail(MissingMethodException) {
+                bookClass.findByAuthor("Dierk")
+            }
+        }
+        assertNull bookClass.findByTitleAndPublisher("Groovy in Action", "Manning")
+        shouldFail(MissingMethodException) {
+            bookClass.findByTitleAndPublisher("Groovy in Action")
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+import org.codehaus.groovy.grails.orm.hibernate.support.EntityAutowirer
+
+/**
+ * Tests for the eachScrolled persistent method and its criteria equivalent
+ *
+ * @since 1.2
+ */
+class EachScrolledTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class ScrolledBook {
+    Long id
+    Long version
+    String title
+    String publisher
+    static hasMany = [chapters: ScrolledChapter]
+}
+
+class ScrolledChapter {
+    Long id
+    Long version
+    String title
+    static belongsTo = [book: ScrolledBook]
+}
+''')
+    }
+
+    private Class createBooks(int count) {
+        def bookClass = ga.getDomainClass("ScrolledBook").clazz
+        (1..count).each {
+            bookClass.newInstance(title: "Book $it", publisher: it % 2 ? "Manning" : "Apress").save()
+        }
+        session.flush()
+        session.clear()
+        return bookClass
+    }
+
+    void testEachScrolled() {
+        def bookClass = createBooks(5)
+
+        def titles = []
+        assertEquals 5, bookClass.eachScrolled(sort: "title") { titles << it.title }
+        assertEquals((1..5).collect { "Book $it" }, titles)
+    }
+
+    void testEachScrolledReadOnlyEvictsInstances() {
+        def bookClass = createBooks(3)
+
+        def books = []
+        bookClass.eachScrolled(fetchSize: 2, readOnly: true) { book ->
+            assertTrue session.contains(book)
+            book.title = "Changed"
+            books << book
+        }
+        assertTrue books.every { !session.contains(it) }
+        session.flush()
+        session.clear()
+        assertEquals 0, bookClass.countByTitle("Changed")
+    }
+
+    void testEachScrolledSavesChanges() {
+        def bookClass = createBooks(5)
+
+        def contained = []
+        bookClass.eachScrolled(clearEvery: 2) { book ->
+            book.publisher = "O'Reilly"
+            contained << book
+        }
+        assertFalse session.contains(contained[0])
+        assertTrue session.contains(contained[4])
+        session.flush()
+        session.clear()
+        assertEquals 5, bookClass.countByPublisher("O'Reilly")
+    }
+
+    void testEachScrolledEvictsOnlyProcessedInstances() {
+        def bookClass = createBooks(5)
+        def loadedBefore = bookClass.findByTitle("Book 5")
+
+        def contained = []
+        assertEquals 4, bookClass.eachScrolled(fetchSize: 3, sort: "title", max: 4) { book ->
+            book.publisher = "O'Reilly"
+            contained << book
+        }
+        assertTrue "instances loaded before the iteration should stay in the session", session.contains(loadedBefore)
+        assertTrue contained.every { !session.contains(it) }
+        session.clear()
+        assertEquals 4, bookClass.countByPublisher("O'Reilly")
+    }
+
+    void testEachScrolledEvictsLoadedAssociations() {
+        def bookClass = createBooksWithChapters(6, 5)
+
+        def chapters = 0
+        def maxEntities = 0
+        assertEquals 6, bookClass.eachScrolled(fetchSize: 2) { book ->
+            chapters += book.chapters.size()
+            maxEntities = Math.max(maxEntities, session.statistics.entityCount)
+        }
+        assertEquals 30, chapters
+        assertTrue "at most 2 books and their chapters should be in the session, not $maxEntities", maxEntities <= 12
+        assertEquals 0, session.statistics.entityCount
+    }
+
+    void testEachScrolledEvictsLoadedAssociationsOnly() {
+        def bookClass = createBooksWithChapters(5, 5)
+        def loadedBefore = bookClass.findByTitle("Book 5")
+
+        def maxEntities = 0
+        bookClass.eachScrolled(fetchSize: 2, sort: "title", max: 4) { book ->
+            book.chapters.each { it.title = "Changed" }
+            maxEntities = Math.max(maxEntities, session.statistics.entityCount)
+        }
+        assertTrue "at most 2 books and their chapters should be loaded, not $maxEntities", maxEntities <= 13
+        assertEquals 1, session.statistics.entityCount
+        assertTrue session.contains(loadedBefore)
+        session.clear()
+        assertEquals 20, ga.getDomainClass("ScrolledChapter").clazz.countByTitle("Changed")
+    }
+
+    private Class createBooksWithChapters(int books, int chapters) {
+        def bookClass = ga.getDomainClass("ScrolledBook").clazz
+        def chapterClass = ga.getDomainClass("ScrolledChapter").clazz
+        (1..books).each { i ->
+            def book = bookClass.newInstance(title: "Book $i", publisher: "Manning")
+            (1..chapters).each { book.addToChapters(chapterClass.newInstance(title: "Chapter $it")) }
+            assert book.save()
+        }
+        session.flush()
+        session.clear()
+        return bookClass
+    }
+
+    void testEachScrolledStateless() {
+        def bookClass = createBooks(4)
+
+        def books = []
+        assertEquals 4, bookClass.eachScrolled(stateless: true, max: 4) { books << it }
+        assertTrue books.every { it.title && !session.contains(it) }
+    }
+
+    void testEachScrolledWithoutAutowiring() {
+        def bookClass = createBooks(2)
+
+        def suspended = []
+        bookClass.eachScrolled(autowire: false) { suspended << EntityAutowirer.isSuspended() }
+        assertEquals([true, true], suspended)
+        assertFalse EntityAutowirer.isSuspended()
+    }
+
+    void testCriteriaEachScrolled() {
+        def bookClass = createBooks(6)
+
+        def titles = []
+        def count = bookClass.createCriteria().eachScrolled(readOnly: true, sort: "title", {
+            eq("publisher", "Apress")
+        }) { titles << it.title }
+        assertEquals 3, count
+        assertEquals(["Book 2", "Book 4", "Book 6"], titles)
+
+        def publishers = []
+        bookClass.createCriteria().eachScrolled({
+            projections {
+                distinct("publisher")
+            }
+        }) { publishers << it }
+        assertEquals(["Apress", "Manning"], publishers.sort())
+    }
+}
@@ -0,0 +1,82 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+import org.codehaus.groovy.grails.orm.hibernate.support.EntityAutowirer
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory
+
+/**
+ * Tests that instances loaded by Hibernate are autowired from their injection plans
+ *
+ * @since 1.2
+ */
+class EntityAutowiringTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class AutowiredBook {
+    Long id
+    Long version
+    String title
+
+    def autowiredBookService
+    def notABean
+}
+class PlainBook {
+    Long id
+    Long version
+    String title
+}
+class AutowiredBookService {
+    def testMethod() { "foo" }
+}
+''')
+    }
+
+    void testLoadedInstancesAreAutowired() {
+        def bookClass = ga.getDomainClass("AutowiredBook").clazz
+        assert bookClass.newInstance(title: "The Stand").save()
+        assert bookClass.newInstance(title: "It").save(flush: true)
+        session.clear()
+
+        def books = bookClass.list(sort: "title")
+        assertEquals 2, books.size()
+        books.each { book ->
+            assertNotNull "Service autowiring failed", book.autowiredBookService
+            assertEquals "foo", book.autowiredBookService.testMethod()
+            assertNull book.notABean
+        }
+        assertSame books[0].autowiredBookService, books[1].autowiredBookService
+        assertSame appCtx.getBean("autowiredBookService"), books[0].autowiredBookService
+    }
+
+    void testInstancesWithoutDependenciesAreLoaded() {
+        def bookClass = ga.getDomainClass("PlainBook").clazz
+        assert bookClass.newInstance(title: "The Stand").save(flush: true)
+        session.clear()
+
+        assertEquals "The Stand", bookClass.get(1).title
+        session.clear()
+        assertEquals "The Stand", bookClass.findByTitle("The Stand").title
+    }
+
+    void testClassesWithoutDependenciesSkipAutowiring() {
+        def factory = appCtx.autowireCapableBeanFactory
+        def calls = []
+        def recordingFactory = [
+                containsBean: { String name -> factory.containsBean(name) },
+                isTypeMatch: { String name, Class type -> factory.isTypeMatch(name, type) },
+                getBean: { String name -> calls << name; factory.getBean(name) },
+                autowireBeanProperties: { Object bean, int mode, boolean check -> calls << "autowireBeanProperties" }
+        ] as AutowireCapableBeanFactory
+        def autowirer = new EntityAutowirer(recordingFactory)
+
+        autowirer.autowire(ga.getDomainClass("PlainBook").clazz.newInstance())
+        autowirer.autowire(ga.getDomainClass("PlainBook").clazz.newInstance())
+        assertEquals([], calls)
+
+        def bookClass = ga.getDomainClass("AutowiredBook").clazz
+        autowirer.autowire(bookClass.newInstance())
+        autowirer.autowire(bookClass.newInstance())
+        assertEquals "the beans should be looked up on each autowire",
+                ["autowiredBookService", "autowiredBookService"], calls
+    }
+}
@@ -0,0 +1,89 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+/**
+ * Tests that events and time stamps driven by the per class event descriptors behave as before
+ *
+ * @since 1.2
+ */
+class EntityEventDescriptorTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class DescribedBook {
+    Long id
+    Long version
+    String title
+    String status
+    java.sql.Timestamp dateCreated
+    Date lastUpdated
+
+    def beforeUpdate() {
+        status = "updated"
+    }
+}
+class UntimestampedBook {
+    Long id
+    Long version
+    String title
+    Date dateCreated
+    Date lastUpdated
+
+    static mapping = {
+        autoTimestamp false
+    }
+    static constraints = {
+        dateCreated nullable:true
+        lastUpdated nullable:true
+    }
+}
+class UndescribedBook {
+    Long id
+    Long version
+    String title
+}
+''')
+    }
+
+    void testTimestampsAndHandlers() {
+        def bookClass = ga.getDomainClass("DescribedBook").clazz
+        def book = bookClass.newInstance(title: "The Stand")
+        assert book.save(flush: true)
+
+        assertEquals java.sql.Timestamp, book.dateCreated.getClass()
+        assertNotNull book.lastUpdated
+        assertNull book.status
+
+        def created = book.dateCreated
+        book.lastUpdated = new Date(0)
+        book.title = "It"
+        book.save(flush: true)
+        session.clear()
+
+        book = bookClass.get(book.id)
+        assertEquals "It", book.title
+        assertEquals "updated", book.status
+        assertEquals created.time, book.dateCreated.time
+        assertTrue book.lastUpdated.time > 0
+    }
+
+    void testAutoTimestampDisabled() {
+        def book = ga.getDomainClass("UntimestampedBook").clazz.newInstance(title: "The Stand")
+        assert book.save(flush: true)
+
+        assertNull book.dateCreated
+        assertNull book.lastUpdated
+    }
+
+    void testClassesWithoutHandlers() {
+        def bookClass = ga.getDomainClass("UndescribedBook").clazz
+        def book = bookClass.newInstance(title: "The Stand")
+        assert book.save(flush: true)
+        book.title = "It"
+        book.save(flush: true)
+        session.clear()
+
+        assertEquals "It", bookClass.get(book.id).title
+        bookClass.get(book.id).delete(flush: true)
+        assertEquals 0, bookClass.count()
+    }
+}
@@ -476,6 +476,38 @@ class HibernateMappingBuilderTests extends GroovyTestCase {
     }
 
 
+    void testFinders() {
+        def builder = new HibernateMappingBuilder("Foo")
+        def mapping = builder.evaluate {
+            finders query:'hql', cache:true
+            finders findByIsbn:[cache:false], findAllByTitle:[cacheRegion:'books.title', query:'criteria']
+        }
+
+        assertEquals 'hql', mapping.finders.query
+        assertTrue mapping.finders.cache
+        assertNull mapping.finders.cacheRegion
+
+        def isbn = mapping.finders.getMethodConfig('findByIsbn')
+        assertEquals 'hql', isbn.query
+        assertFalse isbn.cache
+
+        def title = mapping.finders.getMethodConfig('findAllByTitle')
+        assertEquals 'criteria', title.query
+        assertTrue title.cache
+        assertEquals 'books.title', title.cacheRegion
+
+        assertSame mapping.finders, mapping.finders.getMethodConfig('countByTitle')
+    }
+
+    void testInvalidFinderQueryIsIgnored() {
+        def builder = new HibernateMappingBuilder("Foo")
+        def mapping = builder.evaluate {
+            finders query:'sql'
+        }
+
+        assertNull mapping.finders.query
+    }
+
      void testCustomCacheStrategy() {
          def builder = new HibernateMappingBuilder("Foo")
          def mapping = builder.evaluate {
@@ -0,0 +1,141 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+/**
+ * Tests that dynamic finders executed as HQL queries return the same results as the Criteria based ones
+ *
+ * @since 1.2
+ */
+class HqlDynamicFinderTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class HqlFinderBook {
+    Long id
+    Long version
+    String title
+    String publisher
+    Integer pages
+
+    static mapping = {
+        finders query:'hql'
+        finders findAllByPublisher:[cache:true, cacheRegion:'books.publisher']
+    }
+}
+class CriteriaFinderBook {
+    Long id
+    Long version
+    String title
+    String publisher
+    Integer pages
+}
+''')
+    }
+
+    protected void setUp() {
+        super.setUp()
+        for(name in ["HqlFinderBook", "CriteriaFinderBook"]) {
+            def bookClass = ga.getDomainClass(name).clazz
+            assert bookClass.newInstance(title: "Groovy in Action", publisher: "Manning", pages: 600).save()
+            assert bookClass.newInstance(title: "Grails in Action", publisher: "Manning", pages: 500).save()
+            assert bookClass.newInstance(title: "The Stand", publisher: "Doubleday", pages: 1152).save()
+            assert bookClass.newInstance(title: "it", publisher: null, pages: 1138).save()
+        }
+        session.flush()
+        session.clear()
+        sessionFactory.statistics.statisticsEnabled = true
+        sessionFactory.statistics.clear()
+    }
+
+    protected void onTearDown() {
+        sessionFactory.statistics.statisticsEnabled = false
+    }
+
+    private void assertSameResults(Closure finder) {
+        def hql = finder(ga.getDomainClass("HqlFinderBook").clazz)
+        def criteria = finder(ga.getDomainClass("CriteriaFinderBook").clazz)
+        if(hql instanceof List) {
+            assertEquals criteria*.title, hql*.title
+        }
+        else if(hql instanceof Number) {
+            assertEquals criteria, hql
+        }
+        else {
+            assertEquals criteria?.title, hql?.title
+        }
+    }
+
+    void testFindBy() {
+        assertSameResults { it.findByTitle("The Stand") }
+        assertSameResults { it.findByTitleAndPublisher("Groovy in Action", "Manning") }
+        assertSameResults { it.findByTitleOrPublisher("Nothing", "Doubleday") }
+        assertSameResults { it.findByPublisher("Manning", [sort: "pages"]) }
+        assertSameResults { it.findByPublisher("Manning", [sort: "pages", order: "desc"]) }
+        assertSameResults { it.findByPublisherIsNull() }
+        assertSameResults { it.findByPublisher(null) }
+        assertSameResults { it.findByTitle("Nothing") }
+    }
+
+    void testFindAllBy() {
+        assertSameResults { it.findAllByPublisher("Manning", [sort: "title"]) }
+        assertSameResults { it.findAllByPagesGreaterThan(550, [sort: "pages", order: "desc"]) }
+        assertSameResults { it.findAllByPagesBetween(500, 1138, [sort: "pages"]) }
+        assertSameResults { it.findAllByPagesLessThanEquals(600, [sort: "pages"]) }
+        assertSameResults { it.findAllByTitleLike("Gr%", [sort: "title"]) }
+        assertSameResults { it.findAllByTitleIlike("gr%", [sort: "title"]) }
+        assertSameResults { it.findAllByTitleNotEqual("The Stand", [sort: "title"]) }
+        assertSameResults { it.findAllByPublisherNotEqual(null, [sort: "title"]) }
+        assertSameResults { it.findAllByPublisherIsNotNull([sort: "title", ignoreCase: false]) }
+        assertSameResults { it.findAllByTitleInList(["The Stand", "it"], [sort: "title"]) }
+        assertSameResults { it.findAllByTitleNotLike("Gr%", [sort: "title"]) }
+        assertSameResults { it.findAllByTitleOrPages("it", 500, [sort: "pages"]) }
+    }
+
+    void testPagination() {
+        assertSameResults { it.findAllByPagesGreaterThan(0, [sort: "title", max: 2]) }
+        assertSameResults { it.findAllByPagesGreaterThan(0, [sort: "title", max: 2, offset: 1]) }
+        assertSameResults { it.findAllByPagesGreaterThan(0, [sort: "title", max: "2", offset: "2"]) }
+        assertSameResults { it.findAllByPagesGreaterThan(0, [sort: "title", order: "desc", ignoreCase: false]) }
+        assertSameResults { it.listOrderByTitle() }
+        assertSameResults { it.listOrderByTitle([max: 2, offset: 1, order: "desc"]) }
+        assertSameResults { it.listOrderByPages([max: 3]) }
+    }
+
+    void testCountBy() {
+        assertSameResults { it.countByPublisher("Manning") }
+        assertSameResults { it.countByPublisherOrPagesGreaterThan("Doubleday", 1000) }
+        assertSameResults { it.countByPublisherIsNull() }
+
+        assertEquals Integer, ga.getDomainClass("HqlFinderBook").clazz.countByPublisher("Manning").getClass()
+    }
+
+    void testFindersAreExecutedAsHql() {
+        def bookClass = ga.getDomainClass("HqlFinderBook").clazz
+        def statistics = sessionFactory.statistics
+
+        bookClass.findByTitle("The Stand")
+        bookClass.findAllByPublisher("Manning")
+        bookClass.countByPublisher("Manning")
+        bookClass.listOrderByTitle()
+        assertEquals 4, statistics.queryExecutionCount
+
+        ga.getDomainClass("CriteriaFinderBook").clazz.findByTitle("The Stand")
+        assertEquals 4, statistics.queryExecutionCount
+    }
+
+    void testFinderCacheSettings() {
+        def bookClass = ga.getDomainClass("HqlFinderBook").clazz
+        def statistics = sessionFactory.statistics
+
+        bookClass.findAllByPublisher("Manning")
+        assertEquals 1, statistics.queryCachePutCount
+
+        bookClass.findAllByTitle("The Stand")
+        assertEquals 1, statistics.queryCachePutCount
+
+        bookClass.findAllByPublisher("Doubleday", [cache: false])
+        assertEquals 1, statistics.queryCachePutCount
+
+        bookClass.findAllByTitle("Grails in Action", [cache: true])
+        assertEquals 2, statistics.queryCachePutCount
+    }
+}
@@ -0,0 +1,159 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+import org.codehaus.groovy.grails.orm.hibernate.support.KeysetCursor
+import grails.orm.PagedResultList
+
+/**
+ * Tests for keyset pagination with the "after" argument and the "keyset" criteria node
+ *
+ * @since 1.2
+ */
+class KeysetPaginationTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class KeysetBook {
+    Long id
+    Long version
+    String title
+    Integer pages
+    Date published
+}
+''')
+    }
+
+    protected void setUp() {
+        super.setUp()
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        def now = System.currentTimeMillis()
+        // pages are repeated so that the id has to break ties
+        (1..7).each { i ->
+            assert bookClass.newInstance(title: "Book $i", pages: (i % 3) * 100, published: new Date(now - i * 1000L)).save()
+        }
+        session.flush()
+        session.clear()
+    }
+
+    private List allPages(Closure nextPage) {
+        def titles = []
+        def cursor = null
+        def pages = 0
+        while(true) {
+            def page = nextPage(cursor)
+            assertTrue page instanceof PagedResultList
+            titles.addAll(page*.title)
+            pages++
+            cursor = page.nextCursor
+            if(cursor == null) break
+            assertTrue "too many pages", pages < 10
+        }
+        return titles
+    }
+
+    void testListAfterCursor() {
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        def expected = bookClass.list().sort { a, b -> a.pages <=> b.pages ?: a.id <=> b.id }*.title
+
+        assertEquals expected, allPages { cursor -> bookClass.list(sort: "pages", max: 3, after: cursor) }
+        assertEquals expected.reverse(), allPages { cursor -> bookClass.list(sort: "pages", order: "desc", max: 3, after: cursor) }
+        assertEquals bookClass.list(sort: "id")*.title, allPages { cursor -> bookClass.list(max: 2, after: cursor) }
+    }
+
+    void testListAfterKeyValues() {
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        def first = bookClass.list(sort: "pages", max: 2, after: null)
+        assertEquals 2, first.size()
+        assertNotNull first.nextCursor
+
+        def last = first[-1]
+        def byValues = bookClass.list(sort: "pages", max: 2, after: [last.pages, last.id])
+        def byCursor = bookClass.list(sort: "pages", max: 2, after: first.nextCursor)
+        assertEquals byCursor*.title, byValues*.title
+        assertFalse byValues*.id.any { it in first*.id }
+
+        byValues = bookClass.list(sort: "pages", max: 2, after: [last.pages.toString(), last.id.toString()])
+        assertEquals byCursor*.title, byValues*.title
+    }
+
+    void testDateSortKeys() {
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        def expected = bookClass.list().sort { it.published }*.title
+
+        assertEquals expected, allPages { cursor -> bookClass.list(sort: "published", max: 3, after: cursor) }
+    }
+
+    void testFindAllByAfterCursor() {
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        def expected = bookClass.findAllByPagesGreaterThan(0).sort { a, b -> a.pages <=> b.pages ?: a.id <=> b.id }*.title
+
+        assertEquals expected, allPages { cursor -> bookClass.findAllByPagesGreaterThan(0, [sort: "pages", max: 2, after: cursor]) }
+    }
+
+    void testCriteriaKeysetNode() {
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        def expected = bookClass.list().findAll { it.pages > 0 }.sort { a, b -> b.pages <=> a.pages ?: b.id <=> a.id }*.title
+
+        assertEquals expected, allPages { cursor ->
+            bookClass.createCriteria().list {
+                gt "pages", 0
+                keyset "pages", "desc", cursor
+                maxResults 2
+            }
+        }
+
+        def page = bookClass.createCriteria().list(max: 2) {
+            gt "pages", 0
+            keyset "pages", "desc", null
+        }
+        assertEquals PagedResultList.UNKNOWN_TOTAL_COUNT, page.totalCount
+        assertEquals expected[0..1], page*.title
+        assertEquals expected[2..3], bookClass.createCriteria().list(max: 2) {
+            gt "pages", 0
+            keyset "pages", "desc", page.nextCursor
+        }*.title
+    }
+
+    void testCriteriaListAfterHasNoTotalCount() {
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        def expected = bookClass.list().sort { a, b -> a.pages <=> b.pages ?: a.id <=> b.id }*.title
+
+        sessionFactory.statistics.statisticsEnabled = true
+        try {
+            sessionFactory.statistics.clear()
+            def page = bookClass.createCriteria().list(max: 2, sort: "pages", after: null) {}
+            assertEquals expected[0..1], page*.title
+            assertEquals PagedResultList.UNKNOWN_TOTAL_COUNT, page.totalCount
+            assertEquals "no count query should be run", 1, sessionFactory.statistics.prepareStatementCount
+            assertEquals expected[2..3], bookClass.createCriteria().list(max: 2, sort: "pages", after: page.nextCursor) {}*.title
+        }
+        finally {
+            sessionFactory.statistics.statisticsEnabled = false
+        }
+    }
+
+    void testCursorEncoding() {
+        def date = new java.sql.Timestamp(1234567890123L)
+        date.nanos = 123456789
+        def values = KeysetCursor.decode(KeysetCursor.encode([null, "a:b,c", 42L, date] as Object[]))
+
+        assertNull values[0]
+        assertEquals "a:b,c", values[1]
+        assertEquals "42", values[2]
+        assertEquals date, values[3]
+        assertTrue KeysetCursor.encode(["with spaces/and+signs"] as Object[]) ==~ /[A-Za-z0-9_-]+/
+
+        shouldFail(IllegalArgumentException) {
+            KeysetCursor.decode("not a cursor")
+        }
+    }
+
+    void testInvalidCursors() {
+        def bookClass = ga.getDomainClass("KeysetBook").clazz
+        shouldFail(IllegalArgumentException) {
+            bookClass.list(sort: "pages", max: 2, after: [100])
+        }
+        shouldFail(IllegalArgumentException) {
+            bookClass.list(sort: "pages", max: 2, after: [null, 1L])
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.codehaus.groovy.grails.orm.hibernate
+
+import grails.orm.PagedResultList
+import grails.orm.TotalCountStrategy
+import org.hibernate.Criteria
+
+/**
+ * Tests the totalCount options of paginated criteria queries
+ *
+ * @since 1.2
+ */
+class PagedResultListTotalCountTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class TotalCountBook {
+    Long id
+    Long version
+    String title
+    Integer pages
+}
+''')
+    }
+
+    protected void setUp() {
+        super.setUp()
+        def bookClass = ga.getDomainClass("TotalCountBook").clazz
+        25.times { assert bookClass.newInstance(title: "Book $it", pages: it).save() }
+        session.flush()
+        session.clear()
+        sessionFactory.statistics.statisticsEnabled = true
+        sessionFactory.statistics.clear()
+    }
+
+    protected void onTearDown() {
+        sessionFactory.statistics.statisticsEnabled = false
+    }
+
+    void testExactCountIsLazy() {
+        def statistics = sessionFactory.statistics
+        def results = ga.getDomainClass("TotalCountBook").clazz.createCriteria().list(max: 10, offset: 5, sort: "pages") {
+            like("title", "Book%")
+        }
+        assertEquals 10, results.size()
+        assertEquals 5, results[0].pages
+        assertEquals 1, statistics.prepareStatementCount
+
+        assertEquals 25, results.totalCount
+        assertEquals 25, results.totalCount
+        assertEquals 2, statistics.prepareStatementCount
+    }
+
+    void testNoCount() {
+        def results = ga.getDomainClass("TotalCountBook").clazz.createCriteria().list(max: 10, totalCount: "none") {
+            like("title", "Book%")
+        }
+        assertEquals 10, results.size()
+        assertEquals PagedResultList.UNKNOWN_TOTAL_COUNT, results.totalCount
+        assertEquals 1, sessionFactory.statistics.prepareStatementCount
+    }
+
+    void testCachedCount() {
+        def bookClass = ga.getDomainClass("TotalCountBook").clazz
+        def statistics = sessionFactory.statistics
+        def query = { lt("pages", 20) }
+
+        assertEquals 20, bookClass.createCriteria().list(max: 10, totalCount: "cached", query).totalCount
+        assertEquals 2, statistics.prepareStatementCount
+
+        bookClass.newInstance(title: "Another book", pages: 1).save(flush: true)
+        statistics.clear()
+        def results = bookClass.createCriteria().list(max: 10, offset: 10, totalCount: "cached", query)
+        assertEquals 20, results.totalCount
+        assertEquals 1, statistics.prepareStatementCount
+
+        results = bookClass.createCriteria().list(max: 10, totalCount: "cached") { lt("pages", 10) }
+        assertEquals 11, results.totalCount
+    }
+
+    void testEstimatedCount() {
+        def bookClass = ga.getDomainClass("TotalCountBook").clazz
+        def strategy = { Class targetClass, Criteria criteria ->
+            assertEquals bookClass, targetClass
+            1000
+        }
+        def results = bookClass.createCriteria().list(max: 10, totalCount: "estimated", countStrategy: strategy) {
+            like("title", "Book%")
+        }
+        assertEquals 1000, results.totalCount
+        assertEquals 1, sessionFactory.statistics.prepareStatementCount
+
+        results = bookClass.createCriteria().list(max: 10, totalCount: "estimated", countStrategy: { c, criteria -> criteria.list().size() * 2 } as TotalCountStrategy) {
+            like("title", "Book 1%")
+        }
+        assertEquals 22, results.totalCount
+    }
+
+    void testInvalidOption() {
+        shouldFail(IllegalArgumentException) {
+            ga.getDomainClass("TotalCountBook").clazz.createCriteria().list(max: 10, totalCount: "sometimes") {
+                like("title", "Book%")
+            }
+        }
+    }
+
+    void testTotalCountIsSerialized() {
+        def results = new PagedResultList(["one", "two"], { 42 } as PagedResultList.TotalCountSource)
+        def out = new ByteArrayOutputStream()
+        new ObjectOutputStream(out).writeObject(results)
+        def copy = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray())).readObject()
+        assertEquals(["one", "two"], copy.list)
+        assertEquals 42, copy.totalCount
+    }
+}
@@ -0,0 +1,123 @@
+package org.codehaus.groovy.grails.orm.hibernate.validation
+
+import org.codehaus.groovy.grails.orm.hibernate.AbstractGrailsHibernateTests
+import org.springframework.transaction.support.TransactionSynchronizationManager
+
+/**
+ * Tests that instances are only validated at flush time when they have changed since they were last validated and
+ * then only against the constraints of the changed properties
+ *
+ * @since 1.2
+ */
+class FlushValidationTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class FlushValidationBook {
+    Long id
+    Long version
+    String title
+    String isbn
+    Integer pages = 1
+    Integer maxPages = 10
+
+    static constraints = {
+        title blank:false
+        isbn unique:true
+        pages validator: { val, obj -> val <= obj.maxPages }
+    }
+}
+''')
+    }
+
+    protected void setUp() {
+        super.setUp()
+        def bookClass = ga.getDomainClass("FlushValidationBook").clazz
+        assert bookClass.newInstance(title: "The Stand", isbn: "1").save()
+        assert bookClass.newInstance(title: "It", isbn: "2").save(flush: true)
+        session.clear()
+        sessionFactory.statistics.statisticsEnabled = true
+        sessionFactory.statistics.clear()
+    }
+
+    protected void onTearDown() {
+        sessionFactory.statistics.statisticsEnabled = false
+    }
+
+    void testSavedInstancesAreNotValidatedAgain() {
+        def book = ga.getDomainClass("FlushValidationBook").clazz.findByIsbn("1")
+        book.title = "Carrie"
+        assert book.save()
+
+        def statistics = sessionFactory.statistics
+        statistics.clear()
+        session.flush()
+
+        // only the update, the unique query isn't repeated
+        assertEquals 1, statistics.prepareStatementCount
+        session.clear()
+        assertEquals "Carrie", ga.getDomainClass("FlushValidationBook").clazz.findByIsbn("1").title
+    }
+
+    void testOnlyChangedPropertiesAreValidated() {
+        def book = ga.getDomainClass("FlushValidationBook").clazz.findByIsbn("1")
+        book.title = "Carrie"
+
+        def statistics = sessionFactory.statistics
+        statistics.clear()
+        session.flush()
+
+        assertEquals 1, statistics.prepareStatementCount
+        session.clear()
+        assertEquals "Carrie", ga.getDomainClass("FlushValidationBook").clazz.findByIsbn("1").title
+    }
+
+    void testInvalidChangesAreNotFlushed() {
+        def bookClass = ga.getDomainClass("FlushValidationBook").clazz
+        def book = bookClass.findByIsbn("1")
+        book.title = ""
+        session.flush()
+        assertTrue book.errors.hasFieldErrors("title")
+        session.clear()
+        assertEquals "The Stand", bookClass.findByIsbn("1").title
+
+        book = bookClass.findByIsbn("1")
+        book.isbn = "2"
+        session.flush()
+        assertTrue book.errors.hasFieldErrors("isbn")
+        session.clear()
+        assertEquals "The Stand", bookClass.findByIsbn("1").title
+    }
+
+    void testCustomValidatorsAreAlwaysValidated() {
+        def bookClass = ga.getDomainClass("FlushValidationBook").clazz
+        def book = bookClass.findByIsbn("1")
+        assert book.validate()
+        book.maxPages = 0
+        session.flush()
+
+        assertTrue book.errors.hasFieldErrors("pages")
+        session.clear()
+        assertEquals 10, bookClass.findByIsbn("1").maxPages
+    }
+
+    void testNothingIsRecordedWithoutBoundSession() {
+        def book = ga.getDomainClass("FlushValidationBook").clazz.findByIsbn("1")
+        def statistics = sessionFactory.statistics
+        statistics.clear()
+
+        def holder = TransactionSynchronizationManager.unbindResource(sessionFactory)
+        try {
+            ValidatedEntityStates.recordValidatedState(book, sessionFactory)
+        }
+        finally {
+            TransactionSynchronizationManager.bindResource(sessionFactory, holder)
+        }
+        assertEquals 0, statistics.sessionOpenCount
+
+        // the instance was never recorded, so its changes are validated at flush time
+        book.title = ""
+        session.flush()
+        assertTrue book.errors.hasFieldErrors("title")
+    }
+}
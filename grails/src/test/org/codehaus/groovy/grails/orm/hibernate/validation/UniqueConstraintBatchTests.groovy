@@ -0,0 +1,130 @@
+package org.codehaus.groovy.grails.orm.hibernate.validation
+
+import org.codehaus.groovy.grails.orm.hibernate.AbstractGrailsHibernateTests
+
+/**
+ * Tests that unique constraints can be checked for many instances with one query
+ *
+ * @since 1.2
+ */
+class UniqueConstraintBatchTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+class UniqueBatchShelf {
+    Long id
+    Long version
+    String name
+
+    static hasMany = [books:UniqueBatchBook]
+}
+class UniqueBatchBook {
+    Long id
+    Long version
+    String isbn
+    String title
+    String edition
+
+    static belongsTo = [shelf:UniqueBatchShelf]
+    static constraints = {
+        isbn unique:true, nullable:true
+        title unique:'edition'
+        edition nullable:true
+        shelf nullable:true
+    }
+}
+''')
+    }
+
+    protected void setUp() {
+        super.setUp()
+        def bookClass = ga.getDomainClass("UniqueBatchBook").clazz
+        assert bookClass.newInstance(isbn: "1", title: "The Stand", edition: "first").save()
+        assert bookClass.newInstance(isbn: "2", title: "It", edition: "first").save(flush: true)
+        sessionFactory.statistics.statisticsEnabled = true
+        sessionFactory.statistics.clear()
+    }
+
+    protected void onTearDown() {
+        sessionFactory.statistics.statisticsEnabled = false
+    }
+
+    void testSingleCheck() {
+        def bookClass = ga.getDomainClass("UniqueBatchBook").clazz
+        def existing = bookClass.findByIsbn("1")
+        assertTrue existing.validate()
+
+        assertFalse bookClass.newInstance(isbn: "1", title: "Carrie").validate()
+        assertTrue bookClass.newInstance(isbn: "3", title: "Carrie").validate()
+    }
+
+    void testCheckAll() {
+        def bookClass = ga.getDomainClass("UniqueBatchBook").clazz
+        def books = [bookClass.newInstance(isbn: "1", title: "Carrie", edition: "first"),
+                     bookClass.newInstance(isbn: "3", title: "The Stand", edition: "second"),
+                     bookClass.newInstance(isbn: "3", title: "It", edition: "first"),
+                     bookClass.newInstance(isbn: "4", title: "Misery", edition: null),
+                     bookClass.newInstance(isbn: null, title: "Misery", edition: null)]
+
+        def statistics = sessionFactory.statistics
+        UniqueConstraint.checkAll(ga.getDomainClass("UniqueBatchBook").constrainedProperties, books)
+        try {
+            assertEquals 2, statistics.prepareStatementCount
+
+            assertEquals([false, true, false, true, true], books*.validate())
+            assertEquals 2, statistics.prepareStatementCount
+
+            assertTrue books[0].errors.hasFieldErrors("isbn")
+            assertTrue books[2].errors.hasFieldErrors("isbn")
+            assertTrue books[2].errors.hasFieldErrors("title")
+            assertFalse books[1].errors.hasFieldErrors("title")
+        }
+        finally {
+            UniqueConstraint.releaseCheckedResults(books)
+        }
+    }
+
+    void testChangedValuesAreCheckedAgain() {
+        def bookClass = ga.getDomainClass("UniqueBatchBook").clazz
+        def books = [bookClass.newInstance(isbn: "3", title: "Carrie"), bookClass.newInstance(isbn: "4", title: "Misery")]
+
+        UniqueConstraint.checkAll(ga.getDomainClass("UniqueBatchBook").constrainedProperties, books)
+        try {
+            books[1].isbn = "2"
+            assertTrue books[0].validate()
+            assertFalse books[1].validate()
+        }
+        finally {
+            UniqueConstraint.releaseCheckedResults(books)
+        }
+    }
+
+    void testChangedScopeIsCheckedAgain() {
+        def bookClass = ga.getDomainClass("UniqueBatchBook").clazz
+        def books = [bookClass.newInstance(isbn: "3", title: "The Stand", edition: "second"),
+                     bookClass.newInstance(isbn: "4", title: "It", edition: "second")]
+
+        UniqueConstraint.checkAll(ga.getDomainClass("UniqueBatchBook").constrainedProperties, books)
+        try {
+            books[1].edition = "first"
+            assertTrue books[0].validate()
+            assertFalse books[1].validate()
+            assertTrue books[1].errors.hasFieldErrors("title")
+        }
+        finally {
+            UniqueConstraint.releaseCheckedResults(books)
+        }
+    }
+
+    void testCascadingToCollection() {
+        def shelf = ga.getDomainClass("UniqueBatchShelf").clazz.newInstance(name: "Horror")
+        def bookClass = ga.getDomainClass("UniqueBatchBook").clazz
+        ["1", "3", "4", "5"].each { shelf.addToBooks(bookClass.newInstance(isbn: it, title: "Book $it")) }
+
+        def statistics = sessionFactory.statistics
+        assertFalse shelf.validate()
+        // the titles have no edition to be scoped by, so only the isbns are queried
+        assertEquals 1, statistics.prepareStatementCount
+        assertTrue shelf.errors.hasFieldErrors("books.isbn")
+    }
+}
@@ -21,6 +21,13 @@ class CodecsGrailsPluginTests extends AbstractGrailsPluginTests {
 				   static def encode = { str -> \"found second encode method for string: \${str}\" }
 				}
 				""")
+		gcl.parseClass(
+				"""
+				class StreamingCodec {
+				   static encode(Object str) { "encoded \${str}" }
+				   static void encode(Object str, Writer out) { out.write("streamed \${str}") }
+				}
+				""")
 		gcl.parseClass(
 				"""
 				class ThirdCodec {
@@ -59,6 +66,17 @@ class CodecsGrailsPluginTests extends AbstractGrailsPluginTests {
 	}
 
 
+    void testEncodeIntoWriter() {
+        def out = new StringWriter()
+        'some string'.encodeAsStreaming(out)
+        'other string'.encodeAsStreaming(out)
+        assertEquals 'streamed some stringstreamed other string', out.toString()
+
+        out = new StringWriter()
+        'some string'.encodeAsSecond(out)
+        assertEquals 'found second encode method for string: some string', out.toString()
+    }
+
     void testEncodeDecodeAsBase64() {
          assertEquals "dGVzdA==", "test".bytes.encodeAsBase64()
          assertEquals "dGVzdA==", "test".encodeAsBase64()
@@ -15,6 +15,30 @@ class HTMLCodecTests extends GroovyTestCase{
         assertEquals('&lt;tag&gt;', codec.encode('<tag>'))
         assertEquals('&quot;quoted&quot;', codec.encode('"quoted"'))
 	}
+
+    void testEncodeReturnsSameInstanceWhenNothingToEscape() {
+        def plain = 'nothing to escape here'
+        assertSame(plain, codec.encode(plain))
+        assertNull(codec.encode(null))
+    }
+
+    void testEncodeToWriter() {
+        def writer = new StringWriter()
+        codec.encode('Coheed & Cambria <b>"live"</b> caf\u00e9', writer)
+        assertEquals('Coheed &amp; Cambria &lt;b&gt;&quot;live&quot;&lt;/b&gt; caf&eacute;', writer.toString())
+
+        writer = new StringWriter()
+        codec.encode(null, writer)
+        codec.encode('plain', writer)
+        assertEquals('plain', writer.toString())
+    }
+
+    void testEncodeToStreamCharBuffer() {
+        def buffer = new org.codehaus.groovy.grails.web.util.StreamCharBuffer()
+        codec.encode('<tag>', buffer.writer)
+        assertEquals('&lt;tag&gt;', buffer.toString())
+    }
+
 	void testDecode() {
         assertEquals('<tag>', codec.decode('&lt;tag&gt;'))
         assertEquals('"quoted"', codec.decode('&quot;quoted&quot;'))
@@ -0,0 +1,127 @@
+package org.codehaus.groovy.grails.web.converters
+
+import org.codehaus.groovy.grails.orm.hibernate.AbstractGrailsHibernateTests
+import org.codehaus.groovy.grails.web.converters.configuration.ConvertersConfigurationInitializer
+import org.hibernate.Hibernate
+import org.hibernate.HibernateException
+import org.hibernate.SessionFactory
+import grails.converters.JSON
+
+/**
+ * Tests for the AssociationPrefetcher class
+ *
+ * @since 1.2
+ */
+class AssociationPrefetcherTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+import grails.persistence.*
+
+@Entity
+class PrefetchAuthor {
+    String name
+    static hasMany = [books:PrefetchBook]
+}
+
+@Entity
+class PrefetchBook {
+    String title
+    PrefetchPublisher publisher
+    static belongsTo = [author:PrefetchAuthor]
+}
+
+@Entity
+class PrefetchPublisher {
+    String name
+}
+''')
+    }
+
+    void testCollectionsAndProxiesArePrefetched() {
+        createAuthors()
+
+        def authors = ga.getDomainClass("PrefetchAuthor").clazz.list()
+        authors.each { assertFalse Hibernate.isInitialized(it.books) }
+
+        def prefetcher = new AssociationPrefetcher(sessionFactory:sessionFactory, depth:2)
+        prefetcher.prefetch(authors)
+
+        authors.each { author ->
+            assertTrue Hibernate.isInitialized(author.books)
+            assertEquals 2, author.books.size()
+            author.books.each { book ->
+                assertTrue Hibernate.isInitialized(book.publisher)
+            }
+        }
+    }
+
+    void testDepthLimitsPrefetching() {
+        createAuthors()
+
+        def authors = ga.getDomainClass("PrefetchAuthor").clazz.list()
+
+        new AssociationPrefetcher(sessionFactory:sessionFactory, depth:1).prefetch(authors)
+
+        authors.each { author ->
+            assertTrue Hibernate.isInitialized(author.books)
+            author.books.each { book ->
+                assertFalse Hibernate.isInitialized(book.publisher)
+            }
+        }
+    }
+
+    void testPrefetchFailuresPropagate() {
+        createAuthors()
+
+        def authors = ga.getDomainClass("PrefetchAuthor").clazz.list()
+        def failingSessionFactory = [getCurrentSession: { sessionFactory.currentSession },
+                                     getClassMetadata: { name -> throw new HibernateException("No metadata for $name") }] as SessionFactory
+
+        shouldFail(HibernateException) {
+            new AssociationPrefetcher(sessionFactory:failingSessionFactory, depth:2).prefetch(authors)
+        }
+    }
+
+    void testDeepJSONRendersPrefetchedAssociations() {
+        new ConvertersConfigurationInitializer(applicationContext:appCtx).initialize()
+        createAuthors()
+
+        def authors = ga.getDomainClass("PrefetchAuthor").clazz.list()
+        def statistics = sessionFactory.statistics
+        statistics.statisticsEnabled = true
+        statistics.clear()
+        def rendered
+        try {
+            rendered = new grails.converters.deep.JSON(authors).toString()
+            // one fetch join for the books of all authors and one query for their publishers
+            assertEquals 2, statistics.prepareStatementCount
+        }
+        finally {
+            statistics.statisticsEnabled = false
+        }
+
+        def json = JSON.parse(rendered)
+        assertEquals 3, json.size()
+        json.each { author ->
+            assertEquals 2, author.books.size()
+            author.books.each { book -> assertNotNull book.publisher.name }
+        }
+    }
+
+    private void createAuthors() {
+        def Author = ga.getDomainClass("PrefetchAuthor").clazz
+        def Book = ga.getDomainClass("PrefetchBook").clazz
+        def Publisher = ga.getDomainClass("PrefetchPublisher").clazz
+
+        def publishers = (1..2).collect { Publisher.newInstance(name:"Publisher $it").save(flush:true) }
+        (1..3).each { i ->
+            def author = Author.newInstance(name:"Author $i")
+            (1..2).each { j ->
+                author.addToBooks(Book.newInstance(title:"Book $i.$j", publisher:publishers[j - 1]))
+            }
+            assertNotNull author.save(flush:true)
+        }
+        session.clear()
+    }
+}
@@ -0,0 +1,89 @@
+package org.codehaus.groovy.grails.web.converters
+
+import grails.converters.JSON
+import grails.converters.XML
+import grails.util.GrailsConfig
+import grails.util.GrailsWebUtil
+import org.codehaus.groovy.grails.commons.ConfigurationHolder
+import org.codehaus.groovy.grails.web.servlet.mvc.AbstractGrailsControllerTests
+
+/**
+ * Tests the ETag support of converters rendering to a response
+ *
+ * @since 1.2
+ */
+class ConverterETagTests extends AbstractGrailsControllerTests {
+
+    void onSetUp() {
+        ConfigurationHolder.setConfig(new ConfigSlurper().parse("grails.converters.etag = true"))
+        resetGrailsConfig()
+    }
+
+    void tearDown() {
+        super.tearDown()
+        ConfigurationHolder.setConfig(null)
+        resetGrailsConfig()
+    }
+
+    void testUnchangedOutputSendsNotModified() {
+        def first = renderJSON([title:"The Stand"], null)
+        def etag = first.getHeader("ETag")
+        assertNotNull etag
+        assertEquals 200, first.status
+        assertEquals '{"title":"The Stand"}', first.contentAsString
+
+        def second = renderJSON([title:"The Stand"], etag)
+        assertEquals 304, second.status
+        assertEquals etag, second.getHeader("ETag")
+        assertEquals "", second.contentAsString
+    }
+
+    void testChangedOutputIsRendered() {
+        def etag = renderJSON([title:"The Stand"], null).getHeader("ETag")
+
+        def second = renderJSON([title:"The Shining"], etag)
+        assertEquals 200, second.status
+        assertFalse etag == second.getHeader("ETag")
+        assertEquals '{"title":"The Shining"}', second.contentAsString
+    }
+
+    void testXMLSendsNotModifiedForUnchangedOutput() {
+        def first = renderXML(["The Stand"], null)
+        def etag = first.getHeader("ETag")
+        assertNotNull etag
+
+        assertEquals 304, renderXML(["The Stand"], etag).status
+        assertEquals 200, renderXML(["The Shining"], etag).status
+    }
+
+    void testStreamedIteratorsGetNoETag() {
+        def response = render(new JSON(["The Stand"].iterator()), '"abc"')
+        assertNull response.getHeader("ETag")
+        assertEquals '["The Stand"]', response.contentAsString
+    }
+
+    private renderJSON(target, String ifNoneMatch) {
+        render(new JSON(target), ifNoneMatch)
+    }
+
+    private renderXML(target, String ifNoneMatch) {
+        render(new XML(target), ifNoneMatch)
+    }
+
+    private render(converter, String ifNoneMatch) {
+        def webRequest = GrailsWebUtil.bindMockWebRequest(appCtx)
+        webRequest.currentRequest.method = "GET"
+        if(ifNoneMatch) webRequest.currentRequest.addHeader("If-None-Match", ifNoneMatch)
+        converter.render(webRequest.currentResponse)
+        return webRequest.currentResponse
+    }
+
+    private void resetGrailsConfig() {
+        // GrailsConfig keeps the configuration it first read
+        ["flatConfig", "config"].each {
+            def field = GrailsConfig.getDeclaredField(it)
+            field.accessible = true
+            field.set(null, null)
+        }
+    }
+}
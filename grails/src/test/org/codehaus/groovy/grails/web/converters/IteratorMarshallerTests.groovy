@@ -0,0 +1,79 @@
+package org.codehaus.groovy.grails.web.converters
+
+import grails.converters.JSON
+import org.codehaus.groovy.grails.orm.hibernate.AbstractGrailsHibernateTests
+import org.codehaus.groovy.grails.web.converters.configuration.ConvertersConfigurationInitializer
+import org.codehaus.groovy.grails.web.converters.marshaller.json.IteratorMarshaller
+
+/**
+ * Tests for the eviction of rendered entities by the json IteratorMarshaller
+ *
+ * @since 1.2
+ */
+class IteratorMarshallerTests extends AbstractGrailsHibernateTests {
+
+    protected void onSetUp() {
+        gcl.parseClass('''
+import grails.persistence.*
+
+@Entity
+class StreamedBook {
+    String title
+}
+''')
+    }
+
+    protected void onTearDown() {
+        sessionFactory.statistics.statisticsEnabled = false
+    }
+
+    private Class createBooks() {
+        new ConvertersConfigurationInitializer().initialize()
+        JSON.createNamedConfig("streaming") {
+            it.registerObjectMarshaller(new IteratorMarshaller(chunkSize:2, sessionFactory:sessionFactory), 100)
+        }
+
+        def bookClass = ga.getDomainClass("StreamedBook").clazz
+        (1..5).each { bookClass.newInstance(title:"Book $it").save(flush:true) }
+        session.clear()
+        sessionFactory.statistics.statisticsEnabled = true
+        return bookClass
+    }
+
+    private String render(Object target) {
+        JSON.use("streaming") { new JSON(target).toString() }
+    }
+
+    void testScrollableResultsAreEvicted() {
+        def bookClass = createBooks()
+
+        def results = bookClass.createCriteria().scroll { order("title") }
+        def json = JSON.parse(render(results))
+
+        assertEquals((1..5).collect { "Book $it" }, json*.title)
+        assertEquals 0, session.statistics.entityCount
+    }
+
+    void testModifiedEntityIsNotEvicted() {
+        def bookClass = createBooks()
+        def book = bookClass.findByTitle("Book 3")
+        book.title = "Changed"
+
+        def results = bookClass.createCriteria().scroll { order("id") }
+        render(results)
+
+        assertTrue "the modified entity should still be in the session", session.contains(book)
+        assertEquals 1, session.statistics.entityCount
+        session.flush()
+        session.clear()
+        assertNotNull bookClass.findByTitle("Changed")
+    }
+
+    void testIteratorElementsAreNotEvicted() {
+        def bookClass = createBooks()
+        def books = bookClass.list()
+
+        assertEquals 5, JSON.parse(render(books.iterator())).size()
+        assertTrue books.every { session.contains(it) }
+    }
+}
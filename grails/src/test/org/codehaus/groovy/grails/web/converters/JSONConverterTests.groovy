@@ -12,6 +12,7 @@
 package org.codehaus.groovy.grails.web.converters
 
 import org.codehaus.groovy.grails.web.servlet.mvc.AbstractGrailsControllerTests
+import org.codehaus.groovy.grails.web.converters.marshaller.DomainClassMarshallingPlan
 
 import org.springframework.core.JdkVersion
 import org.springframework.validation.Errors
@@ -71,6 +72,27 @@ class JSONConverterTests extends AbstractGrailsControllerTests {
             assertEquals( '''{"class":"Book","id":null,"author":"Stephen King","title":"The Stand"}''', response.contentAsString)
         }
 
+        void testDomainClassListWithJSONConverter() {
+            def bookClass = ga.getDomainClass("Book").clazz
+            def books = [bookClass.newInstance(title:"The Stand", author:"Stephen King"),
+                         bookClass.newInstance(title:"It", author:"Stephen King")]
+
+            DomainClassMarshallingPlan.clearPlans()
+            long created = DomainClassMarshallingPlan.getCreationCount()
+            assertEquals( '''[{"class":"Book","id":null,"author":"Stephen King","title":"The Stand"},{"class":"Book","id":null,"author":"Stephen King","title":"It"}]''', new JSON(books).toString())
+            assertEquals( '''{"class":"Book","id":null,"author":"Stephen King","title":"It"}''', new JSON(books[1]).toString())
+            assertEquals "the plan should have been built once and reused", 1, DomainClassMarshallingPlan.getCreationCount() - created
+        }
+
+        void testIteratorWithJSONConverter() {
+            def bookClass = ga.getDomainClass("Book").clazz
+            def books = [bookClass.newInstance(title:"The Stand", author:"Stephen King"),
+                         bookClass.newInstance(title:"It", author:"Stephen King")]
+
+            assertEquals( new JSON(books).toString(), new JSON(books.iterator()).toString())
+            assertEquals( '[]', new JSON([].iterator()).toString())
+        }
+
         void testJSONEnumConverting() {
             if (JdkVersion.isAtLeastJava15()) {
                 def enumClass = ga.classLoader.loadClass("Role")
@@ -0,0 +1,64 @@
+package org.codehaus.groovy.grails.web.converters;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the ReferenceStack class
+ *
+ * @since 1.2
+ */
+public class ReferenceStackTests extends TestCase {
+
+    public void testObjectsAreComparedByIdentity() {
+        ReferenceStack stack = new ReferenceStack();
+        Object first = new EqualsEverything();
+        Object second = new EqualsEverything();
+
+        stack.push(first);
+
+        assertTrue(stack.contains(first));
+        assertFalse(stack.contains(second));
+        assertEquals(-1, stack.indexOf(second));
+    }
+
+    public void testIndexOfAndPop() {
+        ReferenceStack stack = new ReferenceStack();
+        Object author = new EqualsEverything();
+        Object book = new EqualsEverything();
+        stack.push(author);
+        stack.push(book);
+
+        assertEquals(2, stack.size());
+        assertEquals(0, stack.indexOf(author));
+        assertEquals(1, stack.indexOf(book));
+
+        assertSame(book, stack.pop());
+        assertFalse(stack.contains(book));
+        assertTrue(stack.contains(author));
+        assertEquals(1, stack.size());
+    }
+
+    public void testUsableAsStack() {
+        java.util.Stack<Object> stack = new ReferenceStack();
+        Object book = new EqualsEverything();
+        stack.push(book);
+
+        assertSame(book, stack.peek());
+        assertTrue(stack.contains(book));
+
+        stack.clear();
+        assertTrue(stack.empty());
+        assertFalse(stack.contains(book));
+        assertEquals(-1, stack.indexOf(book));
+    }
+
+    private static class EqualsEverything {
+        public boolean equals(Object o) {
+            throw new AssertionError("equals() should not be called");
+        }
+
+        public int hashCode() {
+            throw new AssertionError("hashCode() should not be called");
+        }
+    }
+}
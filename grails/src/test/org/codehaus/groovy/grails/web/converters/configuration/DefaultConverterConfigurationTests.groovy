@@ -0,0 +1,132 @@
+package org.codehaus.groovy.grails.web.converters.configuration
+
+import grails.converters.JSON
+import org.codehaus.groovy.grails.web.converters.marshaller.ClassBasedMarshaller
+import org.codehaus.groovy.grails.web.converters.marshaller.ObjectMarshaller
+import org.codehaus.groovy.grails.web.converters.marshaller.json.InstanceMethodBasedMarshaller
+
+/**
+ * Tests for the marshaller resolution of DefaultConverterConfiguration
+ *
+ * @since 1.2
+ */
+class DefaultConverterConfigurationTests extends GroovyTestCase {
+
+    void testMarshallerIsResolvedOncePerClass() {
+        def strings = new CountingMarshaller(type:String)
+        def cfg = new DefaultConverterConfiguration<JSON>([strings, new CountingMarshaller(type:Object)])
+
+        assertSame strings, cfg.getMarshaller("one")
+        assertSame strings, cfg.getMarshaller("two")
+        assertSame strings, cfg.getMarshaller("three")
+        assertEquals 1, strings.supportsCalls
+    }
+
+    void testRegisteringMarshallerInvalidatesResolution() {
+        def objects = new CountingMarshaller(type:Object)
+        def cfg = new DefaultConverterConfiguration<JSON>([objects])
+        assertSame objects, cfg.getMarshaller("one")
+
+        def strings = new CountingMarshaller(type:String)
+        cfg.registerObjectMarshaller(strings)
+
+        assertSame strings, cfg.getMarshaller("one")
+        assertSame objects, cfg.getMarshaller(1)
+    }
+
+    void testRegisteringMarshallerOnDelegateInvalidatesResolution() {
+        def objects = new CountingMarshaller(type:Object)
+        def parent = new DefaultConverterConfiguration<JSON>([objects])
+        def cfg = new DefaultConverterConfiguration<JSON>(parent)
+        assertSame objects, cfg.getMarshaller("one")
+
+        def strings = new CountingMarshaller(type:String)
+        parent.registerObjectMarshaller(strings)
+
+        assertSame strings, cfg.getMarshaller("one")
+    }
+
+    void testMarshallerWithoutClassBasedMarkerIsAskedEveryTime() {
+        def empty = new EmptyStringMarshaller()
+        def strings = new CountingMarshaller(type:String)
+        def cfg = new DefaultConverterConfiguration<JSON>([empty, strings])
+
+        assertSame strings, cfg.getMarshaller("one")
+        assertSame empty, cfg.getMarshaller("")
+        assertSame strings, cfg.getMarshaller("two")
+        assertEquals 3, empty.supportsCalls
+        assertEquals 1, strings.supportsCalls
+    }
+
+    void testDelegateIsAskedForUnsupportedObjects() {
+        def strings = new CountingMarshaller(type:String)
+        def numbers = new CountingMarshaller(type:Number)
+        def parent = [getMarshaller: { o -> o instanceof Number ? numbers : null },
+                      getOrderedObjectMarshallers: { [] },
+                      isPrettyPrint: { false },
+                      getCircularReferenceBehaviour: { null },
+                      getEncoding: { null }] as ConverterConfiguration
+        def cfg = new DefaultConverterConfiguration<JSON>(parent)
+        cfg.registerObjectMarshaller(strings)
+
+        assertSame strings, cfg.getMarshaller("one")
+        assertSame numbers, cfg.getMarshaller(1)
+        assertNull cfg.getMarshaller(new Date())
+    }
+
+    void testInvalidationDiscardsResolutionsOfAllClasses() {
+        def objects = new CountingMarshaller(type:Object)
+        def cfg = new DefaultConverterConfiguration<JSON>([objects])
+        cfg.getMarshaller("one")
+        cfg.getMarshaller(1)
+        cfg.getMarshaller(new Date())
+        assertEquals 3, cfg.@resolver.@resolutions.size()
+
+        ObjectMarshallerResolver.invalidateAll()
+        cfg.getMarshaller("two")
+
+        assertEquals 1, cfg.@resolver.@resolutions.size()
+    }
+
+    void testInstanceMethodBasedMarshallerIsAskedEveryTime() {
+        def instanceMethods = new InstanceMethodBasedMarshaller()
+        def objects = new CountingMarshaller(type:Object)
+        def cfg = new DefaultConverterConfiguration<JSON>([instanceMethods, objects])
+
+        assertSame objects, cfg.getMarshaller(new LateToJSONBook())
+        try {
+            LateToJSONBook.metaClass.toJSON = { JSON converter -> }
+            assertSame instanceMethods, cfg.getMarshaller(new LateToJSONBook())
+        }
+        finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(LateToJSONBook)
+        }
+    }
+}
+
+class CountingMarshaller implements ObjectMarshaller<JSON>, ClassBasedMarshaller {
+    Class type
+    int supportsCalls
+
+    boolean supports(Object object) {
+        supportsCalls++
+        return type.isInstance(object)
+    }
+
+    void marshalObject(Object object, JSON converter) {}
+}
+
+class EmptyStringMarshaller implements ObjectMarshaller<JSON> {
+    int supportsCalls
+
+    boolean supports(Object object) {
+        supportsCalls++
+        return object == ""
+    }
+
+    void marshalObject(Object object, JSON converter) {}
+}
+
+class LateToJSONBook {
+    String title
+}
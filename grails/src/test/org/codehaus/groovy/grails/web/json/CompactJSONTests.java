@@ -0,0 +1,154 @@
+package org.codehaus.groovy.grails.web.json;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests for the compact representation of parsed JSONObjects and JSONArrays
+ *
+ * @since 1.2
+ */
+public class CompactJSONTests extends TestCase {
+
+    public void testObjectsWithSameKeysShareKeys() throws Exception {
+        JSONArray array = new JSONArray("[{\"id\":1,\"title\":\"The Stand\"},{\"id\":2,\"title\":\"It\"}]");
+        JSONObject first = array.getJSONObject(0);
+        JSONObject second = array.getJSONObject(1);
+
+        assertEquals(1, first.getInt("id"));
+        assertEquals("It", second.getString("title"));
+        assertTrue(first.has("title"));
+        assertFalse(first.has("author"));
+        assertNull(first.opt("author"));
+
+        Iterator firstKeys = first.keys();
+        Iterator secondKeys = second.keys();
+        assertSame(firstKeys.next(), secondKeys.next());
+        assertSame(firstKeys.next(), secondKeys.next());
+    }
+
+    public void testLongStringsAreReadAsStrings() throws Exception {
+        JSONObject json = new JSONObject("{\"description\":\"a rather long description\",\"escaped\":\"line one\\nline two\"}");
+
+        assertEquals("a rather long description", json.get("description"));
+        assertEquals("line one\nline two", json.get("escaped"));
+        for (Object o : json.entrySet()) {
+            assertTrue(((Map.Entry) o).getValue() instanceof String);
+        }
+        assertEquals(json, new JSONObject(json.toString()));
+    }
+
+    public void testParsedObjectCanBeModified() throws Exception {
+        JSONObject json = new JSONObject("{\"id\":1,\"title\":\"The Stand\"}");
+        json.put("title", "It");
+        json.put("pages", 1138);
+        json.remove("id");
+
+        Map expected = new HashMap();
+        expected.put("title", "It");
+        expected.put("pages", 1138);
+        assertEquals(expected, new HashMap(json));
+
+        json.clear();
+        assertTrue(json.isEmpty());
+    }
+
+    public void testEntryValuesCanBeReplaced() throws Exception {
+        JSONObject json = new JSONObject("{\"id\":1,\"title\":\"The Stand\"}");
+        for (Object o : json.entrySet()) {
+            Map.Entry entry = (Map.Entry) o;
+            if ("title".equals(entry.getKey())) entry.setValue("It");
+        }
+        assertEquals("It", json.getString("title"));
+    }
+
+    public void testKeysCanBeRemovedThroughKeySet() throws Exception {
+        JSONObject json = new JSONObject("{\"id\":1,\"title\":\"The Stand\",\"author\":\"Stephen King\"}");
+        Set keys = json.keySet();
+        assertTrue(keys.remove("id"));
+        assertFalse(keys.remove("pages"));
+
+        assertEquals(2, json.length());
+        assertFalse(json.has("id"));
+        assertEquals(2, keys.size());
+        assertEquals("The Stand", json.getString("title"));
+    }
+
+    public void testEntriesCanBeRemovedThroughEntrySetIterator() throws Exception {
+        JSONObject json = new JSONObject("{\"id\":1,\"title\":\"The Stand\",\"author\":\"Stephen King\"}");
+        Set entries = json.entrySet();
+        List seen = new ArrayList();
+        for (Iterator i = entries.iterator(); i.hasNext();) {
+            Map.Entry entry = (Map.Entry) i.next();
+            seen.add(entry.getKey());
+            if ("title".equals(entry.getKey())) {
+                i.remove();
+            }
+            else if ("author".equals(entry.getKey())) {
+                entry.setValue("King");
+            }
+        }
+
+        assertEquals(3, seen.size());
+        assertEquals(2, entries.size());
+        assertFalse(json.has("title"));
+        assertEquals("King", json.getString("author"));
+        assertEquals(1, json.getInt("id"));
+    }
+
+    public void testKeysCanBeRemovedThroughKeysIterator() throws Exception {
+        JSONObject json = new JSONObject("{\"id\":1,\"title\":\"The Stand\"}");
+        for (Iterator i = json.keys(); i.hasNext();) {
+            i.next();
+            i.remove();
+        }
+        assertEquals(0, json.length());
+        assertTrue(json.isEmpty());
+        assertEquals("{}", json.toString());
+    }
+
+    public void testDuplicateKeysLastValueWins() throws Exception {
+        JSONObject json = new JSONObject("{\"id\":1,\"id\":2}");
+        assertEquals(1, json.length());
+        assertEquals(2, json.getInt("id"));
+    }
+
+    public void testNumericArrays() throws Exception {
+        JSONArray ints = new JSONArray("[1,2,3,4,5000000000]");
+        assertEquals(new Integer(1), ints.get(0));
+        assertEquals(new Long(5000000000L), ints.get(4));
+        assertEquals("[1,2,3,4,5000000000]", ints.toString());
+
+        JSONArray doubles = new JSONArray("[1.5,2.5,3.5,4.5]");
+        assertEquals(new Double(2.5), doubles.get(1));
+
+        JSONArray mixed = new JSONArray("[1,2.5,3,4]");
+        assertEquals(new Integer(1), mixed.get(0));
+        assertEquals(new Double(2.5), mixed.get(1));
+    }
+
+    public void testNumericArrayCanBeModified() throws Exception {
+        JSONArray array = new JSONArray("[1,2,3,4]");
+        array.remove(0);
+        assertEquals(3, array.length());
+        assertEquals(new Integer(2), array.get(0));
+
+        array.put("five");
+        array.set(0, "two");
+        assertEquals("[\"two\",3,4,\"five\"]", array.toString());
+    }
+
+    public void testNumericArraySubListCanBeModified() throws Exception {
+        JSONArray array = new JSONArray("[1,2,3,4]");
+        List sub = array.subList(1, 3);
+        sub.set(0, "two");
+        sub.add("five");
+        assertEquals("[1,\"two\",3,\"five\",4]", array.toString());
+    }
+}
@@ -0,0 +1,115 @@
+/* Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.metaclass
+
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.mock.web.MockServletContext
+
+/**
+ * @since 1.2
+ */
+class WithCacheHeadersMethodTests extends GroovyTestCase {
+
+    void testClosureCalledAndHeadersSetWithoutConditionalHeaders() {
+        def webRequest = createWebRequest()
+        def lastUpdated = new Date(10000)
+
+        def result = new WithCacheHeadersMethod().withCacheHeaders(webRequest, [etag: '"v1"', lastModified: lastUpdated]) {
+            [book: "The Stand"]
+        }
+
+        assertEquals([book: "The Stand"], result)
+        assertEquals '"v1"', webRequest.currentResponse.getHeader("ETag")
+        assertEquals 10000L, webRequest.currentResponse.getHeader("Last-Modified")
+        assertTrue webRequest.renderView
+    }
+
+    void testMatchingETagSendsNotModified() {
+        def webRequest = createWebRequest()
+        webRequest.currentRequest.addHeader("If-None-Match", '"v1"')
+
+        def result = new WithCacheHeadersMethod().withCacheHeaders(webRequest, [etag: '"v1"']) {
+            fail "closure should not be called"
+        }
+
+        assertNull result
+        assertEquals 304, webRequest.currentResponse.status
+        assertFalse webRequest.renderView
+    }
+
+    void testChangedETagIgnoresIfModifiedSince() {
+        def webRequest = createWebRequest()
+        webRequest.currentRequest.addHeader("If-None-Match", '"v1"')
+        webRequest.currentRequest.addHeader("If-Modified-Since", new Date(20000))
+
+        def result = new WithCacheHeadersMethod().withCacheHeaders(webRequest, [etag: '"v2"', lastModified: 10000L]) {
+            "rendered"
+        }
+
+        assertEquals "rendered", result
+        assertEquals 200, webRequest.currentResponse.status
+    }
+
+    void testLastModifiedSendsNotModified() {
+        def webRequest = createWebRequest()
+        webRequest.currentRequest.addHeader("If-Modified-Since", new Date(20000))
+
+        def called = false
+        new WithCacheHeadersMethod().withCacheHeaders(webRequest, [lastModified: { new Date(15000) }]) {
+            called = true
+        }
+
+        assertFalse called
+        assertEquals 304, webRequest.currentResponse.status
+    }
+
+    void testValuesTurnedIntoWeakETag() {
+        def webRequest = createWebRequest()
+
+        new WithCacheHeadersMethod().withCacheHeaders(webRequest, [etag: [1, 2]]) {}
+        def etag = webRequest.currentResponse.getHeader("ETag")
+        assertTrue etag.startsWith('W/"')
+
+        def second = createWebRequest()
+        second.currentRequest.addHeader("If-None-Match", etag)
+        new WithCacheHeadersMethod().withCacheHeaders(second, [etag: [1, 2]]) {
+            fail "closure should not be called"
+        }
+        assertEquals 304, second.currentResponse.status
+    }
+
+    void testChangedValuesCallClosure() {
+        def webRequest = createWebRequest()
+        new WithCacheHeadersMethod().withCacheHeaders(webRequest, [etag: [1, 2]]) {}
+        def etag = webRequest.currentResponse.getHeader("ETag")
+
+        def second = createWebRequest()
+        second.currentRequest.addHeader("If-None-Match", etag)
+        def result = new WithCacheHeadersMethod().withCacheHeaders(second, [etag: [1, 3]]) {
+            "rendered"
+        }
+
+        assertEquals "rendered", result
+        assertEquals 200, second.currentResponse.status
+        assertFalse etag == second.currentResponse.getHeader("ETag")
+        assertTrue second.renderView
+    }
+
+    private createWebRequest() {
+        new GrailsWebRequest(new MockHttpServletRequest("GET", "/book/show"), new MockHttpServletResponse(), new MockServletContext())
+    }
+}
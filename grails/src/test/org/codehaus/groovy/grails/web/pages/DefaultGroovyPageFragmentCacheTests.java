@@ -0,0 +1,81 @@
+package org.codehaus.groovy.grails.web.pages;
+
+import junit.framework.TestCase;
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Tests for the DefaultGroovyPageFragmentCache class
+ *
+ * @since 1.2
+ */
+public class DefaultGroovyPageFragmentCacheTests extends TestCase {
+
+    public void testCachedFragmentCanBeReplayedRepeatedly() throws IOException {
+        DefaultGroovyPageFragmentCache cache = new DefaultGroovyPageFragmentCache();
+        cache.put("menu", fragment("<ul><li>Home</li></ul>"), 0);
+
+        for (int i = 0; i < 3; i++) {
+            StringWriter out = new StringWriter();
+            cache.get("menu").replayTo(out);
+            assertEquals("<ul><li>Home</li></ul>", out.toString());
+        }
+        assertEquals(3, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    public void testExpiredFragmentIsRemoved() throws Exception {
+        DefaultGroovyPageFragmentCache cache = new DefaultGroovyPageFragmentCache();
+        cache.put("menu", fragment("menu"), 1);
+        Thread.sleep(10);
+
+        assertNull(cache.get("menu"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getTotalChars());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    public void testLeastRecentlyUsedFragmentsEvictedWhenFull() throws IOException {
+        DefaultGroovyPageFragmentCache cache = new DefaultGroovyPageFragmentCache();
+        cache.setMaxChars(10);
+        cache.put("a", fragment("aaaa"), 0);
+        cache.put("b", fragment("bbbb"), 0);
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", fragment("cccc"), 0);
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getTotalChars());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+
+        cache.put("big", fragment("this is too big to cache"), 0);
+        assertNull(cache.get("big"));
+        assertEquals(2, cache.size());
+    }
+
+    public void testInvalidateByKeyPrefix() throws IOException {
+        DefaultGroovyPageFragmentCache cache = new DefaultGroovyPageFragmentCache();
+        cache.put("book.list", fragment("list"), 0);
+        cache.put("book.show.1", fragment("show"), 0);
+        cache.put("author.list", fragment("list"), 0);
+
+        assertEquals(2, cache.invalidate("book."));
+        assertEquals(1, cache.size());
+        assertEquals(4, cache.getTotalChars());
+        assertNotNull(cache.get("author.list"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getTotalChars());
+    }
+
+    private StreamCharBuffer fragment(String content) throws IOException {
+        StreamCharBuffer buffer = new StreamCharBuffer();
+        buffer.getWriter().write(content);
+        return buffer;
+    }
+}
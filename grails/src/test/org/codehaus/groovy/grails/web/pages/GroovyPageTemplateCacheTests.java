@@ -0,0 +1,138 @@
+package org.codehaus.groovy.grails.web.pages;
+
+import groovy.lang.Writable;
+import groovy.text.Template;
+import junit.framework.TestCase;
+
+import java.util.Map;
+
+/**
+ * Tests for the GroovyPageTemplateCache class
+ *
+ * @since 1.2
+ */
+public class GroovyPageTemplateCacheTests extends TestCase {
+
+    public void testLeastRecentlyUsedTemplateIsEvicted() {
+        GroovyPageTemplateCache cache = new GroovyPageTemplateCache(2);
+        Template one = new DummyTemplate();
+        Template two = new DummyTemplate();
+        Template three = new DummyTemplate();
+
+        cache.put("/book/_one.gsp", one);
+        cache.put("/book/_two.gsp", two);
+        assertSame(one, cache.get("/book/_one.gsp"));
+
+        cache.put("/book/_three.gsp", three);
+
+        assertEquals(2, cache.size());
+        assertSame(one, cache.get("/book/_one.gsp"));
+        assertNull(cache.get("/book/_two.gsp"));
+        assertSame(three, cache.get("/book/_three.gsp"));
+    }
+
+    public void testTemplatesFromDifferentPluginsDoNotCollide() {
+        GroovyPageTemplateCache cache = new GroovyPageTemplateCache();
+        Template fromApp = new DummyTemplate();
+        Template fromPlugin = new DummyTemplate();
+
+        cache.put("/book/_book.gsp", fromApp);
+        cache.put("/plugins/foo-0.1/book/_book.gsp", fromPlugin);
+
+        assertSame(fromApp, cache.get("/book/_book.gsp"));
+        assertSame(fromPlugin, cache.get("/plugins/foo-0.1/book/_book.gsp"));
+    }
+
+    public void testMetrics() {
+        GroovyPageTemplateCache cache = new GroovyPageTemplateCache();
+        assertEquals(0d, cache.getHitRate(), 0d);
+
+        cache.put("/book/_book.gsp", new DummyTemplate());
+        cache.get("/book/_book.gsp");
+        cache.get("/book/_book.gsp");
+        cache.get("/book/_author.gsp");
+        cache.get("/book/_author.gsp");
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.5d, cache.getHitRate(), 0.0001d);
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    public void testShrinkingMaxSizeEvicts() {
+        GroovyPageTemplateCache cache = new GroovyPageTemplateCache(3);
+        cache.put("a", new DummyTemplate());
+        cache.put("b", new DummyTemplate());
+        cache.put("c", new DummyTemplate());
+
+        cache.setMaxSize(1);
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("c"));
+    }
+
+    public void testOverflowEvictsOldestInBatch() {
+        GroovyPageTemplateCache cache = new GroovyPageTemplateCache(20);
+        for (int i = 0; i < 20; i++) {
+            cache.put("t" + i, new DummyTemplate());
+        }
+        assertNotNull(cache.get("t0"));
+
+        cache.put("t20", new DummyTemplate());
+
+        assertEquals(18, cache.size());
+        assertNotNull(cache.get("t0"));
+        assertNull(cache.get("t1"));
+        assertNull(cache.get("t2"));
+        assertNull(cache.get("t3"));
+        assertNotNull(cache.get("t4"));
+        assertNotNull(cache.get("t20"));
+    }
+
+    public void testConcurrentAccessStaysBounded() throws Exception {
+        final GroovyPageTemplateCache cache = new GroovyPageTemplateCache(50);
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 1000;
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 1000; i++) {
+                            String key = "/t" + ((offset + i) % 200);
+                            if(cache.get(key) == null) {
+                                cache.put(key, new DummyTemplate());
+                            }
+                        }
+                    }
+                    catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure[0]);
+        // eviction is skipped while another thread holds the lock, the next put catches up
+        cache.put("/last", new DummyTemplate());
+        assertTrue(cache.size() <= 50);
+        assertEquals(8000, cache.getHitCount() + cache.getMissCount());
+    }
+
+    private static class DummyTemplate implements Template {
+        public Writable make() {
+            return null;
+        }
+
+        public Writable make(Map binding) {
+            return null;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package org.codehaus.groovy.grails.web.pages;
 
+import groovy.lang.GroovyClassLoader;
 import groovy.util.ConfigObject;
 import groovy.util.ConfigSlurper;
 import junit.framework.TestCase;
 
 import org.apache.commons.io.IOUtils;
+import org.codehaus.groovy.grails.commons.ApplicationHolder;
 import org.codehaus.groovy.grails.commons.ConfigurationHolder;
+import org.codehaus.groovy.grails.commons.DefaultGrailsApplication;
+import org.codehaus.groovy.grails.plugins.codecs.Base64Codec;
+import org.codehaus.groovy.grails.plugins.codecs.HTMLCodec;
 import org.codehaus.groovy.grails.web.taglib.exceptions.GrailsTagException;
 
 import java.io.*;
@@ -37,7 +42,13 @@ public class ParseTests extends TestCase {
 			+ "\tthis.jspTags = JSP_TAGS\n"
 			+ "}\n"
 			+ "public static final String CONTENT_TYPE = 'text/html;charset=UTF-8'\n"
-			+ "public static final long LAST_MODIFIED = 0L\n" + "}\n";
+			+ "public static final long LAST_MODIFIED = 0L\n"
+			+ "public static final boolean LAYOUT_DIRECTIVE = false\n" + "}\n";
+
+	/**
+	 * The footer of pages with dynamic output before the end of their head, which may declare a layout
+	 */
+	protected static final String DYNAMIC_GSP_FOOTER = GSP_FOOTER.replace("LAYOUT_DIRECTIVE = false", "LAYOUT_DIRECTIVE = true");
 
     protected String makeImports() {
         StringBuffer result = new StringBuffer();
@@ -85,7 +96,7 @@ public class ParseTests extends TestCase {
 
             "attrs1 = [\"code\":evaluate('\"[\"', 1, it) { return \"[\" }]\n" +
             "invokeTag('message','g',1,attrs1,null)\n"+
-			"}\n" + GSP_FOOTER;
+			"}\n" + DYNAMIC_GSP_FOOTER;
 
 		assertEquals(trimAndRemoveCR(expected), trimAndRemoveCR(output));
 	}
@@ -218,6 +229,59 @@ public class ParseTests extends TestCase {
         assertTrue( "should have call to tag with 'tt' namespace", output.indexOf("invokeTag('form','tt',2,[:],null)") > -1);
  	}
 
+    public void testParseDetectsLayoutDirective() throws Exception {
+        ParsedResult result = parseCode("myTest8", "<html><head><meta name=\"layout\" content=\"main\" /></head><body>hi</body></html>");
+        assertTrue("should have detected the layout directive", result.parser.isLayoutDirective());
+        assertTrue(result.generatedGsp.indexOf("public static final boolean LAYOUT_DIRECTIVE = true") > -1);
+
+        result = parseCode("myTest9", "<html><head><meta content=\"${layoutName}\" name='layout'></head></html>");
+        assertTrue("should have detected the layout directive", result.parser.isLayoutDirective());
+
+        result = parseCode("myTest10", "<html><head><title>No layout</title></head><body>${report}</body></html>");
+        assertFalse("should not have detected a layout directive", result.parser.isLayoutDirective());
+
+        result = parseCode("myTest11", "<html><body><g:render template=\"menu\" /></body></html>");
+        assertFalse("should not have detected a layout directive", result.parser.isLayoutDirective());
+    }
+
+    public void testParseDynamicHeadMayDeclareLayout() throws Exception {
+        ParsedResult result = parseCode("myTest12", "<html><head><g:render template=\"meta\" /></head><body>hi</body></html>");
+        assertTrue("a template rendered in the head may declare a layout", result.parser.isLayoutDirective());
+
+        result = parseCode("myTest13", "<html><head><title>${title}</title></head><body>hi</body></html>");
+        assertTrue("an expression in the head may output a layout directive", result.parser.isLayoutDirective());
+
+        result = parseCode("myTest14", "<g:render template=\"header\" /><body>hi</body></html>");
+        assertTrue("a template may render the whole head", result.parser.isLayoutDirective());
+        assertTrue(result.generatedGsp.indexOf("public static final boolean LAYOUT_DIRECTIVE = true") > -1);
+    }
+
+    public void testParseEncodesExpressionsIntoTheWriterWithStreamingCodec() throws Exception {
+        String output = parseCodeWithCodec("HTML", "myTest15", "<p>${title}</p>").generatedGsp;
+        assertTrue("should encode straight into the writer", output.indexOf("Codec.encode(title, out)") > -1);
+        assertEquals(-1, output.indexOf("out.print(Codec.encode(title))"));
+    }
+
+    public void testParseFallsBackToEncodedStringWithoutStreamingEncode() throws Exception {
+        String output = parseCodeWithCodec("Base64", "myTest16", "<p>${title}</p>").generatedGsp;
+        assertTrue("should print the encoded string", output.indexOf("out.print(Codec.encode(title))") > -1);
+        assertEquals(-1, output.indexOf("Codec.encode(title, out)"));
+    }
+
+    private ParsedResult parseCodeWithCodec(String codec, String uri, String gsp) throws IOException {
+        ConfigurationHolder.setConfig(new ConfigSlurper().parse("grails.views.default.codec = \"" + codec + "\""));
+        DefaultGrailsApplication application = new DefaultGrailsApplication(new Class[] { HTMLCodec.class, Base64Codec.class }, new GroovyClassLoader());
+        application.initialise();
+        ApplicationHolder.setApplication(application);
+        try {
+            return parseCode(uri, gsp);
+        }
+        finally {
+            ApplicationHolder.setApplication(null);
+            ConfigurationHolder.setConfig(null);
+        }
+    }
+
     public void testParseWithWhitespaceNotEaten() throws Exception {
         String expected = makeImports() +
             "\n" +
@@ -232,7 +296,7 @@ public class ParseTests extends TestCase {
             "out.print(htmlParts[0])\n" +
             "out.print(evaluate('uri', 3, it) { return uri })\n"+
             "out.print(htmlParts[1])\n" +
-            "}\n" + GSP_FOOTER;
+            "}\n" + DYNAMIC_GSP_FOOTER;
 
 
         ParsedResult output = parseCode("myTest7",
@@ -39,6 +39,30 @@ class GroovyPageViewTests extends GroovyTestCase {
         assertEquals "successbar", webRequest.currentResponse.contentAsString
     }
 
+    void testConditionalGetAlwaysRendersPage() {
+        def webRequest = GrailsWebUtil.bindMockWebRequest()
+        webRequest.currentRequest.method = "GET"
+        webRequest.currentRequest.addHeader("If-None-Match", '*')
+
+        def rl = new MockStringResourceLoader()
+        def url = "/WEB-INF/grails-apps/views/test.gsp"
+        rl.registerMockResource(url, "<%='success'+foo%>")
+
+        def ctx = new MockApplicationContext()
+        ctx.registerMockBean(GroovyPagesTemplateEngine.BEAN_ID, new GroovyPagesTemplateEngine(new MockServletContext(rl)))
+
+        def view = new GroovyPageView()
+        view.url = url
+        view.applicationContext = ctx
+
+        // the page's output isn't known before rendering, so it is never answered with 304
+        view.render([foo:"bar"], webRequest.currentRequest, webRequest.currentResponse)
+
+        assertEquals 200, webRequest.currentResponse.status
+        assertNull webRequest.currentResponse.getHeader("ETag")
+        assertEquals "successbar", webRequest.currentResponse.contentAsString
+    }
+
     void tearDown() {
          RequestContextHolder.setRequestAttributes(null)
     }
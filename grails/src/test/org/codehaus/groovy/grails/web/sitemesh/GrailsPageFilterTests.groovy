@@ -0,0 +1,91 @@
+package org.codehaus.groovy.grails.web.sitemesh
+
+import com.opensymphony.module.sitemesh.Config
+import com.opensymphony.module.sitemesh.DecoratorMapper
+import com.opensymphony.sitemesh.ContentProcessor
+import com.opensymphony.sitemesh.webapp.SiteMeshWebAppContext
+import grails.util.GrailsWebUtil
+import org.codehaus.groovy.grails.plugins.DefaultPluginMetaManager
+import org.codehaus.groovy.grails.plugins.PluginMetaManager
+import org.codehaus.groovy.grails.support.MockApplicationContext
+import org.codehaus.groovy.grails.web.pages.GroovyPageParser
+import org.codehaus.groovy.grails.web.servlet.GrailsApplicationAttributes
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.mock.web.MockServletConfig
+import org.springframework.web.context.WebApplicationContext
+import org.springframework.web.context.request.RequestContextHolder
+
+/**
+ * Tests that GrailsPageFilter only streams pages that can never be decorated.
+ */
+class GrailsPageFilterTests extends GroovyTestCase {
+
+    def webRequest
+    def target
+    def bufferingResponse
+    def bufferedContent
+
+    protected void setUp() {
+        webRequest = GrailsWebUtil.bindMockWebRequest()
+
+        def appCtx = new MockApplicationContext()
+        appCtx.registerMockBean(PluginMetaManager.BEAN_ID, new DefaultPluginMetaManager())
+        webRequest.servletContext.setAttribute(GrailsApplicationAttributes.APPLICATION_CONTEXT, appCtx)
+        webRequest.servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, appCtx)
+
+        def mapper = new GrailsLayoutDecoratorMapper()
+        mapper.init(new Config(new MockServletConfig(webRequest.servletContext)), null, null)
+        FactoryHolder.setFactory(new DecoratorMapperFactory(decoratorMapper: mapper))
+
+        target = new MockHttpServletResponse()
+        def webAppContext = new SiteMeshWebAppContext(webRequest.currentRequest, target, webRequest.servletContext)
+        def contentProcessor = [handles: { true }, build: { data, context -> bufferedContent = new String(data); null }] as ContentProcessor
+        bufferingResponse = new GrailsContentBufferingResponse(target, contentProcessor, webAppContext)
+        bufferingResponse.contentType = "text/html"
+    }
+
+    protected void tearDown() {
+        RequestContextHolder.setRequestAttributes(null)
+        FactoryHolder.setFactory(null)
+    }
+
+    void testStaticHeadWithoutLayoutIsStreamed() {
+        def page = '<html><head><title>Static</title></head><body>${message}</body></html>'
+
+        assertTrue render(page)
+        assertEquals page, target.contentAsString
+        assertNull bufferingResponse.content
+    }
+
+    void testLayoutMetaIsBuffered() {
+        def page = '<html><head><meta name="layout" content="main"/></head><body>${message}</body></html>'
+
+        assertFalse render(page)
+        assertEquals "", target.contentAsString
+        bufferingResponse.content
+        assertEquals page, bufferedContent
+    }
+
+    void testDynamicHeadIsBuffered() {
+        def page = '<html><head><g:render template="meta"/></head><body>body</body></html>'
+
+        assertFalse render(page)
+        assertEquals "", target.contentAsString
+        bufferingResponse.content
+        assertEquals page, bufferedContent
+    }
+
+    private boolean render(String gsp) {
+        def parser = new GroovyPageParser("test", "test", new ByteArrayInputStream(gsp.getBytes("UTF-8")))
+        parser.parse()
+
+        boolean streamed = GrailsPageFilter.disableSiteMeshIfUndecorated(webRequest.currentRequest, bufferingResponse, parser.layoutDirective)
+        bufferingResponse.writer.write(gsp)
+        bufferingResponse.writer.flush()
+        return streamed
+    }
+}
+
+class DecoratorMapperFactory extends DummyFactory {
+    DecoratorMapper decoratorMapper
+}
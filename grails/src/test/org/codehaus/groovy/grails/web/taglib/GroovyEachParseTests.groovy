@@ -24,7 +24,7 @@ evaluate('"blah"', 2, it) { return "blah" }.each { t ->
 out.print(htmlParts[0])
 }
 out.print(htmlParts[0])
-}""" + GSP_FOOTER 
+}""" + DYNAMIC_GSP_FOOTER 
 ),trimAndRemoveCR(output.toString()) )
 		assertEquals("\n", output.htmlParts[0])
 	}
@@ -45,7 +45,7 @@ def response = binding.response
 out.print(htmlParts[0])
 evaluate('"blah"', 1, it) { return "blah" }.each { t ->
 }
-}""" + GSP_FOOTER
+}""" + DYNAMIC_GSP_FOOTER
 ),trimAndRemoveCR(output.toString()) )
 		assertEquals("\n", output.htmlParts[0])
     }
@@ -71,7 +71,7 @@ evaluate('"blah"', 2, it) { return "blah" }.eachWithIndex { t,i ->
 out.print(htmlParts[0])
 }
 out.print(htmlParts[0])
-}""" + GSP_FOOTER
+}""" + DYNAMIC_GSP_FOOTER
 ),trimAndRemoveCR(output.toString()) )
 		  assertEquals("\n", output.htmlParts[0])
 		}
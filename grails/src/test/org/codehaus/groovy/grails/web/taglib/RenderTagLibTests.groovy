@@ -20,6 +20,7 @@ import org.codehaus.groovy.grails.support.MockStringResourceLoader
 import com.opensymphony.module.sitemesh.RequestConstants
 import com.opensymphony.module.sitemesh.parser.TokenizedHTMLPage
 import com.opensymphony.module.sitemesh.html.util.CharArray;
+import org.codehaus.groovy.grails.web.pages.GroovyPageFragmentCache
 
 /**
  * Tests for the RenderTagLib.groovy file which contains tags for rendering
@@ -45,6 +46,21 @@ class RenderTagLibTests extends AbstractGrailsTagTests {
         assertOutputEquals " bar=\"good\"", template
     }
 
+    void testPaginateWithCursor() {
+        webRequest.controllerName = "book"
+        def template = '<g:paginate cursor="${cursor}" max="10" />'
+
+        def output = applyTemplate(template, [cursor:'abc'])
+        assertTrue output.contains('class="nextLink"')
+        assertTrue output.contains('after=abc')
+        assertFalse output.contains('firstLink')
+
+        webRequest.params.after = 'abc'
+        output = applyTemplate(template, [cursor:null])
+        assertTrue output.contains('class="firstLink"')
+        assertFalse output.contains('nextLink')
+    }
+
     void testTemplateNamespace() {
         def resourceLoader = new MockStringResourceLoader()
         resourceLoader.registerMockResource('/table/_tableRow.gsp', '<tr><td class="prop">${label}</td><td class="value">${value}</td></tr>')
@@ -86,6 +102,56 @@ class RenderTagLibTests extends AbstractGrailsTagTests {
 
         assertOutputEquals '[book = The Stand it=The Stand foo=bar][book = The Shining it=The Shining foo=bar]', template, [books:['The Stand', 'The Shining']]
     }
+
+    void testRenderTagCollectionWithVarDoesNotLeakBetweenElements() {
+        def resourceLoader = new MockStringResourceLoader()
+        resourceLoader.registerMockResource('/book/_book.gsp', '[${book}:${seen ?: "none"}]<g:set var="seen" value="${book}" />')
+        appCtx.groovyPagesTemplateEngine.resourceLoader = resourceLoader
+
+        def template = '<g:render template="/book/book" collection="${books}" var="book" />'
+
+        assertOutputEquals '[The Stand:none][The Shining:none][It:none]', template, [books:['The Stand', 'The Shining', 'It']]
+    }
+
+    void testCacheTagReplaysCachedBody() {
+        def fragmentCache = appCtx.groovyPageFragmentCache
+        fragmentCache.clear()
+
+        def template = '<g:cache key="book.title">${title}</g:cache>'
+
+        assertOutputEquals 'The Stand', template, [title:'The Stand']
+        assertOutputEquals 'The Stand', template, [title:'The Shining']
+
+        assertEquals 1, fragmentCache.invalidate('book.')
+        assertOutputEquals 'The Shining', template, [title:'The Shining']
+    }
+
+    void testSessionScopedCacheWithoutSessionDoesNotCreateOne() {
+        def template = '<g:cache key="cart" scope="session">${title}</g:cache>'
+
+        assertOutputEquals 'The Stand', template, [title:'The Stand']
+        assertOutputEquals 'The Shining', template, [title:'The Shining']
+        assertNull request.getSession(false)
+    }
+
+    void testSessionScopedCacheIsHeldInSession() {
+        def fragmentCache = appCtx.groovyPageFragmentCache
+        fragmentCache.clear()
+        def session = request.getSession(true)
+
+        def template = '<g:cache key="cart" scope="session">${title}</g:cache>'
+
+        assertOutputEquals 'The Stand', template, [title:'The Stand']
+        assertOutputEquals 'The Stand', template, [title:'The Shining']
+
+        assertEquals 0, fragmentCache.size()
+        def sessionCache = session.getAttribute(GroovyPageFragmentCache.SESSION_ATTRIBUTE)
+        assertEquals 1, sessionCache.size()
+
+        request.session = null
+        assertOutputEquals 'The Shining', template, [title:'The Shining']
+    }
+
     void testRenderTagBeforeAndAfterModel() {
 
         def resourceLoader = new MockStringResourceLoader()
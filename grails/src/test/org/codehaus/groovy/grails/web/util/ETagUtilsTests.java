@@ -0,0 +1,87 @@
+package org.codehaus.groovy.grails.web.util;
+
+import junit.framework.TestCase;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Tests for the ETagUtils class
+ *
+ * @since 1.2
+ */
+public class ETagUtilsTests extends TestCase {
+
+    public void testDigestWriterPassesContentThrough() throws Exception {
+        StringWriter target = new StringWriter();
+        ETagUtils.DigestWriter writer = new ETagUtils.DigestWriter(target);
+        writer.write("{\"title\":");
+        writer.write("\"The Stand\"}".toCharArray());
+
+        String etag = writer.getETag();
+        assertEquals("{\"title\":\"The Stand\"}", target.toString());
+        assertTrue(etag.matches("\"[0-9a-f]{32}\""));
+
+        ETagUtils.DigestWriter same = new ETagUtils.DigestWriter();
+        same.write("{\"title\":\"The Stand\"}");
+        assertEquals(etag, same.getETag());
+
+        ETagUtils.DigestWriter different = new ETagUtils.DigestWriter();
+        different.write("{\"title\":\"It\"}");
+        assertFalse(etag.equals(different.getETag()));
+    }
+
+    public void testWeakETagDependsOnValidators() {
+        Date date = new Date(1000);
+        String etag = ETagUtils.createWeakETag("/book/show", date, Arrays.asList("a", "b"));
+
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(etag, ETagUtils.createWeakETag("/book/show", new Date(1000), Arrays.asList("a", "b")));
+        assertFalse(etag.equals(ETagUtils.createWeakETag("/book/show", new Date(2000), Arrays.asList("a", "b"))));
+        assertFalse(etag.equals(ETagUtils.createWeakETag("/book/show", date, Arrays.asList("a", "c"))));
+    }
+
+    public void testMatchesIfNoneMatch() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/book/show");
+        assertFalse(ETagUtils.matchesIfNoneMatch(request, "\"abc\""));
+
+        request.addHeader("If-None-Match", "\"xyz\", W/\"abc\"");
+        assertTrue(ETagUtils.matchesIfNoneMatch(request, "\"abc\""));
+        assertFalse(ETagUtils.matchesIfNoneMatch(request, "\"def\""));
+
+        MockHttpServletRequest any = new MockHttpServletRequest("GET", "/book/show");
+        any.addHeader("If-None-Match", "*");
+        assertTrue(ETagUtils.matchesIfNoneMatch(any, "\"def\""));
+    }
+
+    public void testCheckNotModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/book/show");
+        request.addHeader("If-None-Match", "\"abc\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(ETagUtils.checkNotModified(request, response, "\"abc\""));
+        assertEquals(304, response.getStatus());
+        assertEquals("\"abc\"", response.getHeader("ETag"));
+
+        MockHttpServletResponse changed = new MockHttpServletResponse();
+        assertFalse(ETagUtils.checkNotModified(request, changed, "\"def\""));
+        assertEquals(200, changed.getStatus());
+        assertEquals("\"def\"", changed.getHeader("ETag"));
+
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/book/save");
+        post.addHeader("If-None-Match", "\"abc\"");
+        assertFalse(ETagUtils.checkNotModified(post, new MockHttpServletResponse(), "\"abc\""));
+    }
+
+    public void testMatchesIfModifiedSince() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/book/show");
+        assertFalse(ETagUtils.matchesIfModifiedSince(request, 1000));
+
+        request.addHeader("If-Modified-Since", new Date(5000));
+        assertTrue(ETagUtils.matchesIfModifiedSince(request, 5500));
+        assertFalse(ETagUtils.matchesIfModifiedSince(request, 6000));
+    }
+}
@@ -180,6 +180,24 @@ public class StreamCharBufferTest extends TestCase {
 		assertEquals(0, charBuffer.size());
 	}
 
+	public void testReplayTo() throws IOException {
+		StreamCharBuffer charBuffer = new StreamCharBuffer(10);
+		charBuffer.setStringChunkMinSize(0);
+		Writer writer=charBuffer.getWriter();
+		writer.write("ABCDE");
+		writer.write("12345".toCharArray());
+		writer.write("ABCDE");
+		writer.write("ABCDE");
+		writer.write("67890".toCharArray());
+		writer.close();
+		for (int i = 0; i < 3; i++) {
+			StringWriter sw=new StringWriter();
+			charBuffer.replayTo(sw);
+			assertEquals("ABCDE12345ABCDEABCDE67890", sw.toString());
+			assertEquals(25, charBuffer.size());
+		}
+	}
+
 	public void testStringCharArraysWriteTo2() throws IOException {
 		StreamCharBuffer charBuffer = new StreamCharBuffer();
 		charBuffer.setStringChunkMinSize(10000);
@@ -0,0 +1,155 @@
+package org.codehaus.groovy.grails.web.util;
+
+import junit.framework.TestCase;
+import org.codehaus.groovy.grails.web.json.JSONWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests for the UTF8StreamWriter class
+ *
+ * @since 1.2
+ */
+public class UTF8StreamWriterTests extends TestCase {
+
+    public void testEncodesLikeTheJdk() throws Exception {
+        Random random = new Random(42);
+        char[] alphabet = "abc{}\":,0123456789\u00e4\u00f6\u20ac\ud83d\ude00".toCharArray();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        // keep surrogate pairs intact
+        String text = sb.toString().replaceAll("\ud83d(?!\ude00)", "x").replaceAll("(?<!\ud83d)\ude00", "y");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8StreamWriter writer = new UTF8StreamWriter(out);
+        int pos = 0;
+        while (pos < text.length()) {
+            int len = Math.min(text.length() - pos, random.nextInt(100));
+            if (len % 3 == 0) {
+                writer.write(text.toCharArray(), pos, len);
+            } else if (len == 1) {
+                writer.write(text.charAt(pos));
+            } else {
+                writer.write(text, pos, len);
+            }
+            pos += len;
+        }
+        writer.close();
+
+        assertTrue(Arrays.equals(text.getBytes("UTF-8"), out.toByteArray()));
+    }
+
+    public void testUnpairedSurrogatesAreReplaced() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8StreamWriter writer = new UTF8StreamWriter(out);
+        writer.write("a\ud83db\ude00c\ud83d");
+        writer.close();
+
+        assertEquals("a?b?c?", out.toString("UTF-8"));
+    }
+
+    public void testPreEncodedBytes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8StreamWriter writer = new UTF8StreamWriter(out);
+        writer.write("{");
+        writer.writeBytes("\"class\":".getBytes("UTF-8"));
+        writer.write("\"Book\"}");
+        writer.flush();
+
+        assertEquals("{\"class\":\"Book\"}", out.toString("UTF-8"));
+    }
+
+    public void testUnpairedSurrogateBeforePreEncodedBytes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8StreamWriter writer = new UTF8StreamWriter(out);
+        writer.write("a\ud83d");
+        writer.writeBytes("b".getBytes("UTF-8"));
+        writer.close();
+
+        assertEquals("a?b", out.toString("UTF-8"));
+    }
+
+    public void testBlockIsReleasedWhenCloseFails() throws Exception {
+        UTF8StreamWriter writer = new UTF8StreamWriter(new ByteArrayOutputStream() {
+            public void close() throws IOException {
+                throw new IOException("client went away");
+            }
+        });
+        writer.write("a");
+        try {
+            writer.close();
+            fail("should have thrown an IOException");
+        }
+        catch (IOException e) {
+            // expected
+        }
+        assertWriterReleased(writer);
+    }
+
+    public void testReleaseDiscardsWriter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8StreamWriter writer = new UTF8StreamWriter(out);
+        writer.write("a");
+        writer.release();
+        writer.release();
+        writer.close();
+
+        assertEquals(0, out.size());
+        assertWriterReleased(writer);
+    }
+
+    private void assertWriterReleased(UTF8StreamWriter writer) {
+        try {
+            writer.write("a");
+            fail("should have thrown an IOException");
+        }
+        catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testWritesLargeBlocks() throws Exception {
+        final int[] writes = new int[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            public synchronized void write(byte[] b, int off, int len) {
+                writes[0]++;
+                super.write(b, off, len);
+            }
+        };
+        UTF8StreamWriter writer = new UTF8StreamWriter(out);
+        for (int i = 0; i < UTF8StreamWriter.BLOCK_SIZE; i++) {
+            writer.write("ab");
+        }
+        writer.close();
+
+        assertEquals(UTF8StreamWriter.BLOCK_SIZE * 2, out.size());
+        assertEquals(2, writes[0]);
+    }
+
+    public void testJSONWriterKeys() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8StreamWriter writer = new UTF8StreamWriter(out);
+        new JSONWriter(writer).object().key("class").value("Book").key("t\u00eftle").value("\u00c9mile").endObject();
+        writer.close();
+
+        assertEquals("{\"class\":\"Book\",\"t\u00eftle\":\"\u00c9mile\"}", out.toString("UTF-8"));
+    }
+
+    public void testWriterCantBeUsedAfterClose() throws Exception {
+        UTF8StreamWriter writer = new UTF8StreamWriter(new ByteArrayOutputStream());
+        writer.close();
+        writer.close();
+        try {
+            writer.write("a");
+            fail("should have thrown an IOException");
+        }
+        catch (java.io.IOException e) {
+            // expected
+        }
+    }
+}